@@ -0,0 +1,102 @@
+package de.andimoo5.math.benchmarks;
+
+import de.andimoo5.math.ComplexNumber;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the arithmetic and complex operations of {@link ComplexNumber}, in their static and in-place versions.
+ * The in-place benchmarks include resetting the target, see {@link Inputs#scratch()}.
+ *
+ * @author  Andras Martin Moosbauer
+ * @version 2.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArithmeticBenchmark {
+
+    //Arithmetic Operations:
+    @Benchmark
+    public ComplexNumber sum(Inputs in) {
+        return ComplexNumber.sum(in.z, in.w);
+    }
+
+    @Benchmark
+    public ComplexNumber add(Inputs in) {
+        ComplexNumber z = in.scratch();
+        z.add(in.w);
+        return z;
+    }
+
+    @Benchmark
+    public ComplexNumber diff(Inputs in) {
+        return ComplexNumber.diff(in.z, in.w);
+    }
+
+    @Benchmark
+    public ComplexNumber sub(Inputs in) {
+        ComplexNumber z = in.scratch();
+        z.sub(in.w);
+        return z;
+    }
+
+    @Benchmark
+    public ComplexNumber prod(Inputs in) {
+        return ComplexNumber.prod(in.z, in.w);
+    }
+
+    @Benchmark
+    public ComplexNumber mul(Inputs in) {
+        ComplexNumber z = in.scratch();
+        z.mul(in.w);
+        return z;
+    }
+
+    @Benchmark
+    public ComplexNumber division(Inputs in) {
+        return ComplexNumber.division(in.z, in.w);
+    }
+
+    @Benchmark
+    public ComplexNumber div(Inputs in) {
+        ComplexNumber z = in.scratch();
+        z.div(in.w);
+        return z;
+    }
+
+    //Complex Operations:
+    @Benchmark
+    public ComplexNumber conjugate(Inputs in) {
+        return ComplexNumber.conjugate(in.z);
+    }
+
+    @Benchmark
+    public double mod(Inputs in) {
+        return ComplexNumber.mod(in.z);
+    }
+
+    @Benchmark
+    public double arg(Inputs in) {
+        return ComplexNumber.arg(in.z);
+    }
+
+    @Benchmark
+    public ComplexNumber rcp(Inputs in) {
+        return ComplexNumber.rcp(in.w);
+    }
+
+    @Benchmark
+    public int compareTo(Inputs in) {
+        return in.z.compareTo(in.w);
+    }
+}
@@ -0,0 +1,82 @@
+package de.andimoo5.math.benchmarks;
+
+import de.andimoo5.math.ComplexFloatArray;
+import de.andimoo5.math.ComplexNumber;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the reductions and the element-wise division and modulus of {@link ComplexFloatArray}, which
+ * calculate in {@code double}. The forks run with the module {@code jdk.incubator.vector}; to measure the scalar
+ * loops instead, add {@code -jvmArgsAppend -Dde.andimoo5.math.vectorize=false} to the command line.
+ *
+ * @author  Andras Martin Moosbauer
+ * @version 2.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class FloatArrayBenchmark {
+
+    //Fits into the L2 cache, so the loops aren't bound by memory:
+    @Param({"16384"})
+    public int length;
+
+    private ComplexFloatArray a, b, dst;
+    private float[] mod;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        a = new ComplexFloatArray(length);
+        b = new ComplexFloatArray(length);
+        for(int i = 0; i < length; i++) {
+            a.set(i, (float)random.nextGaussian(), (float)random.nextGaussian());
+            b.set(i, (float)random.nextGaussian(), (float)random.nextGaussian());
+        }
+        dst = new ComplexFloatArray(length);
+        mod = new float[length];
+    }
+
+    //Reductions:
+    @Benchmark
+    public ComplexNumber sum() {
+        return a.sum();
+    }
+
+    @Benchmark
+    public ComplexNumber dot() {
+        return a.dot(b);
+    }
+
+    @Benchmark
+    public double norm() {
+        return a.norm();
+    }
+
+    //Element-wise Operations:
+    @Benchmark
+    public ComplexFloatArray division() {
+        return ComplexFloatArray.division(a, b, dst);
+    }
+
+    @Benchmark
+    public float[] mod() {
+        return ComplexFloatArray.mod(a, mod);
+    }
+}
@@ -0,0 +1,174 @@
+package de.andimoo5.math.benchmarks;
+
+import de.andimoo5.math.ComplexNumber;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the exponential, logarithmic and trigonometric functions of {@link ComplexNumber}, in their
+ * allocating and in-place versions.
+ *
+ * @author  Andras Martin Moosbauer
+ * @version 2.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FunctionBenchmark {
+
+    private static final int POWER = 8;
+
+    //Exponential and Logarithmic Functions:
+    @Benchmark
+    public ComplexNumber exp(Inputs in) {
+        return ComplexNumber.exp(in.z);
+    }
+
+    @Benchmark
+    public ComplexNumber log(Inputs in) {
+        return ComplexNumber.log(in.z);
+    }
+
+    @Benchmark
+    public ComplexNumber logBase(Inputs in) {
+        return ComplexNumber.log(in.z, 2);
+    }
+
+    @Benchmark
+    public ComplexNumber log10(Inputs in) {
+        return ComplexNumber.log10(in.z);
+    }
+
+    @Benchmark
+    public ComplexNumber pow(Inputs in) {
+        return ComplexNumber.pow(in.z, POWER);
+    }
+
+    @Benchmark
+    public ComplexNumber powReal(Inputs in) {
+        return ComplexNumber.pow(in.z, 2.5);
+    }
+
+    @Benchmark
+    public ComplexNumber powComplex(Inputs in) {
+        return ComplexNumber.pow(in.z, in.w);
+    }
+
+    @Benchmark
+    public ComplexNumber sqrt(Inputs in) {
+        return ComplexNumber.sqrt(in.z);
+    }
+
+    //Trigonometric Operations:
+    @Benchmark
+    public ComplexNumber sin(Inputs in) {
+        return ComplexNumber.sin(in.z);
+    }
+
+    @Benchmark
+    public ComplexNumber cos(Inputs in) {
+        return ComplexNumber.cos(in.z);
+    }
+
+    @Benchmark
+    public ComplexNumber tan(Inputs in) {
+        return ComplexNumber.tan(in.z);
+    }
+
+    @Benchmark
+    public ComplexNumber asin(Inputs in) {
+        return ComplexNumber.asin(in.z);
+    }
+
+    @Benchmark
+    public ComplexNumber acos(Inputs in) {
+        //acos divides by its argument, so the ZERO kind measures the cost of the exception:
+        try {
+            return ComplexNumber.acos(in.z);
+        } catch(ArithmeticException e) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public ComplexNumber atan(Inputs in) {
+        return ComplexNumber.atan(in.z);
+    }
+
+    //Allocation-free versions:
+    @Benchmark
+    public ComplexNumber expInPlace(Inputs in) {
+        ComplexNumber z = in.scratch();
+        z.expInPlace();
+        return z;
+    }
+
+    @Benchmark
+    public ComplexNumber logInPlace(Inputs in) {
+        ComplexNumber z = in.scratch();
+        z.logInPlace();
+        return z;
+    }
+
+    @Benchmark
+    public ComplexNumber sqrtInPlace(Inputs in) {
+        ComplexNumber z = in.scratch();
+        z.sqrtInPlace();
+        return z;
+    }
+
+    @Benchmark
+    public ComplexNumber sinInPlace(Inputs in) {
+        ComplexNumber z = in.scratch();
+        z.sinInPlace();
+        return z;
+    }
+
+    @Benchmark
+    public ComplexNumber cosInPlace(Inputs in) {
+        ComplexNumber z = in.scratch();
+        z.cosInPlace();
+        return z;
+    }
+
+    @Benchmark
+    public ComplexNumber tanInPlace(Inputs in) {
+        ComplexNumber z = in.scratch();
+        z.tanInPlace();
+        return z;
+    }
+
+    @Benchmark
+    public ComplexNumber asinInPlace(Inputs in) {
+        ComplexNumber z = in.scratch();
+        z.asinInPlace();
+        return z;
+    }
+
+    @Benchmark
+    public ComplexNumber acosInPlace(Inputs in) {
+        ComplexNumber z = in.scratch();
+        try {
+            z.acosInPlace();
+        } catch(ArithmeticException e) {
+            return null;
+        }
+        return z;
+    }
+
+    @Benchmark
+    public ComplexNumber atanInPlace(Inputs in) {
+        ComplexNumber z = in.scratch();
+        z.atanInPlace();
+        return z;
+    }
+}
@@ -0,0 +1,62 @@
+package de.andimoo5.math.benchmarks;
+
+import de.andimoo5.math.ComplexNumber;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * {@code Inputs} holds the operands of the benchmarks. The kind of the operands is a JMH parameter, so every
+ * benchmark runs for typical, huge, tiny and special (NaN, infinite and zero) values.<br>
+ * <br> {@code w} is never equal to 0, so divisions measure the arithmetic instead of the exception.
+ * {@code scratch} is the target of the in-place methods; it gets reset to {@code z} on every call, so the
+ * value doesn't drift away from the chosen kind over the iterations.
+ *
+ * @author  Andras Martin Moosbauer
+ * @version 2.0
+ */
+@State(Scope.Thread)
+public class Inputs {
+
+    /**
+     * The kinds of operands.
+     */
+    public enum Kind {
+        TYPICAL(1.5, -2.25, 0.75, 3.5),
+        HUGE(1e300, -3e299, 2e300, 5e299),
+        TINY(1e-300, 4e-310, 3e-305, -2e-300),
+        NAN(Double.NaN, 1, 2, Double.NaN),
+        INFINITE(Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 1),
+        ZERO(0, 0, 1, 0);
+
+        final double zRe, zIm, wRe, wIm;
+
+        Kind(double zRe, double zIm, double wRe, double wIm) {
+            this.zRe = zRe;
+            this.zIm = zIm;
+            this.wRe = wRe;
+            this.wIm = wIm;
+        }
+    }
+
+    @Param
+    public Kind kind;
+
+    public ComplexNumber z, w, scratch;
+
+    @Setup
+    public void setUp() {
+        z = new ComplexNumber(kind.zRe, kind.zIm);
+        w = new ComplexNumber(kind.wRe, kind.wIm);
+        scratch = new ComplexNumber();
+    }
+
+    /**
+     * @return  {@code scratch}, reset to the value of {@code z}
+     */
+    public ComplexNumber scratch() {
+        scratch.set(z);
+        return scratch;
+    }
+}
@@ -0,0 +1,471 @@
+package de.andimoo5.math;
+
+import org.jetbrains.annotations.Contract;
+
+/**
+ * {@code Accuracy} selects how exactly the transcendental functions {@code exp}, {@code log}, {@code sqrt}, {@code sin}
+ * and {@code cos} are computed. Workloads like signal processing often don't need the last few digits
+ * and can trade them for speed:
+ * <ul>
+ *     <li>{@link #STRICT}: the functions of {@link ComplexNumber} and {@link ComplexArray}, bit by bit</li>
+ *     <li>{@link #FAST}: the sine and cosine of a real number are calculated together, with a single argument
+ *          reduction; {@code log} and {@code sqrt} need neither a second square root nor any trigonometric function</li>
+ *     <li>{@link #APPROX}: like {@code FAST}, but with short polynomials instead of {@link Math#exp(double)},
+ *          {@link Math#log(double)} and {@link Math#atan2(double, double)}, correct to about 9 digits</li>
+ * </ul>
+ * The error of a tier is measured against {@code STRICT} relative to the size of the result, but at least
+ * absolutely: a tier with {@link #maxError} <i>e</i> guarantees <i>|f(z) - STRICT.f(z)| &lt;= e * max(1, |STRICT.f(z)|)</i>
+ * for all finite results of the five functions. Close to zeros of a function (like {@code sin(z)} close to
+ * <i>k*pi</i>) the relative error can thus be larger.
+ *
+ * @author  Andras Martin Moosbauer
+ * @version 2.0
+ */
+public enum Accuracy {
+
+    /**
+     * The functions of {@link ComplexNumber} and {@link ComplexArray} without any changes.
+     */
+    STRICT(0) {
+        @Override
+        public double[] exp(double re, double im, double[] out) {
+            return ComplexNumber.exp(re, im, out);
+        }
+
+        @Override
+        public double[] log(double re, double im, double[] out) {
+            return ComplexNumber.log(re, im, out);
+        }
+
+        @Override
+        public double[] sqrt(double re, double im, double[] out) {
+            return ComplexNumber.sqrt(re, im, out);
+        }
+
+        @Override
+        public double[] sin(double re, double im, double[] out) {
+            return ComplexNumber.sin(re, im, out);
+        }
+
+        @Override
+        public double[] cos(double re, double im, double[] out) {
+            return ComplexNumber.cos(re, im, out);
+        }
+
+        @Override
+        public ComplexArray exp(ComplexArray a, ComplexArray dst) {
+            return ComplexArray.exp(a, dst);
+        }
+
+        @Override
+        public ComplexArray log(ComplexArray a, ComplexArray dst) {
+            return ComplexArray.log(a, dst);
+        }
+
+        @Override
+        public ComplexArray sqrt(ComplexArray a, ComplexArray dst) {
+            return ComplexArray.sqrt(a, dst);
+        }
+
+        @Override
+        public ComplexArray sin(ComplexArray a, ComplexArray dst) {
+            return ComplexArray.sin(a, dst);
+        }
+
+        @Override
+        public ComplexArray cos(ComplexArray a, ComplexArray dst) {
+            return ComplexArray.cos(a, dst);
+        }
+    },
+
+    /**
+     * A few ulp from {@code STRICT}: {@link Math#exp(double)}, {@link Math#log(double)} and {@link Math#atan2(double, double)}
+     * with a joint polynomial sine and cosine and an algebraic square root.
+     */
+    FAST(2e-15) {
+        @Override
+        public double[] exp(double re, double im, double[] out) {
+            if(out == null) throw new NullPointerException();
+            double r = Math.exp(re);
+            ApproxMath.sinCos(im, out);
+            double s = out[0];
+            out[0] = r * out[1];
+            out[1] = r * s;
+            return out;
+        }
+
+        @Override
+        public double[] log(double re, double im, double[] out) {
+            if(out == null) throw new NullPointerException();
+            out[0] = ApproxMath.logMod(re, im, false);
+            out[1] = Math.atan2(im, re);
+            return out;
+        }
+
+        @Override
+        public double[] sin(double re, double im, double[] out) {
+            if(out == null) throw new NullPointerException();
+            return sinOf(re, im, out, false);
+        }
+
+        @Override
+        public double[] cos(double re, double im, double[] out) {
+            if(out == null) throw new NullPointerException();
+            return cosOf(re, im, out, false);
+        }
+    },
+
+    /**
+     * About 9 correct digits: polynomial approximations of all real functions except the square root.
+     */
+    APPROX(5e-9) {
+        @Override
+        public double[] exp(double re, double im, double[] out) {
+            if(out == null) throw new NullPointerException();
+            double r = ApproxMath.exp(re);
+            ApproxMath.sinCosApprox(im, out);
+            double s = out[0];
+            out[0] = r * out[1];
+            out[1] = r * s;
+            return out;
+        }
+
+        @Override
+        public double[] log(double re, double im, double[] out) {
+            if(out == null) throw new NullPointerException();
+            out[0] = ApproxMath.logMod(re, im, true);
+            out[1] = ApproxMath.atan2(im, re);
+            return out;
+        }
+
+        @Override
+        public double[] sin(double re, double im, double[] out) {
+            if(out == null) throw new NullPointerException();
+            return sinOf(re, im, out, true);
+        }
+
+        @Override
+        public double[] cos(double re, double im, double[] out) {
+            if(out == null) throw new NullPointerException();
+            return cosOf(re, im, out, true);
+        }
+    };
+
+    /**
+     * The maximum error compared to {@link #STRICT}, relative to the modulus of the result if it's greater than 1,
+     * absolute otherwise.
+     */
+    public final double maxError;
+
+    Accuracy(double maxError) {
+        this.maxError = maxError;
+    }
+
+    //Functions on primitive values:
+    /**
+     * Calculates the exponential of the complex number <i>re + im*i</i>, see {@link ComplexNumber#exp(double, double, double[])}.
+     * @param re    the real part, Re(z)
+     * @param im    the imaginary part, Im(z)
+     * @param out   receives <i>Re(e^z)</i> at index 0 and <i>Im(e^z)</i> at index 1
+     * @return      {@code out}
+     * @throws NullPointerException if {@code out} is equal to {@code null}
+     */
+    @Contract("_, _, _ -> param3")
+    public abstract double[] exp(double re, double im, double[] out) throws NullPointerException;
+
+    /**
+     * Calculates the natural logarithm of the complex number <i>re + im*i</i>, see {@link ComplexNumber#log(double, double, double[])}.
+     * @param re    the real part, Re(z)
+     * @param im    the imaginary part, Im(z)
+     * @param out   receives <i>Re(log(z))</i> at index 0 and <i>Im(log(z))</i> at index 1
+     * @return      {@code out}
+     * @throws NullPointerException if {@code out} is equal to {@code null}
+     */
+    @Contract("_, _, _ -> param3")
+    public abstract double[] log(double re, double im, double[] out) throws NullPointerException;
+
+    /**
+     * Calculates the square root of the complex number <i>re + im*i</i>, see {@link ComplexNumber#sqrt(double, double, double[])}.
+     * Except for {@link #STRICT}, the result is computed as <i>t = sqrt((|re| + |z|) / 2)</i> and <i>im / 2t</i>,
+     * which needs no trigonometric function and is also exact on the axes.
+     * @param re    the real part, Re(z)
+     * @param im    the imaginary part, Im(z)
+     * @param out   receives <i>Re(sqrt(z))</i> at index 0 and <i>Im(sqrt(z))</i> at index 1
+     * @return      {@code out}
+     * @throws NullPointerException if {@code out} is equal to {@code null}
+     */
+    @Contract("_, _, _ -> param3")
+    public double[] sqrt(double re, double im, double[] out) throws NullPointerException {
+        if(out == null) throw new NullPointerException();
+        if(Double.isInfinite(im)) {
+            out[0] = Double.POSITIVE_INFINITY;
+            out[1] = im;
+            return out;
+        }
+        if(re == 0 && im == 0) {
+            out[0] = 0;
+            out[1] = im;
+            return out;
+        }
+        double s = re * re + im * im;
+        double m = s >= Double.MIN_NORMAL && s < Double.POSITIVE_INFINITY ? Math.sqrt(s) : Math.hypot(re, im);
+        double t = Math.sqrt(Math.abs(re) * 0.5 + m * 0.5);
+        if(re >= 0) {
+            out[0] = t;
+            out[1] = im / (2 * t);
+        }
+        else {
+            out[0] = Math.abs(im) / (2 * t);
+            out[1] = Math.copySign(t, im);
+        }
+        return out;
+    }
+
+    /**
+     * Calculates the sine of the complex number <i>re + im*i</i>, see {@link ComplexNumber#sin(double, double, double[])}.
+     * @param re    the real part, Re(z)
+     * @param im    the imaginary part, Im(z)
+     * @param out   receives <i>Re(sin(z))</i> at index 0 and <i>Im(sin(z))</i> at index 1
+     * @return      {@code out}
+     * @throws NullPointerException if {@code out} is equal to {@code null}
+     */
+    @Contract("_, _, _ -> param3")
+    public abstract double[] sin(double re, double im, double[] out) throws NullPointerException;
+
+    /**
+     * Calculates the cosine of the complex number <i>re + im*i</i>, see {@link ComplexNumber#cos(double, double, double[])}.
+     * @param re    the real part, Re(z)
+     * @param im    the imaginary part, Im(z)
+     * @param out   receives <i>Re(cos(z))</i> at index 0 and <i>Im(cos(z))</i> at index 1
+     * @return      {@code out}
+     * @throws NullPointerException if {@code out} is equal to {@code null}
+     */
+    @Contract("_, _, _ -> param3")
+    public abstract double[] cos(double re, double im, double[] out) throws NullPointerException;
+
+    //Functions on ComplexNumber:
+    /**
+     * Calculates the exponential of {@code src} and stores it in {@code dst}.
+     * @param src   an instance of {@code ComplexNumber}
+     * @param dst   the destination, may be {@code src}
+     * @return      {@code dst}, holding e^{@code src}
+     * @throws NullPointerException if either {@code src} or {@code dst} is equal to {@code null}
+     */
+    @Contract("_, _ -> param2")
+    public final ComplexNumber exp(ComplexNumber src, ComplexNumber dst) throws NullPointerException {
+        if(src == null || dst == null) throw new NullPointerException();
+        double[] out = exp(src.getRe(), src.getIm(), new double[2]);
+        dst.set(out[0], out[1]);
+        return dst;
+    }
+
+    /**
+     * Calculates the natural logarithm of {@code src} and stores it in {@code dst}.
+     * @param src   an instance of {@code ComplexNumber}
+     * @param dst   the destination, may be {@code src}
+     * @return      {@code dst}, holding log({@code src})
+     * @throws NullPointerException if either {@code src} or {@code dst} is equal to {@code null}
+     */
+    @Contract("_, _ -> param2")
+    public final ComplexNumber log(ComplexNumber src, ComplexNumber dst) throws NullPointerException {
+        if(src == null || dst == null) throw new NullPointerException();
+        double[] out = log(src.getRe(), src.getIm(), new double[2]);
+        dst.set(out[0], out[1]);
+        return dst;
+    }
+
+    /**
+     * Calculates the square root of {@code src} and stores it in {@code dst}.
+     * @param src   an instance of {@code ComplexNumber}
+     * @param dst   the destination, may be {@code src}
+     * @return      {@code dst}, holding the square root of {@code src}
+     * @throws NullPointerException if either {@code src} or {@code dst} is equal to {@code null}
+     */
+    @Contract("_, _ -> param2")
+    public final ComplexNumber sqrt(ComplexNumber src, ComplexNumber dst) throws NullPointerException {
+        if(src == null || dst == null) throw new NullPointerException();
+        double[] out = sqrt(src.getRe(), src.getIm(), new double[2]);
+        dst.set(out[0], out[1]);
+        return dst;
+    }
+
+    /**
+     * Calculates the sine of {@code src} and stores it in {@code dst}.
+     * @param src   an instance of {@code ComplexNumber}
+     * @param dst   the destination, may be {@code src}
+     * @return      {@code dst}, holding {@code sin(src)}
+     * @throws NullPointerException if either {@code src} or {@code dst} is equal to {@code null}
+     */
+    @Contract("_, _ -> param2")
+    public final ComplexNumber sin(ComplexNumber src, ComplexNumber dst) throws NullPointerException {
+        if(src == null || dst == null) throw new NullPointerException();
+        double[] out = sin(src.getRe(), src.getIm(), new double[2]);
+        dst.set(out[0], out[1]);
+        return dst;
+    }
+
+    /**
+     * Calculates the cosine of {@code src} and stores it in {@code dst}.
+     * @param src   an instance of {@code ComplexNumber}
+     * @param dst   the destination, may be {@code src}
+     * @return      {@code dst}, holding {@code cos(src)}
+     * @throws NullPointerException if either {@code src} or {@code dst} is equal to {@code null}
+     */
+    @Contract("_, _ -> param2")
+    public final ComplexNumber cos(ComplexNumber src, ComplexNumber dst) throws NullPointerException {
+        if(src == null || dst == null) throw new NullPointerException();
+        double[] out = cos(src.getRe(), src.getIm(), new double[2]);
+        dst.set(out[0], out[1]);
+        return dst;
+    }
+
+    //Functions on ComplexArray:
+    /**
+     * Calculates the exponential of every element of {@code a} and stores it in {@code dst}.
+     * @param a     the arguments
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding {@code exp(a[i])}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> param2")
+    public ComplexArray exp(ComplexArray a, ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, dst);
+        double[] aRe = a.real(), aIm = a.imaginary(), dRe = dst.real(), dIm = dst.imaginary(), out = new double[2];
+        for(int i = 0; i < aRe.length; i++) {
+            exp(aRe[i], aIm[i], out);
+            dRe[i] = out[0];
+            dIm[i] = out[1];
+        }
+        return dst;
+    }
+
+    /**
+     * Calculates the natural logarithm of every element of {@code a} and stores it in {@code dst}.
+     * @param a     the arguments
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding {@code log(a[i])}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> param2")
+    public ComplexArray log(ComplexArray a, ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, dst);
+        double[] aRe = a.real(), aIm = a.imaginary(), dRe = dst.real(), dIm = dst.imaginary(), out = new double[2];
+        for(int i = 0; i < aRe.length; i++) {
+            log(aRe[i], aIm[i], out);
+            dRe[i] = out[0];
+            dIm[i] = out[1];
+        }
+        return dst;
+    }
+
+    /**
+     * Calculates the square root of every element of {@code a} and stores it in {@code dst}.
+     * @param a     the arguments
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding {@code sqrt(a[i])}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> param2")
+    public ComplexArray sqrt(ComplexArray a, ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, dst);
+        double[] aRe = a.real(), aIm = a.imaginary(), dRe = dst.real(), dIm = dst.imaginary(), out = new double[2];
+        for(int i = 0; i < aRe.length; i++) {
+            sqrt(aRe[i], aIm[i], out);
+            dRe[i] = out[0];
+            dIm[i] = out[1];
+        }
+        return dst;
+    }
+
+    /**
+     * Calculates the sine of every element of {@code a} and stores it in {@code dst}.
+     * @param a     the arguments
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding {@code sin(a[i])}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> param2")
+    public ComplexArray sin(ComplexArray a, ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, dst);
+        double[] aRe = a.real(), aIm = a.imaginary(), dRe = dst.real(), dIm = dst.imaginary(), out = new double[2];
+        for(int i = 0; i < aRe.length; i++) {
+            sin(aRe[i], aIm[i], out);
+            dRe[i] = out[0];
+            dIm[i] = out[1];
+        }
+        return dst;
+    }
+
+    /**
+     * Calculates the cosine of every element of {@code a} and stores it in {@code dst}.
+     * @param a     the arguments
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding {@code cos(a[i])}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> param2")
+    public ComplexArray cos(ComplexArray a, ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, dst);
+        double[] aRe = a.real(), aIm = a.imaginary(), dRe = dst.real(), dIm = dst.imaginary(), out = new double[2];
+        for(int i = 0; i < aRe.length; i++) {
+            cos(aRe[i], aIm[i], out);
+            dRe[i] = out[0];
+            dIm[i] = out[1];
+        }
+        return dst;
+    }
+
+    //Helper functions:
+    //sin(z) = sin(re) cosh(im) + i cos(re) sinh(im):
+    private static double[] sinOf(double re, double im, double[] out, boolean approx) {
+        if(approx) ApproxMath.sinCosApprox(re, out);
+        else ApproxMath.sinCos(re, out);
+        double s = out[0], c = out[1];
+        out[0] = timesCosh(s, im, approx);
+        out[1] = timesSinh(c, im, approx);
+        return out;
+    }
+
+    //cos(z) = cos(re) cosh(im) - i sin(re) sinh(im):
+    private static double[] cosOf(double re, double im, double[] out, boolean approx) {
+        if(approx) ApproxMath.sinCosApprox(re, out);
+        else ApproxMath.sinCos(re, out);
+        double s = out[0], c = out[1];
+        out[0] = timesCosh(c, im, approx);
+        out[1] = timesSinh(-s, im, approx);
+        return out;
+    }
+
+    //s cosh(y) from x = e^y, split like ComplexNumber.timesCosh where e^y would overflow:
+    private static double timesCosh(double s, double y, boolean approx) {
+        if(!(Math.abs(y) >= 700)) {
+            double x = approx ? ApproxMath.exp(y) : Math.exp(y);
+            return s * (x + 1/x) / 2;
+        }
+        if(s == 0) return s;
+        double h = approx ? ApproxMath.exp(Math.abs(y) / 2) : Math.exp(Math.abs(y) / 2);
+        return s * (h / 2) * h;
+    }
+
+    //s sinh(y) in the same way:
+    private static double timesSinh(double s, double y, boolean approx) {
+        if(!(Math.abs(y) >= 700)) {
+            double x = approx ? ApproxMath.exp(y) : Math.exp(y);
+            return s * (x - 1/x) / 2;
+        }
+        double t = y < 0 ? -s : s;
+        if(t == 0) return t;
+        double h = approx ? ApproxMath.exp(Math.abs(y) / 2) : Math.exp(Math.abs(y) / 2);
+        return t * (h / 2) * h;
+    }
+
+    private static void checkLengths(ComplexArray a, ComplexArray dst) {
+        if(a == null || dst == null) throw new NullPointerException();
+        if(a.length() != dst.length()) throw new IllegalArgumentException("arrays differ in length");
+    }
+}
@@ -0,0 +1,171 @@
+package de.andimoo5.math;
+
+/**
+ * {@code ApproxMath} contains the real polynomial kernels behind {@link Accuracy#FAST} and {@link Accuracy#APPROX}.
+ * The sine and cosine share a single argument reduction, the approximations of {@code exp}, {@code log} and
+ * {@code atan2} reduce the argument to a small interval and evaluate a short Taylor polynomial on it.<br>
+ * <br> All functions return {@code NaN} for {@code NaN} arguments, like their counterparts in {@link Math}.
+ *
+ * @author  Andras Martin Moosbauer
+ * @version 2.0
+ */
+final class ApproxMath {
+
+    //Pi/2 split into three parts (from fdlibm), the first two have 33 significant bits, so k * PIO2_1 and k * PIO2_2 are exact.
+    //The constants of sinCos and atan2 are shared with their vector versions in VectorKernels:
+    static final double PIO2_1 = 1.57079632673412561417e+00;
+    static final double PIO2_2 = 6.07710050630396597660e-11;
+    static final double PIO2_3 = 2.02226624879595063154e-21;
+    static final double TWO_OVER_PI = 2 / Math.PI;
+
+    //Above this the three part reduction loses precision, larger arguments go to Math.sin/cos:
+    static final double MAX_REDUCTION = 1e5;
+
+    //ln(2) split into two parts (from fdlibm), the first one has 32 significant bits:
+    private static final double LN2_HI = 6.93147180369123816490e-01;
+    private static final double LN2_LO = 1.90821492927058770002e-10;
+    private static final double LN2 = Math.log(2);
+    private static final double LOG2_E = 1 / LN2;
+
+    private static final double SQRT2 = Math.sqrt(2);
+    static final double SQRT3 = Math.sqrt(3);
+    static final double TAN_PI_12 = 2 - SQRT3;
+
+    //Taylor coefficients, 1/n! with alternating signs:
+    static final double S3 = -1.0 / 6, S5 = 1.0 / 120, S7 = -1.0 / 5040, S9 = 1.0 / 362880,
+            S11 = -1.0 / 39916800, S13 = 1.0 / 6227020800L, S15 = -1.0 / 1307674368000L, S17 = 1.0 / 355687428096000L;
+    static final double C2 = -1.0 / 2, C4 = 1.0 / 24, C6 = -1.0 / 720, C8 = 1.0 / 40320,
+            C10 = -1.0 / 3628800, C12 = 1.0 / 479001600, C14 = -1.0 / 87178291200L, C16 = 1.0 / 20922789888000L;
+    private static final double E2 = 1.0 / 2, E3 = 1.0 / 6, E4 = 1.0 / 24, E5 = 1.0 / 120, E6 = 1.0 / 720,
+            E7 = 1.0 / 5040, E8 = 1.0 / 40320;
+
+    private ApproxMath() {}
+
+    /**
+     * Calculates the sine and the cosine of {@code x} to about 1 ulp.
+     * @param x     the angle in radians
+     * @param out   receives {@code sin(x)} at index 0 and {@code cos(x)} at index 1
+     */
+    static void sinCos(double x, double[] out) {
+        if(!(Math.abs(x) <= MAX_REDUCTION)) {
+            out[0] = Math.sin(x);
+            out[1] = Math.cos(x);
+            return;
+        }
+        double k = Math.rint(x * TWO_OVER_PI);
+        double r = ((x - k * PIO2_1) - k * PIO2_2) - k * PIO2_3;
+        double r2 = r * r;
+        double s = r + r * r2 * (S3 + r2 * (S5 + r2 * (S7 + r2 * (S9 + r2 * (S11 + r2 * (S13 + r2 * (S15 + r2 * S17)))))));
+        double c = 1 + r2 * (C2 + r2 * (C4 + r2 * (C6 + r2 * (C8 + r2 * (C10 + r2 * (C12 + r2 * (C14 + r2 * C16)))))));
+        quadrant((int)k, s, c, out);
+    }
+
+    /**
+     * Calculates the sine and the cosine of {@code x} with an absolute error below 2e-9.
+     * @param x     the angle in radians
+     * @param out   receives {@code sin(x)} at index 0 and {@code cos(x)} at index 1
+     */
+    static void sinCosApprox(double x, double[] out) {
+        if(!(Math.abs(x) <= MAX_REDUCTION)) {
+            out[0] = Math.sin(x);
+            out[1] = Math.cos(x);
+            return;
+        }
+        double k = Math.rint(x * TWO_OVER_PI);
+        double r = (x - k * PIO2_1) - k * PIO2_2;
+        double r2 = r * r;
+        double s = r + r * r2 * (S3 + r2 * (S5 + r2 * (S7 + r2 * S9)));
+        double c = 1 + r2 * (C2 + r2 * (C4 + r2 * (C6 + r2 * (C8 + r2 * C10))));
+        quadrant((int)k, s, c, out);
+    }
+
+    //Maps sin(r) and cos(r) to sin(r + q * pi/2) and cos(r + q * pi/2):
+    private static void quadrant(int q, double s, double c, double[] out) {
+        switch(q & 3) {
+            case 0 -> { out[0] = s; out[1] = c; }
+            case 1 -> { out[0] = c; out[1] = -s; }
+            case 2 -> { out[0] = -s; out[1] = -c; }
+            default -> { out[0] = -c; out[1] = s; }
+        }
+    }
+
+    /**
+     * Calculates e^{@code x} with a relative error below 1e-9.
+     * @param x the exponent
+     * @return  an approximation of {@code Math.exp(x)}
+     */
+    static double exp(double x) {
+        if(x > 710) return Double.POSITIVE_INFINITY;
+        if(x < -746) return 0;
+        double k = Math.rint(x * LOG2_E);
+        double r = (x - k * LN2_HI) - k * LN2_LO;
+        double p = 1 + r * (1 + r * (E2 + r * (E3 + r * (E4 + r * (E5 + r * (E6 + r * (E7 + r * E8)))))));
+        int e = (int)k;
+        //2^e directly from its bits, Math.scalb is only needed for subnormal and overflowing results:
+        if(e > -1022 && e < 1023) return p * Double.longBitsToDouble((long)(e + 1023) << 52);
+        return Math.scalb(p, e);
+    }
+
+    /**
+     * Calculates the natural logarithm of the modulus of <i>re + im*i</i>, <i>log(sqrt(re^2 + im^2))</i>,
+     * without the square root and without overflow or underflow of the squares.
+     * @param re        the real part, Re(z)
+     * @param im        the imaginary part, Im(z)
+     * @param approx    {@code true} for an absolute error below 1e-9, {@code false} to use {@link Math#log(double)}
+     * @return          the logarithm of |z|
+     */
+    static double logMod(double re, double im, boolean approx) {
+        double a = Math.max(Math.abs(re), Math.abs(im));
+        int e = 0;
+        if((a > 0x1p500 || a < 0x1p-500) && a > 0 && a < Double.POSITIVE_INFINITY) {
+            e = Math.getExponent(a);
+            re = Math.scalb(re, -e);
+            im = Math.scalb(im, -e);
+        }
+        double s = re * re + im * im;
+        return 0.5 * (approx ? log(s) : Math.log(s)) + e * LN2;
+    }
+
+    //Natural logarithm of a normal or infinite number, absolute error below 1e-9:
+    private static double log(double x) {
+        if(!(x > 0 && x < Double.POSITIVE_INFINITY)) return Math.log(x);
+        long bits = Double.doubleToRawLongBits(x);
+        int e = (int)(bits >>> 52) - 1023;
+        double m = Double.longBitsToDouble(bits & 0x000FFFFFFFFFFFFFL | 0x3FF0000000000000L);
+        if(m > SQRT2) {
+            m *= 0.5;
+            e++;
+        }
+        //log(m) = 2 atanh(t) with |t| <= 0.172:
+        double t = (m - 1) / (m + 1), t2 = t * t;
+        return e * LN2 + 2 * t * (1 + t2 * (1.0 / 3 + t2 * (1.0 / 5 + t2 * (1.0 / 7 + t2 * (1.0 / 9)))));
+    }
+
+    /**
+     * Calculates the angle of the point ({@code x}, {@code y}) with an absolute error below 1e-9.
+     * @param y the ordinate
+     * @param x the abscissa
+     * @return  an approximation of {@code Math.atan2(y, x)}
+     */
+    static double atan2(double y, double x) {
+        double ax = Math.abs(x), ay = Math.abs(y);
+        if(!(ax < Double.POSITIVE_INFINITY && ay < Double.POSITIVE_INFINITY) || ax == 0 && ay == 0) return Math.atan2(y, x);
+        boolean swap = ay > ax;
+        double a = atan(swap ? ax / ay : ay / ax);
+        if(swap) a = Math.PI / 2 - a;
+        if(x < 0) a = Math.PI - a;
+        return Math.copySign(a, y);
+    }
+
+    //Arc tangent of t in [0, 1]:
+    private static double atan(double t) {
+        double offset = 0;
+        if(t > TAN_PI_12) {
+            //atan(t) = pi/6 + atan((t*sqrt(3) - 1) / (t + sqrt(3))):
+            t = (t * SQRT3 - 1) / (t + SQRT3);
+            offset = Math.PI / 6;
+        }
+        double t2 = t * t;
+        return offset + t + t * t2 * (-1.0 / 3 + t2 * (1.0 / 5 + t2 * (-1.0 / 7 + t2 * (1.0 / 9 + t2 * (-1.0 / 11 + t2 * (1.0 / 13))))));
+    }
+}
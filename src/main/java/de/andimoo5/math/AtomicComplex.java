@@ -0,0 +1,185 @@
+package de.andimoo5.math;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.function.BinaryOperator;
+import java.util.function.UnaryOperator;
+
+/**
+ * {@code AtomicComplex} is a complex number which can be read and updated atomically by many threads without locks,
+ * the complex counterpart of {@link java.util.concurrent.atomic.AtomicLong}. Java has no compare-and-set for two
+ * {@code doubles} at once, so the value is held as an immutable {@link ComplexValue}, which every update replaces
+ * with a compare-and-set of the reference. Every read therefore sees both parts of the same update.<br>
+ * <br> Like the update functions of {@link java.util.concurrent.atomic.AtomicReference}, {@link #updateAndGet} and
+ * {@link #accumulateAndGet} retry until no other thread interfered, so their functions may be applied more than once
+ * and must not have side effects. Values are compared like {@link ComplexValue#equals(Object)}, by the bit patterns
+ * of the parts.<br>
+ * <br> Each update allocates a new {@code ComplexValue}. For many threads adding into a single sum,
+ * {@link ComplexAdder} scales much better.
+ *
+ * @author  Andras Martin Moosbauer
+ * @version 2.0
+ * @see ComplexAdder
+ */
+public class AtomicComplex {
+
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(AtomicComplex.class, "value", ComplexValue.class);
+        } catch(ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile ComplexValue value;
+
+    //Constructors of the "AtomicComplex" class:
+    /**
+     * Constructs a new {@code AtomicComplex} with the value 0.
+     */
+    public AtomicComplex() {
+        this(ComplexValue.ZERO);
+    }
+
+    /**
+     * Constructs a new {@code AtomicComplex} with the value <i>re + im*i</i>.
+     * @param re    the real part, Re(z)
+     * @param im    the imaginary part, Im(z)
+     */
+    public AtomicComplex(double re, double im) {
+        this(new ComplexValue(re, im));
+    }
+
+    /**
+     * Constructs a new {@code AtomicComplex} with the passed value.
+     * @param z the initial value
+     * @throws NullPointerException if {@code z} is equal to {@code null}
+     */
+    public AtomicComplex(ComplexValue z) throws NullPointerException {
+        if(z == null) throw new NullPointerException();
+        value = z;
+    }
+
+    //Basic functions (to set/get data from objects of this class):
+    /**
+     * @return  the current value
+     */
+    public @NotNull ComplexValue get() {
+        return value;
+    }
+
+    /**
+     * Sets the value to {@code z}.
+     * @param z the new value
+     * @throws NullPointerException if {@code z} is equal to {@code null}
+     */
+    public void set(ComplexValue z) throws NullPointerException {
+        if(z == null) throw new NullPointerException();
+        value = z;
+    }
+
+    /**
+     * Sets the value to <i>re + im*i</i>.
+     * @param re    the real part, Re(z)
+     * @param im    the imaginary part, Im(z)
+     */
+    public void set(double re, double im) {
+        value = new ComplexValue(re, im);
+    }
+
+    /**
+     * Sets the value to {@code z} and returns the previous one.
+     * @param z the new value
+     * @return  the previous value
+     * @throws NullPointerException if {@code z} is equal to {@code null}
+     */
+    public @NotNull ComplexValue getAndSet(ComplexValue z) throws NullPointerException {
+        if(z == null) throw new NullPointerException();
+        return (ComplexValue)VALUE.getAndSet(this, z);
+    }
+
+    /**
+     * Sets the value to {@code z} if the current value is equal to {@code expected}.
+     * @param expected  the expected current value
+     * @param z         the new value
+     * @return          {@code true} if the value was set, {@code false} if the current value differs from {@code expected}
+     * @throws NullPointerException if either {@code expected} or {@code z} is equal to {@code null}
+     */
+    public boolean compareAndSet(ComplexValue expected, ComplexValue z) throws NullPointerException {
+        if(expected == null || z == null) throw new NullPointerException();
+        while(true) {
+            ComplexValue v = value;
+            if(!v.equals(expected)) return false;
+            //Another thread may have replaced v by an equal value, which doesn't make this update fail:
+            if(VALUE.compareAndSet(this, v, z)) return true;
+        }
+    }
+
+    //Methods for atomic Operations:
+    /**
+     * Adds <i>re + im*i</i> to the value.
+     * @param re    the real part, Re(z), of the summand
+     * @param im    the imaginary part, Im(z), of the summand
+     * @return      the new value
+     */
+    public @NotNull ComplexValue addAndGet(double re, double im) {
+        while(true) {
+            ComplexValue v = value, w = new ComplexValue(v.re() + re, v.im() + im);
+            if(VALUE.compareAndSet(this, v, w)) return w;
+        }
+    }
+
+    /**
+     * Adds <i>re + im*i</i> to the value.
+     * @param re    the real part, Re(z), of the summand
+     * @param im    the imaginary part, Im(z), of the summand
+     * @return      the previous value
+     */
+    public @NotNull ComplexValue getAndAdd(double re, double im) {
+        while(true) {
+            ComplexValue v = value;
+            if(VALUE.compareAndSet(this, v, new ComplexValue(v.re() + re, v.im() + im))) return v;
+        }
+    }
+
+    /**
+     * Replaces the value with the result of {@code f}, e.g. {@code updateAndGet(z -> z.mul(w))}.
+     * @param f a function without side effects, it may be called more than once
+     * @return  the new value
+     * @throws NullPointerException if {@code f} or its result is equal to {@code null}
+     */
+    public @NotNull ComplexValue updateAndGet(UnaryOperator<ComplexValue> f) throws NullPointerException {
+        if(f == null) throw new NullPointerException();
+        while(true) {
+            ComplexValue v = value, w = f.apply(v);
+            if(w == null) throw new NullPointerException();
+            if(VALUE.compareAndSet(this, v, w)) return w;
+        }
+    }
+
+    /**
+     * Replaces the value with the result of {@code f} applied to the value and {@code x}.
+     * @param x the 2nd argument of {@code f}
+     * @param f a function without side effects, it may be called more than once
+     * @return  the new value
+     * @throws NullPointerException if any argument or the result of {@code f} is equal to {@code null}
+     */
+    public @NotNull ComplexValue accumulateAndGet(ComplexValue x, BinaryOperator<ComplexValue> f) throws NullPointerException {
+        if(x == null || f == null) throw new NullPointerException();
+        return updateAndGet(v -> f.apply(v, x));
+    }
+
+    /**
+     * @return  the current value in the format of {@link ComplexValue#toString()}
+     */
+    @Override
+    @Contract(pure = true)
+    public String toString() {
+        return value.toString();
+    }
+}
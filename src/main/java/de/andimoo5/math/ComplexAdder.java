@@ -0,0 +1,269 @@
+package de.andimoo5.math;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * {@code ComplexAdder} is a sum of complex numbers which many threads can add to at the same time, the complex
+ * counterpart of {@link java.util.concurrent.atomic.DoubleAdder}. A {@code ComplexNumber} shared between threads
+ * loses updates, as {@link ComplexNumber#add(ComplexNumber) add} isn't atomic, and guarding it with a lock makes
+ * all threads wait for each other.<br>
+ * <br> As long as the threads don't get in each other's way, they add to a single base value. Once they collide,
+ * they spread out over a table of <i>cells</i>, each holding a partial sum of the real and imaginary parts; the table
+ * grows with the contention up to the number of processors. {@link #sum()} adds up the base value and all cells.<br>
+ * <br> The base value and every cell have a flag which a thread sets with a single compare-and-set to add both parts;
+ * a thread that fails doesn't wait but moves on to another cell. So no update gets lost, and
+ * {@link #sumThenReset()} takes out every update as a whole. Just like the sum of {@code DoubleAdder},
+ * {@code sum()} is no atomic snapshot though: while other threads keep adding, it may include only some of their
+ * updates, or only one part of an update. Use {@link AtomicComplex} if every read has to be consistent. As the order
+ * of the additions depends on the scheduling, the rounding of the sum may differ from run to run.
+ *
+ * @author  Andras Martin Moosbauer
+ * @version 2.0
+ * @see AtomicComplex
+ */
+public class ComplexAdder {
+
+    //The table of cells doesn't grow beyond the smallest power of 2 that is at least the number of processors:
+    private static final int MAX_CELLS = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1)) << 1;
+
+    private static final VarHandle BASE_BUSY, BUSY;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            BASE_BUSY = lookup.findVarHandle(ComplexAdder.class, "baseBusy", int.class);
+            BUSY = lookup.findVarHandle(ComplexAdder.class, "busy", int.class);
+        } catch(ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    //The sum as long as there is no contention:
+    private volatile double baseRe, baseIm;
+    //Set while a thread adds to the base value:
+    private volatile int baseBusy;
+    //The cells, null until the first collision; the length is a power of 2:
+    private volatile Cell[] cells;
+    //A spin lock guarding the creation and growth of the table:
+    private volatile int busy;
+
+    //A hash per thread, choosing its cell; a thread that collides moves on to another cell:
+    private static final ThreadLocal<int[]> PROBE = ThreadLocal.withInitial(() -> new int[] {ThreadLocalRandom.current().nextInt() | 1});
+
+    //Constructors of the "ComplexAdder" class:
+    /**
+     * Constructs a new {@code ComplexAdder} with a sum of 0.
+     */
+    public ComplexAdder() {}
+
+    //Basic functions (to set/get data from objects of this class):
+    /**
+     * Adds <i>re + im*i</i> to the sum.
+     * @param re    the real part, Re(z), of the summand
+     * @param im    the imaginary part, Im(z), of the summand
+     */
+    public void add(double re, double im) {
+        if(cells == null && addToBase(re, im)) return;
+        addToCell(re, im);
+    }
+
+    /**
+     * Adds the value of {@code z} to the sum.
+     * @param z the summand, an instance of {@code ComplexNumber}
+     * @throws NullPointerException if {@code z} is equal to {@code null}
+     */
+    public void add(ComplexNumber z) throws NullPointerException {
+        if(z == null) throw new NullPointerException();
+        add(z.getRe(), z.getIm());
+    }
+
+    /**
+     * Returns the current sum. Additions by other threads while the sum is computed may be included or not,
+     * see the description of the class.
+     * @return  a new {@code ComplexNumber} holding the sum
+     */
+    @Contract(" -> new")
+    public @NotNull ComplexNumber sum() {
+        double re = baseRe, im = baseIm;
+        Cell[] cs = cells;
+        if(cs != null) {
+            for(Cell c : cs) {
+                if(c == null) continue;
+                re += c.re;
+                im += c.im;
+            }
+        }
+        return new ComplexNumber(re, im);
+    }
+
+    /**
+     * Sets the sum to 0. This is only exact if no other thread adds at the same time.
+     */
+    public void reset() {
+        baseRe = baseIm = 0;
+        Cell[] cs = cells;
+        if(cs != null) {
+            for(Cell c : cs) {
+                if(c != null) c.re = c.im = 0;
+            }
+        }
+    }
+
+    /**
+     * Returns the current sum and sets it to 0. The base value and every cell are taken out under their flag, so an
+     * addition by another thread is either included in the returned sum with both parts or stays in the adder with
+     * both parts, it never gets lost or split. Other threads don't wait for this, but it waits for the additions
+     * in progress.
+     * @return  a new {@code ComplexNumber} holding the sum before the reset
+     */
+    @Contract(" -> new")
+    public @NotNull ComplexNumber sumThenReset() {
+        while(!BASE_BUSY.compareAndSet(this, 0, 1)) Thread.onSpinWait();
+        double re = baseRe, im = baseIm;
+        baseRe = baseIm = 0;
+        baseBusy = 0;
+        Cell[] cs = cells;
+        if(cs != null) {
+            for(Cell c : cs) {
+                if(c == null) continue;
+                while(!Cell.BUSY.compareAndSet(c, 0, 1)) Thread.onSpinWait();
+                re += c.re;
+                im += c.im;
+                c.re = c.im = 0;
+                c.busy = 0;
+            }
+        }
+        return new ComplexNumber(re, im);
+    }
+
+    /**
+     * @return  the current {@link #sum() sum} in the format of {@link ComplexNumber#toString()}
+     */
+    @Override
+    public String toString() {
+        return sum().toString();
+    }
+
+    //Helper functions:
+    //The contended path, like Striped64.doubleAccumulate: a thread first tries its own cell once; if it collides
+    //again it moves on to another cell, and if it keeps colliding it doubles the table:
+    private void addToCell(double re, double im) {
+        int[] probe = PROBE.get();
+        int h = probe[0];
+        boolean collided = false;
+        while(true) {
+            Cell[] cs = cells;
+            if(cs == null) {
+                if(busy == 0 && cells == null && lock()) {
+                    try {
+                        if(cells == null) {
+                            Cell[] table = new Cell[2];
+                            table[h & 1] = new Cell(re, im);
+                            cells = table;
+                            return;
+                        }
+                    } finally {
+                        busy = 0;
+                    }
+                }
+                //Another thread is creating the table, try the base value once more:
+                if(addToBase(re, im)) return;
+                continue;
+            }
+            int i = h & (cs.length - 1);
+            Cell c = cs[i];
+            if(c == null) {
+                if(busy == 0 && lock()) {
+                    try {
+                        if(cells == cs && cs[i] == null) {
+                            cs[i] = new Cell(re, im);
+                            return;
+                        }
+                    } finally {
+                        busy = 0;
+                    }
+                }
+                collided = false;
+            }
+            else if(c.add(re, im)) return;
+            else if(cs.length >= MAX_CELLS || cells != cs) collided = false;
+            else if(!collided) collided = true;
+            else if(busy == 0 && lock()) {
+                try {
+                    if(cells == cs) cells = Arrays.copyOf(cs, cs.length << 1);
+                } finally {
+                    busy = 0;
+                }
+                collided = false;
+                continue;
+            }
+            //Marsaglia's xorshift, to move on to another cell:
+            h ^= h << 13;
+            h ^= h >>> 17;
+            h ^= h << 5;
+            probe[0] = h;
+        }
+    }
+
+    //A single attempt, like Cell.add:
+    private boolean addToBase(double re, double im) {
+        if(!BASE_BUSY.compareAndSet(this, 0, 1)) return false;
+        baseRe += re;
+        baseIm += im;
+        baseBusy = 0;
+        return true;
+    }
+
+    private boolean lock() {
+        return BUSY.compareAndSet(this, 0, 1);
+    }
+
+    //Helper classes:
+    //The padding keeps the values of different cells on different cache lines, so threads updating neighbouring
+    //cells don't slow each other down (false sharing). Fields of a superclass are laid out first:
+    private static class CellPadding {
+        long p00, p01, p02, p03, p04, p05, p06, p07;
+    }
+
+    private static class CellValues extends CellPadding {
+        volatile double re, im;
+        //Set while a thread adds to the cell or takes it out:
+        volatile int busy;
+    }
+
+    private static final class Cell extends CellValues {
+
+        private static final VarHandle BUSY;
+
+        static {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                BUSY = lookup.findVarHandle(CellValues.class, "busy", int.class);
+            } catch(ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        long p10, p11, p12, p13, p14, p15, p16, p17;
+
+        Cell(double re, double im) {
+            this.re = re;
+            this.im = im;
+        }
+
+        //A single attempt, which fails if another thread holds the cell at the same time:
+        boolean add(double x, double y) {
+            if(!BUSY.compareAndSet(this, 0, 1)) return false;
+            re += x;
+            im += y;
+            busy = 0;
+            return true;
+        }
+    }
+}
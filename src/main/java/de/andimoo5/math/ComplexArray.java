@@ -0,0 +1,1339 @@
+package de.andimoo5.math;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * {@code ComplexArray} is a fixed-length array of complex numbers stored as a <i>structure of arrays</i>:
+ * all real parts, <i>Re(z)</i>, live in one {@code double[]} and all imaginary parts, <i>Im(z)</i>, in another.
+ * Compared to a {@code ComplexNumber[]} this needs no object per element, so it uses about a third of the memory
+ * and the bulk operations walk linearly through memory without any per element allocation.<br>
+ * <br> Just like in {@link ComplexNumber} the arithmetic functions are implemented as <i>static</i> versions,
+ * which write into a destination array, and <i>non-static</i> versions, which change the array itself.
+ * The destination of a static operation may be one of its operands.<br>
+ * <br> Single elements can be read and written through {@link #get(int) get} and {@link #set(int, ComplexNumber) set},
+ * which copy the values from and into {@code ComplexNumber} objects.<br>
+ * <br> All bulk operations run on the calling thread. For large arrays, {@link #parallel()} returns a view whose
+ * operations are split across the common {@code ForkJoinPool}.
+ *
+ * @author  Andras Martin Moosbauer
+ * @version 2.0
+ * @see InterleavedComplexArray
+ */
+public class ComplexArray {
+
+    //Values of the complex numbers, the real parts, Re(z), and the imaginary parts, Im(z):
+    private final double[] real, imaginary;
+
+    //Constructors of the "ComplexArray" class:
+    /**
+     * Constructs a new {@code ComplexArray} of the given length with all elements equal to 0.
+     * @param length    the number of complex numbers
+     * @throws NegativeArraySizeException if {@code length} is negative
+     */
+    public ComplexArray(int length) {
+        this(new double[length], new double[length]);
+    }
+
+    /**
+     * Constructs a new {@code ComplexArray} backed by the passed arrays. The arrays are <b>not</b> copied,
+     * so changes to them are visible in the {@code ComplexArray} and vice versa.
+     * @param real      the real parts, Re(z), of the complex numbers
+     * @param imaginary the imaginary parts, Im(z), of the complex numbers
+     * @throws NullPointerException     if either {@code real} or {@code imaginary} is equal to {@code null}
+     * @throws IllegalArgumentException if {@code real} and {@code imaginary} differ in length
+     */
+    public ComplexArray(double[] real, double[] imaginary) throws NullPointerException, IllegalArgumentException {
+        if(real == null || imaginary == null) throw new NullPointerException();
+        if(real.length != imaginary.length) throw new IllegalArgumentException("real and imaginary parts differ in length");
+        this.real = real;
+        this.imaginary = imaginary;
+    }
+
+    /**
+     * Constructs a new {@code ComplexArray} holding copies of the values of the passed complex numbers.
+     * @param values    instances of {@code ComplexNumber}
+     * @throws NullPointerException if {@code values} or one of its elements is equal to {@code null}
+     */
+    public ComplexArray(ComplexNumber... values) throws NullPointerException {
+        this(values.length);
+        for(int i = 0; i < values.length; i++) set(i, values[i]);
+    }
+
+    /**
+     * Constructs a new {@code ComplexArray} with a copy of the values of <i>a</i>.
+     * @param a an instance of {@code ComplexArray}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     */
+    public ComplexArray(ComplexArray a) throws NullPointerException {
+        this(a.real.clone(), a.imaginary.clone());
+    }
+
+    //Basic functions (to set/get data from objects of this class):
+    /**
+     * @return  the number of complex numbers in this array
+     */
+    public int length() {
+        return real.length;
+    }
+
+    /**
+     * Returns the array holding the real parts, <i>Re(z)</i>. It is the backing array and not a copy.
+     * @return  the real parts of all elements
+     */
+    public double[] real() {
+        return real;
+    }
+
+    /**
+     * Returns the array holding the imaginary parts, <i>Im(z)</i>. It is the backing array and not a copy.
+     * @return  the imaginary parts of all elements
+     */
+    public double[] imaginary() {
+        return imaginary;
+    }
+
+    /**
+     * Returns the element at index {@code i} as a new {@code ComplexNumber}.
+     * @param i the index of the element
+     * @return  a new {@code ComplexNumber} with the value of the element
+     * @throws ArrayIndexOutOfBoundsException if {@code i} is out of bounds
+     */
+    @Contract("_ -> new")
+    public @NotNull ComplexNumber get(int i) {
+        return new ComplexNumber(real[i], imaginary[i]);
+    }
+
+    /**
+     * Copies the element at index {@code i} into {@code dst}, without allocating a new object.
+     * @param i     the index of the element
+     * @param dst   the {@code ComplexNumber} to be overwritten
+     * @return      {@code dst}
+     * @throws NullPointerException           if {@code dst} is equal to {@code null}
+     * @throws ArrayIndexOutOfBoundsException if {@code i} is out of bounds
+     */
+    @Contract("_, _ -> param2")
+    public ComplexNumber get(int i, ComplexNumber dst) throws NullPointerException {
+        if(dst == null) throw new NullPointerException();
+        dst.set(real[i], imaginary[i]);
+        return dst;
+    }
+
+    /**
+     * Sets the element at index {@code i} to the value of {@code z}.
+     * @param i the index of the element
+     * @param z an instance of {@code ComplexNumber}
+     * @throws NullPointerException           if {@code z} is equal to {@code null}
+     * @throws ArrayIndexOutOfBoundsException if {@code i} is out of bounds
+     */
+    public void set(int i, ComplexNumber z) throws NullPointerException {
+        if(z == null) throw new NullPointerException();
+        set(i, z.getRe(), z.getIm());
+    }
+
+    /**
+     * Sets <i>Re(z)</i> and <i>Im(z)</i> of the element at index {@code i} to the passed values.
+     * @param i         the index of the element
+     * @param real      the real part, Re(z), of the element
+     * @param imaginary the imaginary part, Im(z), of the element
+     * @throws ArrayIndexOutOfBoundsException if {@code i} is out of bounds
+     */
+    public void set(int i, double real, double imaginary) {
+        this.real[i] = real;
+        this.imaginary[i] = imaginary;
+    }
+
+    /**
+     * Return <i>Re(z)</i> of the element at index {@code i}
+     * @param i the index of the element
+     * @return  a {@code double} of the real part, <i>Re(z)</i>, of the element
+     */
+    public double getRe(int i) {
+        return real[i];
+    }
+
+    /**
+     * Return <i>Im(z)</i> of the element at index {@code i}
+     * @param i the index of the element
+     * @return  a {@code double} of the imaginary part, <i>Im(z)</i>, of the element
+     */
+    public double getIm(int i) {
+        return imaginary[i];
+    }
+
+    /**
+     * Copies all elements into new {@code ComplexNumber} objects.
+     * @return  an array of new {@code ComplexNumber} objects
+     */
+    public ComplexNumber[] toArray() {
+        ComplexNumber[] values = new ComplexNumber[length()];
+        for(int i = 0; i < values.length; i++) values[i] = get(i);
+        return values;
+    }
+
+    /**
+     * Copies all elements into a new {@link InterleavedComplexArray}.
+     * @return  an {@code InterleavedComplexArray} with the same values
+     */
+    public InterleavedComplexArray toInterleaved() {
+        InterleavedComplexArray a = new InterleavedComplexArray(length());
+        double[] data = a.data();
+        for(int i = 0; i < real.length; i++) {
+            data[2 * i] = real[i];
+            data[2 * i + 1] = imaginary[i];
+        }
+        return a;
+    }
+
+    /**
+     * Returns a sequential {@link ComplexStream} over the elements, which passes them on as pairs of {@code doubles}
+     * without creating any {@code ComplexNumber} objects. Its spliterator splits the array in halves, so
+     * {@link ComplexStream#parallel()} processes the parts on the common {@code ForkJoinPool}.
+     * @return  a new {@code ComplexStream} over this array
+     */
+    @Contract(" -> new")
+    public @NotNull ComplexStream stream() {
+        return ComplexStream.array(real, 0, imaginary, 0, 1, length());
+    }
+
+    /**
+     * @return      a String representing the values in the format of: <br>{@code [z0, z1, ...]},
+     *              where every element is formatted like {@link ComplexNumber#toString()}
+     */
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder("[");
+        for(int i = 0; i < real.length; i++) {
+            if(i > 0) s.append(", ");
+            ComplexFormat.format(real[i], imaginary[i], s);
+        }
+        return s.append(']').toString();
+    }
+
+    /**
+     * Compares the values of the {@code ComplexArray} with the ones of {@code Object a}.
+     * @param a any {@code Object}
+     * @return  {@code true} if {@code a} is a {@code ComplexArray} of the same length with equal elements
+     */
+    @Override
+    public boolean equals(Object a) {
+        if(this == a) return true;
+        if(!(a instanceof ComplexArray)) return false;
+        return Arrays.equals(real, ((ComplexArray)a).real) && Arrays.equals(imaginary, ((ComplexArray)a).imaginary);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(real) + Arrays.hashCode(imaginary);
+    }
+
+    //Methods for Arithmetic Operations:
+    /**
+     * Calculates the element-wise sum of {@code a} and {@code b} and stores it in {@code dst}.
+     * @param a     1st summands of the addition
+     * @param b     2nd summands of the addition
+     * @param dst   the destination, may be {@code a} or {@code b}
+     * @return      {@code dst}, holding {@code a[i]} + {@code b[i]}
+     * @throws NullPointerException     if {@code a}, {@code b} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _, _ -> param3")
+    public static ComplexArray sum(ComplexArray a, ComplexArray b, ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, b, dst);
+        ComplexKernels.sum(a.real, a.imaginary, b.real, b.imaginary, dst.real, dst.imaginary, 0, a.length());
+        return dst;
+    }
+
+    /**
+     * Calculates the element-wise sum of {@code a} and {@code b}.
+     * @param a 1st summands of the addition
+     * @param b 2nd summands of the addition
+     * @return  a new {@code ComplexArray} holding {@code a[i]} + {@code b[i]}
+     * @throws NullPointerException     if either {@code a} or {@code b} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> new")
+    public static @NotNull ComplexArray sum(ComplexArray a, ComplexArray b) throws NullPointerException, IllegalArgumentException {
+        if(a == null) throw new NullPointerException();
+        return sum(a, b, new ComplexArray(a.length()));
+    }
+
+    /**
+     * Mathematically adds {@code b} element-wise to itself.
+     * @param b numbers to be added
+     */
+    public void add(ComplexArray b) {
+        sum(this, b, this);
+    }
+
+    /**
+     * Calculates the element-wise difference of {@code a} and {@code b} and stores it in {@code dst}.
+     * @param a     minuends of the difference
+     * @param b     subtrahends of the difference
+     * @param dst   the destination, may be {@code a} or {@code b}
+     * @return      {@code dst}, holding {@code a[i]} - {@code b[i]}
+     * @throws NullPointerException     if {@code a}, {@code b} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _, _ -> param3")
+    public static ComplexArray diff(ComplexArray a, ComplexArray b, ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, b, dst);
+        ComplexKernels.diff(a.real, a.imaginary, b.real, b.imaginary, dst.real, dst.imaginary, 0, a.length());
+        return dst;
+    }
+
+    /**
+     * Calculates the element-wise difference of {@code a} and {@code b}.
+     * @param a minuends of the difference
+     * @param b subtrahends of the difference
+     * @return  a new {@code ComplexArray} holding {@code a[i]} - {@code b[i]}
+     * @throws NullPointerException     if either {@code a} or {@code b} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> new")
+    public static @NotNull ComplexArray diff(ComplexArray a, ComplexArray b) throws NullPointerException, IllegalArgumentException {
+        if(a == null) throw new NullPointerException();
+        return diff(a, b, new ComplexArray(a.length()));
+    }
+
+    /**
+     * Mathematically subtracts {@code b} element-wise from itself.
+     * @param b numbers to be subtracted
+     */
+    public void sub(ComplexArray b) {
+        diff(this, b, this);
+    }
+
+    /**
+     * Calculates the element-wise product of {@code a} and {@code b} and stores it in {@code dst}.
+     * @param a     1st multipliers of the product
+     * @param b     2nd multipliers of the product
+     * @param dst   the destination, may be {@code a} or {@code b}
+     * @return      {@code dst}, holding {@code a[i]} * {@code b[i]}
+     * @throws NullPointerException     if {@code a}, {@code b} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _, _ -> param3")
+    public static ComplexArray prod(ComplexArray a, ComplexArray b, ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, b, dst);
+        ComplexKernels.prod(a.real, a.imaginary, b.real, b.imaginary, dst.real, dst.imaginary, 0, a.length());
+        return dst;
+    }
+
+    /**
+     * Calculates the element-wise product of {@code a} and {@code b}.
+     * @param a 1st multipliers of the product
+     * @param b 2nd multipliers of the product
+     * @return  a new {@code ComplexArray} holding {@code a[i]} * {@code b[i]}
+     * @throws NullPointerException     if either {@code a} or {@code b} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> new")
+    public static @NotNull ComplexArray prod(ComplexArray a, ComplexArray b) throws NullPointerException, IllegalArgumentException {
+        if(a == null) throw new NullPointerException();
+        return prod(a, b, new ComplexArray(a.length()));
+    }
+
+    /**
+     * Mathematically multiplies {@code b} element-wise to itself.
+     * @param b numbers to be multiplied with
+     */
+    public void mul(ComplexArray b) {
+        prod(this, b, this);
+    }
+
+    /**
+     * Calculates the element-wise division of {@code a} and {@code b} and stores it in {@code dst}.
+     * Unlike {@link ComplexNumber#division(ComplexNumber, ComplexNumber)} a divisor equal to {@code 0}
+     * doesn't throw an exception, the affected element becomes {@code NaN} instead.
+     * @param a     dividends of the division
+     * @param b     divisors of the division
+     * @param dst   the destination, may be {@code a} or {@code b}
+     * @return      {@code dst}, holding {@code a[i]} / {@code b[i]}
+     * @throws NullPointerException     if {@code a}, {@code b} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _, _ -> param3")
+    public static ComplexArray division(ComplexArray a, ComplexArray b, ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, b, dst);
+        ComplexKernels.division(a.real, a.imaginary, b.real, b.imaginary, dst.real, dst.imaginary, 0, a.length());
+        return dst;
+    }
+
+    /**
+     * Calculates the element-wise division of {@code a} and {@code b}.
+     * @param a dividends of the division
+     * @param b divisors of the division
+     * @return  a new {@code ComplexArray} holding {@code a[i]} / {@code b[i]}
+     * @throws NullPointerException     if either {@code a} or {@code b} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     * @see #division(ComplexArray, ComplexArray, ComplexArray)
+     */
+    @Contract("_, _ -> new")
+    public static @NotNull ComplexArray division(ComplexArray a, ComplexArray b) throws NullPointerException, IllegalArgumentException {
+        if(a == null) throw new NullPointerException();
+        return division(a, b, new ComplexArray(a.length()));
+    }
+
+    /**
+     * Mathematically divides itself element-wise by {@code b}.
+     * @param b numbers to be divided by
+     * @see #division(ComplexArray, ComplexArray, ComplexArray)
+     */
+    public void div(ComplexArray b) {
+        division(this, b, this);
+    }
+
+    //Complex Operations:
+    /**
+     * Calculates the conjugate of every element of {@code a} and stores it in {@code dst}.
+     * @param a     the numbers to calculate the conjugate from
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding the conjugate of {@code a[i]}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexArray conjugate(ComplexArray a, ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, a, dst);
+        ComplexKernels.conjugate(a.real, a.imaginary, dst.real, dst.imaginary, 0, a.length());
+        return dst;
+    }
+
+    /**
+     * Calculates the conjugate of every element of {@code a}.
+     * @param a the numbers to calculate the conjugate from
+     * @return  a new {@code ComplexArray} holding the conjugate of {@code a[i]}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     */
+    @Contract("_ -> new")
+    public static @NotNull ComplexArray conjugate(ComplexArray a) throws NullPointerException {
+        if(a == null) throw new NullPointerException();
+        return conjugate(a, new ComplexArray(a.length()));
+    }
+
+    /**
+     * Calculates the {@code modulus (absolute value / magnitude)} of every element of {@code a}.
+     * @param a     the numbers to calculate the modulus from
+     * @param dst   the destination
+     * @return      {@code dst}, holding the modulus of {@code a[i]}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if {@code dst} has a different length
+     */
+    @Contract("_, _ -> param2")
+    public static double[] mod(ComplexArray a, double[] dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, dst);
+        ComplexKernels.mod(a.real, a.imaginary, dst, 0, a.length());
+        return dst;
+    }
+
+    /**
+     * Calculates the {@code modulus (absolute value / magnitude)} of every element of {@code a}.
+     * @param a the numbers to calculate the modulus from
+     * @return  a new {@code double[]} holding the modulus of {@code a[i]}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     */
+    public static double[] mod(ComplexArray a) throws NullPointerException {
+        if(a == null) throw new NullPointerException();
+        return mod(a, new double[a.length()]);
+    }
+
+    /**
+     * Calculates the {@code argument (angle)} of every element of {@code a}.
+     * @param a     the numbers to calculate the argument from
+     * @param dst   the destination
+     * @return      {@code dst}, holding the argument of {@code a[i]} in radians
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if {@code dst} has a different length
+     */
+    @Contract("_, _ -> param2")
+    public static double[] arg(ComplexArray a, double[] dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, dst);
+        ComplexKernels.arg(a.real, a.imaginary, dst, 0, a.length());
+        return dst;
+    }
+
+    /**
+     * Calculates the {@code argument (angle)} of every element of {@code a}.
+     * @param a the numbers to calculate the argument from
+     * @return  a new {@code double[]} holding the argument of {@code a[i]} in radians
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     */
+    public static double[] arg(ComplexArray a) throws NullPointerException {
+        if(a == null) throw new NullPointerException();
+        return arg(a, new double[a.length()]);
+    }
+
+    //Exponential Functions:
+    /**
+     * Calculates every element of {@code a} to the power of {@code power}, see {@link ComplexNumber#pow(ComplexNumber, long)}.
+     * Elements equal to {@code 0} with a negative {@code power} become {@code NaN} instead of throwing an exception.
+     * @param a     the bases
+     * @param power the power, as a {@code long}
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding {@code a[i]}^{@code power}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _, _ -> param3")
+    public static ComplexArray pow(ComplexArray a, long power, ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, a, dst);
+        ComplexKernels.pow(a.real, a.imaginary, power, dst.real, dst.imaginary, 0, a.length());
+        return dst;
+    }
+
+    /**
+     * Calculates every element of {@code a} to the power of {@code power}.
+     * @param a     the bases
+     * @param power the power, as a {@code long}
+     * @return      a new {@code ComplexArray} holding {@code a[i]}^{@code power}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     * @see #pow(ComplexArray, long, ComplexArray)
+     */
+    @Contract("_, _ -> new")
+    public static @NotNull ComplexArray pow(ComplexArray a, long power) throws NullPointerException {
+        if(a == null) throw new NullPointerException();
+        return pow(a, power, new ComplexArray(a.length()));
+    }
+
+    /**
+     * Calculates every element of {@code a} to the power of the real number {@code power},
+     * see {@link ComplexNumber#pow(ComplexNumber, double)}.
+     * @param a     the bases
+     * @param power the power, as a {@code double}
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding {@code a[i]}^{@code power}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _, _ -> param3")
+    public static ComplexArray pow(ComplexArray a, double power, ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, a, dst);
+        ComplexKernels.pow(a.real, a.imaginary, power, dst.real, dst.imaginary, 0, a.length());
+        return dst;
+    }
+
+    /**
+     * Calculates every element of {@code a} to the power of the real number {@code power}.
+     * @param a     the bases
+     * @param power the power, as a {@code double}
+     * @return      a new {@code ComplexArray} holding {@code a[i]}^{@code power}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     * @see #pow(ComplexArray, double, ComplexArray)
+     */
+    @Contract("_, _ -> new")
+    public static @NotNull ComplexArray pow(ComplexArray a, double power) throws NullPointerException {
+        if(a == null) throw new NullPointerException();
+        return pow(a, power, new ComplexArray(a.length()));
+    }
+
+    /**
+     * Calculates every element of {@code a} to the power of the corresponding element of {@code w},
+     * see {@link ComplexNumber#pow(ComplexNumber, ComplexNumber)}.
+     * Undefined powers of {@code 0} become {@code NaN} instead of throwing an exception.
+     * @param a     the bases
+     * @param w     the powers
+     * @param dst   the destination, may be {@code a} or {@code w}
+     * @return      {@code dst}, holding {@code a[i]}^{@code w[i]}
+     * @throws NullPointerException     if {@code a}, {@code w} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _, _ -> param3")
+    public static ComplexArray pow(ComplexArray a, ComplexArray w, ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, w, dst);
+        ComplexKernels.pow(a.real, a.imaginary, w.real, w.imaginary, dst.real, dst.imaginary, 0, a.length());
+        return dst;
+    }
+
+    /**
+     * Calculates every element of {@code a} to the power of the corresponding element of {@code w}.
+     * @param a the bases
+     * @param w the powers
+     * @return  a new {@code ComplexArray} holding {@code a[i]}^{@code w[i]}
+     * @throws NullPointerException     if either {@code a} or {@code w} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     * @see #pow(ComplexArray, ComplexArray, ComplexArray)
+     */
+    @Contract("_, _ -> new")
+    public static @NotNull ComplexArray pow(ComplexArray a, ComplexArray w) throws NullPointerException, IllegalArgumentException {
+        if(a == null) throw new NullPointerException();
+        return pow(a, w, new ComplexArray(a.length()));
+    }
+
+    /**
+     * Calculates the exponential, e^<i>z</i> of every element of {@code a} and stores it in {@code dst},
+     * see {@link ComplexNumber#exp(ComplexNumber)}.
+     * @param a     the arguments
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding {@code exp(a[i])}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexArray exp(ComplexArray a, ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, a, dst);
+        ComplexKernels.exp(a.real, a.imaginary, dst.real, dst.imaginary, 0, a.length());
+        return dst;
+    }
+
+    /**
+     * Calculates the exponential, e^<i>z</i> of every element of {@code a}.
+     * @param a the arguments
+     * @return  a new {@code ComplexArray} holding {@code exp(a[i])}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     * @see #exp(ComplexArray, ComplexArray)
+     */
+    @Contract("_ -> new")
+    public static @NotNull ComplexArray exp(ComplexArray a) throws NullPointerException {
+        if(a == null) throw new NullPointerException();
+        return exp(a, new ComplexArray(a.length()));
+    }
+
+    /**
+     * Calculates the natural logarithm <i>(base e)</i> of every element of {@code a} and stores it in {@code dst},
+     * see {@link ComplexNumber#log(ComplexNumber)}.
+     * @param a     the arguments
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding {@code log(a[i])}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexArray log(ComplexArray a, ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, a, dst);
+        ComplexKernels.log(a.real, a.imaginary, dst.real, dst.imaginary, 0, a.length());
+        return dst;
+    }
+
+    /**
+     * Calculates the natural logarithm <i>(base e)</i> of every element of {@code a}.
+     * @param a the arguments
+     * @return  a new {@code ComplexArray} holding {@code log(a[i])}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     * @see #log(ComplexArray, ComplexArray)
+     */
+    @Contract("_ -> new")
+    public static @NotNull ComplexArray log(ComplexArray a) throws NullPointerException {
+        if(a == null) throw new NullPointerException();
+        return log(a, new ComplexArray(a.length()));
+    }
+
+    /**
+     * Calculates the square root of every element of {@code a} and stores it in {@code dst},
+     * see {@link ComplexNumber#sqrt(ComplexNumber)}.
+     * @param a     the arguments
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding {@code sqrt(a[i])}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexArray sqrt(ComplexArray a, ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, a, dst);
+        ComplexKernels.sqrt(a.real, a.imaginary, dst.real, dst.imaginary, 0, a.length());
+        return dst;
+    }
+
+    /**
+     * Calculates the square root of every element of {@code a}.
+     * @param a the arguments
+     * @return  a new {@code ComplexArray} holding {@code sqrt(a[i])}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     * @see #sqrt(ComplexArray, ComplexArray)
+     */
+    @Contract("_ -> new")
+    public static @NotNull ComplexArray sqrt(ComplexArray a) throws NullPointerException {
+        if(a == null) throw new NullPointerException();
+        return sqrt(a, new ComplexArray(a.length()));
+    }
+
+    //Trigonometric Operations:
+    /**
+     * Calculates the sine of every element of {@code a} and stores it in {@code dst},
+     * see {@link ComplexNumber#sin(ComplexNumber)}.
+     * @param a     the arguments
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding {@code sin(a[i])}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexArray sin(ComplexArray a, ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, a, dst);
+        ComplexKernels.sin(a.real, a.imaginary, dst.real, dst.imaginary, 0, a.length());
+        return dst;
+    }
+
+    /**
+     * Calculates the sine of every element of {@code a}.
+     * @param a the arguments
+     * @return  a new {@code ComplexArray} holding {@code sin(a[i])}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     * @see #sin(ComplexArray, ComplexArray)
+     */
+    @Contract("_ -> new")
+    public static @NotNull ComplexArray sin(ComplexArray a) throws NullPointerException {
+        if(a == null) throw new NullPointerException();
+        return sin(a, new ComplexArray(a.length()));
+    }
+
+    /**
+     * Calculates the cosine of every element of {@code a} and stores it in {@code dst},
+     * see {@link ComplexNumber#cos(ComplexNumber)}.
+     * @param a     the arguments
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding {@code cos(a[i])}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexArray cos(ComplexArray a, ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, a, dst);
+        ComplexKernels.cos(a.real, a.imaginary, dst.real, dst.imaginary, 0, a.length());
+        return dst;
+    }
+
+    /**
+     * Calculates the cosine of every element of {@code a}.
+     * @param a the arguments
+     * @return  a new {@code ComplexArray} holding {@code cos(a[i])}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     * @see #cos(ComplexArray, ComplexArray)
+     */
+    @Contract("_ -> new")
+    public static @NotNull ComplexArray cos(ComplexArray a) throws NullPointerException {
+        if(a == null) throw new NullPointerException();
+        return cos(a, new ComplexArray(a.length()));
+    }
+
+    /**
+     * Calculates the tangent of every element of {@code a} and stores it in {@code dst},
+     * see {@link ComplexNumber#tan(ComplexNumber)}. Elements whose cosine is equal to {@code 0} become {@code NaN} instead of throwing an exception.
+     * @param a     the arguments
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding {@code tan(a[i])}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexArray tan(ComplexArray a, ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, a, dst);
+        ComplexKernels.tan(a.real, a.imaginary, dst.real, dst.imaginary, 0, a.length());
+        return dst;
+    }
+
+    /**
+     * Calculates the tangent of every element of {@code a}.
+     * @param a the arguments
+     * @return  a new {@code ComplexArray} holding {@code tan(a[i])}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     * @see #tan(ComplexArray, ComplexArray)
+     */
+    @Contract("_ -> new")
+    public static @NotNull ComplexArray tan(ComplexArray a) throws NullPointerException {
+        if(a == null) throw new NullPointerException();
+        return tan(a, new ComplexArray(a.length()));
+    }
+
+    /**
+     * Calculates the arc sine of every element of {@code a} and stores it in {@code dst},
+     * see {@link ComplexNumber#asin(ComplexNumber)}.
+     * @param a     the arguments
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding {@code asin(a[i])}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexArray asin(ComplexArray a, ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, a, dst);
+        ComplexKernels.asin(a.real, a.imaginary, dst.real, dst.imaginary, 0, a.length());
+        return dst;
+    }
+
+    /**
+     * Calculates the arc sine of every element of {@code a}.
+     * @param a the arguments
+     * @return  a new {@code ComplexArray} holding {@code asin(a[i])}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     * @see #asin(ComplexArray, ComplexArray)
+     */
+    @Contract("_ -> new")
+    public static @NotNull ComplexArray asin(ComplexArray a) throws NullPointerException {
+        if(a == null) throw new NullPointerException();
+        return asin(a, new ComplexArray(a.length()));
+    }
+
+    /**
+     * Calculates the arc cosine of every element of {@code a} and stores it in {@code dst},
+     * see {@link ComplexNumber#acos(ComplexNumber)}. Elements equal to {@code 0} become {@code NaN} instead of throwing an exception.
+     * @param a     the arguments
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding {@code acos(a[i])}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexArray acos(ComplexArray a, ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, a, dst);
+        ComplexKernels.acos(a.real, a.imaginary, dst.real, dst.imaginary, 0, a.length());
+        return dst;
+    }
+
+    /**
+     * Calculates the arc cosine of every element of {@code a}.
+     * @param a the arguments
+     * @return  a new {@code ComplexArray} holding {@code acos(a[i])}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     * @see #acos(ComplexArray, ComplexArray)
+     */
+    @Contract("_ -> new")
+    public static @NotNull ComplexArray acos(ComplexArray a) throws NullPointerException {
+        if(a == null) throw new NullPointerException();
+        return acos(a, new ComplexArray(a.length()));
+    }
+
+    /**
+     * Calculates the arc tangent of every element of {@code a} and stores it in {@code dst},
+     * see {@link ComplexNumber#atan(ComplexNumber)}. Elements equal to {@code -i} become {@code NaN} instead of throwing an exception.
+     * @param a     the arguments
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding {@code atan(a[i])}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexArray atan(ComplexArray a, ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, a, dst);
+        ComplexKernels.atan(a.real, a.imaginary, dst.real, dst.imaginary, 0, a.length());
+        return dst;
+    }
+
+    /**
+     * Calculates the arc tangent of every element of {@code a}.
+     * @param a the arguments
+     * @return  a new {@code ComplexArray} holding {@code atan(a[i])}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     * @see #atan(ComplexArray, ComplexArray)
+     */
+    @Contract("_ -> new")
+    public static @NotNull ComplexArray atan(ComplexArray a) throws NullPointerException {
+        if(a == null) throw new NullPointerException();
+        return atan(a, new ComplexArray(a.length()));
+    }
+
+    //Reductions:
+    /**
+     * Calculates the sum of all elements. Each chunk of the array is summed up with Neumaier's compensated summation
+     * and the partial sums of the chunks are added up exactly, so the error doesn't grow with the length of the array
+     * like the one of a plain loop of additions. The chunks don't depend on the number of threads, so
+     * {@link Parallel#sum()} gives the same result.
+     * @return  a new {@code ComplexNumber} holding the sum of all elements
+     */
+    @Contract(" -> new")
+    public @NotNull ComplexNumber sum() {
+        return sum(false);
+    }
+
+    /**
+     * Calculates the arithmetic mean of all elements, the {@link #sum() sum} divided by the length.
+     * It gives the same result as {@link Parallel#mean()}.
+     * @return  a new {@code ComplexNumber} holding the mean of all elements
+     * @throws ArithmeticException  if the array is empty
+     */
+    @Contract(" -> new")
+    public @NotNull ComplexNumber mean() throws ArithmeticException {
+        return mean(false);
+    }
+
+    /**
+     * Calculates the <i>inner product</i> of this array and {@code b}, the sum of {@code conj(this[i]) * b[i]}.
+     * The products and their sum are computed as if in twice the precision of {@code double}
+     * (Ogita, Rump and Oishi's {@code Dot2}), so even sums that nearly cancel out are accurate.
+     * It gives the same result as {@link Parallel#dot(ComplexArray)}.
+     * @param b the 2nd operand of the inner product
+     * @return  a new {@code ComplexNumber} holding the inner product
+     * @throws NullPointerException     if {@code b} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_ -> new")
+    public @NotNull ComplexNumber dot(ComplexArray b) throws NullPointerException, IllegalArgumentException {
+        return dot(b, false);
+    }
+
+    /**
+     * Calculates the <i>Euclidean norm</i>, the square root of the sum of the squared moduli of all elements.
+     * Very big and very small values are scaled before they are squared (Blue's algorithm), so the norm neither
+     * overflows nor loses precision to underflow as long as the result itself is within the range of {@code double},
+     * and the squares are added up with compensation.
+     * It gives the same result as {@link Parallel#norm()}.
+     * @return  the norm of the array
+     */
+    public double norm() {
+        return norm(false);
+    }
+
+    /**
+     * Calculates the largest modulus <i>|z|</i> of all elements, the <i>maximum norm</i> of the array.
+     * It gives the same result as {@link Parallel#maxMod()}.
+     * @return  the largest modulus, 0 if the array is empty and NaN if any element is NaN
+     */
+    public double maxMod() {
+        return maxMod(false);
+    }
+
+    //Parallel Operations:
+    /**
+     * Returns a view of this array whose bulk operations run in parallel on the common {@code ForkJoinPool}.
+     * Inputs which are too small to profit from more threads are still processed on the calling thread;
+     * how small that is depends on the cost of the operation. The results are the same as the ones of the
+     * sequential operations.
+     * @return  a {@link Parallel} view of this array
+     */
+    public Parallel parallel() {
+        return new Parallel();
+    }
+
+    /**
+     * {@code Parallel} is a view of a {@link ComplexArray} which runs the bulk operations with the array as the
+     * first operand in parallel, see {@link ComplexArray#parallel()}. All other operands have to have the same length.
+     */
+    public final class Parallel {
+
+        private Parallel() {}
+
+        /**
+         * @param b     2nd summands of the addition
+         * @param dst   the destination, may be the array itself or {@code b}
+         * @return      {@code dst}, holding {@code this[i]} + {@code b[i]}
+         * @throws NullPointerException     if either {@code b} or {@code dst} is equal to {@code null}
+         * @throws IllegalArgumentException if the arrays differ in length
+         * @see ComplexArray#sum(ComplexArray, ComplexArray, ComplexArray)
+         */
+        @Contract("_, _ -> param2")
+        public ComplexArray sum(ComplexArray b, ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+            checkLengths(ComplexArray.this, b, dst);
+            ParallelKernels.forEach(length(), ParallelKernels.Cost.ADD.nanos,
+                    (from, to) -> ComplexKernels.sum(real, imaginary, b.real, b.imaginary, dst.real, dst.imaginary, from, to));
+            return dst;
+        }
+
+        /**
+         * @param b     subtrahends of the difference
+         * @param dst   the destination, may be the array itself or {@code b}
+         * @return      {@code dst}, holding {@code this[i]} - {@code b[i]}
+         * @throws NullPointerException     if either {@code b} or {@code dst} is equal to {@code null}
+         * @throws IllegalArgumentException if the arrays differ in length
+         * @see ComplexArray#diff(ComplexArray, ComplexArray, ComplexArray)
+         */
+        @Contract("_, _ -> param2")
+        public ComplexArray diff(ComplexArray b, ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+            checkLengths(ComplexArray.this, b, dst);
+            ParallelKernels.forEach(length(), ParallelKernels.Cost.SUB.nanos,
+                    (from, to) -> ComplexKernels.diff(real, imaginary, b.real, b.imaginary, dst.real, dst.imaginary, from, to));
+            return dst;
+        }
+
+        /**
+         * @param b     2nd multipliers of the product
+         * @param dst   the destination, may be the array itself or {@code b}
+         * @return      {@code dst}, holding {@code this[i]} * {@code b[i]}
+         * @throws NullPointerException     if either {@code b} or {@code dst} is equal to {@code null}
+         * @throws IllegalArgumentException if the arrays differ in length
+         * @see ComplexArray#prod(ComplexArray, ComplexArray, ComplexArray)
+         */
+        @Contract("_, _ -> param2")
+        public ComplexArray prod(ComplexArray b, ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+            checkLengths(ComplexArray.this, b, dst);
+            ParallelKernels.forEach(length(), ParallelKernels.Cost.MUL.nanos,
+                    (from, to) -> ComplexKernels.prod(real, imaginary, b.real, b.imaginary, dst.real, dst.imaginary, from, to));
+            return dst;
+        }
+
+        /**
+         * @param b     divisors of the division
+         * @param dst   the destination, may be the array itself or {@code b}
+         * @return      {@code dst}, holding {@code this[i]} / {@code b[i]}
+         * @throws NullPointerException     if either {@code b} or {@code dst} is equal to {@code null}
+         * @throws IllegalArgumentException if the arrays differ in length
+         * @see ComplexArray#division(ComplexArray, ComplexArray, ComplexArray)
+         */
+        @Contract("_, _ -> param2")
+        public ComplexArray division(ComplexArray b, ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+            checkLengths(ComplexArray.this, b, dst);
+            ParallelKernels.forEach(length(), ParallelKernels.Cost.DIV.nanos,
+                    (from, to) -> ComplexKernels.division(real, imaginary, b.real, b.imaginary, dst.real, dst.imaginary, from, to));
+            return dst;
+        }
+
+        /**
+         * Mathematically adds {@code b} element-wise to the array.
+         * @param b numbers to be added
+         */
+        public void add(ComplexArray b) {
+            sum(b, ComplexArray.this);
+        }
+
+        /**
+         * Mathematically subtracts {@code b} element-wise from the array.
+         * @param b numbers to be subtracted
+         */
+        public void sub(ComplexArray b) {
+            diff(b, ComplexArray.this);
+        }
+
+        /**
+         * Mathematically multiplies {@code b} element-wise to the array.
+         * @param b numbers to be multiplied with
+         */
+        public void mul(ComplexArray b) {
+            prod(b, ComplexArray.this);
+        }
+
+        /**
+         * Mathematically divides the array element-wise by {@code b}.
+         * @param b numbers to be divided by
+         */
+        public void div(ComplexArray b) {
+            division(b, ComplexArray.this);
+        }
+
+        /**
+         * @param dst   the destination, may be the array itself
+         * @return      {@code dst}, holding the conjugate of {@code this[i]}
+         * @throws NullPointerException     if {@code dst} is equal to {@code null}
+         * @throws IllegalArgumentException if the arrays differ in length
+         */
+        @Contract("_ -> param1")
+        public ComplexArray conjugate(ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+            checkLengths(ComplexArray.this, ComplexArray.this, dst);
+            ParallelKernels.forEach(length(), ParallelKernels.Cost.CONJUGATE.nanos,
+                    (from, to) -> ComplexKernels.conjugate(real, imaginary, dst.real, dst.imaginary, from, to));
+            return dst;
+        }
+
+        /**
+         * @param dst   the destination
+         * @return      {@code dst}, holding the modulus of {@code this[i]}
+         * @throws NullPointerException     if {@code dst} is equal to {@code null}
+         * @throws IllegalArgumentException if {@code dst} has a different length
+         */
+        @Contract("_ -> param1")
+        public double[] mod(double[] dst) throws NullPointerException, IllegalArgumentException {
+            checkLengths(ComplexArray.this, dst);
+            ParallelKernels.forEach(length(), ParallelKernels.Cost.MOD.nanos,
+                    (from, to) -> ComplexKernels.mod(real, imaginary, dst, from, to));
+            return dst;
+        }
+
+        /**
+         * @param dst   the destination
+         * @return      {@code dst}, holding the argument of {@code this[i]} in radians
+         * @throws NullPointerException     if {@code dst} is equal to {@code null}
+         * @throws IllegalArgumentException if {@code dst} has a different length
+         */
+        @Contract("_ -> param1")
+        public double[] arg(double[] dst) throws NullPointerException, IllegalArgumentException {
+            checkLengths(ComplexArray.this, dst);
+            ParallelKernels.forEach(length(), ParallelKernels.Cost.ARG.nanos,
+                    (from, to) -> ComplexKernels.arg(real, imaginary, dst, from, to));
+            return dst;
+        }
+
+        /**
+         * @param power the power, as a {@code long}
+         * @param dst   the destination, may be the array itself
+         * @return      {@code dst}, holding {@code this[i]}^{@code power}
+         * @throws NullPointerException     if {@code dst} is equal to {@code null}
+         * @throws IllegalArgumentException if the arrays differ in length
+         * @see ComplexArray#pow(ComplexArray, long, ComplexArray)
+         */
+        @Contract("_, _ -> param2")
+        public ComplexArray pow(long power, ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+            checkLengths(ComplexArray.this, ComplexArray.this, dst);
+            ParallelKernels.forEach(length(), ParallelKernels.Cost.POW.nanos,
+                    (from, to) -> ComplexKernels.pow(real, imaginary, power, dst.real, dst.imaginary, from, to));
+            return dst;
+        }
+
+        /**
+         * @param power the power, as a {@code double}
+         * @param dst   the destination, may be the array itself
+         * @return      {@code dst}, holding {@code this[i]}^{@code power}
+         * @throws NullPointerException     if {@code dst} is equal to {@code null}
+         * @throws IllegalArgumentException if the arrays differ in length
+         * @see ComplexArray#pow(ComplexArray, double, ComplexArray)
+         */
+        @Contract("_, _ -> param2")
+        public ComplexArray pow(double power, ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+            checkLengths(ComplexArray.this, ComplexArray.this, dst);
+            ParallelKernels.forEach(length(), ParallelKernels.Cost.POW_REAL.nanos,
+                    (from, to) -> ComplexKernels.pow(real, imaginary, power, dst.real, dst.imaginary, from, to));
+            return dst;
+        }
+
+        /**
+         * @param w     the powers
+         * @param dst   the destination, may be the array itself or {@code w}
+         * @return      {@code dst}, holding {@code this[i]}^{@code w[i]}
+         * @throws NullPointerException     if either {@code w} or {@code dst} is equal to {@code null}
+         * @throws IllegalArgumentException if the arrays differ in length
+         * @see ComplexArray#pow(ComplexArray, ComplexArray, ComplexArray)
+         */
+        @Contract("_, _ -> param2")
+        public ComplexArray pow(ComplexArray w, ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+            checkLengths(ComplexArray.this, w, dst);
+            ParallelKernels.forEach(length(), ParallelKernels.Cost.POW_COMPLEX.nanos,
+                    (from, to) -> ComplexKernels.pow(real, imaginary, w.real, w.imaginary, dst.real, dst.imaginary, from, to));
+            return dst;
+        }
+
+        /**
+         * @param dst   the destination, may be the array itself
+         * @return      {@code dst}, holding {@code exp(this[i])}
+         * @throws NullPointerException     if {@code dst} is equal to {@code null}
+         * @throws IllegalArgumentException if the arrays differ in length
+         * @see ComplexArray#exp(ComplexArray, ComplexArray)
+         */
+        @Contract("_ -> param1")
+        public ComplexArray exp(ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+            checkLengths(ComplexArray.this, ComplexArray.this, dst);
+            ParallelKernels.forEach(length(), ParallelKernels.Cost.EXP.nanos,
+                    (from, to) -> ComplexKernels.exp(real, imaginary, dst.real, dst.imaginary, from, to));
+            return dst;
+        }
+
+        /**
+         * @param dst   the destination, may be the array itself
+         * @return      {@code dst}, holding {@code log(this[i])}
+         * @throws NullPointerException     if {@code dst} is equal to {@code null}
+         * @throws IllegalArgumentException if the arrays differ in length
+         * @see ComplexArray#log(ComplexArray, ComplexArray)
+         */
+        @Contract("_ -> param1")
+        public ComplexArray log(ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+            checkLengths(ComplexArray.this, ComplexArray.this, dst);
+            ParallelKernels.forEach(length(), ParallelKernels.Cost.LOG.nanos,
+                    (from, to) -> ComplexKernels.log(real, imaginary, dst.real, dst.imaginary, from, to));
+            return dst;
+        }
+
+        /**
+         * @param dst   the destination, may be the array itself
+         * @return      {@code dst}, holding {@code sqrt(this[i])}
+         * @throws NullPointerException     if {@code dst} is equal to {@code null}
+         * @throws IllegalArgumentException if the arrays differ in length
+         * @see ComplexArray#sqrt(ComplexArray, ComplexArray)
+         */
+        @Contract("_ -> param1")
+        public ComplexArray sqrt(ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+            checkLengths(ComplexArray.this, ComplexArray.this, dst);
+            ParallelKernels.forEach(length(), ParallelKernels.Cost.SQRT.nanos,
+                    (from, to) -> ComplexKernels.sqrt(real, imaginary, dst.real, dst.imaginary, from, to));
+            return dst;
+        }
+
+        /**
+         * @param dst   the destination, may be the array itself
+         * @return      {@code dst}, holding {@code sin(this[i])}
+         * @throws NullPointerException     if {@code dst} is equal to {@code null}
+         * @throws IllegalArgumentException if the arrays differ in length
+         * @see ComplexArray#sin(ComplexArray, ComplexArray)
+         */
+        @Contract("_ -> param1")
+        public ComplexArray sin(ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+            checkLengths(ComplexArray.this, ComplexArray.this, dst);
+            ParallelKernels.forEach(length(), ParallelKernels.Cost.SIN.nanos,
+                    (from, to) -> ComplexKernels.sin(real, imaginary, dst.real, dst.imaginary, from, to));
+            return dst;
+        }
+
+        /**
+         * @param dst   the destination, may be the array itself
+         * @return      {@code dst}, holding {@code cos(this[i])}
+         * @throws NullPointerException     if {@code dst} is equal to {@code null}
+         * @throws IllegalArgumentException if the arrays differ in length
+         * @see ComplexArray#cos(ComplexArray, ComplexArray)
+         */
+        @Contract("_ -> param1")
+        public ComplexArray cos(ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+            checkLengths(ComplexArray.this, ComplexArray.this, dst);
+            ParallelKernels.forEach(length(), ParallelKernels.Cost.COS.nanos,
+                    (from, to) -> ComplexKernels.cos(real, imaginary, dst.real, dst.imaginary, from, to));
+            return dst;
+        }
+
+        /**
+         * @param dst   the destination, may be the array itself
+         * @return      {@code dst}, holding {@code tan(this[i])}
+         * @throws NullPointerException     if {@code dst} is equal to {@code null}
+         * @throws IllegalArgumentException if the arrays differ in length
+         * @see ComplexArray#tan(ComplexArray, ComplexArray)
+         */
+        @Contract("_ -> param1")
+        public ComplexArray tan(ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+            checkLengths(ComplexArray.this, ComplexArray.this, dst);
+            ParallelKernels.forEach(length(), ParallelKernels.Cost.TAN.nanos,
+                    (from, to) -> ComplexKernels.tan(real, imaginary, dst.real, dst.imaginary, from, to));
+            return dst;
+        }
+
+        /**
+         * @param dst   the destination, may be the array itself
+         * @return      {@code dst}, holding {@code asin(this[i])}
+         * @throws NullPointerException     if {@code dst} is equal to {@code null}
+         * @throws IllegalArgumentException if the arrays differ in length
+         * @see ComplexArray#asin(ComplexArray, ComplexArray)
+         */
+        @Contract("_ -> param1")
+        public ComplexArray asin(ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+            checkLengths(ComplexArray.this, ComplexArray.this, dst);
+            ParallelKernels.forEach(length(), ParallelKernels.Cost.ASIN.nanos,
+                    (from, to) -> ComplexKernels.asin(real, imaginary, dst.real, dst.imaginary, from, to));
+            return dst;
+        }
+
+        /**
+         * @param dst   the destination, may be the array itself
+         * @return      {@code dst}, holding {@code acos(this[i])}
+         * @throws NullPointerException     if {@code dst} is equal to {@code null}
+         * @throws IllegalArgumentException if the arrays differ in length
+         * @see ComplexArray#acos(ComplexArray, ComplexArray)
+         */
+        @Contract("_ -> param1")
+        public ComplexArray acos(ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+            checkLengths(ComplexArray.this, ComplexArray.this, dst);
+            ParallelKernels.forEach(length(), ParallelKernels.Cost.ACOS.nanos,
+                    (from, to) -> ComplexKernels.acos(real, imaginary, dst.real, dst.imaginary, from, to));
+            return dst;
+        }
+
+        /**
+         * @param dst   the destination, may be the array itself
+         * @return      {@code dst}, holding {@code atan(this[i])}
+         * @throws NullPointerException     if {@code dst} is equal to {@code null}
+         * @throws IllegalArgumentException if the arrays differ in length
+         * @see ComplexArray#atan(ComplexArray, ComplexArray)
+         */
+        @Contract("_ -> param1")
+        public ComplexArray atan(ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+            checkLengths(ComplexArray.this, ComplexArray.this, dst);
+            ParallelKernels.forEach(length(), ParallelKernels.Cost.ATAN.nanos,
+                    (from, to) -> ComplexKernels.atan(real, imaginary, dst.real, dst.imaginary, from, to));
+            return dst;
+        }
+
+        /**
+         * @return  a new {@code ComplexNumber} holding the sum of all elements
+         * @see ComplexArray#sum()
+         */
+        @Contract(" -> new")
+        public @NotNull ComplexNumber sum() {
+            return ComplexArray.this.sum(true);
+        }
+
+        /**
+         * @return  a new {@code ComplexNumber} holding the mean of all elements
+         * @throws ArithmeticException  if the array is empty
+         * @see ComplexArray#mean()
+         */
+        @Contract(" -> new")
+        public @NotNull ComplexNumber mean() throws ArithmeticException {
+            return ComplexArray.this.mean(true);
+        }
+
+        /**
+         * @param b the 2nd operand of the inner product
+         * @return  a new {@code ComplexNumber} holding the sum of {@code conj(this[i]) * b[i]}
+         * @throws NullPointerException     if {@code b} is equal to {@code null}
+         * @throws IllegalArgumentException if the arrays differ in length
+         * @see ComplexArray#dot(ComplexArray)
+         */
+        @Contract("_ -> new")
+        public @NotNull ComplexNumber dot(ComplexArray b) throws NullPointerException, IllegalArgumentException {
+            return ComplexArray.this.dot(b, true);
+        }
+
+        /**
+         * @return  the Euclidean norm of the array
+         * @see ComplexArray#norm()
+         */
+        public double norm() {
+            return ComplexArray.this.norm(true);
+        }
+
+        /**
+         * @return  the largest modulus of all elements
+         * @see ComplexArray#maxMod()
+         */
+        public double maxMod() {
+            return ComplexArray.this.maxMod(true);
+        }
+    }
+
+    //Helper functions:
+    private ComplexNumber sum(boolean parallel) {
+        double[] partial = ParallelKernels.partials(length(), ParallelKernels.Cost.COMPENSATED_SUM.nanos, parallel, 4,
+                (from, to, out, offset) -> {
+                    ComplexKernels.compensatedTotal(real, from, to, out, offset);
+                    ComplexKernels.compensatedTotal(imaginary, from, to, out, offset + 2);
+                });
+        return new ComplexNumber(total(partial, 0), total(partial, 2));
+    }
+
+    private ComplexNumber mean(boolean parallel) {
+        if(length() == 0) throw new ArithmeticException("mean of an empty array");
+        ComplexNumber s = sum(parallel);
+        return new ComplexNumber(s.getRe() / length(), s.getIm() / length());
+    }
+
+    private ComplexNumber dot(ComplexArray b, boolean parallel) {
+        if(b == null) throw new NullPointerException();
+        if(length() != b.length()) throw new IllegalArgumentException("arrays differ in length");
+        double[] partial = ParallelKernels.partials(length(), ParallelKernels.Cost.DOT.nanos, parallel, 4,
+                (from, to, out, offset) -> ComplexKernels.compensatedDot(real, imaginary, b.real, b.imaginary, from, to, out, offset));
+        return new ComplexNumber(total(partial, 0), total(partial, 2));
+    }
+
+    private double norm(boolean parallel) {
+        double[] partial = ParallelKernels.partials(length(), ParallelKernels.Cost.NORM.nanos, parallel, 4,
+                (from, to, out, offset) -> ComplexKernels.scaledNormSquared(real, imaginary, from, to, out, offset));
+        double small = 0, big = 0;
+        for(int c = 0; c < partial.length; c += 4) {
+            small += partial[c];
+            big += partial[c + 3];
+        }
+        return ComplexKernels.norm(small, total(partial, 1), big);
+    }
+
+    private double maxMod(boolean parallel) {
+        double[] partial = ParallelKernels.partials(length(), ParallelKernels.Cost.NORM.nanos, parallel, 1,
+                (from, to, out, offset) -> out[offset] = ComplexKernels.maxModulus(real, imaginary, from, to));
+        double max = 0;
+        for(double m : partial) max = Math.max(max, m);
+        return max;
+    }
+
+    //The exact sum, rounded once, of the sums partial[4c + offset] and their errors partial[4c + offset + 1] of all chunks c.
+    //The error of a sum that isn't finite is meaningless, it would only turn an overflow into NaN:
+    private static double total(double[] partial, int offset) {
+        ExactSum s = new ExactSum();
+        for(int c = offset; c < partial.length; c += 4) {
+            s.add(partial[c]);
+            if(Double.isFinite(partial[c])) s.add(partial[c + 1]);
+        }
+        return s.value();
+    }
+
+    private static void checkLengths(ComplexArray a, ComplexArray b, ComplexArray dst) {
+        if(a == null || b == null || dst == null) throw new NullPointerException();
+        if(a.length() != b.length() || a.length() != dst.length()) throw new IllegalArgumentException("arrays differ in length");
+    }
+
+    private static void checkLengths(ComplexArray a, double[] dst) {
+        if(a == null || dst == null) throw new NullPointerException();
+        if(a.length() != dst.length) throw new IllegalArgumentException("arrays differ in length");
+    }
+}
@@ -0,0 +1,523 @@
+package de.andimoo5.math;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * {@code ComplexCodec} writes and reads arrays of complex numbers in a compact binary format. Compared to text,
+ * the format is exact (with {@link Precision#FLOAT64 FLOAT64}), a lot smaller and needs no parsing.<br>
+ * <br> A stream consists of a {@value #HEADER_BYTES} byte header followed by the values, all little-endian:
+ * <ul>
+ *     <li>bytes 0 - 3: the magic number {@code "CPLX"}</li>
+ *     <li>byte 4: the version of the format, {@value #VERSION}</li>
+ *     <li>byte 5: the {@link Precision} of the values</li>
+ *     <li>byte 6: the {@link Layout} of the values</li>
+ *     <li>byte 7: reserved, 0</li>
+ *     <li>bytes 8 - 15: the number of complex numbers as {@code long}</li>
+ * </ul>
+ * The values are written and read in chunks of {@value #CHUNK} bytes, so the whole stream is never held in memory
+ * twice. Streams go through a heap buffer, channels through a direct {@code ByteBuffer}. If the precision is
+ * {@code FLOAT64} and the layout of the stream matches the one of the array, the values are copied in bulk between
+ * the buffer and the array, without converting them one by one. Reading stops at the end of the values,
+ * so several arrays can be written to and read from the same stream one after the other.
+ *
+ * @author  Andras Martin Moosbauer
+ * @version 2.0
+ */
+public final class ComplexCodec {
+
+    /**
+     * The magic number at the beginning of every stream, the bytes {@code "CPLX"} read as little-endian {@code int}.
+     */
+    public static final int MAGIC = 0x584C5043;
+
+    /**
+     * The version of the format written by this class.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * The size of the header in bytes.
+     */
+    public static final int HEADER_BYTES = 16;
+
+    /**
+     * The size of the buffer the values pass through, in bytes.
+     */
+    public static final int CHUNK = 1 << 16;
+
+    /**
+     * The precision of the values in a stream. Values are rounded to the nearest value of a lower precision;
+     * values too big for it become infinite.
+     */
+    public enum Precision {
+        /**
+         * 64 bit floating point values ({@code double}), the values are kept exactly.
+         */
+        FLOAT64(8),
+        /**
+         * 32 bit floating point values ({@code float}), about 7 significant decimal digits.
+         */
+        FLOAT32(4),
+        /**
+         * 16 bit floating point values (IEEE 754 <i>binary16</i>), about 3 significant decimal digits and a
+         * maximum of 65504.
+         */
+        FLOAT16(2);
+
+        /**
+         * The size of one value (one part of a complex number) in bytes.
+         */
+        public final int bytes;
+
+        Precision(int bytes) {
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * The order of the values in a stream.
+     */
+    public enum Layout {
+        /**
+         * Alternating real and imaginary parts, like {@link InterleavedComplexArray}.
+         */
+        INTERLEAVED,
+        /**
+         * All real parts followed by all imaginary parts, like {@link ComplexArray}.
+         */
+        SPLIT
+    }
+
+    /**
+     * The header of a stream.
+     * @param length    the number of complex numbers
+     * @param precision the precision of the values
+     * @param layout    the order of the values
+     */
+    public record Header(long length, Precision precision, Layout layout) {}
+
+    private ComplexCodec() {}
+
+    //Writing:
+    /**
+     * Writes {@code a} with its header to {@code out}.
+     * @param a         the array to be written
+     * @param precision the precision of the values
+     * @param layout    the order of the values
+     * @param out       the stream to write to; it isn't closed
+     * @throws NullPointerException if {@code a}, {@code precision}, {@code layout} or {@code out} is equal to {@code null}
+     * @throws IOException          if writing to {@code out} fails
+     */
+    public static void write(ComplexArray a, Precision precision, Layout layout, OutputStream out) throws NullPointerException, IOException {
+        if(out == null) throw new NullPointerException();
+        write(a.real(), a.imaginary(), false, precision, layout, ByteBuffer.allocate(CHUNK), b -> {
+            out.write(b.array(), b.arrayOffset() + b.position(), b.remaining());
+            b.position(b.limit());
+        });
+    }
+
+    /**
+     * Writes {@code a} with its header to {@code out}, through a direct buffer.
+     * @param a         the array to be written
+     * @param precision the precision of the values
+     * @param layout    the order of the values
+     * @param out       the channel to write to; it isn't closed
+     * @throws NullPointerException if {@code a}, {@code precision}, {@code layout} or {@code out} is equal to {@code null}
+     * @throws IOException          if writing to {@code out} fails
+     */
+    public static void write(ComplexArray a, Precision precision, Layout layout, WritableByteChannel out) throws NullPointerException, IOException {
+        if(out == null) throw new NullPointerException();
+        write(a.real(), a.imaginary(), false, precision, layout, ByteBuffer.allocateDirect(CHUNK), channelSink(out));
+    }
+
+    /**
+     * Writes {@code a} with its header to {@code out}.
+     * @param a         the array to be written
+     * @param precision the precision of the values
+     * @param layout    the order of the values
+     * @param out       the stream to write to; it isn't closed
+     * @throws NullPointerException if {@code a}, {@code precision}, {@code layout} or {@code out} is equal to {@code null}
+     * @throws IOException          if writing to {@code out} fails
+     */
+    public static void write(InterleavedComplexArray a, Precision precision, Layout layout, OutputStream out) throws NullPointerException, IOException {
+        if(out == null) throw new NullPointerException();
+        write(a.data(), a.data(), true, precision, layout, ByteBuffer.allocate(CHUNK), b -> {
+            out.write(b.array(), b.arrayOffset() + b.position(), b.remaining());
+            b.position(b.limit());
+        });
+    }
+
+    /**
+     * Writes {@code a} with its header to {@code out}, through a direct buffer.
+     * @param a         the array to be written
+     * @param precision the precision of the values
+     * @param layout    the order of the values
+     * @param out       the channel to write to; it isn't closed
+     * @throws NullPointerException if {@code a}, {@code precision}, {@code layout} or {@code out} is equal to {@code null}
+     * @throws IOException          if writing to {@code out} fails
+     */
+    public static void write(InterleavedComplexArray a, Precision precision, Layout layout, WritableByteChannel out) throws NullPointerException, IOException {
+        if(out == null) throw new NullPointerException();
+        write(a.data(), a.data(), true, precision, layout, ByteBuffer.allocateDirect(CHUNK), channelSink(out));
+    }
+
+    //Reading:
+    /**
+     * Reads a stream written by {@code write} into a new {@code ComplexArray}.
+     * @param in    the stream to read from; it isn't closed
+     * @return      a new {@code ComplexArray} with the values of the stream
+     * @throws NullPointerException         if {@code in} is equal to {@code null}
+     * @throws StreamCorruptedException     if the header is invalid or the array would be too long
+     * @throws EOFException                 if the stream ends too early
+     * @throws IOException                  if reading from {@code in} fails
+     */
+    public static @NotNull ComplexArray read(InputStream in) throws NullPointerException, IOException {
+        if(in == null) throw new NullPointerException();
+        ByteBuffer b = ByteBuffer.allocate(CHUNK);
+        Bounded source = new Bounded(streamSource(in));
+        Header h = header(b, source);
+        ComplexArray a = new ComplexArray(arrayLength(h));
+        read(a.real(), a.imaginary(), false, h, b, source);
+        return a;
+    }
+
+    /**
+     * Reads a stream written by {@code write} into a new {@code ComplexArray}, through a direct buffer.
+     * @param in    the channel to read from; it isn't closed
+     * @return      a new {@code ComplexArray} with the values of the stream
+     * @throws NullPointerException         if {@code in} is equal to {@code null}
+     * @throws StreamCorruptedException     if the header is invalid or the array would be too long
+     * @throws EOFException                 if the stream ends too early
+     * @throws IOException                  if reading from {@code in} fails
+     */
+    public static @NotNull ComplexArray read(ReadableByteChannel in) throws NullPointerException, IOException {
+        if(in == null) throw new NullPointerException();
+        ByteBuffer b = ByteBuffer.allocateDirect(CHUNK);
+        Bounded source = new Bounded(in::read);
+        Header h = header(b, source);
+        ComplexArray a = new ComplexArray(arrayLength(h));
+        read(a.real(), a.imaginary(), false, h, b, source);
+        return a;
+    }
+
+    /**
+     * Reads a stream written by {@code write} directly into {@code dst}, without any intermediate array.
+     * @param in    the stream to read from; it isn't closed
+     * @param dst   the destination, its length has to be the one in the header
+     * @return      {@code dst}
+     * @throws NullPointerException         if either {@code in} or {@code dst} is equal to {@code null}
+     * @throws StreamCorruptedException     if the header is invalid or the length differs from the one of {@code dst}
+     * @throws EOFException                 if the stream ends too early
+     * @throws IOException                  if reading from {@code in} fails
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexArray read(InputStream in, ComplexArray dst) throws NullPointerException, IOException {
+        if(in == null || dst == null) throw new NullPointerException();
+        ByteBuffer b = ByteBuffer.allocate(CHUNK);
+        Bounded source = new Bounded(streamSource(in));
+        read(dst.real(), dst.imaginary(), false, checkLength(header(b, source), dst.length()), b, source);
+        return dst;
+    }
+
+    /**
+     * Reads a stream written by {@code write} directly into {@code dst}, through a direct buffer.
+     * @param in    the channel to read from; it isn't closed
+     * @param dst   the destination, its length has to be the one in the header
+     * @return      {@code dst}
+     * @throws NullPointerException         if either {@code in} or {@code dst} is equal to {@code null}
+     * @throws StreamCorruptedException     if the header is invalid or the length differs from the one of {@code dst}
+     * @throws EOFException                 if the stream ends too early
+     * @throws IOException                  if reading from {@code in} fails
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexArray read(ReadableByteChannel in, ComplexArray dst) throws NullPointerException, IOException {
+        if(in == null || dst == null) throw new NullPointerException();
+        ByteBuffer b = ByteBuffer.allocateDirect(CHUNK);
+        Bounded source = new Bounded(in::read);
+        read(dst.real(), dst.imaginary(), false, checkLength(header(b, source), dst.length()), b, source);
+        return dst;
+    }
+
+    /**
+     * Reads a stream written by {@code write} directly into {@code dst}, without any intermediate array.
+     * @param in    the stream to read from; it isn't closed
+     * @param dst   the destination, its length has to be the one in the header
+     * @return      {@code dst}
+     * @throws NullPointerException         if either {@code in} or {@code dst} is equal to {@code null}
+     * @throws StreamCorruptedException     if the header is invalid or the length differs from the one of {@code dst}
+     * @throws EOFException                 if the stream ends too early
+     * @throws IOException                  if reading from {@code in} fails
+     */
+    @Contract("_, _ -> param2")
+    public static InterleavedComplexArray read(InputStream in, InterleavedComplexArray dst) throws NullPointerException, IOException {
+        if(in == null || dst == null) throw new NullPointerException();
+        ByteBuffer b = ByteBuffer.allocate(CHUNK);
+        Bounded source = new Bounded(streamSource(in));
+        read(dst.data(), dst.data(), true, checkLength(header(b, source), dst.length()), b, source);
+        return dst;
+    }
+
+    /**
+     * Reads a stream written by {@code write} directly into {@code dst}, through a direct buffer.
+     * @param in    the channel to read from; it isn't closed
+     * @param dst   the destination, its length has to be the one in the header
+     * @return      {@code dst}
+     * @throws NullPointerException         if either {@code in} or {@code dst} is equal to {@code null}
+     * @throws StreamCorruptedException     if the header is invalid or the length differs from the one of {@code dst}
+     * @throws EOFException                 if the stream ends too early
+     * @throws IOException                  if reading from {@code in} fails
+     */
+    @Contract("_, _ -> param2")
+    public static InterleavedComplexArray read(ReadableByteChannel in, InterleavedComplexArray dst) throws NullPointerException, IOException {
+        if(in == null || dst == null) throw new NullPointerException();
+        ByteBuffer b = ByteBuffer.allocateDirect(CHUNK);
+        Bounded source = new Bounded(in::read);
+        read(dst.data(), dst.data(), true, checkLength(header(b, source), dst.length()), b, source);
+        return dst;
+    }
+
+    //Helper functions:
+    //Drains the flipped buffer completely:
+    @FunctionalInterface
+    private interface Sink {
+        void write(ByteBuffer b) throws IOException;
+    }
+
+    //Reads into the buffer, returns -1 at the end of the stream:
+    @FunctionalInterface
+    private interface Source {
+        int read(ByteBuffer b) throws IOException;
+    }
+
+    //Reads no further than the end of the current stream, so that a following one stays in the source:
+    private static final class Bounded implements Source {
+
+        private final Source source;
+        //The bytes left, the header at first and then the values:
+        private long left = HEADER_BYTES;
+
+        private Bounded(Source source) {
+            this.source = source;
+        }
+
+        @Override
+        public int read(ByteBuffer b) throws IOException {
+            if(left == 0) return -1;
+            int limit = b.limit();
+            if(b.remaining() > left) b.limit(b.position() + (int)left);
+            int n = source.read(b);
+            b.limit(limit);
+            if(n > 0) left -= n;
+            return n;
+        }
+    }
+
+    private static Sink channelSink(WritableByteChannel out) {
+        return b -> {
+            while(b.hasRemaining()) out.write(b);
+        };
+    }
+
+    private static Source streamSource(InputStream in) {
+        return b -> {
+            int n = in.read(b.array(), b.arrayOffset() + b.position(), b.remaining());
+            if(n > 0) b.position(b.position() + n);
+            return n;
+        };
+    }
+
+    //re and im are the same array with an interleaved array, the parts of element i are then at 2i and 2i+1:
+    private static void write(double[] re, double[] im, boolean interleaved, Precision precision, Layout layout, ByteBuffer b, Sink sink) throws IOException {
+        if(precision == null || layout == null) throw new NullPointerException();
+        int n = interleaved ? re.length / 2 : re.length;
+        b.order(ByteOrder.LITTLE_ENDIAN);
+        b.putInt(MAGIC).put((byte)VERSION).put((byte)precision.ordinal()).put((byte)layout.ordinal()).put((byte)0).putLong(n);
+        if(layout == Layout.INTERLEAVED) {
+            if(interleaved) encode(re, 0, 1, 2 * n, precision, b, sink);
+            else encodePairs(re, im, n, precision, b, sink);
+        }
+        else {
+            int stride = interleaved ? 2 : 1;
+            encode(re, 0, stride, n, precision, b, sink);
+            encode(im, interleaved ? 1 : 0, stride, n, precision, b, sink);
+        }
+        b.flip();
+        sink.write(b);
+    }
+
+    private static void read(double[] re, double[] im, boolean interleaved, Header h, ByteBuffer b, Source source) throws IOException {
+        int n = (int)h.length;
+        if(h.layout == Layout.INTERLEAVED) {
+            if(interleaved) decode(re, 0, 1, 2 * n, h.precision, b, source);
+            else decodePairs(re, im, n, h.precision, b, source);
+        }
+        else {
+            int stride = interleaved ? 2 : 1;
+            decode(re, 0, stride, n, h.precision, b, source);
+            decode(im, interleaved ? 1 : 0, stride, n, h.precision, b, source);
+        }
+    }
+
+    private static Header header(ByteBuffer b, Bounded source) throws IOException {
+        b.order(ByteOrder.LITTLE_ENDIAN).limit(0);
+        fill(b, source, HEADER_BYTES);
+        int magic = b.getInt(), version = b.get(), precision = b.get(), layout = b.get();
+        b.get();
+        long length = b.getLong();
+        if(magic != MAGIC) throw new StreamCorruptedException("not a complex data stream");
+        if(version != VERSION) throw new StreamCorruptedException("unsupported version " + version);
+        if(precision < 0 || precision >= Precision.values().length || layout < 0 || layout >= Layout.values().length || length < 0)
+            throw new StreamCorruptedException("invalid header");
+        Header h = new Header(length, Precision.values()[precision], Layout.values()[layout]);
+        //Lengths this big are rejected before any value is read:
+        source.left = Math.min(length, Integer.MAX_VALUE) * 2 * h.precision.bytes;
+        return h;
+    }
+
+    private static int arrayLength(Header h) throws StreamCorruptedException {
+        if(h.length > Integer.MAX_VALUE / 2) throw new StreamCorruptedException("length " + h.length + " exceeds the maximum array length");
+        return (int)h.length;
+    }
+
+    private static Header checkLength(Header h, int length) throws StreamCorruptedException {
+        if(h.length != length) throw new StreamCorruptedException("stream length " + h.length + " differs from array length " + length);
+        return h;
+    }
+
+    //Makes sure at least the given number of bytes can be read from the buffer:
+    private static void fill(ByteBuffer b, Source source, int bytes) throws IOException {
+        if(b.remaining() >= bytes) return;
+        b.compact();
+        while(b.position() < bytes) {
+            if(source.read(b) < 0) throw new EOFException("unexpected end of stream");
+        }
+        b.flip();
+    }
+
+    //Rounds to binary16 with a single rounding. The conversion to float rounds to odd first (towards 0, with the last bit set
+    //if it was inexact), which keeps enough information for the second rounding to give the same result as a direct one:
+    static short toFloat16(double d) {
+        float f = (float)d;
+        if(d == d && f != d) {
+            if(Math.abs(f) > Math.abs(d)) f = d > 0 ? Math.nextDown(f) : Math.nextUp(f);
+            f = Float.intBitsToFloat(Float.floatToRawIntBits(f) | 1);
+        }
+        return Float.floatToFloat16(f);
+    }
+
+    //Writes count values, the k-th one at a[offset + k * stride]:
+    private static void encode(double[] a, int offset, int stride, int count, Precision p, ByteBuffer b, Sink sink) throws IOException {
+        for(int k = 0; k < count; ) {
+            if(b.remaining() < p.bytes) {
+                b.flip();
+                sink.write(b);
+                b.clear();
+            }
+            int m = Math.min(count - k, b.remaining() / p.bytes);
+            int i = offset + k * stride;
+            switch(p) {
+                case FLOAT64 -> {
+                    if(stride == 1) {
+                        b.asDoubleBuffer().put(a, i, m);
+                        b.position(b.position() + 8 * m);
+                    }
+                    else for(int j = 0; j < m; j++, i += stride) b.putDouble(a[i]);
+                }
+                case FLOAT32 -> {
+                    for(int j = 0; j < m; j++, i += stride) b.putFloat((float)a[i]);
+                }
+                case FLOAT16 -> {
+                    for(int j = 0; j < m; j++, i += stride) b.putShort(toFloat16(a[i]));
+                }
+            }
+            k += m;
+        }
+    }
+
+    //Writes the parts of n elements of split arrays alternately:
+    private static void encodePairs(double[] re, double[] im, int n, Precision p, ByteBuffer b, Sink sink) throws IOException {
+        for(int i = 0; i < n; ) {
+            if(b.remaining() < 2 * p.bytes) {
+                b.flip();
+                sink.write(b);
+                b.clear();
+            }
+            int end = i + Math.min(n - i, b.remaining() / (2 * p.bytes));
+            switch(p) {
+                case FLOAT64 -> {
+                    for(; i < end; i++) b.putDouble(re[i]).putDouble(im[i]);
+                }
+                case FLOAT32 -> {
+                    for(; i < end; i++) b.putFloat((float)re[i]).putFloat((float)im[i]);
+                }
+                case FLOAT16 -> {
+                    for(; i < end; i++) b.putShort(toFloat16(re[i])).putShort(toFloat16(im[i]));
+                }
+            }
+        }
+    }
+
+    //Reads count values, the k-th one into a[offset + k * stride]:
+    private static void decode(double[] a, int offset, int stride, int count, Precision p, ByteBuffer b, Source source) throws IOException {
+        for(int k = 0; k < count; ) {
+            fill(b, source, p.bytes);
+            int m = Math.min(count - k, b.remaining() / p.bytes);
+            int i = offset + k * stride;
+            switch(p) {
+                case FLOAT64 -> {
+                    if(stride == 1) {
+                        b.asDoubleBuffer().get(a, i, m);
+                        b.position(b.position() + 8 * m);
+                    }
+                    else for(int j = 0; j < m; j++, i += stride) a[i] = b.getDouble();
+                }
+                case FLOAT32 -> {
+                    for(int j = 0; j < m; j++, i += stride) a[i] = b.getFloat();
+                }
+                case FLOAT16 -> {
+                    for(int j = 0; j < m; j++, i += stride) a[i] = Float.float16ToFloat(b.getShort());
+                }
+            }
+            k += m;
+        }
+    }
+
+    //Reads alternating parts of n elements into split arrays:
+    private static void decodePairs(double[] re, double[] im, int n, Precision p, ByteBuffer b, Source source) throws IOException {
+        for(int i = 0; i < n; ) {
+            fill(b, source, 2 * p.bytes);
+            int end = i + Math.min(n - i, b.remaining() / (2 * p.bytes));
+            switch(p) {
+                case FLOAT64 -> {
+                    for(; i < end; i++) {
+                        re[i] = b.getDouble();
+                        im[i] = b.getDouble();
+                    }
+                }
+                case FLOAT32 -> {
+                    for(; i < end; i++) {
+                        re[i] = b.getFloat();
+                        im[i] = b.getFloat();
+                    }
+                }
+                case FLOAT16 -> {
+                    for(; i < end; i++) {
+                        re[i] = Float.float16ToFloat(b.getShort());
+                        im[i] = Float.float16ToFloat(b.getShort());
+                    }
+                }
+            }
+        }
+    }
+}
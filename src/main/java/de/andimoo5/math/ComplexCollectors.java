@@ -0,0 +1,130 @@
+package de.andimoo5.math;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.stream.Collector;
+
+/**
+ * {@code ComplexCollectors} contains {@link Collector Collectors} which reduce a {@code Stream<ComplexNumber>} to its
+ * sum, mean, Euclidean norm or largest modulus, the same reductions as the ones of {@link ComplexArray}. They make
+ * {@code stream.collect(ComplexCollectors.sum())} a replacement for adding up the elements with
+ * {@link ComplexNumber#add(ComplexNumber) add}, which gets slow and inaccurate for long streams.<br>
+ * <br> The collectors accumulate without any rounding error (see {@link ExactSum}) and round only the final result.
+ * Hence the result doesn't depend on the order of the elements or on how a parallel stream gets split: it is the
+ * same, bit by bit, for sequential and parallel streams and for any number of threads. For the same reason the
+ * collectors are {@link Collector.Characteristics#UNORDERED unordered}.<br>
+ * <br> The elements of the stream must not be {@code null}, otherwise the collectors throw a {@code NullPointerException}.
+ *
+ * @author  Andras Martin Moosbauer
+ * @version 2.0
+ * @see ComplexArray#sum()
+ */
+public final class ComplexCollectors {
+
+    private ComplexCollectors() {}
+
+    /**
+     * Returns a {@code Collector} which calculates the exact sum of the elements, correctly rounded to the nearest
+     * representable {@code ComplexNumber}.
+     * @return  a {@code Collector} producing a new {@code ComplexNumber}, 0 for an empty stream
+     */
+    @Contract(" -> new")
+    public static @NotNull Collector<ComplexNumber, ?, ComplexNumber> sum() {
+        return Collector.of(Sum::new, Sum::add, Sum::add, s -> new ComplexNumber(s.re.value(), s.im.value()),
+                Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Returns a {@code Collector} which calculates the arithmetic mean of the elements, the exact sum divided
+     * by their number.
+     * @return  a {@code Collector} producing a new {@code ComplexNumber}, it throws an {@code ArithmeticException}
+     *          for an empty stream
+     */
+    @Contract(" -> new")
+    public static @NotNull Collector<ComplexNumber, ?, ComplexNumber> mean() {
+        return Collector.of(Sum::new, Sum::add, Sum::add, s -> {
+            if(s.count == 0) throw new ArithmeticException("mean of an empty stream");
+            return new ComplexNumber(s.re.value() / s.count, s.im.value() / s.count);
+        }, Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Returns a {@code Collector} which calculates the <i>Euclidean norm</i> of the elements, the square root of the
+     * sum of their squared moduli. Like {@link ComplexArray#norm()} it scales very big and very small values before
+     * squaring them, so it neither overflows nor underflows.
+     * @return  a {@code Collector} producing the norm, 0 for an empty stream
+     */
+    @Contract(" -> new")
+    public static @NotNull Collector<ComplexNumber, ?, Double> norm() {
+        return Collector.of(Norm::new, Norm::add, Norm::add,
+                n -> ComplexKernels.norm(n.small.value(), n.medium.value(), n.big.value()), Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Returns a {@code Collector} which calculates the largest modulus <i>|z|</i> of the elements.
+     * @return  a {@code Collector} producing the largest modulus, 0 for an empty stream and NaN if any element is NaN
+     */
+    @Contract(" -> new")
+    public static @NotNull Collector<ComplexNumber, ?, Double> maxMod() {
+        return Collector.of(() -> new double[1], (max, z) -> max[0] = Math.max(max[0], ComplexNumber.modulus(z.getRe(), z.getIm())),
+                (a, b) -> {
+                    a[0] = Math.max(a[0], b[0]);
+                    return a;
+                }, max -> max[0], Collector.Characteristics.UNORDERED);
+    }
+
+    //Helper classes (the mutable containers of the collectors):
+    private static final class Sum {
+
+        private final ExactSum re = new ExactSum(), im = new ExactSum();
+        private long count;
+
+        void add(ComplexNumber z) {
+            re.add(z.getRe());
+            im.add(z.getIm());
+            count++;
+        }
+
+        Sum add(Sum s) {
+            re.add(s.re);
+            im.add(s.im);
+            count += s.count;
+            return this;
+        }
+    }
+
+    //Blue's three accumulators of ComplexKernels.scaledNormSquared, every square added exactly as its rounded value
+    //and its error:
+    private static final class Norm {
+
+        private final ExactSum small = new ExactSum(), medium = new ExactSum(), big = new ExactSum();
+
+        void add(ComplexNumber z) {
+            add(Math.abs(z.getRe()));
+            add(Math.abs(z.getIm()));
+        }
+
+        Norm add(Norm n) {
+            small.add(n.small);
+            medium.add(n.medium);
+            big.add(n.big);
+            return this;
+        }
+
+        private void add(double x) {
+            ExactSum s = medium;
+            if(x > ComplexKernels.NORM_BIG) {
+                x *= ComplexKernels.NORM_BIG_SCALE;
+                s = big;
+            }
+            else if(x < ComplexKernels.NORM_SMALL) {
+                x *= ComplexKernels.NORM_SMALL_SCALE;
+                s = small;
+            }
+            double square = x * x;
+            s.add(square);
+            if(Double.isFinite(square)) s.add(Math.fma(x, x, -square));
+        }
+    }
+}
@@ -0,0 +1,543 @@
+package de.andimoo5.math;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code ComplexExpr} is a lazy, immutable expression of complex operations. Building an expression like
+ * {@code ComplexExpr.of(a).mul(ComplexExpr.of(b)).exp().add(ComplexExpr.of(c).conjugate())} only records the
+ * operator tree; nothing is computed until {@link #eval(ComplexArray) eval} is called.<br>
+ * <br> The leaves of an expression are either {@link ComplexArray ComplexArrays}, which are evaluated element by
+ * element, or {@link ComplexNumber ComplexNumbers}, which are used for every element. Both are read when the
+ * expression is evaluated, so an expression can be built once and evaluated again after its inputs changed.<br>
+ * <br> On its first evaluation the tree is compiled into a short program:
+ * <ul>
+ *     <li>Equal subexpressions are computed only once. Leaves are equal if they are the same object,
+ *          operations if they apply the same operator to equal operands.</li>
+ *     <li>{@code sin}, {@code cos} and {@code tan} of the same argument share one evaluation of
+ *          <i>e^Im(z)</i>, <i>sin(Re(z))</i> and <i>cos(Re(z))</i>.</li>
+ * </ul>
+ * The program then runs over the arrays in blocks of {@value #BLOCK} elements, which stay in the CPU cache from
+ * one operation to the next. There is a single pass over the inputs and the destination, and no intermediate
+ * array of the full length is allocated.<br>
+ * <br> The operations give the same results as the bulk operations of {@code ComplexArray}: dividing by {@code 0}
+ * and the undefined values of {@code tan}, {@code acos} and {@code atan} give {@code NaN} instead of throwing an
+ * exception.
+ *
+ * @author  Andras Martin Moosbauer
+ * @version 2.0
+ */
+public final class ComplexExpr {
+
+    /**
+     * The number of elements processed by each operation before the next one runs.
+     */
+    public static final int BLOCK = 256;
+
+    private enum Op {
+        ARRAY(0), CONSTANT(0), SUM(ParallelKernels.Cost.ADD.nanos), DIFF(ParallelKernels.Cost.SUB.nanos),
+        PROD(ParallelKernels.Cost.MUL.nanos), DIVISION(ParallelKernels.Cost.DIV.nanos),
+        CONJUGATE(ParallelKernels.Cost.CONJUGATE.nanos), EXP(ParallelKernels.Cost.EXP.nanos),
+        LOG(ParallelKernels.Cost.LOG.nanos), SQRT(ParallelKernels.Cost.SQRT.nanos), SIN(ParallelKernels.Cost.SIN.nanos),
+        COS(ParallelKernels.Cost.COS.nanos), TAN(ParallelKernels.Cost.TAN.nanos), ASIN(ParallelKernels.Cost.ASIN.nanos),
+        ACOS(ParallelKernels.Cost.ACOS.nanos), ATAN(ParallelKernels.Cost.ATAN.nanos),
+        //Only in programs, computes sin, cos and tan of one argument together:
+        TRIG(ParallelKernels.Cost.TAN.nanos);
+
+        final double nanos;
+
+        Op(double nanos) {
+            this.nanos = nanos;
+        }
+    }
+
+    private final Op op;
+    private final ComplexExpr a, b;
+    private final Object leaf;
+
+    //Compiled on the first evaluation:
+    private volatile Program program;
+
+    private ComplexExpr(Op op, ComplexExpr a, ComplexExpr b, Object leaf) {
+        this.op = op;
+        this.a = a;
+        this.b = b;
+        this.leaf = leaf;
+    }
+
+    //Leaves:
+    /**
+     * Returns an expression standing for the elements of {@code a}.
+     * @param a an instance of {@code ComplexArray}, read when the expression is evaluated
+     * @return  a new {@code ComplexExpr}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     */
+    @Contract("null -> fail; !null -> new")
+    public static @NotNull ComplexExpr of(ComplexArray a) throws NullPointerException {
+        if(a == null) throw new NullPointerException();
+        return new ComplexExpr(Op.ARRAY, null, null, a);
+    }
+
+    /**
+     * Returns an expression standing for the value of {@code z}, used for every element.
+     * @param z an instance of {@code ComplexNumber}, read when the expression is evaluated
+     * @return  a new {@code ComplexExpr}
+     * @throws NullPointerException if {@code z} is equal to {@code null}
+     */
+    @Contract("null -> fail; !null -> new")
+    public static @NotNull ComplexExpr of(ComplexNumber z) throws NullPointerException {
+        if(z == null) throw new NullPointerException();
+        return new ComplexExpr(Op.CONSTANT, null, null, z);
+    }
+
+    /**
+     * Returns an expression standing for the constant <i>re + im*i</i>, used for every element.
+     * @param re    the real part, Re(z), of the constant
+     * @param im    the imaginary part, Im(z), of the constant
+     * @return      a new {@code ComplexExpr}
+     */
+    @Contract("_, _ -> new")
+    public static @NotNull ComplexExpr of(double re, double im) {
+        return of(new ComplexNumber(re, im));
+    }
+
+    //Methods for Arithmetic Operations:
+    /**
+     * @param x 1st summand of the addition
+     * @param y 2nd summand of the addition
+     * @return  the expression {@code x} + {@code y}
+     * @throws NullPointerException if either {@code x} or {@code y} is equal to {@code null}
+     */
+    public static @NotNull ComplexExpr sum(ComplexExpr x, ComplexExpr y) throws NullPointerException {
+        return binary(Op.SUM, x, y);
+    }
+
+    /**
+     * @param x minuend of the difference
+     * @param y subtrahend of the difference
+     * @return  the expression {@code x} - {@code y}
+     * @throws NullPointerException if either {@code x} or {@code y} is equal to {@code null}
+     */
+    public static @NotNull ComplexExpr diff(ComplexExpr x, ComplexExpr y) throws NullPointerException {
+        return binary(Op.DIFF, x, y);
+    }
+
+    /**
+     * @param x 1st multiplier of the product
+     * @param y 2nd multiplier of the product
+     * @return  the expression {@code x} * {@code y}
+     * @throws NullPointerException if either {@code x} or {@code y} is equal to {@code null}
+     */
+    public static @NotNull ComplexExpr prod(ComplexExpr x, ComplexExpr y) throws NullPointerException {
+        return binary(Op.PROD, x, y);
+    }
+
+    /**
+     * @param x dividend of the division
+     * @param y divisor of the division
+     * @return  the expression {@code x} / {@code y}
+     * @throws NullPointerException if either {@code x} or {@code y} is equal to {@code null}
+     */
+    public static @NotNull ComplexExpr division(ComplexExpr x, ComplexExpr y) throws NullPointerException {
+        return binary(Op.DIVISION, x, y);
+    }
+
+    /**
+     * @param z summand of the addition
+     * @return  the expression {@code this} + {@code z}
+     * @throws NullPointerException if {@code z} is equal to {@code null}
+     */
+    public ComplexExpr add(ComplexExpr z) throws NullPointerException {
+        return sum(this, z);
+    }
+
+    /**
+     * @param z subtrahend of the difference
+     * @return  the expression {@code this} - {@code z}
+     * @throws NullPointerException if {@code z} is equal to {@code null}
+     */
+    public ComplexExpr sub(ComplexExpr z) throws NullPointerException {
+        return diff(this, z);
+    }
+
+    /**
+     * @param z multiplier of the product
+     * @return  the expression {@code this} * {@code z}
+     * @throws NullPointerException if {@code z} is equal to {@code null}
+     */
+    public ComplexExpr mul(ComplexExpr z) throws NullPointerException {
+        return prod(this, z);
+    }
+
+    /**
+     * @param z divisor of the division
+     * @return  the expression {@code this} / {@code z}
+     * @throws NullPointerException if {@code z} is equal to {@code null}
+     */
+    public ComplexExpr div(ComplexExpr z) throws NullPointerException {
+        return division(this, z);
+    }
+
+    //Complex Operations:
+    /**
+     * @return  the expression of the conjugate
+     */
+    public ComplexExpr conjugate() {
+        return unary(Op.CONJUGATE, this);
+    }
+
+    //Exponential and Logarithmic Functions:
+    /**
+     * @return  the expression of the exponential, e^<i>z</i>
+     */
+    public ComplexExpr exp() {
+        return unary(Op.EXP, this);
+    }
+
+    /**
+     * @return  the expression of the natural logarithm <i>(base e)</i>
+     */
+    public ComplexExpr log() {
+        return unary(Op.LOG, this);
+    }
+
+    /**
+     * @return  the expression of the square root
+     */
+    public ComplexExpr sqrt() {
+        return unary(Op.SQRT, this);
+    }
+
+    //Trigonometric Operations:
+    /**
+     * @return  the expression of the sine
+     */
+    public ComplexExpr sin() {
+        return unary(Op.SIN, this);
+    }
+
+    /**
+     * @return  the expression of the cosine
+     */
+    public ComplexExpr cos() {
+        return unary(Op.COS, this);
+    }
+
+    /**
+     * @return  the expression of the tangent
+     */
+    public ComplexExpr tan() {
+        return unary(Op.TAN, this);
+    }
+
+    /**
+     * @return  the expression of the arc sine
+     */
+    public ComplexExpr asin() {
+        return unary(Op.ASIN, this);
+    }
+
+    /**
+     * @return  the expression of the arc cosine
+     */
+    public ComplexExpr acos() {
+        return unary(Op.ACOS, this);
+    }
+
+    /**
+     * @return  the expression of the arc tangent
+     */
+    public ComplexExpr atan() {
+        return unary(Op.ATAN, this);
+    }
+
+    //Evaluation:
+    /**
+     * Evaluates the expression for every element and stores the results in {@code dst}.
+     * @param dst   the destination, may be one of the arrays of the expression
+     * @return      {@code dst}
+     * @throws NullPointerException     if {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if an array of the expression differs in length from {@code dst}
+     */
+    @Contract("_ -> param1")
+    public ComplexArray eval(ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+        Program p = program();
+        p.checkLengths(dst);
+        p.run(dst.real(), dst.imaginary(), 0, dst.length());
+        return dst;
+    }
+
+    /**
+     * Evaluates the expression for every element.
+     * @return  a new {@code ComplexArray} holding the results
+     * @throws IllegalArgumentException if the arrays of the expression differ in length
+     * @throws IllegalStateException    if the expression doesn't contain an array
+     */
+    @Contract(" -> new")
+    public @NotNull ComplexArray eval() throws IllegalArgumentException, IllegalStateException {
+        Program p = program();
+        if(p.arrays.length == 0) throw new IllegalStateException("expression doesn't contain an array");
+        return eval(new ComplexArray(p.arrays[0].length()));
+    }
+
+    /**
+     * Evaluates the expression like {@link #eval(ComplexArray)}, with the blocks split across the common
+     * {@code ForkJoinPool}. Short arrays and cheap expressions stay on the calling thread.
+     * @param dst   the destination, may be one of the arrays of the expression
+     * @return      {@code dst}
+     * @throws NullPointerException     if {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if an array of the expression differs in length from {@code dst}
+     */
+    @Contract("_ -> param1")
+    public ComplexArray evalParallel(ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+        Program p = program();
+        p.checkLengths(dst);
+        double[] re = dst.real(), im = dst.imaginary();
+        ParallelKernels.forEach(dst.length(), p.nanos, (from, to) -> p.run(re, im, from, to));
+        return dst;
+    }
+
+    /**
+     * Evaluates an expression without arrays and stores the result in {@code dst}.
+     * @param dst   the destination, may be one of the {@code ComplexNumbers} of the expression
+     * @return      {@code dst}
+     * @throws NullPointerException     if {@code dst} is equal to {@code null}
+     * @throws IllegalStateException    if the expression contains an array
+     */
+    @Contract("_ -> param1")
+    public ComplexNumber eval(ComplexNumber dst) throws NullPointerException, IllegalStateException {
+        if(dst == null) throw new NullPointerException();
+        Program p = program();
+        if(p.arrays.length > 0) throw new IllegalStateException("expression contains an array");
+        double[] re = new double[1], im = new double[1];
+        p.run(re, im, 0, 1);
+        dst.set(re[0], im[0]);
+        return dst;
+    }
+
+    /**
+     * @return      a String representing the expression in the format of: <br>{@code exp(a0 * a1) + conjugate(a2)},
+     *              where arrays are numbered by their first appearance and constants are formatted like
+     *              {@link ComplexNumber#toString()}
+     */
+    @Override
+    public String toString() {
+        return toString(new IdentityHashMap<>());
+    }
+
+    //Helper functions:
+    private static ComplexExpr binary(Op op, ComplexExpr x, ComplexExpr y) {
+        if(x == null || y == null) throw new NullPointerException();
+        return new ComplexExpr(op, x, y, null);
+    }
+
+    private static ComplexExpr unary(Op op, ComplexExpr x) {
+        return new ComplexExpr(op, x, null, null);
+    }
+
+    private String toString(Map<Object, Integer> arrays) {
+        return switch(op) {
+            case ARRAY -> "a" + arrays.computeIfAbsent(leaf, k -> arrays.size());
+            case CONSTANT -> "(" + leaf + ")";
+            case SUM -> "(" + a.toString(arrays) + " + " + b.toString(arrays) + ")";
+            case DIFF -> "(" + a.toString(arrays) + " - " + b.toString(arrays) + ")";
+            case PROD -> "(" + a.toString(arrays) + " * " + b.toString(arrays) + ")";
+            case DIVISION -> "(" + a.toString(arrays) + " / " + b.toString(arrays) + ")";
+            default -> op.name().toLowerCase() + "(" + a.toString(arrays) + ")";
+        };
+    }
+
+    private Program program() {
+        Program p = program;
+        if(p == null) program = p = new Compiler().compile(this);
+        return p;
+    }
+
+    //A compiled expression, every node has its own register:
+    private record Instruction(Op op, int dst, int a, int b, int cos, int tan) {}
+
+    private static final class Program {
+
+        private final Instruction[] code;
+        private final int registers, result;
+        private final ComplexArray[] arrays;
+        private final int[] arrayRegisters;
+        private final ComplexNumber[] constants;
+        private final int[] constantRegisters;
+
+        //The cost of one element in nanoseconds, to split parallel evaluations:
+        private final double nanos;
+
+        private Program(Compiler c, int result) {
+            this.code = c.code.toArray(new Instruction[0]);
+            this.registers = c.registers;
+            this.result = result;
+            this.arrays = c.arrays.toArray(new ComplexArray[0]);
+            this.arrayRegisters = c.arrayRegisters.stream().mapToInt(Integer::intValue).toArray();
+            this.constants = c.constants.toArray(new ComplexNumber[0]);
+            this.constantRegisters = c.constantRegisters.stream().mapToInt(Integer::intValue).toArray();
+            double n = 0;
+            for(Instruction i : code) n += i.op.nanos;
+            this.nanos = Math.max(n, ParallelKernels.Cost.ADD.nanos);
+        }
+
+        private void checkLengths(ComplexArray dst) {
+            if(dst == null) throw new NullPointerException();
+            for(ComplexArray a : arrays) {
+                if(a.length() != dst.length()) throw new IllegalArgumentException("arrays differ in length");
+            }
+        }
+
+        //Evaluates the elements [from, to) block by block:
+        private void run(double[] dRe, double[] dIm, int from, int to) {
+            int block = Math.min(BLOCK, to - from);
+            if(block <= 0) return;
+            double[][] re = new double[registers][block], im = new double[registers][block];
+            for(int k = 0; k < constants.length; k++) {
+                Arrays.fill(re[constantRegisters[k]], constants[k].getRe());
+                Arrays.fill(im[constantRegisters[k]], constants[k].getIm());
+            }
+            double[] out = new double[2];
+            for(int start = from; start < to; start += block) {
+                int n = Math.min(block, to - start);
+                for(int k = 0; k < arrays.length; k++) {
+                    System.arraycopy(arrays[k].real(), start, re[arrayRegisters[k]], 0, n);
+                    System.arraycopy(arrays[k].imaginary(), start, im[arrayRegisters[k]], 0, n);
+                }
+                for(Instruction i : code) execute(i, re, im, n, out);
+                System.arraycopy(re[result], 0, dRe, start, n);
+                System.arraycopy(im[result], 0, dIm, start, n);
+            }
+        }
+
+        private static void execute(Instruction ins, double[][] re, double[][] im, int n, double[] out) {
+            double[] aRe = re[ins.a], aIm = im[ins.a], dRe = re[ins.dst], dIm = im[ins.dst];
+            switch(ins.op) {
+                case SUM -> ComplexKernels.sum(aRe, aIm, re[ins.b], im[ins.b], dRe, dIm, 0, n);
+                case DIFF -> ComplexKernels.diff(aRe, aIm, re[ins.b], im[ins.b], dRe, dIm, 0, n);
+                case PROD -> ComplexKernels.prod(aRe, aIm, re[ins.b], im[ins.b], dRe, dIm, 0, n);
+                case DIVISION -> ComplexKernels.division(aRe, aIm, re[ins.b], im[ins.b], dRe, dIm, 0, n);
+                case CONJUGATE -> ComplexKernels.conjugate(aRe, aIm, dRe, dIm, 0, n);
+                case EXP -> ComplexKernels.exp(aRe, aIm, dRe, dIm, 0, n);
+                case LOG -> ComplexKernels.log(aRe, aIm, dRe, dIm, 0, n);
+                case SQRT -> ComplexKernels.sqrt(aRe, aIm, dRe, dIm, 0, n);
+                case SIN -> ComplexKernels.sin(aRe, aIm, dRe, dIm, 0, n);
+                case COS -> ComplexKernels.cos(aRe, aIm, dRe, dIm, 0, n);
+                case TAN -> ComplexKernels.tan(aRe, aIm, dRe, dIm, 0, n);
+                case ASIN -> ComplexKernels.asin(aRe, aIm, dRe, dIm, 0, n);
+                case ACOS -> ComplexKernels.acos(aRe, aIm, dRe, dIm, 0, n);
+                case ATAN -> ComplexKernels.atan(aRe, aIm, dRe, dIm, 0, n);
+                case TRIG -> trig(ins, re, im, n, out);
+                default -> throw new IllegalStateException();
+            }
+        }
+
+        //sin, cos and tan with the scalar functions of ComplexNumber, sharing the sine and cosine of the real part:
+        private static void trig(Instruction ins, double[][] re, double[][] im, int n, double[] out) {
+            double[] aRe = re[ins.a], aIm = im[ins.a];
+            for(int i = 0; i < n; i++) {
+                double s = Math.sin(aRe[i]), c = Math.cos(aRe[i]);
+                double sinRe = ComplexNumber.timesCosh(s, aIm[i]), sinIm = ComplexNumber.timesSinh(c, aIm[i]);
+                double cosRe = ComplexNumber.timesCosh(c, aIm[i]), cosIm = ComplexNumber.timesSinh(-s, aIm[i]);
+                if(ins.dst >= 0) {
+                    re[ins.dst][i] = sinRe;
+                    im[ins.dst][i] = sinIm;
+                }
+                if(ins.cos >= 0) {
+                    re[ins.cos][i] = cosRe;
+                    im[ins.cos][i] = cosIm;
+                }
+                if(ins.tan >= 0) {
+                    //A cosine of 0 gives NaN, like the exception of ComplexNumber.tan in the kernels:
+                    try {
+                        ComplexNumber.tan(s, c, aIm[i], out);
+                    } catch(ArithmeticException e) {
+                        out[0] = out[1] = Double.NaN;
+                    }
+                    re[ins.tan][i] = out[0];
+                    im[ins.tan][i] = out[1];
+                }
+            }
+        }
+    }
+
+    //Turns the tree into a program, merging equal subexpressions:
+    private static final class Compiler {
+
+        private record Key(Op op, int a, int b) {}
+
+        private final List<Instruction> code = new ArrayList<>();
+        private final List<ComplexArray> arrays = new ArrayList<>();
+        private final List<Integer> arrayRegisters = new ArrayList<>();
+        private final List<ComplexNumber> constants = new ArrayList<>();
+        private final List<Integer> constantRegisters = new ArrayList<>();
+        private final Map<Object, Integer> leaves = new IdentityHashMap<>();
+        private final Map<Key, Integer> nodes = new HashMap<>();
+        //Per argument register: the registers of sin, cos and tan (-1 if not used), whether the group was emitted
+        //and the number of functions in it:
+        private final Map<Integer, int[]> trig = new HashMap<>();
+        private int registers;
+
+        private Program compile(ComplexExpr root) {
+            int result = visit(root);
+            //Emits sin, cos and tan of the same argument as one instruction, after the instruction of the argument:
+            List<Instruction> ordered = new ArrayList<>();
+            for(Instruction i : code) {
+                int[] t = trig.get(i.a);
+                if(t == null || t[4] < 2 || (i.op != Op.SIN && i.op != Op.COS && i.op != Op.TAN)) {
+                    ordered.add(i);
+                    continue;
+                }
+                //Only the first one of the group emits the shared instruction:
+                if(t[3] == 0) {
+                    t[3] = 1;
+                    ordered.add(new Instruction(Op.TRIG, t[0], i.a, -1, t[1], t[2]));
+                }
+            }
+            code.clear();
+            code.addAll(ordered);
+            return new Program(this, result);
+        }
+
+        private int visit(ComplexExpr e) {
+            if(e.op == Op.ARRAY || e.op == Op.CONSTANT) {
+                Integer r = leaves.get(e.leaf);
+                if(r != null) return r;
+                r = registers++;
+                leaves.put(e.leaf, r);
+                if(e.op == Op.ARRAY) {
+                    arrays.add((ComplexArray)e.leaf);
+                    arrayRegisters.add(r);
+                }
+                else {
+                    constants.add((ComplexNumber)e.leaf);
+                    constantRegisters.add(r);
+                }
+                return r;
+            }
+            int a = visit(e.a), b = e.b == null ? -1 : visit(e.b);
+            Key key = new Key(e.op, a, b);
+            Integer r = nodes.get(key);
+            if(r != null) return r;
+            r = registers++;
+            nodes.put(key, r);
+            code.add(new Instruction(e.op, r, a, b, -1, -1));
+            if(e.op == Op.SIN || e.op == Op.COS || e.op == Op.TAN) share(e.op, a, r);
+            return r;
+        }
+
+        //Remembers the trigonometric functions of an argument, a group is only formed by two or more of them:
+        private void share(Op op, int argument, int register) {
+            int[] t = trig.computeIfAbsent(argument, k -> new int[]{-1, -1, -1, 0, 0});
+            t[op == Op.SIN ? 0 : op == Op.COS ? 1 : 2] = register;
+            t[4]++;
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package de.andimoo5.math;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * {@code ComplexFloat} is an immutable complex number with {@code float} parts, the single precision counterpart of
+ * {@link ComplexValue}. It is meant for data that doesn't need more than about 7 significant digits, like samples of
+ * radio or audio signals, and goes along with {@link ComplexFloatArray}, which stores such data in half the memory
+ * of a {@link ComplexArray}.<br>
+ * <br> Additions, subtractions and products are calculated in {@code float}, just like the bulk operations of
+ * {@code ComplexFloatArray} do it. All other operations are calculated in {@code double}, with the functions of
+ * {@link ComplexNumber}, and rounded to {@code float} once; as the squares of {@code floats} neither overflow nor
+ * underflow in {@code double}, divisions and moduli need no scaling.<br>
+ * <br> Following the rules of records, {@link #equals(Object) equals} compares the bit patterns of the parts,
+ * so {@code NaN} is equal to itself and {@code 0.0f} differs from {@code -0.0f}.
+ *
+ * @param re    the real part, Re(z), of the complex number
+ * @param im    the imaginary part, Im(z), of the complex number
+ * @author  Andras Martin Moosbauer
+ * @version 2.0
+ * @see ComplexFloatArray
+ */
+public record ComplexFloat(float re, float im) implements Comparable<ComplexFloat> {
+
+    /**
+     * The complex number <i>0</i>.
+     */
+    public static final ComplexFloat ZERO = new ComplexFloat(0, 0);
+
+    /**
+     * The complex number <i>1</i>.
+     */
+    public static final ComplexFloat ONE = new ComplexFloat(1, 0);
+
+    /**
+     * The imaginary unit <i>i</i>.
+     */
+    public static final ComplexFloat I = new ComplexFloat(0, 1);
+
+    //Conversions between "ComplexFloat" and the double precision types:
+    /**
+     * Returns the value of {@code z} rounded to {@code float}.
+     * @param z an instance of {@code ComplexNumber}
+     * @return  a {@code ComplexFloat} with <i>Re(z)</i> and <i>Im(z)</i> rounded to the nearest {@code float}
+     * @throws NullPointerException if {@code z} is equal to {@code null}
+     */
+    @Contract("null -> fail; !null -> new")
+    public static @NotNull ComplexFloat of(ComplexNumber z) throws NullPointerException {
+        if(z == null) throw new NullPointerException();
+        return new ComplexFloat((float)z.getRe(), (float)z.getIm());
+    }
+
+    /**
+     * Returns the value of {@code z} rounded to {@code float}.
+     * @param z an instance of {@code ComplexValue}
+     * @return  a {@code ComplexFloat} with <i>Re(z)</i> and <i>Im(z)</i> rounded to the nearest {@code float}
+     * @throws NullPointerException if {@code z} is equal to {@code null}
+     */
+    @Contract("null -> fail; !null -> new")
+    public static @NotNull ComplexFloat of(ComplexValue z) throws NullPointerException {
+        if(z == null) throw new NullPointerException();
+        return new ComplexFloat((float)z.re(), (float)z.im());
+    }
+
+    /**
+     * @return  a new, mutable {@code ComplexNumber} with exactly the same value
+     */
+    @Contract(" -> new")
+    public @NotNull ComplexNumber toComplexNumber() {
+        return new ComplexNumber(re, im);
+    }
+
+    /**
+     * @return  a {@code ComplexValue} with exactly the same value
+     */
+    @Contract(" -> new")
+    public @NotNull ComplexValue toComplexValue() {
+        return new ComplexValue(re, im);
+    }
+
+    /**
+     * @return      a String representing the value in the format of {@link ComplexNumber#toString()}, with the parts
+     *              formatted like {@link Float#toString(float)}, e.g. {@code 0.1+2.0i}
+     */
+    @Override
+    public String toString() {
+        return format(re, im, new StringBuilder(32)).toString();
+    }
+
+    /**
+     * Compares the {@code ComplexFloat} with {@code z} by their {@link #mod() modulus}, like
+     * {@link ComplexNumber#compareTo(ComplexNumber)}.
+     * @param z the {@code ComplexFloat} to be compared to
+     * @return  <i>-1</i>, <i>0</i> or <i>1</i> if the modulus is smaller, equal or bigger than the one of {@code z}
+     * @throws NullPointerException if {@code z} is equal to {@code null}
+     */
+    @Override
+    public int compareTo(ComplexFloat z) throws NullPointerException {
+        if(z == null) throw new NullPointerException();
+        //The squares are exact in double, so comparing them is the same as comparing the moduli:
+        double t = norm(re, im) - norm(z.re, z.im);
+        if(t == 0) return 0;
+        if(t < 0) return -1;
+        return 1;
+    }
+
+    //Methods for Arithmetic Operations:
+    /**
+     * @param z summand of the addition
+     * @return  the sum: {@code this} + {@code z}
+     * @throws NullPointerException if {@code z} is equal to {@code null}
+     */
+    public ComplexFloat add(ComplexFloat z) throws NullPointerException {
+        return new ComplexFloat(re + z.re, im + z.im);
+    }
+
+    /**
+     * @param z subtrahend of the difference
+     * @return  the difference: {@code this} - {@code z}
+     * @throws NullPointerException if {@code z} is equal to {@code null}
+     */
+    public ComplexFloat sub(ComplexFloat z) throws NullPointerException {
+        return new ComplexFloat(re - z.re, im - z.im);
+    }
+
+    /**
+     * @param z multiplier of the product
+     * @return  the product: {@code this} * {@code z}
+     * @throws NullPointerException if {@code z} is equal to {@code null}
+     */
+    public ComplexFloat mul(ComplexFloat z) throws NullPointerException {
+        return new ComplexFloat(re * z.re - im * z.im, re * z.im + im * z.re);
+    }
+
+    /**
+     * @param z divisor of the division
+     * @return  the division: {@code this} / {@code z}
+     * @throws NullPointerException if {@code z} is equal to {@code null}
+     * @throws ArithmeticException  if {@code z} is equal to {@code 0}
+     */
+    public ComplexFloat div(ComplexFloat z) throws NullPointerException, ArithmeticException {
+        if(z.re == 0 && z.im == 0) throw new ArithmeticException("Can not divide by 0");
+        double a = re, b = im, c = z.re, d = z.im, t = c * c + d * d;
+        return new ComplexFloat((float)((a * c + b * d) / t), (float)((b * c - a * d) / t));
+    }
+
+    //Complex Operations:
+    /**
+     * @return  the conjugate of this complex number
+     */
+    public ComplexFloat conjugate() {
+        return new ComplexFloat(re, -im);
+    }
+
+    /**
+     * @return  the {@code modulus (absolute value / magnitude)}
+     */
+    public float mod() {
+        return (float)Math.sqrt(norm(re, im));
+    }
+
+    /**
+     * @return  the {@code argument (angle)} in radians
+     */
+    public float arg() {
+        return (float)Math.atan2(im, re);
+    }
+
+    /**
+     * @return  the {@code reciprocal (multiplicative inverse)}, or {@code 0} if this is equal to {@code 0}
+     */
+    public ComplexFloat rcp() {
+        if(re == 0 && im == 0) return this;
+        return ONE.div(this);
+    }
+
+    //Exponential and Logarithmic Functions:
+    /**
+     * @return  the exponential, e^<i>z</i>
+     */
+    public ComplexFloat exp() {
+        return round(ComplexNumber.exp(re, im, new double[2]));
+    }
+
+    /**
+     * @return  the natural logarithm <i>(base e)</i>
+     */
+    public ComplexFloat log() {
+        return round(ComplexNumber.log(re, im, new double[2]));
+    }
+
+    /**
+     * @param b the base of the logarithm, as a {@code double}
+     * @return  the logarithm with the base {@code b}
+     * @throws ArithmeticException  if the base {@code b} of the logarithm is &lt;= 0 or equal to 1
+     */
+    public ComplexFloat log(double b) throws ArithmeticException {
+        return of(ComplexNumber.log(toComplexNumber(), b));
+    }
+
+    /**
+     * @return  the logarithm with the base 10
+     */
+    public ComplexFloat log10() {
+        return log(10);
+    }
+
+    /**
+     * @param power the power, as a {@code long}
+     * @return      this complex number to the power of {@code power}
+     * @throws ArithmeticException  if this is equal to {@code 0} and {@code power} is negative
+     * @see ComplexNumber#pow(ComplexNumber, long)
+     */
+    public ComplexFloat pow(long power) throws ArithmeticException {
+        if(power < 0 && re == 0 && im == 0) throw new ArithmeticException("Can not divide by 0");
+        return round(ComplexNumber.pow(re, im, power, new double[2]));
+    }
+
+    /**
+     * @param power the power, as a {@code double}
+     * @return      this complex number to the power of {@code power}
+     * @throws ArithmeticException  if this is equal to {@code 0} and {@code power} is negative
+     * @see ComplexNumber#pow(ComplexNumber, double)
+     */
+    public ComplexFloat pow(double power) throws ArithmeticException {
+        if(power < 0 && re == 0 && im == 0) throw new ArithmeticException("Can not divide by 0");
+        return round(ComplexNumber.pow(re, im, power, new double[2]));
+    }
+
+    /**
+     * @param w the power
+     * @return  this complex number to the power of {@code w}
+     * @throws NullPointerException if {@code w} is equal to {@code null}
+     * @throws ArithmeticException  if this is equal to {@code 0} and the power is undefined
+     * @see ComplexNumber#pow(ComplexNumber, ComplexNumber)
+     */
+    public ComplexFloat pow(ComplexFloat w) throws NullPointerException, ArithmeticException {
+        return of(ComplexNumber.pow(toComplexNumber(), w.toComplexNumber()));
+    }
+
+    /**
+     * @return  the square root
+     */
+    public ComplexFloat sqrt() {
+        return round(ComplexNumber.sqrt(re, im, new double[2]));
+    }
+
+    //Trigonometric Operations:
+    /**
+     * @return  the sine
+     */
+    public ComplexFloat sin() {
+        return round(ComplexNumber.sin(re, im, new double[2]));
+    }
+
+    /**
+     * @return  the cosine
+     */
+    public ComplexFloat cos() {
+        return round(ComplexNumber.cos(re, im, new double[2]));
+    }
+
+    /**
+     * @return  the tangent
+     * @throws ArithmeticException  if the cosine is equal to {@code 0}
+     */
+    public ComplexFloat tan() throws ArithmeticException {
+        return round(ComplexNumber.tan(re, im, new double[2]));
+    }
+
+    /**
+     * @return  the arc sine
+     */
+    public ComplexFloat asin() {
+        return round(ComplexNumber.asin(re, im, new double[2]));
+    }
+
+    /**
+     * @return  the arc cosine
+     * @throws ArithmeticException  if this is equal to {@code 0}
+     */
+    public ComplexFloat acos() throws ArithmeticException {
+        return round(ComplexNumber.acos(re, im, new double[2]));
+    }
+
+    /**
+     * @return  the arc tangent
+     * @throws ArithmeticException  if this is equal to {@code -i}
+     */
+    public ComplexFloat atan() throws ArithmeticException {
+        return round(ComplexNumber.atan(re, im, new double[2]));
+    }
+
+    //Helper functions:
+    private static ComplexFloat round(double[] z) {
+        return new ComplexFloat((float)z[0], (float)z[1]);
+    }
+
+    private static double norm(double re, double im) {
+        return re * re + im * im;
+    }
+
+    //The format of ComplexFormat.format(double, double, StringBuilder), with the shortest digits of the floats:
+    static StringBuilder format(float real, float imaginary, StringBuilder sb) {
+        if(imaginary == 0) return sb.append(real);
+        if(real == 0) return sb.append(imaginary).append('i');
+        sb.append(real);
+        if(!(imaginary < 0)) sb.append('+');
+        return sb.append(imaginary).append('i');
+    }
+}
@@ -0,0 +1,836 @@
+package de.andimoo5.math;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * {@code ComplexFloatArray} is a fixed-length array of complex numbers with {@code float} parts, stored like a
+ * {@link ComplexArray} as a <i>structure of arrays</i>: all real parts in one {@code float[]} and all imaginary parts
+ * in another. It needs half the memory of a {@code ComplexArray}, so bulk operations, which are usually limited by
+ * the bandwidth of the memory, move half the bytes, and the SIMD kernels process twice as many elements per vector.<br>
+ * <br> The operations are the ones of {@code ComplexArray} and follow the rules of {@link ComplexFloat}: additions,
+ * subtractions and products are calculated in {@code float}, all other functions in {@code double} and rounded to
+ * {@code float} once. Reductions work in mixed precision: they read {@code floats} but accumulate in {@code double}
+ * and return {@code double} results, so their error doesn't grow with the length of the array like the one of a
+ * {@code float} sum would. A product of two {@code floats} is exact in {@code double}, and the squares of
+ * {@code floats} never overflow, so {@link #dot(ComplexFloatArray) dot} and {@link #norm() norm} need neither
+ * error-free transformations nor scaling.<br>
+ * <br> {@link #of(ComplexArray)} and {@link #toComplexArray()} convert from and to double precision; the conversion
+ * to {@code double} is exact.
+ *
+ * @author  Andras Martin Moosbauer
+ * @version 2.0
+ * @see ComplexFloat
+ * @see ComplexArray
+ */
+public class ComplexFloatArray {
+
+    //Values of the complex numbers, the real parts, Re(z), and the imaginary parts, Im(z):
+    private final float[] real, imaginary;
+
+    //Constructors of the "ComplexFloatArray" class:
+    /**
+     * Constructs a new {@code ComplexFloatArray} of the given length with all elements equal to 0.
+     * @param length    the number of complex numbers
+     * @throws NegativeArraySizeException if {@code length} is negative
+     */
+    public ComplexFloatArray(int length) {
+        this(new float[length], new float[length]);
+    }
+
+    /**
+     * Constructs a new {@code ComplexFloatArray} backed by the passed arrays. The arrays are <b>not</b> copied,
+     * so changes to them are visible in the {@code ComplexFloatArray} and vice versa.
+     * @param real      the real parts, Re(z), of the complex numbers
+     * @param imaginary the imaginary parts, Im(z), of the complex numbers
+     * @throws NullPointerException     if either {@code real} or {@code imaginary} is equal to {@code null}
+     * @throws IllegalArgumentException if {@code real} and {@code imaginary} differ in length
+     */
+    public ComplexFloatArray(float[] real, float[] imaginary) throws NullPointerException, IllegalArgumentException {
+        if(real == null || imaginary == null) throw new NullPointerException();
+        if(real.length != imaginary.length) throw new IllegalArgumentException("real and imaginary parts differ in length");
+        this.real = real;
+        this.imaginary = imaginary;
+    }
+
+    /**
+     * Constructs a new {@code ComplexFloatArray} holding the values of the passed complex numbers.
+     * @param values    instances of {@code ComplexFloat}
+     * @throws NullPointerException if {@code values} or one of its elements is equal to {@code null}
+     */
+    public ComplexFloatArray(ComplexFloat... values) throws NullPointerException {
+        this(values.length);
+        for(int i = 0; i < values.length; i++) set(i, values[i]);
+    }
+
+    /**
+     * Constructs a new {@code ComplexFloatArray} with a copy of the values of <i>a</i>.
+     * @param a an instance of {@code ComplexFloatArray}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     */
+    public ComplexFloatArray(ComplexFloatArray a) throws NullPointerException {
+        this(a.real.clone(), a.imaginary.clone());
+    }
+
+    //Conversions between "ComplexFloatArray" and "ComplexArray":
+    /**
+     * Returns the values of {@code a} rounded to {@code float}.
+     * @param a an instance of {@code ComplexArray}
+     * @return  a new {@code ComplexFloatArray} with every part of {@code a} rounded to the nearest {@code float}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     */
+    @Contract("null -> fail; !null -> new")
+    public static @NotNull ComplexFloatArray of(ComplexArray a) throws NullPointerException {
+        if(a == null) throw new NullPointerException();
+        double[] re = a.real(), im = a.imaginary();
+        ComplexFloatArray f = new ComplexFloatArray(a.length());
+        for(int i = 0; i < re.length; i++) {
+            f.real[i] = (float)re[i];
+            f.imaginary[i] = (float)im[i];
+        }
+        return f;
+    }
+
+    /**
+     * @return  a new {@code ComplexArray} with exactly the same values
+     */
+    @Contract(" -> new")
+    public @NotNull ComplexArray toComplexArray() {
+        ComplexArray a = new ComplexArray(length());
+        double[] re = a.real(), im = a.imaginary();
+        for(int i = 0; i < re.length; i++) {
+            re[i] = real[i];
+            im[i] = imaginary[i];
+        }
+        return a;
+    }
+
+    //Basic functions (to set/get data from objects of this class):
+    /**
+     * @return  the number of complex numbers in this array
+     */
+    public int length() {
+        return real.length;
+    }
+
+    /**
+     * Returns the array holding the real parts, <i>Re(z)</i>. It is the backing array and not a copy.
+     * @return  the real parts of all elements
+     */
+    public float[] real() {
+        return real;
+    }
+
+    /**
+     * Returns the array holding the imaginary parts, <i>Im(z)</i>. It is the backing array and not a copy.
+     * @return  the imaginary parts of all elements
+     */
+    public float[] imaginary() {
+        return imaginary;
+    }
+
+    /**
+     * Returns the element at index {@code i}.
+     * @param i the index of the element
+     * @return  a {@code ComplexFloat} with the value of the element
+     * @throws ArrayIndexOutOfBoundsException if {@code i} is out of bounds
+     */
+    public @NotNull ComplexFloat get(int i) {
+        return new ComplexFloat(real[i], imaginary[i]);
+    }
+
+    /**
+     * Sets the element at index {@code i} to the value of {@code z}.
+     * @param i the index of the element
+     * @param z an instance of {@code ComplexFloat}
+     * @throws NullPointerException           if {@code z} is equal to {@code null}
+     * @throws ArrayIndexOutOfBoundsException if {@code i} is out of bounds
+     */
+    public void set(int i, ComplexFloat z) throws NullPointerException {
+        if(z == null) throw new NullPointerException();
+        set(i, z.re(), z.im());
+    }
+
+    /**
+     * Sets <i>Re(z)</i> and <i>Im(z)</i> of the element at index {@code i} to the passed values.
+     * @param i         the index of the element
+     * @param real      the real part, Re(z), of the element
+     * @param imaginary the imaginary part, Im(z), of the element
+     * @throws ArrayIndexOutOfBoundsException if {@code i} is out of bounds
+     */
+    public void set(int i, float real, float imaginary) {
+        this.real[i] = real;
+        this.imaginary[i] = imaginary;
+    }
+
+    /**
+     * Return <i>Re(z)</i> of the element at index {@code i}
+     * @param i the index of the element
+     * @return  a {@code float} of the real part, <i>Re(z)</i>, of the element
+     */
+    public float getRe(int i) {
+        return real[i];
+    }
+
+    /**
+     * Return <i>Im(z)</i> of the element at index {@code i}
+     * @param i the index of the element
+     * @return  a {@code float} of the imaginary part, <i>Im(z)</i>, of the element
+     */
+    public float getIm(int i) {
+        return imaginary[i];
+    }
+
+    /**
+     * Copies all elements into {@code ComplexFloat} objects.
+     * @return  an array of {@code ComplexFloat} objects
+     */
+    public ComplexFloat[] toArray() {
+        ComplexFloat[] values = new ComplexFloat[length()];
+        for(int i = 0; i < values.length; i++) values[i] = get(i);
+        return values;
+    }
+
+    /**
+     * @return      a String representing the values in the format of: <br>{@code [z0, z1, ...]},
+     *              where every element is formatted like {@link ComplexFloat#toString()}
+     */
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder("[");
+        for(int i = 0; i < real.length; i++) {
+            if(i > 0) s.append(", ");
+            ComplexFloat.format(real[i], imaginary[i], s);
+        }
+        return s.append(']').toString();
+    }
+
+    /**
+     * Compares the values of the {@code ComplexFloatArray} with the ones of {@code Object a}.
+     * @param a any {@code Object}
+     * @return  {@code true} if {@code a} is a {@code ComplexFloatArray} of the same length with equal elements
+     */
+    @Override
+    public boolean equals(Object a) {
+        if(this == a) return true;
+        if(!(a instanceof ComplexFloatArray)) return false;
+        return Arrays.equals(real, ((ComplexFloatArray)a).real) && Arrays.equals(imaginary, ((ComplexFloatArray)a).imaginary);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(real) + Arrays.hashCode(imaginary);
+    }
+
+    //Methods for Arithmetic Operations:
+    /**
+     * Calculates the element-wise sum of {@code a} and {@code b} and stores it in {@code dst}.
+     * @param a     1st summands of the addition
+     * @param b     2nd summands of the addition
+     * @param dst   the destination, may be {@code a} or {@code b}
+     * @return      {@code dst}, holding {@code a[i]} + {@code b[i]}
+     * @throws NullPointerException     if {@code a}, {@code b} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _, _ -> param3")
+    public static ComplexFloatArray sum(ComplexFloatArray a, ComplexFloatArray b, ComplexFloatArray dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, b, dst);
+        ComplexKernels.sum(a.real, a.imaginary, b.real, b.imaginary, dst.real, dst.imaginary, 0, a.length());
+        return dst;
+    }
+
+    /**
+     * Calculates the element-wise sum of {@code a} and {@code b}.
+     * @param a 1st summands of the addition
+     * @param b 2nd summands of the addition
+     * @return  a new {@code ComplexFloatArray} holding {@code a[i]} + {@code b[i]}
+     * @throws NullPointerException     if either {@code a} or {@code b} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> new")
+    public static @NotNull ComplexFloatArray sum(ComplexFloatArray a, ComplexFloatArray b) throws NullPointerException, IllegalArgumentException {
+        if(a == null) throw new NullPointerException();
+        return sum(a, b, new ComplexFloatArray(a.length()));
+    }
+
+    /**
+     * Mathematically adds {@code b} element-wise to itself.
+     * @param b numbers to be added
+     */
+    public void add(ComplexFloatArray b) {
+        sum(this, b, this);
+    }
+
+    /**
+     * Calculates the element-wise difference of {@code a} and {@code b} and stores it in {@code dst}.
+     * @param a     minuends of the subtraction
+     * @param b     subtrahends of the subtraction
+     * @param dst   the destination, may be {@code a} or {@code b}
+     * @return      {@code dst}, holding {@code a[i]} - {@code b[i]}
+     * @throws NullPointerException     if {@code a}, {@code b} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _, _ -> param3")
+    public static ComplexFloatArray diff(ComplexFloatArray a, ComplexFloatArray b, ComplexFloatArray dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, b, dst);
+        ComplexKernels.diff(a.real, a.imaginary, b.real, b.imaginary, dst.real, dst.imaginary, 0, a.length());
+        return dst;
+    }
+
+    /**
+     * Calculates the element-wise difference of {@code a} and {@code b}.
+     * @param a minuends of the subtraction
+     * @param b subtrahends of the subtraction
+     * @return  a new {@code ComplexFloatArray} holding {@code a[i]} - {@code b[i]}
+     * @throws NullPointerException     if either {@code a} or {@code b} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> new")
+    public static @NotNull ComplexFloatArray diff(ComplexFloatArray a, ComplexFloatArray b) throws NullPointerException, IllegalArgumentException {
+        if(a == null) throw new NullPointerException();
+        return diff(a, b, new ComplexFloatArray(a.length()));
+    }
+
+    /**
+     * Mathematically subtracts {@code b} element-wise from itself.
+     * @param b numbers to be subtracted
+     */
+    public void sub(ComplexFloatArray b) {
+        diff(this, b, this);
+    }
+
+    /**
+     * Calculates the element-wise product of {@code a} and {@code b} and stores it in {@code dst}.
+     * @param a     multiplicands of the multiplication
+     * @param b     multipliers of the multiplication
+     * @param dst   the destination, may be {@code a} or {@code b}
+     * @return      {@code dst}, holding {@code a[i]} * {@code b[i]}
+     * @throws NullPointerException     if {@code a}, {@code b} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _, _ -> param3")
+    public static ComplexFloatArray prod(ComplexFloatArray a, ComplexFloatArray b, ComplexFloatArray dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, b, dst);
+        ComplexKernels.prod(a.real, a.imaginary, b.real, b.imaginary, dst.real, dst.imaginary, 0, a.length());
+        return dst;
+    }
+
+    /**
+     * Calculates the element-wise product of {@code a} and {@code b}.
+     * @param a multiplicands of the multiplication
+     * @param b multipliers of the multiplication
+     * @return  a new {@code ComplexFloatArray} holding {@code a[i]} * {@code b[i]}
+     * @throws NullPointerException     if either {@code a} or {@code b} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> new")
+    public static @NotNull ComplexFloatArray prod(ComplexFloatArray a, ComplexFloatArray b) throws NullPointerException, IllegalArgumentException {
+        if(a == null) throw new NullPointerException();
+        return prod(a, b, new ComplexFloatArray(a.length()));
+    }
+
+    /**
+     * Mathematically multiplies {@code b} element-wise to itself.
+     * @param b numbers to be multiplied with
+     */
+    public void mul(ComplexFloatArray b) {
+        prod(this, b, this);
+    }
+
+    /**
+     * Calculates the element-wise division of {@code a} and {@code b} and stores it in {@code dst}.
+     * A divisor equal to {@code 0} doesn't throw an exception, the affected element becomes {@code NaN} instead.
+     * @param a     dividends of the division
+     * @param b     divisors of the division
+     * @param dst   the destination, may be {@code a} or {@code b}
+     * @return      {@code dst}, holding {@code a[i]} / {@code b[i]}
+     * @throws NullPointerException     if {@code a}, {@code b} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _, _ -> param3")
+    public static ComplexFloatArray division(ComplexFloatArray a, ComplexFloatArray b, ComplexFloatArray dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, b, dst);
+        ComplexKernels.division(a.real, a.imaginary, b.real, b.imaginary, dst.real, dst.imaginary, 0, a.length());
+        return dst;
+    }
+
+    /**
+     * Calculates the element-wise division of {@code a} and {@code b}.
+     * @param a dividends of the division
+     * @param b divisors of the division
+     * @return  a new {@code ComplexFloatArray} holding {@code a[i]} / {@code b[i]}
+     * @throws NullPointerException     if either {@code a} or {@code b} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> new")
+    public static @NotNull ComplexFloatArray division(ComplexFloatArray a, ComplexFloatArray b) throws NullPointerException, IllegalArgumentException {
+        if(a == null) throw new NullPointerException();
+        return division(a, b, new ComplexFloatArray(a.length()));
+    }
+
+    /**
+     * Mathematically divides itself element-wise by {@code b}.
+     * @param b numbers to be divided by
+     */
+    public void div(ComplexFloatArray b) {
+        division(this, b, this);
+    }
+
+    //Complex Operations:
+    /**
+     * Calculates the conjugate of every element of {@code a} and stores it in {@code dst}.
+     * @param a     the numbers to calculate the conjugate from
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding the conjugate of {@code a[i]}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexFloatArray conjugate(ComplexFloatArray a, ComplexFloatArray dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, a, dst);
+        ComplexKernels.conjugate(a.real, a.imaginary, dst.real, dst.imaginary, 0, a.length());
+        return dst;
+    }
+
+    /**
+     * Calculates the conjugate of every element of {@code a}.
+     * @param a the numbers to calculate the conjugate from
+     * @return  a new {@code ComplexFloatArray} holding the conjugate of {@code a[i]}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     */
+    @Contract("_ -> new")
+    public static @NotNull ComplexFloatArray conjugate(ComplexFloatArray a) throws NullPointerException {
+        if(a == null) throw new NullPointerException();
+        return conjugate(a, new ComplexFloatArray(a.length()));
+    }
+
+    /**
+     * Calculates the {@code modulus (absolute value / magnitude)} of every element of {@code a}.
+     * @param a     the numbers to calculate the modulus from
+     * @param dst   the destination
+     * @return      {@code dst}, holding the modulus of {@code a[i]}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if {@code dst} has a different length
+     */
+    @Contract("_, _ -> param2")
+    public static float[] mod(ComplexFloatArray a, float[] dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, dst);
+        ComplexKernels.mod(a.real, a.imaginary, dst, 0, a.length());
+        return dst;
+    }
+
+    /**
+     * Calculates the {@code modulus (absolute value / magnitude)} of every element of {@code a}.
+     * @param a the numbers to calculate the modulus from
+     * @return  a new {@code float[]} holding the modulus of {@code a[i]}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     */
+    public static float[] mod(ComplexFloatArray a) throws NullPointerException {
+        if(a == null) throw new NullPointerException();
+        return mod(a, new float[a.length()]);
+    }
+
+    /**
+     * Calculates the {@code argument (angle)} of every element of {@code a}.
+     * @param a     the numbers to calculate the argument from
+     * @param dst   the destination
+     * @return      {@code dst}, holding the argument of {@code a[i]} in radians
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if {@code dst} has a different length
+     */
+    @Contract("_, _ -> param2")
+    public static float[] arg(ComplexFloatArray a, float[] dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, dst);
+        for(int i = 0; i < dst.length; i++) dst[i] = (float)Math.atan2(a.imaginary[i], a.real[i]);
+        return dst;
+    }
+
+    /**
+     * Calculates the {@code argument (angle)} of every element of {@code a}.
+     * @param a the numbers to calculate the argument from
+     * @return  a new {@code float[]} holding the argument of {@code a[i]} in radians
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     */
+    public static float[] arg(ComplexFloatArray a) throws NullPointerException {
+        if(a == null) throw new NullPointerException();
+        return arg(a, new float[a.length()]);
+    }
+
+    //Exponential Functions:
+    /**
+     * Calculates every element of {@code a} to the power of {@code power}, see {@link ComplexFloat#pow(long)}.
+     * Elements equal to {@code 0} with a negative {@code power} become {@code NaN} instead of throwing an exception.
+     * @param a     the bases
+     * @param power the exponent
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding {@code a[i]^power}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _, _ -> param3")
+    public static ComplexFloatArray pow(ComplexFloatArray a, long power, ComplexFloatArray dst) throws NullPointerException, IllegalArgumentException {
+        return map(a, dst, (re, im, out) -> power < 0 && re == 0 && im == 0 ? nan(out) : ComplexNumber.pow(re, im, power, out));
+    }
+
+    /**
+     * Calculates every element of {@code a} to the power of {@code power}.
+     * @param a     the bases
+     * @param power the exponent
+     * @return      a new {@code ComplexFloatArray} holding {@code a[i]^power}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     * @see #pow(ComplexFloatArray, long, ComplexFloatArray)
+     */
+    @Contract("_, _ -> new")
+    public static @NotNull ComplexFloatArray pow(ComplexFloatArray a, long power) throws NullPointerException {
+        if(a == null) throw new NullPointerException();
+        return pow(a, power, new ComplexFloatArray(a.length()));
+    }
+
+    /**
+     * Calculates every element of {@code a} to the power of {@code power}, see {@link ComplexFloat#pow(double)}.
+     * Elements equal to {@code 0} with a negative {@code power} become {@code NaN} instead of throwing an exception.
+     * @param a     the bases
+     * @param power the exponent
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding {@code a[i]^power}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _, _ -> param3")
+    public static ComplexFloatArray pow(ComplexFloatArray a, double power, ComplexFloatArray dst) throws NullPointerException, IllegalArgumentException {
+        return map(a, dst, (re, im, out) -> power < 0 && re == 0 && im == 0 ? nan(out) : ComplexNumber.pow(re, im, power, out));
+    }
+
+    /**
+     * Calculates every element of {@code a} to the power of {@code power}.
+     * @param a     the bases
+     * @param power the exponent
+     * @return      a new {@code ComplexFloatArray} holding {@code a[i]^power}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     * @see #pow(ComplexFloatArray, double, ComplexFloatArray)
+     */
+    @Contract("_, _ -> new")
+    public static @NotNull ComplexFloatArray pow(ComplexFloatArray a, double power) throws NullPointerException {
+        if(a == null) throw new NullPointerException();
+        return pow(a, power, new ComplexFloatArray(a.length()));
+    }
+
+    /**
+     * Calculates the exponential, e^<i>z</i>, of every element of {@code a} and stores it in {@code dst}.
+     * @param a     the arguments
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding {@code exp(a[i])}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexFloatArray exp(ComplexFloatArray a, ComplexFloatArray dst) throws NullPointerException, IllegalArgumentException {
+        return map(a, dst, ComplexNumber::exp);
+    }
+
+    /**
+     * Calculates the exponential, e^<i>z</i>, of every element of {@code a}.
+     * @param a the arguments
+     * @return  a new {@code ComplexFloatArray} holding {@code exp(a[i])}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     * @see #exp(ComplexFloatArray, ComplexFloatArray)
+     */
+    @Contract("_ -> new")
+    public static @NotNull ComplexFloatArray exp(ComplexFloatArray a) throws NullPointerException {
+        if(a == null) throw new NullPointerException();
+        return exp(a, new ComplexFloatArray(a.length()));
+    }
+
+    /**
+     * Calculates the natural logarithm <i>(base e)</i> of every element of {@code a} and stores it in {@code dst}.
+     * @param a     the arguments
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding {@code log(a[i])}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexFloatArray log(ComplexFloatArray a, ComplexFloatArray dst) throws NullPointerException, IllegalArgumentException {
+        return map(a, dst, ComplexNumber::log);
+    }
+
+    /**
+     * Calculates the natural logarithm <i>(base e)</i> of every element of {@code a}.
+     * @param a the arguments
+     * @return  a new {@code ComplexFloatArray} holding {@code log(a[i])}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     * @see #log(ComplexFloatArray, ComplexFloatArray)
+     */
+    @Contract("_ -> new")
+    public static @NotNull ComplexFloatArray log(ComplexFloatArray a) throws NullPointerException {
+        if(a == null) throw new NullPointerException();
+        return log(a, new ComplexFloatArray(a.length()));
+    }
+
+    /**
+     * Calculates the square root of every element of {@code a} and stores it in {@code dst}.
+     * @param a     the arguments
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding {@code sqrt(a[i])}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexFloatArray sqrt(ComplexFloatArray a, ComplexFloatArray dst) throws NullPointerException, IllegalArgumentException {
+        return map(a, dst, ComplexNumber::sqrt);
+    }
+
+    /**
+     * Calculates the square root of every element of {@code a}.
+     * @param a the arguments
+     * @return  a new {@code ComplexFloatArray} holding {@code sqrt(a[i])}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     * @see #sqrt(ComplexFloatArray, ComplexFloatArray)
+     */
+    @Contract("_ -> new")
+    public static @NotNull ComplexFloatArray sqrt(ComplexFloatArray a) throws NullPointerException {
+        if(a == null) throw new NullPointerException();
+        return sqrt(a, new ComplexFloatArray(a.length()));
+    }
+
+    //Trigonometric Operations:
+    /**
+     * Calculates the sine of every element of {@code a} and stores it in {@code dst}.
+     * @param a     the arguments
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding {@code sin(a[i])}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexFloatArray sin(ComplexFloatArray a, ComplexFloatArray dst) throws NullPointerException, IllegalArgumentException {
+        return map(a, dst, ComplexNumber::sin);
+    }
+
+    /**
+     * Calculates the sine of every element of {@code a}.
+     * @param a the arguments
+     * @return  a new {@code ComplexFloatArray} holding {@code sin(a[i])}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     * @see #sin(ComplexFloatArray, ComplexFloatArray)
+     */
+    @Contract("_ -> new")
+    public static @NotNull ComplexFloatArray sin(ComplexFloatArray a) throws NullPointerException {
+        if(a == null) throw new NullPointerException();
+        return sin(a, new ComplexFloatArray(a.length()));
+    }
+
+    /**
+     * Calculates the cosine of every element of {@code a} and stores it in {@code dst}.
+     * @param a     the arguments
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding {@code cos(a[i])}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexFloatArray cos(ComplexFloatArray a, ComplexFloatArray dst) throws NullPointerException, IllegalArgumentException {
+        return map(a, dst, ComplexNumber::cos);
+    }
+
+    /**
+     * Calculates the cosine of every element of {@code a}.
+     * @param a the arguments
+     * @return  a new {@code ComplexFloatArray} holding {@code cos(a[i])}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     * @see #cos(ComplexFloatArray, ComplexFloatArray)
+     */
+    @Contract("_ -> new")
+    public static @NotNull ComplexFloatArray cos(ComplexFloatArray a) throws NullPointerException {
+        if(a == null) throw new NullPointerException();
+        return cos(a, new ComplexFloatArray(a.length()));
+    }
+
+    /**
+     * Calculates the tangent of every element of {@code a} and stores it in {@code dst}. Elements whose cosine is equal to {@code 0} become {@code NaN}.
+     * @param a     the arguments
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding {@code tan(a[i])}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexFloatArray tan(ComplexFloatArray a, ComplexFloatArray dst) throws NullPointerException, IllegalArgumentException {
+        return map(a, dst, ComplexNumber::tan);
+    }
+
+    /**
+     * Calculates the tangent of every element of {@code a}.
+     * @param a the arguments
+     * @return  a new {@code ComplexFloatArray} holding {@code tan(a[i])}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     * @see #tan(ComplexFloatArray, ComplexFloatArray)
+     */
+    @Contract("_ -> new")
+    public static @NotNull ComplexFloatArray tan(ComplexFloatArray a) throws NullPointerException {
+        if(a == null) throw new NullPointerException();
+        return tan(a, new ComplexFloatArray(a.length()));
+    }
+
+    /**
+     * Calculates the arc sine of every element of {@code a} and stores it in {@code dst}.
+     * @param a     the arguments
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding {@code asin(a[i])}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexFloatArray asin(ComplexFloatArray a, ComplexFloatArray dst) throws NullPointerException, IllegalArgumentException {
+        return map(a, dst, ComplexNumber::asin);
+    }
+
+    /**
+     * Calculates the arc sine of every element of {@code a}.
+     * @param a the arguments
+     * @return  a new {@code ComplexFloatArray} holding {@code asin(a[i])}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     * @see #asin(ComplexFloatArray, ComplexFloatArray)
+     */
+    @Contract("_ -> new")
+    public static @NotNull ComplexFloatArray asin(ComplexFloatArray a) throws NullPointerException {
+        if(a == null) throw new NullPointerException();
+        return asin(a, new ComplexFloatArray(a.length()));
+    }
+
+    /**
+     * Calculates the arc cosine of every element of {@code a} and stores it in {@code dst}. Elements equal to {@code 0} become {@code NaN}.
+     * @param a     the arguments
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding {@code acos(a[i])}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexFloatArray acos(ComplexFloatArray a, ComplexFloatArray dst) throws NullPointerException, IllegalArgumentException {
+        return map(a, dst, ComplexNumber::acos);
+    }
+
+    /**
+     * Calculates the arc cosine of every element of {@code a}.
+     * @param a the arguments
+     * @return  a new {@code ComplexFloatArray} holding {@code acos(a[i])}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     * @see #acos(ComplexFloatArray, ComplexFloatArray)
+     */
+    @Contract("_ -> new")
+    public static @NotNull ComplexFloatArray acos(ComplexFloatArray a) throws NullPointerException {
+        if(a == null) throw new NullPointerException();
+        return acos(a, new ComplexFloatArray(a.length()));
+    }
+
+    /**
+     * Calculates the arc tangent of every element of {@code a} and stores it in {@code dst}. Elements equal to {@code -i} become {@code NaN}.
+     * @param a     the arguments
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding {@code atan(a[i])}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexFloatArray atan(ComplexFloatArray a, ComplexFloatArray dst) throws NullPointerException, IllegalArgumentException {
+        return map(a, dst, ComplexNumber::atan);
+    }
+
+    /**
+     * Calculates the arc tangent of every element of {@code a}.
+     * @param a the arguments
+     * @return  a new {@code ComplexFloatArray} holding {@code atan(a[i])}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     * @see #atan(ComplexFloatArray, ComplexFloatArray)
+     */
+    @Contract("_ -> new")
+    public static @NotNull ComplexFloatArray atan(ComplexFloatArray a) throws NullPointerException {
+        if(a == null) throw new NullPointerException();
+        return atan(a, new ComplexFloatArray(a.length()));
+    }
+
+    //Reductions:
+    /**
+     * Calculates the sum of all elements, accumulated in {@code double}.
+     * @return  a new {@code ComplexNumber} holding the sum of all elements
+     */
+    @Contract(" -> new")
+    public @NotNull ComplexNumber sum() {
+        double[] partial = new double[2];
+        ComplexKernels.floatTotal(real, 0, length(), partial, 0);
+        ComplexKernels.floatTotal(imaginary, 0, length(), partial, 1);
+        return new ComplexNumber(partial[0], partial[1]);
+    }
+
+    /**
+     * Calculates the arithmetic mean of all elements, the {@link #sum() sum} divided by the length.
+     * @return  a new {@code ComplexNumber} holding the mean of all elements
+     * @throws ArithmeticException  if the array is empty
+     */
+    @Contract(" -> new")
+    public @NotNull ComplexNumber mean() throws ArithmeticException {
+        if(length() == 0) throw new ArithmeticException("mean of an empty array");
+        ComplexNumber s = sum();
+        return new ComplexNumber(s.getRe() / length(), s.getIm() / length());
+    }
+
+    /**
+     * Calculates the <i>inner product</i> of this array and {@code b}, the sum of {@code conj(this[i]) * b[i]}.
+     * The products are exact in {@code double} and accumulated in {@code double}.
+     * @param b the 2nd operand of the inner product
+     * @return  a new {@code ComplexNumber} holding the inner product
+     * @throws NullPointerException     if {@code b} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_ -> new")
+    public @NotNull ComplexNumber dot(ComplexFloatArray b) throws NullPointerException, IllegalArgumentException {
+        if(b == null) throw new NullPointerException();
+        if(length() != b.length()) throw new IllegalArgumentException("arrays differ in length");
+        double[] partial = new double[2];
+        ComplexKernels.floatDot(real, imaginary, b.real, b.imaginary, 0, length(), partial, 0);
+        return new ComplexNumber(partial[0], partial[1]);
+    }
+
+    /**
+     * Calculates the <i>Euclidean norm</i>, the square root of the sum of the squared moduli of all elements,
+     * accumulated in {@code double}. The squares of {@code floats} can't overflow in {@code double}, so neither
+     * can the norm.
+     * @return  the norm of the array
+     */
+    public double norm() {
+        return Math.sqrt(ComplexKernels.floatNormSquared(real, imaginary, 0, length()));
+    }
+
+    /**
+     * Calculates the largest modulus <i>|z|</i> of all elements, the <i>maximum norm</i> of the array.
+     * @return  the largest modulus, 0 if the array is empty and NaN if any element is NaN
+     */
+    public double maxMod() {
+        return ComplexKernels.floatMaxModulus(real, imaginary, 0, length());
+    }
+
+    //Helper functions:
+    private static ComplexFloatArray map(ComplexFloatArray a, ComplexFloatArray dst, ComplexStream.ComplexUnaryOperator f) {
+        checkLengths(a, a, dst);
+        ComplexKernels.map(a.real, a.imaginary, dst.real, dst.imaginary, 0, a.length(), f);
+        return dst;
+    }
+
+    private static double[] nan(double[] out) {
+        out[0] = out[1] = Double.NaN;
+        return out;
+    }
+
+    private static void checkLengths(ComplexFloatArray a, ComplexFloatArray b, ComplexFloatArray dst) {
+        if(a == null || b == null || dst == null) throw new NullPointerException();
+        if(a.length() != b.length() || a.length() != dst.length()) throw new IllegalArgumentException("arrays differ in length");
+    }
+
+    private static void checkLengths(ComplexFloatArray a, float[] dst) {
+        if(a == null || dst == null) throw new NullPointerException();
+        if(a.length() != dst.length) throw new IllegalArgumentException("arrays differ in length");
+    }
+}
@@ -0,0 +1,347 @@
+package de.andimoo5.math;
+
+import org.jetbrains.annotations.Contract;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+
+/**
+ * {@code ComplexFormat} converts complex numbers from and to text. It works directly on the characters,
+ * without regular expressions or substrings, so parsing and formatting large amounts of text allocates
+ * (almost) nothing.<br>
+ * <br> The parser accepts the format of {@link ComplexNumber#toString()} and a few more:
+ * <ul>
+ *     <li>Cartesian form: {@code 5.0-3.0i}, {@code 2}, {@code -4.5e3i}, {@code 1+i}, {@code -j}, {@code NaN+Infinityi};
+ *          {@code i} and {@code j} both denote the imaginary unit</li>
+ *     <li>Polar form: {@code 2@1.5708} or {@code 2∠1.5708} with the angle in radians, {@code 2@90°} with the angle in degrees</li>
+ * </ul>
+ * Numbers with up to 15 significant digits and a decimal exponent of at most 22 are converted exactly with a single
+ * multiplication or division. Longer numbers are rare in practice and handed to {@link Double#parseDouble(String)},
+ * so every number is rounded correctly.<br>
+ * <br> The bulk parsers read values separated by whitespace, commas or semicolons from a {@link CharBuffer} or
+ * from ASCII text in a {@link ByteBuffer} (which may wrap a {@code byte[]} without copying it).
+ *
+ * @author  Andras Martin Moosbauer
+ * @version 2.0
+ */
+public final class ComplexFormat {
+
+    //Powers of ten that are exact as double:
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    //Every integer up to 2^53 is exact as double:
+    private static final long MAX_EXACT = 1L << 53;
+
+    private ComplexFormat() {}
+
+    //Formatting:
+    /**
+     * Appends {@code real} and {@code imaginary} to {@code sb} in the format of {@link ComplexNumber#toString()}.
+     * @param real      the real part, Re(z), of the complex number
+     * @param imaginary the imaginary part, Im(z), of the complex number
+     * @param sb        the destination
+     * @return          {@code sb}
+     * @throws NullPointerException if {@code sb} is equal to {@code null}
+     */
+    @Contract("_, _, _ -> param3")
+    public static StringBuilder format(double real, double imaginary, StringBuilder sb) throws NullPointerException {
+        if(sb == null) throw new NullPointerException();
+        if(imaginary == 0) return sb.append(real);
+        if(real == 0) return sb.append(imaginary).append('i');
+        sb.append(real);
+        if(!(imaginary < 0)) sb.append('+');
+        return sb.append(imaginary).append('i');
+    }
+
+    /**
+     * Appends {@code real} and {@code imaginary} to {@code out} in the format of {@link ComplexNumber#toString()}.
+     * @param real      the real part, Re(z), of the complex number
+     * @param imaginary the imaginary part, Im(z), of the complex number
+     * @param out       the destination
+     * @return          {@code out}
+     * @throws NullPointerException if {@code out} is equal to {@code null}
+     * @throws IOException          if appending to {@code out} fails
+     */
+    @Contract("_, _, _ -> param3")
+    public static <A extends Appendable> A format(double real, double imaginary, A out) throws NullPointerException, IOException {
+        if(out == null) throw new NullPointerException();
+        if(out instanceof StringBuilder sb) format(real, imaginary, sb);
+        else out.append(format(real, imaginary, new StringBuilder(48)));
+        return out;
+    }
+
+    /**
+     * Appends all elements of {@code a} to {@code out}, formatted like {@link ComplexNumber#toString()} and
+     * separated by {@code delimiter}. Only a single buffer is used for all the elements.
+     * @param a         the values
+     * @param delimiter the text between two values, e.g. {@code ","} or {@code "\n"}
+     * @param out       the destination
+     * @return          {@code out}
+     * @throws NullPointerException if {@code a}, {@code delimiter} or {@code out} is equal to {@code null}
+     * @throws IOException          if appending to {@code out} fails
+     */
+    @Contract("_, _, _ -> param3")
+    public static <A extends Appendable> A format(ComplexArray a, CharSequence delimiter, A out) throws NullPointerException, IOException {
+        if(a == null || delimiter == null || out == null) throw new NullPointerException();
+        double[] re = a.real(), im = a.imaginary();
+        StringBuilder sb = out instanceof StringBuilder b ? b : new StringBuilder(48);
+        for(int i = 0; i < re.length; i++) {
+            if(i > 0) sb.append(delimiter);
+            format(re[i], im[i], sb);
+            if(sb != out) {
+                out.append(sb);
+                sb.setLength(0);
+            }
+        }
+        return out;
+    }
+
+    //Parsing:
+    /**
+     * Parses the complex number in {@code s}, ignoring leading and trailing whitespace.
+     * @param s     the text
+     * @return      a new {@code ComplexNumber} with the parsed value
+     * @throws NullPointerException     if {@code s} is equal to {@code null}
+     * @throws NumberFormatException    if {@code s} isn't a complex number
+     */
+    public static ComplexNumber parse(CharSequence s) throws NullPointerException, NumberFormatException {
+        if(s == null) throw new NullPointerException();
+        int from = 0, to = s.length();
+        while(from < to && Character.isWhitespace(s.charAt(from))) from++;
+        while(to > from && Character.isWhitespace(s.charAt(to - 1))) to--;
+        double[] out = parse(s, from, to, new double[2]);
+        return new ComplexNumber(out[0], out[1]);
+    }
+
+    /**
+     * Parses the complex number in the characters [{@code from}, {@code to}) of {@code s}.
+     * @param s     the text
+     * @param from  the index of the first character
+     * @param to    the index after the last character
+     * @param out   an array of length 2 to store the result in: <br>{@code out[0]} = Re(z), {@code out[1]} = Im(z)
+     * @return      {@code out}
+     * @throws NullPointerException         if either {@code s} or {@code out} is equal to {@code null}
+     * @throws IndexOutOfBoundsException    if the range is outside of {@code s}
+     * @throws NumberFormatException        if the range isn't a complex number
+     */
+    @Contract("_, _, _, _ -> param4")
+    public static double[] parse(CharSequence s, int from, int to, double[] out) throws NullPointerException, IndexOutOfBoundsException, NumberFormatException {
+        if(s == null || out == null) throw new NullPointerException();
+        if(from < 0 || to > s.length() || from > to) throw new IndexOutOfBoundsException();
+        int i = from;
+        double sign = 1;
+        if(i < to && (s.charAt(i) == '+' || s.charAt(i) == '-')) sign = s.charAt(i++) == '-' ? -1 : 1;
+        //Only the imaginary unit:
+        if(i + 1 == to && isUnit(s.charAt(i))) {
+            out[0] = 0;
+            out[1] = sign;
+            return out;
+        }
+        i = number(s, i, to, out, 0);
+        if(i < 0) throw error(s, from, to);
+        double a = sign * out[0];
+        if(i == to) {
+            out[0] = a;
+            out[1] = 0;
+            return out;
+        }
+        char c = s.charAt(i++);
+        if(isUnit(c) && i == to) {
+            out[0] = 0;
+            out[1] = a;
+            return out;
+        }
+        if(c == '@' || c == '∠') {
+            sign = 1;
+            if(i < to && (s.charAt(i) == '+' || s.charAt(i) == '-')) sign = s.charAt(i++) == '-' ? -1 : 1;
+            i = number(s, i, to, out, 1);
+            if(i < 0) throw error(s, from, to);
+            double angle = sign * out[1];
+            if(i < to && s.charAt(i) == '°') {
+                angle = Math.toRadians(angle);
+                i++;
+            }
+            if(i != to) throw error(s, from, to);
+            out[0] = a * Math.cos(angle);
+            out[1] = a * Math.sin(angle);
+            return out;
+        }
+        if(c != '+' && c != '-') throw error(s, from, to);
+        sign = c == '-' ? -1 : 1;
+        if(i + 1 == to && isUnit(s.charAt(i))) {
+            out[0] = a;
+            out[1] = sign;
+            return out;
+        }
+        i = number(s, i, to, out, 1);
+        if(i < 0 || i + 1 != to || !isUnit(s.charAt(i))) throw error(s, from, to);
+        out[0] = a;
+        out[1] *= sign;
+        return out;
+    }
+
+    /**
+     * Parses the values in {@code in} into {@code dst}, starting at index {@code offset}. The values are separated by
+     * whitespace, commas or semicolons, the end of the buffer ends the last value. Parsing stops at the end of the
+     * buffer or when {@code dst} is full; the position of {@code in} is then moved behind the last parsed value.
+     * @param in        the text
+     * @param dst       the destination
+     * @param offset    the index of {@code dst} to store the first value at
+     * @return          the number of parsed values
+     * @throws NullPointerException         if either {@code in} or {@code dst} is equal to {@code null}
+     * @throws IndexOutOfBoundsException    if {@code offset} is outside of {@code dst}
+     * @throws NumberFormatException        if a value can't be parsed, the position of {@code in} is then the start of that value
+     */
+    public static int parse(CharBuffer in, ComplexArray dst, int offset) throws NullPointerException, IndexOutOfBoundsException, NumberFormatException {
+        if(in == null) throw new NullPointerException();
+        return parse(in, in, dst, offset);
+    }
+
+    /**
+     * Parses the values in the ASCII text in {@code in} into {@code dst}, starting at index {@code offset}. The values are
+     * separated by whitespace, commas or semicolons, the end of the buffer ends the last value. Parsing stops at the end of
+     * the buffer or when {@code dst} is full; the position of {@code in} is then moved behind the last parsed value.<br>
+     * A {@code byte[]} can be parsed with {@code ComplexFormat.parse(ByteBuffer.wrap(bytes), dst, 0)}. Polar values have
+     * to use {@code @}, as {@code ∠} and {@code °} aren't ASCII.
+     * @param in        the text
+     * @param dst       the destination
+     * @param offset    the index of {@code dst} to store the first value at
+     * @return          the number of parsed values
+     * @throws NullPointerException         if either {@code in} or {@code dst} is equal to {@code null}
+     * @throws IndexOutOfBoundsException    if {@code offset} is outside of {@code dst}
+     * @throws NumberFormatException        if a value can't be parsed, the position of {@code in} is then the start of that value
+     */
+    public static int parse(ByteBuffer in, ComplexArray dst, int offset) throws NullPointerException, IndexOutOfBoundsException, NumberFormatException {
+        if(in == null) throw new NullPointerException();
+        return parse(new Ascii(in), in, dst, offset);
+    }
+
+    //Helper functions:
+    //The characters of s are the remaining ones of in:
+    private static int parse(CharSequence s, Buffer in, ComplexArray dst, int offset) {
+        if(dst == null) throw new NullPointerException();
+        if(offset < 0 || offset > dst.length()) throw new IndexOutOfBoundsException(offset);
+        double[] re = dst.real(), im = dst.imaginary(), out = new double[2];
+        int n = s.length(), i = 0, k = offset;
+        try {
+            while(k < re.length) {
+                while(i < n && isSeparator(s.charAt(i))) i++;
+                if(i == n) break;
+                int j = i;
+                while(j < n && !isSeparator(s.charAt(j))) j++;
+                parse(s, i, j, out);
+                re[k] = out[0];
+                im[k++] = out[1];
+                i = j;
+            }
+        }
+        finally {
+            in.position(in.position() + i);
+        }
+        return k - offset;
+    }
+
+    //Parses an unsigned decimal number into out[k], returns the index after it or -1 if there is none:
+    private static int number(CharSequence s, int from, int to, double[] out, int k) {
+        if(startsWith(s, from, to, "NaN")) {
+            out[k] = Double.NaN;
+            return from + 3;
+        }
+        if(startsWith(s, from, to, "Infinity")) {
+            out[k] = Double.POSITIVE_INFINITY;
+            return from + 8;
+        }
+        long m = 0;
+        int i = from, digits = 0, exponent = 0;
+        boolean exact = true;
+        char c;
+        while(i < to && (c = s.charAt(i)) >= '0' && c <= '9') {
+            if(m < MAX_EXACT) m = 10 * m + (c - '0');
+            else {
+                exponent++;
+                if(c != '0') exact = false;
+            }
+            digits++;
+            i++;
+        }
+        if(i < to && s.charAt(i) == '.') {
+            i++;
+            while(i < to && (c = s.charAt(i)) >= '0' && c <= '9') {
+                if(m < MAX_EXACT) {
+                    m = 10 * m + (c - '0');
+                    exponent--;
+                }
+                else if(c != '0') exact = false;
+                digits++;
+                i++;
+            }
+        }
+        if(digits == 0) return -1;
+        if(i < to && ((c = s.charAt(i)) == 'e' || c == 'E')) {
+            int j = i + 1, e = 0;
+            boolean negative = false;
+            if(j < to && ((c = s.charAt(j)) == '+' || c == '-')) {
+                negative = c == '-';
+                j++;
+            }
+            int start = j;
+            while(j < to && (c = s.charAt(j)) >= '0' && c <= '9') {
+                if(e < 100_000) e = 10 * e + (c - '0');
+                j++;
+            }
+            if(j == start) return -1;
+            exponent += negative ? -e : e;
+            i = j;
+        }
+        if(exact && m <= MAX_EXACT && exponent >= -22 && exponent <= 22) {
+            out[k] = exponent < 0 ? m / POWERS_OF_TEN[-exponent] : m * POWERS_OF_TEN[exponent];
+        }
+        else if(m == 0 && exact) out[k] = 0;
+        else out[k] = Double.parseDouble(new StringBuilder(i - from).append(s, from, i).toString());
+        return i;
+    }
+
+    private static boolean startsWith(CharSequence s, int from, int to, String prefix) {
+        if(to - from < prefix.length()) return false;
+        for(int i = 0; i < prefix.length(); i++) {
+            if(s.charAt(from + i) != prefix.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private static boolean isUnit(char c) {
+        return c == 'i' || c == 'j';
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ' ' || c == ',' || c == ';' || c == '\n' || c == '\r' || c == '\t';
+    }
+
+    private static NumberFormatException error(CharSequence s, int from, int to) {
+        return new NumberFormatException("not a complex number: \"" + s.subSequence(from, to) + "\"");
+    }
+
+    //The remaining bytes of a buffer as characters:
+    private record Ascii(ByteBuffer b) implements CharSequence {
+
+        @Override
+        public int length() {
+            return b.remaining();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char)(b.get(b.position() + index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new StringBuilder(end - start).append(this, start, end);
+        }
+    }
+}
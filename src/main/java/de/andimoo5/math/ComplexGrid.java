@@ -0,0 +1,360 @@
+package de.andimoo5.math;
+
+import org.jetbrains.annotations.Contract;
+
+/**
+ * {@code ComplexGrid} is a rectangle of the complex plane sampled at {@code width} times {@code height} points, one per
+ * pixel of an image, for rendering fractals and domain colorings. The point of the pixel (x, y) is at the center of the
+ * pixel: <i>re(x) = reMin + (x + 0.5) * (reMax - reMin) / width</i>, and the rows go from top to bottom,
+ * <i>im(y) = imMax - (y + 0.5) * (imMax - imMin) / height</i>. The results go straight into {@code int[]} or
+ * {@code double[]} buffers in row-major order, the value of pixel (x, y) at index <i>y * width + x</i>.<br>
+ * <br> Features included in this class are:<br>
+ * <ul>
+ *     <li>The escape time of the <i>Mandelbrot</i> set, <i>z &larr; z^2 + c</i> from <i>z = 0</i> with the point as
+ *          <i>c</i>, and of the <i>Julia</i> sets, with the point as start and a fixed <i>c</i></li>
+ *     <li>The escape time of any iteration <i>z &larr; f(z, p)</i> given as a
+ *          {@link ComplexStream.ComplexBinaryOperator}</li>
+ *     <li>The values of any {@link ComplexStream.ComplexUnaryOperator} at all points, e.g. for domain coloring</li>
+ * </ul>
+ * The image is cut into tiles of {@value #TILE_WIDTH} times {@value #TILE_HEIGHT} pixels which run on the common
+ * {@link java.util.concurrent.ForkJoinPool}; threads done with their tiles steal the others' ones, so the black
+ * areas of a fractal, which take the most iterations, don't hold up the rest. Nothing is allocated per pixel or
+ * per iteration.<br>
+ * <br> The quadratic iterations run on SIMD lanes if the <i>Vector API</i> is available, each lane one pixel. Lanes
+ * whose points escaped are masked out, and a vector stops once all of its lanes are done. Points whose orbit returns
+ * exactly to an earlier value can never escape, so they stop early as well (<i>periodicity checking</i>), and
+ * <i>Mandelbrot</i> points in the main cardioid or the period-2 bulb are never iterated at all. All of this gives the
+ * same counts, bit by bit, as the plain iteration; only a point of the cardioid whose rounded orbit would have
+ * escaped counts as inside.
+ *
+ * @author  Andras Martin Moosbauer
+ * @version 2.0
+ */
+public final class ComplexGrid {
+
+    /**
+     * The width of a tile in pixels, a multiple of the number of SIMD lanes.
+     */
+    public static final int TILE_WIDTH = 256;
+
+    /**
+     * The height of a tile in pixels.
+     */
+    public static final int TILE_HEIGHT = 16;
+
+    //|z|^2 beyond which a point escapes: radius 2 for the counts, and 2^8 for the smooth counts, whose correction
+    //term assumes that |z| is much bigger than |c|:
+    private static final double BAILOUT = 4, SMOOTH_BAILOUT = 0x1p16;
+
+    private static final double LN2 = Math.log(2);
+
+    private final double reMin, imMin, reMax, imMax;
+    private final int width, height;
+    //The real parts of the columns and the imaginary parts of the rows:
+    private final double[] reAxis, imAxis;
+
+    //Constructors of the "ComplexGrid" class:
+    /**
+     * Constructs a new {@code ComplexGrid} covering the rectangle [{@code reMin}, {@code reMax}] x [{@code imMin}, {@code imMax}].
+     * @param reMin     the real part of the left edge
+     * @param imMin     the imaginary part of the bottom edge
+     * @param reMax     the real part of the right edge
+     * @param imMax     the imaginary part of the top edge
+     * @param width     the number of columns
+     * @param height    the number of rows
+     * @throws IllegalArgumentException if the edges aren't finite, {@code reMin >= reMax}, {@code imMin >= imMax},
+     *                                  the size isn't positive or the grid has more than {@code Integer.MAX_VALUE} points
+     */
+    public ComplexGrid(double reMin, double imMin, double reMax, double imMax, int width, int height) throws IllegalArgumentException {
+        if(!Double.isFinite(reMin) || !Double.isFinite(reMax) || !Double.isFinite(imMin) || !Double.isFinite(imMax))
+            throw new IllegalArgumentException("edges have to be finite");
+        if(!(reMin < reMax) || !(imMin < imMax)) throw new IllegalArgumentException("rectangle is empty");
+        if(width < 1 || height < 1 || (long)width * height > Integer.MAX_VALUE) throw new IllegalArgumentException("size out of range: " + width + "x" + height);
+        this.reMin = reMin;
+        this.imMin = imMin;
+        this.reMax = reMax;
+        this.imMax = imMax;
+        this.width = width;
+        this.height = height;
+        reAxis = new double[width];
+        imAxis = new double[height];
+        double reStep = (reMax - reMin) / width, imStep = (imMax - imMin) / height;
+        for(int x = 0; x < width; x++) reAxis[x] = reMin + (x + 0.5) * reStep;
+        for(int y = 0; y < height; y++) imAxis[y] = imMax - (y + 0.5) * imStep;
+    }
+
+    //Basic functions (to get data from objects of this class):
+    /**
+     * @return  the number of columns
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * @return  the number of rows
+     */
+    public int height() {
+        return height;
+    }
+
+    /**
+     * @return  the number of points, {@code width * height}
+     */
+    public int size() {
+        return width * height;
+    }
+
+    /**
+     * @param x the column
+     * @return  the real part of the points in the column {@code x}
+     * @throws ArrayIndexOutOfBoundsException if {@code x} is out of range
+     */
+    public double re(int x) throws ArrayIndexOutOfBoundsException {
+        return reAxis[x];
+    }
+
+    /**
+     * @param y the row, 0 is the top one
+     * @return  the imaginary part of the points in the row {@code y}
+     * @throws ArrayIndexOutOfBoundsException if {@code y} is out of range
+     */
+    public double im(int y) throws ArrayIndexOutOfBoundsException {
+        return imAxis[y];
+    }
+
+    /**
+     * @return  a String naming the rectangle and the size, e.g. {@code ComplexGrid[-2.0, -1.0; 1.0, 1.0; 300x200]}
+     */
+    @Override
+    public String toString() {
+        return "ComplexGrid[" + reMin + ", " + imMin + "; " + reMax + ", " + imMax + "; " + width + "x" + height + "]";
+    }
+
+    //Methods for Escape Time Fractals:
+    /**
+     * Calculates the escape time of the <i>Mandelbrot</i> set for every point <i>c</i>: the number of iterations
+     * <i>z &larr; z^2 + c</i>, starting at <i>z = 0</i>, before <i>|z| &gt; 2</i>.
+     * @param maxIterations the maximum number of iterations
+     * @param dst           the destination
+     * @return              {@code dst}, holding the number of iterations, or {@code maxIterations} for points which
+     *                      didn't escape
+     * @throws NullPointerException     if {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if {@code maxIterations} is negative or {@code dst} doesn't have the length {@link #size()}
+     */
+    @Contract("_, _ -> param2")
+    public int[] mandelbrot(int maxIterations, int[] dst) throws NullPointerException, IllegalArgumentException {
+        checkArguments(maxIterations, dst);
+        quadratic(false, 0, 0, maxIterations, BAILOUT, dst, null);
+        return dst;
+    }
+
+    /**
+     * Calculates the smooth escape time of the <i>Mandelbrot</i> set for every point <i>c</i>, the normalized
+     * iteration count <i>n + 1 - log2(ln|z_n|)</i>, where <i>n</i> is the number of iterations before <i>|z| &gt; 2^8</i>.
+     * Unlike the counts it changes continuously from pixel to pixel, so colorings don't show bands.
+     * @param maxIterations the maximum number of iterations
+     * @param dst           the destination
+     * @return              {@code dst}, holding the smooth iteration count, or {@code maxIterations} for points which
+     *                      didn't escape
+     * @throws NullPointerException     if {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if {@code maxIterations} is negative or {@code dst} doesn't have the length {@link #size()}
+     */
+    @Contract("_, _ -> param2")
+    public double[] mandelbrot(int maxIterations, double[] dst) throws NullPointerException, IllegalArgumentException {
+        checkArguments(maxIterations, dst);
+        quadratic(false, 0, 0, maxIterations, SMOOTH_BAILOUT, new int[dst.length], dst);
+        return dst;
+    }
+
+    /**
+     * Calculates the escape time of the <i>Julia</i> set of <i>c = cRe + cIm*i</i> for every point <i>z</i>: the number
+     * of iterations <i>z &larr; z^2 + c</i>, starting at the point, before <i>|z| &gt; 2</i>.
+     * @param cRe           the real part of <i>c</i>
+     * @param cIm           the imaginary part of <i>c</i>
+     * @param maxIterations the maximum number of iterations
+     * @param dst           the destination
+     * @return              {@code dst}, holding the number of iterations, or {@code maxIterations} for points which
+     *                      didn't escape
+     * @throws NullPointerException     if {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if {@code maxIterations} is negative or {@code dst} doesn't have the length {@link #size()}
+     */
+    @Contract("_, _, _, _ -> param4")
+    public int[] julia(double cRe, double cIm, int maxIterations, int[] dst) throws NullPointerException, IllegalArgumentException {
+        checkArguments(maxIterations, dst);
+        quadratic(true, cRe, cIm, maxIterations, BAILOUT, dst, null);
+        return dst;
+    }
+
+    /**
+     * Calculates the smooth escape time of the <i>Julia</i> set of <i>c = cRe + cIm*i</i> for every point <i>z</i>,
+     * like {@link #mandelbrot(int, double[])}.
+     * @param cRe           the real part of <i>c</i>
+     * @param cIm           the imaginary part of <i>c</i>
+     * @param maxIterations the maximum number of iterations
+     * @param dst           the destination
+     * @return              {@code dst}, holding the smooth iteration count, or {@code maxIterations} for points which
+     *                      didn't escape
+     * @throws NullPointerException     if {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if {@code maxIterations} is negative or {@code dst} doesn't have the length {@link #size()}
+     */
+    @Contract("_, _, _, _ -> param4")
+    public double[] julia(double cRe, double cIm, int maxIterations, double[] dst) throws NullPointerException, IllegalArgumentException {
+        checkArguments(maxIterations, dst);
+        quadratic(true, cRe, cIm, maxIterations, SMOOTH_BAILOUT, new int[dst.length], dst);
+        return dst;
+    }
+
+    /**
+     * Calculates the escape time of the iteration <i>z &larr; f(z, p)</i> for every point <i>p</i>: the number of
+     * iterations, starting at <i>z = p</i>, before <i>|z| &gt;</i> {@code radius}. {@code f} gets <i>z</i> as its first
+     * and <i>p</i> as its second argument, e.g. {@code (zRe, zIm, pRe, pIm, out) -> ComplexNumber.pow(zRe, zIm, 3, out)}
+     * followed by adding <i>p</i> for the cubic <i>Mandelbrot</i> set. It has to give the same result for the same
+     * arguments and is called from many threads at once.
+     * @param f             the iteration
+     * @param radius        the escape radius
+     * @param maxIterations the maximum number of iterations
+     * @param dst           the destination
+     * @return              {@code dst}, holding the number of iterations, or {@code maxIterations} for points which
+     *                      didn't escape
+     * @throws NullPointerException     if {@code f} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if {@code radius} isn't positive, {@code maxIterations} is negative or
+     *                                  {@code dst} doesn't have the length {@link #size()}
+     */
+    @Contract("_, _, _, _ -> param4")
+    public int[] escapeTime(ComplexStream.ComplexBinaryOperator f, double radius, int maxIterations, int[] dst) throws NullPointerException, IllegalArgumentException {
+        if(f == null) throw new NullPointerException();
+        if(!(radius > 0)) throw new IllegalArgumentException("radius has to be positive");
+        checkArguments(maxIterations, dst);
+        double bailout = radius * radius;
+        forEachRow((y, from, to) -> {
+            double[] out = new double[2];
+            double im = imAxis[y];
+            for(int x = from, i = y * width + from; x < to; x++, i++) {
+                double pRe = reAxis[x], zRe = pRe, zIm = im, sRe = zRe, sIm = zIm;
+                int n = 0;
+                for(; n < maxIterations; n++) {
+                    if(zRe * zRe + zIm * zIm > bailout) break;
+                    f.apply(zRe, zIm, pRe, im, out);
+                    zRe = out[0];
+                    zIm = out[1];
+                    if(zRe == sRe && zIm == sIm) {
+                        n = maxIterations;
+                        break;
+                    }
+                    if((n & (n + 1)) == 0) {
+                        sRe = zRe;
+                        sIm = zIm;
+                    }
+                }
+                dst[i] = n;
+            }
+        });
+        return dst;
+    }
+
+    //Methods for Function Evaluation:
+    /**
+     * Calculates {@code f} at every point, e.g. for domain coloring.
+     * @param f     the function, it is called from many threads at once
+     * @param dstRe receives the real parts of the results
+     * @param dstIm receives the imaginary parts of the results
+     * @throws NullPointerException     if any argument is equal to {@code null}
+     * @throws IllegalArgumentException if {@code dstRe} or {@code dstIm} doesn't have the length {@link #size()}
+     */
+    public void evaluate(ComplexStream.ComplexUnaryOperator f, double[] dstRe, double[] dstIm) throws NullPointerException, IllegalArgumentException {
+        if(f == null || dstRe == null || dstIm == null) throw new NullPointerException();
+        if(dstRe.length != size() || dstIm.length != size()) throw new IllegalArgumentException("array length differs from the grid size");
+        forEachRow((y, from, to) -> {
+            double[] out = new double[2];
+            double im = imAxis[y];
+            for(int x = from, i = y * width + from; x < to; x++, i++) {
+                f.apply(reAxis[x], im, out);
+                dstRe[i] = out[0];
+                dstIm[i] = out[1];
+            }
+        });
+    }
+
+    //Helper functions:
+    private void checkArguments(int maxIterations, int[] dst) {
+        if(dst == null) throw new NullPointerException();
+        checkArguments(maxIterations, dst.length);
+    }
+
+    private void checkArguments(int maxIterations, double[] dst) {
+        if(dst == null) throw new NullPointerException();
+        checkArguments(maxIterations, dst.length);
+    }
+
+    private void checkArguments(int maxIterations, int length) {
+        if(maxIterations < 0) throw new IllegalArgumentException("maxIterations has to be >= 0");
+        if(length != size()) throw new IllegalArgumentException("array length differs from the grid size");
+    }
+
+    //Processes the pixels [from, to) of the row y:
+    @FunctionalInterface
+    private interface RowAction {
+        void apply(int y, int from, int to);
+    }
+
+    //Runs the action on all tiles, each tile row by row:
+    private void forEachRow(RowAction action) {
+        int columns = (width + TILE_WIDTH - 1) / TILE_WIDTH, rows = (height + TILE_HEIGHT - 1) / TILE_HEIGHT;
+        ParallelKernels.tasks(columns * rows, (first, last) -> {
+            for(int t = first; t < last; t++) {
+                int x0 = t % columns * TILE_WIDTH, y0 = t / columns * TILE_HEIGHT;
+                int x1 = Math.min(width, x0 + TILE_WIDTH), y1 = Math.min(height, y0 + TILE_HEIGHT);
+                for(int y = y0; y < y1; y++) action.apply(y, x0, x1);
+            }
+        });
+    }
+
+    //z <- z^2 + c on all points; with smooth != null, it receives |z|^2 at the escape first and the smooth counts then:
+    private void quadratic(boolean julia, double cRe, double cIm, int maxIterations, double bailout, int[] counts, double[] smooth) {
+        forEachRow((y, from, to) -> {
+            int offset = y * width, x = from;
+            double im = imAxis[y];
+            if(ComplexKernels.VECTORIZED) x = VectorKernels.escape(reAxis, im, julia, cRe, cIm, maxIterations, bailout, counts, smooth, offset, from, to);
+            for(; x < to; x++) {
+                double re = reAxis[x];
+                counts[offset + x] = julia ? escape(re, im, cRe, cIm, maxIterations, bailout, smooth, offset + x)
+                        : insideBulbs(re, im) ? maxIterations : escape(0, 0, re, im, maxIterations, bailout, smooth, offset + x);
+            }
+            if(smooth == null) return;
+            for(int i = offset + from; i < offset + to; i++) {
+                int n = counts[i];
+                //n + 1 - log2(ln|z|), with ln|z| = ln(|z|^2) / 2:
+                smooth[i] = n == maxIterations ? n : n + 1 - Math.log(Math.log(smooth[i]) / 2) / LN2;
+            }
+        });
+    }
+
+    //The escape time of a single point; abs2[i] receives |z|^2 at the escape if abs2 isn't null. The operations
+    //and their order are the same as in VectorKernels.escape:
+    private static int escape(double x, double y, double cr, double ci, int maxIterations, double bailout, double[] abs2, int i) {
+        double px = x, py = y;
+        for(int n = 0; n < maxIterations; n++) {
+            double x2 = x * x, y2 = y * y, s = x2 + y2;
+            if(s > bailout) {
+                if(abs2 != null) abs2[i] = s;
+                return n;
+            }
+            y = (x + x) * y + ci;
+            x = x2 - y2 + cr;
+            //An orbit that returns exactly to the saved value is periodic; the saved value moves on at powers of 2:
+            if(x == px && y == py) return maxIterations;
+            if((n & (n + 1)) == 0) {
+                px = x;
+                py = y;
+            }
+        }
+        return maxIterations;
+    }
+
+    //true if c is in the main cardioid or in the period-2 bulb of the Mandelbrot set:
+    private static boolean insideBulbs(double re, double im) {
+        double a = re - 0.25, q2 = im * im, t = a * a + q2, b = re + 1;
+        return t * (t + a) <= q2 * 0.25 || b * b + q2 <= 0.0625;
+    }
+}
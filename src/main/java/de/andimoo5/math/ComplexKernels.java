@@ -0,0 +1,761 @@
+package de.andimoo5.math;
+
+import java.util.Arrays;
+
+/**
+ * {@code ComplexKernels} contains the primitive loops behind the bulk operations of {@link ComplexArray} and
+ * {@link InterleavedComplexArray}. Every kernel works on the index range [{@code from}, {@code to}). The arithmetic
+ * kernels don't allocate anything. The kernels of the elementary functions, {@code map} and the polar conversion
+ * allocate one small scratch array per call (not per element) for the results of the scalar functions, the float
+ * reductions one for their partial sums. The destination arrays may be the same as the source arrays, as every
+ * element is read completely before it gets written.<br>
+ * <br> If the module {@code jdk.incubator.vector} is enabled (e.g. {@code --add-modules jdk.incubator.vector}),
+ * the split layout kernels hand the bulk of their work to the SIMD kernels in {@link VectorKernels} and only
+ * process the remaining tail themselves. Otherwise, or if the system property {@code de.andimoo5.math.vectorize}
+ * is set to {@code false}, they fall back to plain scalar loops.
+ *
+ * @author  Andras Martin Moosbauer
+ * @version 2.0
+ */
+final class ComplexKernels {
+
+    /**
+     * {@code true} if the split layout kernels use {@link VectorKernels}.
+     */
+    static final boolean VECTORIZED = vectorSupport();
+
+    private ComplexKernels() {}
+
+    private static boolean vectorSupport() {
+        if(!Boolean.parseBoolean(System.getProperty("de.andimoo5.math.vectorize", "true"))) return false;
+        if(ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) return false;
+        try {
+            //With a single lane the Vector API has no advantage over the scalar loops:
+            return VectorKernels.LANES > 1;
+        } catch(LinkageError e) {
+            return false;
+        }
+    }
+
+    //Kernels for split (structure of arrays) storage:
+    static void sum(double[] aRe, double[] aIm, double[] bRe, double[] bIm, double[] dRe, double[] dIm, int from, int to) {
+        if(VECTORIZED) from = VectorKernels.sum(aRe, aIm, bRe, bIm, dRe, dIm, from, to);
+        for(int i = from; i < to; i++) {
+            dRe[i] = aRe[i] + bRe[i];
+            dIm[i] = aIm[i] + bIm[i];
+        }
+    }
+
+    static void diff(double[] aRe, double[] aIm, double[] bRe, double[] bIm, double[] dRe, double[] dIm, int from, int to) {
+        if(VECTORIZED) from = VectorKernels.diff(aRe, aIm, bRe, bIm, dRe, dIm, from, to);
+        for(int i = from; i < to; i++) {
+            dRe[i] = aRe[i] - bRe[i];
+            dIm[i] = aIm[i] - bIm[i];
+        }
+    }
+
+    static void prod(double[] aRe, double[] aIm, double[] bRe, double[] bIm, double[] dRe, double[] dIm, int from, int to) {
+        if(VECTORIZED) from = VectorKernels.prod(aRe, aIm, bRe, bIm, dRe, dIm, from, to);
+        for(int i = from; i < to; i++) {
+            double a = aRe[i], b = aIm[i], c = bRe[i], d = bIm[i];
+            dRe[i] = a * c - b * d;
+            dIm[i] = a * d + b * c;
+        }
+    }
+
+    static void division(double[] aRe, double[] aIm, double[] bRe, double[] bIm, double[] dRe, double[] dIm, int from, int to) {
+        if(VECTORIZED) from = VectorKernels.division(aRe, aIm, bRe, bIm, dRe, dIm, from, to);
+        for(int i = from; i < to; i++) {
+            double a = aRe[i], b = aIm[i], c = bRe[i], d = bIm[i];
+            dRe[i] = ComplexNumber.quotientRe(a, b, c, d);
+            dIm[i] = ComplexNumber.quotientRe(b, -a, c, d);
+        }
+    }
+
+    static void conjugate(double[] aRe, double[] aIm, double[] dRe, double[] dIm, int from, int to) {
+        if(VECTORIZED) from = VectorKernels.conjugate(aRe, aIm, dRe, dIm, from, to);
+        for(int i = from; i < to; i++) {
+            dRe[i] = aRe[i];
+            dIm[i] = -aIm[i];
+        }
+    }
+
+    static void mod(double[] aRe, double[] aIm, double[] dst, int from, int to) {
+        if(VECTORIZED) from = VectorKernels.mod(aRe, aIm, dst, from, to);
+        for(int i = from; i < to; i++) {
+            dst[i] = ComplexNumber.modulus(aRe[i], aIm[i]);
+        }
+    }
+
+    static void arg(double[] aRe, double[] aIm, double[] dst, int from, int to) {
+        for(int i = from; i < to; i++) {
+            dst[i] = Math.atan2(aIm[i], aRe[i]);
+        }
+    }
+
+    static void pow(double[] aRe, double[] aIm, long power, double[] dRe, double[] dIm, int from, int to) {
+        double[] out = new double[2];
+        for(int i = from; i < to; i++) {
+            ComplexNumber.pow(aRe[i], aIm[i], power, out);
+            dRe[i] = out[0];
+            dIm[i] = out[1];
+        }
+    }
+
+    static void pow(double[] aRe, double[] aIm, double power, double[] dRe, double[] dIm, int from, int to) {
+        double[] out = new double[2];
+        for(int i = from; i < to; i++) {
+            ComplexNumber.pow(aRe[i], aIm[i], power, out);
+            dRe[i] = out[0];
+            dIm[i] = out[1];
+        }
+    }
+
+    static void pow(double[] aRe, double[] aIm, double[] wRe, double[] wIm, double[] dRe, double[] dIm, int from, int to) {
+        double[] out = new double[2];
+        for(int i = from; i < to; i++) {
+            ComplexNumber.pow(aRe[i], aIm[i], wRe[i], wIm[i], out);
+            dRe[i] = out[0];
+            dIm[i] = out[1];
+        }
+    }
+
+    static void exp(double[] aRe, double[] aIm, double[] dRe, double[] dIm, int from, int to) {
+        double[] out = new double[2];
+        for(int i = from; i < to; i++) {
+            ComplexNumber.exp(aRe[i], aIm[i], out);
+            dRe[i] = out[0];
+            dIm[i] = out[1];
+        }
+    }
+
+    static void log(double[] aRe, double[] aIm, double[] dRe, double[] dIm, int from, int to) {
+        double[] out = new double[2];
+        for(int i = from; i < to; i++) {
+            ComplexNumber.log(aRe[i], aIm[i], out);
+            dRe[i] = out[0];
+            dIm[i] = out[1];
+        }
+    }
+
+    static void sqrt(double[] aRe, double[] aIm, double[] dRe, double[] dIm, int from, int to) {
+        double[] out = new double[2];
+        for(int i = from; i < to; i++) {
+            ComplexNumber.sqrt(aRe[i], aIm[i], out);
+            dRe[i] = out[0];
+            dIm[i] = out[1];
+        }
+    }
+
+    static void sin(double[] aRe, double[] aIm, double[] dRe, double[] dIm, int from, int to) {
+        double[] out = new double[2];
+        for(int i = from; i < to; i++) {
+            ComplexNumber.sin(aRe[i], aIm[i], out);
+            dRe[i] = out[0];
+            dIm[i] = out[1];
+        }
+    }
+
+    static void cos(double[] aRe, double[] aIm, double[] dRe, double[] dIm, int from, int to) {
+        double[] out = new double[2];
+        for(int i = from; i < to; i++) {
+            ComplexNumber.cos(aRe[i], aIm[i], out);
+            dRe[i] = out[0];
+            dIm[i] = out[1];
+        }
+    }
+
+    //Elements for which the scalar function throws an ArithmeticException become NaN:
+    static void tan(double[] aRe, double[] aIm, double[] dRe, double[] dIm, int from, int to) {
+        double[] out = new double[2];
+        for(int i = from; i < to; i++) {
+            try {
+                ComplexNumber.tan(aRe[i], aIm[i], out);
+            } catch(ArithmeticException e) {
+                out[0] = out[1] = Double.NaN;
+            }
+            dRe[i] = out[0];
+            dIm[i] = out[1];
+        }
+    }
+
+    static void asin(double[] aRe, double[] aIm, double[] dRe, double[] dIm, int from, int to) {
+        double[] out = new double[2];
+        for(int i = from; i < to; i++) {
+            ComplexNumber.asin(aRe[i], aIm[i], out);
+            dRe[i] = out[0];
+            dIm[i] = out[1];
+        }
+    }
+
+    static void acos(double[] aRe, double[] aIm, double[] dRe, double[] dIm, int from, int to) {
+        double[] out = new double[2];
+        for(int i = from; i < to; i++) {
+            try {
+                ComplexNumber.acos(aRe[i], aIm[i], out);
+            } catch(ArithmeticException e) {
+                out[0] = out[1] = Double.NaN;
+            }
+            dRe[i] = out[0];
+            dIm[i] = out[1];
+        }
+    }
+
+    static void atan(double[] aRe, double[] aIm, double[] dRe, double[] dIm, int from, int to) {
+        double[] out = new double[2];
+        for(int i = from; i < to; i++) {
+            try {
+                ComplexNumber.atan(aRe[i], aIm[i], out);
+            } catch(ArithmeticException e) {
+                out[0] = out[1] = Double.NaN;
+            }
+            dRe[i] = out[0];
+            dIm[i] = out[1];
+        }
+    }
+
+    //Reductions:
+    static double total(double[] a, int from, int to) {
+        double s = 0;
+        for(int i = from; i < to; i++) {
+            s += a[i];
+        }
+        return s;
+    }
+
+    static double normSquared(double[] aRe, double[] aIm, int from, int to) {
+        double s = 0;
+        for(int i = from; i < to; i++) {
+            s += aRe[i] * aRe[i] + aIm[i] * aIm[i];
+        }
+        return s;
+    }
+
+    //Neumaier's compensated sum, written as the rounded sum to partial[offset] and its error to partial[offset + 1].
+    //Even and odd indexes are summed separately, which keeps two independent chains of additions in flight:
+    static void compensatedTotal(double[] a, int from, int to, double[] partial, int offset) {
+        double s0 = 0, c0 = 0, s1 = 0, c1 = 0;
+        int i = from;
+        for(; i + 1 < to; i += 2) {
+            double x = a[i], y = a[i + 1], t0 = s0 + x, t1 = s1 + y;
+            c0 += Math.abs(s0) >= Math.abs(x) ? (s0 - t0) + x : (x - t0) + s0;
+            c1 += Math.abs(s1) >= Math.abs(y) ? (s1 - t1) + y : (y - t1) + s1;
+            s0 = t0;
+            s1 = t1;
+        }
+        if(i < to) {
+            double x = a[i], t0 = s0 + x;
+            c0 += Math.abs(s0) >= Math.abs(x) ? (s0 - t0) + x : (x - t0) + s0;
+            s0 = t0;
+        }
+        double s = s0 + s1, z = s - s0;
+        partial[offset] = s;
+        partial[offset + 1] = c0 + c1 + ((s0 - (s - z)) + (s1 - z));
+    }
+
+    //The sum of conj(a[i]) * b[i] by Ogita, Rump and Oishi's Dot2: every product is split into its rounded value and
+    //its exact error (with Math.fma), the rounded values are added up with TwoSum and all errors are accumulated
+    //separately. Writes the sum and the error of the real part to partial[offset] and partial[offset + 1], the ones
+    //of the imaginary part to partial[offset + 2] and partial[offset + 3]:
+    static void compensatedDot(double[] aRe, double[] aIm, double[] bRe, double[] bIm, int from, int to, double[] partial, int offset) {
+        double sRe = 0, cRe = 0, sIm = 0, cIm = 0;
+        for(int i = from; i < to; i++) {
+            double a = aRe[i], b = aIm[i], c = bRe[i], d = bIm[i];
+            //Re = a*c + b*d, Im = a*d - b*c:
+            double p = a * c, q = b * d, u = a * d, v = -b * c;
+            cRe += Math.fma(a, c, -p) + Math.fma(b, d, -q);
+            cIm += Math.fma(a, d, -u) + Math.fma(-b, c, -v);
+            double t = sRe + p, z = t - p;
+            cRe += (sRe - z) + (p - (t - z));
+            sRe = t + q;
+            z = sRe - q;
+            cRe += (t - z) + (q - (sRe - z));
+            t = sIm + u;
+            z = t - u;
+            cIm += (sIm - z) + (u - (t - z));
+            sIm = t + v;
+            z = sIm - v;
+            cIm += (t - z) + (v - (sIm - z));
+        }
+        partial[offset] = sRe;
+        partial[offset + 1] = cRe;
+        partial[offset + 2] = sIm;
+        partial[offset + 3] = cIm;
+    }
+
+    /**
+     * Blue's thresholds and scaling factors for an overflow-safe sum of squares, the same as the ones of the
+     * reference BLAS {@code dnrm2}: values below {@code NORM_SMALL} are squared after scaling them up by
+     * {@code NORM_SMALL_SCALE}, values above {@code NORM_BIG} after scaling them down by {@code NORM_BIG_SCALE}.
+     */
+    static final double NORM_SMALL = 0x1p-511, NORM_BIG = 0x1p486, NORM_SMALL_SCALE = 0x1p537, NORM_BIG_SCALE = 0x1p-538;
+
+    //Blue's three accumulators of the squares of all real and imaginary parts, written to partial[offset] (the small
+    //values, scaled up), partial[offset + 1] and partial[offset + 2] (the medium ones, as a compensated sum and its
+    //error) and partial[offset + 3] (the big ones, scaled down). Only the medium sum gets compensated, as the others
+    //don't matter next to it, unless they are the only ones:
+    static void scaledNormSquared(double[] aRe, double[] aIm, int from, int to, double[] partial, int offset) {
+        double small = 0, medium = 0, error = 0, big = 0;
+        for(int i = from; i < to; i++) {
+            double x = Math.abs(aRe[i]), y = Math.abs(aIm[i]), q;
+            if(x >= NORM_SMALL && x <= NORM_BIG && y >= NORM_SMALL && y <= NORM_BIG) q = x * x + y * y;
+            else {
+                q = 0;
+                for(int k = 0; k < 2; k++, x = y) {
+                    if(x > NORM_BIG) big += (x * NORM_BIG_SCALE) * (x * NORM_BIG_SCALE);
+                    else if(x < NORM_SMALL) small += (x * NORM_SMALL_SCALE) * (x * NORM_SMALL_SCALE);
+                    else q += x * x;
+                }
+            }
+            double t = medium + q;
+            error += medium >= q ? (medium - t) + q : (q - t) + medium;
+            medium = t;
+        }
+        partial[offset] = small;
+        partial[offset + 1] = medium;
+        partial[offset + 2] = error;
+        partial[offset + 3] = big;
+    }
+
+    //The square root of the sum of squares given by Blue's three accumulators, see scaledNormSquared:
+    static double norm(double small, double medium, double big) {
+        if(big > 0) {
+            //The small values don't matter next to the big ones:
+            if(medium > 0 || Double.isNaN(medium)) big += medium * NORM_BIG_SCALE * NORM_BIG_SCALE;
+            return Math.sqrt(big) / NORM_BIG_SCALE;
+        }
+        if(small > 0) {
+            if(medium > 0 || Double.isNaN(medium)) {
+                double a = Math.sqrt(medium), b = Math.sqrt(small) / NORM_SMALL_SCALE;
+                double min = Math.min(a, b), max = Math.max(a, b);
+                return max * Math.sqrt(1 + (min / max) * (min / max));
+            }
+            return Math.sqrt(small) / NORM_SMALL_SCALE;
+        }
+        return Math.sqrt(medium);
+    }
+
+    //The largest modulus |a[i]|, the same as the maximum of ComplexNumber.modulus but without a square root per element:
+    static double maxModulus(double[] aRe, double[] aIm, int from, int to) {
+        double squared = 0, max = 0;
+        for(int i = from; i < to; i++) {
+            double re = aRe[i], im = aIm[i], a = Math.max(Math.abs(re), Math.abs(im));
+            if(a <= ComplexNumber.SAFE_MAX && (a >= ComplexNumber.SAFE_MIN || a == 0)) squared = Math.max(squared, re * re + im * im);
+            else max = Math.max(max, ComplexNumber.modulus(re, im));
+        }
+        return Math.max(Math.sqrt(squared), max);
+    }
+
+    //Kernels for matrices (row-major split storage, element (r, c) at offset + r * stride + c):
+    /**
+     * The width of the column strips of a packed block, a multiple of the vector width.
+     */
+    static final int STRIP = VECTORIZED ? VectorKernels.LANES : 4;
+
+    /**
+     * Copies a block of {@code depth} rows and {@code width} columns of B into strips of {@link #STRIP} columns,
+     * so that {@link #gemm gemm} reads each strip linearly. Column {@code j} of row {@code k} goes to index
+     * {@code j / STRIP * depth * STRIP + k * STRIP + j % STRIP}; with {@code negate} the values are negated.
+     */
+    static void pack(double[] bRe, double[] bIm, int bOffset, int bStride, int depth, int width, boolean negate, double[] pRe, double[] pIm) {
+        for(int j = 0; j < width; j += STRIP) {
+            int w = Math.min(STRIP, width - j), p = j * depth;
+            for(int k = 0; k < depth; k++, p += STRIP) {
+                int b = bOffset + k * bStride + j;
+                if(negate) {
+                    for(int l = 0; l < w; l++) {
+                        pRe[p + l] = -bRe[b + l];
+                        pIm[p + l] = -bIm[b + l];
+                    }
+                }
+                else {
+                    System.arraycopy(bRe, b, pRe, p, w);
+                    System.arraycopy(bIm, b, pIm, p, w);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the product of {@code rows} rows of A and a block of B packed by {@link #pack pack} to C.
+     * Every element of C is accumulated in the order of {@code k}, so the vector and the scalar loops agree.
+     */
+    static void gemm(double[] aRe, double[] aIm, int aOffset, int aStride, double[] pRe, double[] pIm, int depth, int width,
+                     double[] cRe, double[] cIm, int cOffset, int cStride, int rows) {
+        int from = 0;
+        if(VECTORIZED) from = VectorKernels.gemm(aRe, aIm, aOffset, aStride, pRe, pIm, depth, width, cRe, cIm, cOffset, cStride, rows);
+        for(int r = 0; r < rows; r++) {
+            int a = aOffset + r * aStride, c = cOffset + r * cStride;
+            for(int j = from; j < width; j++) {
+                double sRe = cRe[c + j], sIm = cIm[c + j];
+                for(int k = 0, p = j / STRIP * depth * STRIP + j % STRIP; k < depth; k++, p += STRIP) {
+                    double xRe = aRe[a + k], xIm = aIm[a + k], yRe = pRe[p], yIm = pIm[p];
+                    sRe += xRe * yRe - xIm * yIm;
+                    sIm += xRe * yIm + xIm * yRe;
+                }
+                cRe[c + j] = sRe;
+                cIm[c + j] = sIm;
+            }
+        }
+    }
+
+    /**
+     * Multiplies the rows [{@code from}, {@code to}) of A with the vector x. Two rows share every load of x;
+     * the product is bound by memory bandwidth, so it isn't vectorized.
+     */
+    static void gemv(double[] aRe, double[] aIm, int columns, double[] xRe, double[] xIm, double[] dRe, double[] dIm, int from, int to) {
+        int i = from;
+        for(; i + 1 < to; i += 2) {
+            int a0 = i * columns, a1 = a0 + columns;
+            double sRe0 = 0, sIm0 = 0, sRe1 = 0, sIm1 = 0;
+            for(int k = 0; k < columns; k++) {
+                double yRe = xRe[k], yIm = xIm[k];
+                sRe0 += aRe[a0 + k] * yRe - aIm[a0 + k] * yIm;
+                sIm0 += aRe[a0 + k] * yIm + aIm[a0 + k] * yRe;
+                sRe1 += aRe[a1 + k] * yRe - aIm[a1 + k] * yIm;
+                sIm1 += aRe[a1 + k] * yIm + aIm[a1 + k] * yRe;
+            }
+            dRe[i] = sRe0;
+            dIm[i] = sIm0;
+            dRe[i + 1] = sRe1;
+            dIm[i + 1] = sIm1;
+        }
+        if(i < to) {
+            int a = i * columns;
+            double sRe = 0, sIm = 0;
+            for(int k = 0; k < columns; k++) {
+                sRe += aRe[a + k] * xRe[k] - aIm[a + k] * xIm[k];
+                sIm += aRe[a + k] * xIm[k] + aIm[a + k] * xRe[k];
+            }
+            dRe[i] = sRe;
+            dIm[i] = sIm;
+        }
+    }
+
+    /**
+     * Adds x times the {@code length} elements of b, starting at {@code bOffset}, to the ones of d starting at {@code dOffset}.
+     */
+    static void axpy(double xRe, double xIm, double[] bRe, double[] bIm, int bOffset, double[] dRe, double[] dIm, int dOffset, int length) {
+        int j = 0;
+        if(VECTORIZED) j = VectorKernels.axpy(xRe, xIm, bRe, bIm, bOffset, dRe, dIm, dOffset, length);
+        for(; j < length; j++) {
+            double yRe = bRe[bOffset + j], yIm = bIm[bOffset + j];
+            dRe[dOffset + j] += xRe * yRe - xIm * yIm;
+            dIm[dOffset + j] += xRe * yIm + xIm * yRe;
+        }
+    }
+
+    //Kernels for sparse matrices (compressed rows or columns, the entries of row or column k at [pointers[k], pointers[k + 1])):
+    /**
+     * Multiplies the rows [{@code from}, {@code to}) of a matrix in compressed rows with the vector x.
+     * Every row is accumulated like {@code ComplexNumber.sum} of {@code ComplexNumber.prod}, in the order of its entries.
+     */
+    static void spmvRows(int[] pointers, int[] indices, double[] aRe, double[] aIm, double[] xRe, double[] xIm,
+                         double[] dRe, double[] dIm, int from, int to) {
+        for(int i = from; i < to; i++) {
+            double sRe = 0, sIm = 0;
+            for(int p = pointers[i], end = pointers[i + 1]; p < end; p++) {
+                double a = aRe[p], b = aIm[p], c = xRe[indices[p]], d = xIm[indices[p]];
+                sRe += a * c - b * d;
+                sIm += a * d + b * c;
+            }
+            dRe[i] = sRe;
+            dIm[i] = sIm;
+        }
+    }
+
+    /**
+     * Calculates the rows [{@code from}, {@code to}) of the product of a matrix in compressed columns and the
+     * vector x. Every row is accumulated in the order of the columns, so the result doesn't depend on the range.
+     */
+    static void spmvColumns(int[] pointers, int[] indices, double[] aRe, double[] aIm, double[] xRe, double[] xIm,
+                            double[] dRe, double[] dIm, int from, int to) {
+        for(int i = from; i < to; i++) {
+            dRe[i] = 0;
+            dIm[i] = 0;
+        }
+        for(int j = 0, columns = pointers.length - 1; j < columns; j++) {
+            int p = pointers[j], end = pointers[j + 1];
+            if(from > 0 && p < end) {
+                //The row indices of a column are sorted:
+                p = Arrays.binarySearch(indices, p, end, from);
+                if(p < 0) p = -p - 1;
+            }
+            double c = xRe[j], d = xIm[j];
+            for(; p < end && indices[p] < to; p++) {
+                int i = indices[p];
+                double a = aRe[p], b = aIm[p];
+                dRe[i] += a * c - b * d;
+                dIm[i] += a * d + b * c;
+            }
+        }
+    }
+
+    //Real and imaginary part of the sum of conj(a[i]) * b[i]:
+    static double dotRe(double[] aRe, double[] aIm, double[] bRe, double[] bIm, int from, int to) {
+        double s = 0;
+        for(int i = from; i < to; i++) {
+            s += aRe[i] * bRe[i] + aIm[i] * bIm[i];
+        }
+        return s;
+    }
+
+    static double dotIm(double[] aRe, double[] aIm, double[] bRe, double[] bIm, int from, int to) {
+        double s = 0;
+        for(int i = from; i < to; i++) {
+            s += aRe[i] * bIm[i] - aIm[i] * bRe[i];
+        }
+        return s;
+    }
+
+    //Kernels for interleaved storage (Re(z) at index 2*i, Im(z) at index 2*i+1):
+    static void sumInterleaved(double[] a, double[] b, double[] dst, int from, int to) {
+        for(int i = 2 * from, n = 2 * to; i < n; i++) {
+            dst[i] = a[i] + b[i];
+        }
+    }
+
+    static void diffInterleaved(double[] a, double[] b, double[] dst, int from, int to) {
+        for(int i = 2 * from, n = 2 * to; i < n; i++) {
+            dst[i] = a[i] - b[i];
+        }
+    }
+
+    static void prodInterleaved(double[] a, double[] b, double[] dst, int from, int to) {
+        for(int i = 2 * from, n = 2 * to; i < n; i += 2) {
+            double p = a[i], q = a[i + 1], c = b[i], d = b[i + 1];
+            dst[i] = p * c - q * d;
+            dst[i + 1] = p * d + q * c;
+        }
+    }
+
+    static void divisionInterleaved(double[] a, double[] b, double[] dst, int from, int to) {
+        for(int i = 2 * from, n = 2 * to; i < n; i += 2) {
+            double p = a[i], q = a[i + 1], c = b[i], d = b[i + 1];
+            dst[i] = ComplexNumber.quotientRe(p, q, c, d);
+            dst[i + 1] = ComplexNumber.quotientRe(q, -p, c, d);
+        }
+    }
+
+    static void conjugateInterleaved(double[] a, double[] dst, int from, int to) {
+        for(int i = 2 * from, n = 2 * to; i < n; i += 2) {
+            dst[i] = a[i];
+            dst[i + 1] = -a[i + 1];
+        }
+    }
+
+    static void modInterleaved(double[] a, double[] dst, int from, int to) {
+        for(int i = from; i < to; i++) {
+            dst[i] = ComplexNumber.modulus(a[2 * i], a[2 * i + 1]);
+        }
+    }
+
+    static void argInterleaved(double[] a, double[] dst, int from, int to) {
+        for(int i = from; i < to; i++) {
+            dst[i] = Math.atan2(a[2 * i + 1], a[2 * i]);
+        }
+    }
+
+    //Kernels for float storage (split like the double kernels, see ComplexFloatArray). Additions, subtractions and
+    //products are calculated in float, everything else in double and rounded once:
+    static void sum(float[] aRe, float[] aIm, float[] bRe, float[] bIm, float[] dRe, float[] dIm, int from, int to) {
+        if(VECTORIZED) from = VectorKernels.sum(aRe, aIm, bRe, bIm, dRe, dIm, from, to);
+        for(int i = from; i < to; i++) {
+            dRe[i] = aRe[i] + bRe[i];
+            dIm[i] = aIm[i] + bIm[i];
+        }
+    }
+
+    static void diff(float[] aRe, float[] aIm, float[] bRe, float[] bIm, float[] dRe, float[] dIm, int from, int to) {
+        if(VECTORIZED) from = VectorKernels.diff(aRe, aIm, bRe, bIm, dRe, dIm, from, to);
+        for(int i = from; i < to; i++) {
+            dRe[i] = aRe[i] - bRe[i];
+            dIm[i] = aIm[i] - bIm[i];
+        }
+    }
+
+    static void prod(float[] aRe, float[] aIm, float[] bRe, float[] bIm, float[] dRe, float[] dIm, int from, int to) {
+        if(VECTORIZED) from = VectorKernels.prod(aRe, aIm, bRe, bIm, dRe, dIm, from, to);
+        for(int i = from; i < to; i++) {
+            float a = aRe[i], b = aIm[i], c = bRe[i], d = bIm[i];
+            dRe[i] = a * c - b * d;
+            dIm[i] = a * d + b * c;
+        }
+    }
+
+    //The squares of floats never overflow or underflow in double, so the direct formula needs no scaling:
+    static void division(float[] aRe, float[] aIm, float[] bRe, float[] bIm, float[] dRe, float[] dIm, int from, int to) {
+        if(VECTORIZED) from = VectorKernels.division(aRe, aIm, bRe, bIm, dRe, dIm, from, to);
+        for(int i = from; i < to; i++) {
+            double a = aRe[i], b = aIm[i], c = bRe[i], d = bIm[i], t = c * c + d * d;
+            dRe[i] = (float)((a * c + b * d) / t);
+            dIm[i] = (float)((b * c - a * d) / t);
+        }
+    }
+
+    static void conjugate(float[] aRe, float[] aIm, float[] dRe, float[] dIm, int from, int to) {
+        if(VECTORIZED) from = VectorKernels.conjugate(aRe, aIm, dRe, dIm, from, to);
+        for(int i = from; i < to; i++) {
+            dRe[i] = aRe[i];
+            dIm[i] = -aIm[i];
+        }
+    }
+
+    static void mod(float[] aRe, float[] aIm, float[] dst, int from, int to) {
+        if(VECTORIZED) from = VectorKernels.mod(aRe, aIm, dst, from, to);
+        for(int i = from; i < to; i++) {
+            double a = aRe[i], b = aIm[i];
+            dst[i] = (float)Math.sqrt(a * a + b * b);
+        }
+    }
+
+    //Applies the scalar double function f, elements for which it throws an ArithmeticException become NaN:
+    static void map(float[] aRe, float[] aIm, float[] dRe, float[] dIm, int from, int to, ComplexStream.ComplexUnaryOperator f) {
+        double[] out = new double[2];
+        for(int i = from; i < to; i++) {
+            try {
+                f.apply(aRe[i], aIm[i], out);
+            } catch(ArithmeticException e) {
+                out[0] = out[1] = Double.NaN;
+            }
+            dRe[i] = (float)out[0];
+            dIm[i] = (float)out[1];
+        }
+    }
+
+    //Mixed precision reductions of float storage, accumulated in double. A product of two floats is exact in double,
+    //so only the additions round, with an error far below the precision of float. Element i goes to the partial sum
+    //(i - from) % PARTIALS, which keeps that many independent chains of additions in flight; the SIMD kernels hold the
+    //same partial sums in two vectors and leave them to the scalar loop for the tail. The partial sums are added up
+    //pairwise at the end:
+    static final int PARTIALS = VECTORIZED ? 2 * VectorKernels.LANES : 8;
+
+    static void floatTotal(float[] a, int from, int to, double[] partial, int offset) {
+        double[] s = new double[PARTIALS];
+        if(VECTORIZED) from = VectorKernels.floatTotal(a, from, to, s);
+        for(int i = from, k = 0; i < to; i++) {
+            s[k] += a[i];
+            if(++k == PARTIALS) k = 0;
+        }
+        partial[offset] = pairwise(s);
+    }
+
+    static void floatDot(float[] aRe, float[] aIm, float[] bRe, float[] bIm, int from, int to, double[] partial, int offset) {
+        double[] re = new double[PARTIALS], im = new double[PARTIALS];
+        if(VECTORIZED) from = VectorKernels.floatDot(aRe, aIm, bRe, bIm, from, to, re, im);
+        for(int i = from, k = 0; i < to; i++) {
+            double a = aRe[i], b = aIm[i], c = bRe[i], d = bIm[i];
+            re[k] += a * c + b * d;
+            im[k] += a * d - b * c;
+            if(++k == PARTIALS) k = 0;
+        }
+        partial[offset] = pairwise(re);
+        partial[offset + 1] = pairwise(im);
+    }
+
+    //The squares of floats never overflow in double, so the norm needs no scaling:
+    static double floatNormSquared(float[] aRe, float[] aIm, int from, int to) {
+        double[] s = new double[PARTIALS];
+        if(VECTORIZED) from = VectorKernels.floatNormSquared(aRe, aIm, from, to, s);
+        for(int i = from, k = 0; i < to; i++) {
+            double a = aRe[i], b = aIm[i];
+            s[k] += a * a + b * b;
+            if(++k == PARTIALS) k = 0;
+        }
+        return pairwise(s);
+    }
+
+    //Adds up the partial sums of the float reductions in halves, overwriting them:
+    private static double pairwise(double[] s) {
+        for(int half = s.length / 2; half > 0; half /= 2) {
+            for(int k = 0; k < half; k++) s[k] += s[k + half];
+        }
+        return s[0];
+    }
+
+    static double floatMaxModulus(float[] aRe, float[] aIm, int from, int to) {
+        double max = 0;
+        for(int i = from; i < to; i++) {
+            double a = aRe[i], b = aIm[i], m = a * a + b * b;
+            //NaN wins, like in Math.max:
+            if(m > max || m != m) max = m;
+        }
+        return Math.sqrt(max);
+    }
+
+    //Kernels for polar storage (the moduli and the angles in (-pi, pi] in two arrays, see PolarComplexArray):
+    static void cartesian(double[] mod, double[] arg, double[] dRe, double[] dIm, int from, int to) {
+        double[] out = new double[2];
+        for(int i = from; i < to; i++) {
+            PolarComplex.cartesian(mod[i], arg[i], out);
+            dRe[i] = out[0];
+            dIm[i] = out[1];
+        }
+    }
+
+    //The same with the polynomial sine and cosine of Accuracy.FAST, or the shorter ones of Accuracy.APPROX:
+    static void cartesian(double[] mod, double[] arg, double[] dRe, double[] dIm, int from, int to, boolean approx) {
+        if(VECTORIZED) from = VectorKernels.cartesian(mod, arg, dRe, dIm, from, to, approx);
+        double[] out = new double[2];
+        for(int i = from; i < to; i++) {
+            cartesian(mod[i], arg[i], approx, out);
+            dRe[i] = out[0];
+            dIm[i] = out[1];
+        }
+    }
+
+    //One element of the kernel above, also used by its vector version for arguments out of its range:
+    static void cartesian(double mod, double arg, boolean approx, double[] out) {
+        if(approx) ApproxMath.sinCosApprox(arg, out);
+        else ApproxMath.sinCos(arg, out);
+        double s = out[0], c = out[1];
+        out[0] = c == 0 ? c : mod * c;
+        out[1] = s == 0 ? s : mod * s;
+    }
+
+    //The angles with the polynomial atan2 of Accuracy.APPROX:
+    static void argApprox(double[] aRe, double[] aIm, double[] dst, int from, int to) {
+        if(VECTORIZED) from = VectorKernels.argApprox(aRe, aIm, dst, from, to);
+        for(int i = from; i < to; i++) {
+            dst[i] = ApproxMath.atan2(aIm[i], aRe[i]);
+        }
+    }
+
+    //The sum of two angles in (-pi, pi] is in (-2pi, 2pi], so a single exact correction brings it back:
+    static void polarProd(double[] aMod, double[] aArg, double[] bMod, double[] bArg, double[] dMod, double[] dArg, int from, int to) {
+        if(VECTORIZED) from = VectorKernels.polarProd(aMod, aArg, bMod, bArg, dMod, dArg, from, to);
+        for(int i = from; i < to; i++) {
+            dMod[i] = aMod[i] * bMod[i];
+            dArg[i] = wrap(aArg[i] + bArg[i]);
+        }
+    }
+
+    static void polarDivision(double[] aMod, double[] aArg, double[] bMod, double[] bArg, double[] dMod, double[] dArg, int from, int to) {
+        if(VECTORIZED) from = VectorKernels.polarDivision(aMod, aArg, bMod, bArg, dMod, dArg, from, to);
+        for(int i = from; i < to; i++) {
+            dMod[i] = aMod[i] / bMod[i];
+            dArg[i] = wrap(aArg[i] - bArg[i]);
+        }
+    }
+
+    static void polarSqrt(double[] aMod, double[] aArg, double[] dMod, double[] dArg, int from, int to) {
+        if(VECTORIZED) from = VectorKernels.polarSqrt(aMod, aArg, dMod, dArg, from, to);
+        for(int i = from; i < to; i++) {
+            dMod[i] = Math.sqrt(aMod[i]);
+            dArg[i] = aArg[i] * 0.5;
+        }
+    }
+
+    static void polarPow(double[] aMod, double[] aArg, double power, double[] dMod, double[] dArg, int from, int to) {
+        for(int i = from; i < to; i++) {
+            dMod[i] = Math.pow(aMod[i], power);
+            dArg[i] = PolarComplex.reduce(aArg[i] * power);
+        }
+    }
+
+    private static double wrap(double angle) {
+        if(angle > Math.PI) return angle - 2 * Math.PI;
+        if(angle <= -Math.PI) return angle + 2 * Math.PI;
+        return angle;
+    }
+}
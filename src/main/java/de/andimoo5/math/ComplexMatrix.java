@@ -0,0 +1,829 @@
+package de.andimoo5.math;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * {@code ComplexMatrix} is a dense matrix of complex numbers stored like a {@link ComplexArray}: the real parts,
+ * <i>Re(z)</i>, and the imaginary parts, <i>Im(z)</i>, live in two primitive arrays, row after row
+ * (<i>row-major</i> order), so element (i, j) is at index {@code i * columns() + j}.<br>
+ * <br> Features included in this class are:<br>
+ * <ul>
+ *     <li>The matrix product ({@link #prod(ComplexMatrix, ComplexMatrix, ComplexMatrix) prod}), blocked for the
+ *          caches: blocks of the right factor are packed into strips as wide as a vector register, and a micro
+ *          kernel keeps four rows of a strip of the result in registers while it runs through a block</li>
+ *     <li>The product of a matrix and a vector ({@link #prod(ComplexMatrix, ComplexArray, ComplexArray) prod})</li>
+ *     <li>The conjugate transpose ({@link #conjugateTranspose(ComplexMatrix, ComplexMatrix) conjugateTranspose})</li>
+ *     <li>The {@link LU} decomposition with partial pivoting, which solves linear systems and calculates
+ *          the determinant; it factorizes blocks of columns and updates the rest of the matrix with the
+ *          matrix product</li>
+ * </ul>
+ * All operations run on the calling thread. For large matrices, {@link #parallel()} returns a view whose
+ * operations are split across the common {@code ForkJoinPool}. Every element of a product is accumulated
+ * in the same order either way, so the results are the same, bit by bit.
+ *
+ * @author  Andras Martin Moosbauer
+ * @version 2.0
+ */
+public class ComplexMatrix {
+
+    //Block sizes of the matrix product: a packed block of the right factor has KC rows and NC columns (256 KiB),
+    //the left factor is processed MC rows at a time, so its block stays in the cache as well:
+    private static final int KC = 128, NC = 128, MC = 64;
+
+    //Number of columns the LU decomposition factorizes before it updates the rest of the matrix:
+    private static final int NB = 64;
+
+    //Tile size of the conjugate transpose:
+    private static final int TILE = 32;
+
+    private final int rows, columns;
+
+    //Values of the elements, row after row, the real parts, Re(z), and the imaginary parts, Im(z):
+    private final double[] real, imaginary;
+
+    //Constructors of the "ComplexMatrix" class:
+    /**
+     * Constructs a new {@code ComplexMatrix} of the given size with all elements equal to 0.
+     * @param rows      the number of rows
+     * @param columns   the number of columns
+     * @throws IllegalArgumentException if {@code rows} or {@code columns} is negative or the matrix has more
+     *                                  elements than fit into an array
+     */
+    public ComplexMatrix(int rows, int columns) throws IllegalArgumentException {
+        this(rows, columns, new double[size(rows, columns)], new double[size(rows, columns)]);
+    }
+
+    /**
+     * Constructs a new {@code ComplexMatrix} backed by the passed arrays, which hold the elements row after row.
+     * The arrays are <b>not</b> copied, so changes to them are visible in the {@code ComplexMatrix} and vice versa.
+     * @param rows      the number of rows
+     * @param columns   the number of columns
+     * @param real      the real parts, Re(z), of the elements
+     * @param imaginary the imaginary parts, Im(z), of the elements
+     * @throws NullPointerException     if either {@code real} or {@code imaginary} is equal to {@code null}
+     * @throws IllegalArgumentException if the length of {@code real} or {@code imaginary} isn't {@code rows * columns}
+     */
+    public ComplexMatrix(int rows, int columns, double[] real, double[] imaginary) throws NullPointerException, IllegalArgumentException {
+        if(real == null || imaginary == null) throw new NullPointerException();
+        if(real.length != size(rows, columns) || imaginary.length != real.length) throw new IllegalArgumentException("arrays don't match the size of the matrix");
+        this.rows = rows;
+        this.columns = columns;
+        this.real = real;
+        this.imaginary = imaginary;
+    }
+
+    /**
+     * Constructs a new {@code ComplexMatrix} holding copies of the values of the passed complex numbers.
+     * @param values    the rows of the matrix, instances of {@code ComplexNumber}
+     * @throws NullPointerException     if {@code values}, one of its rows or one of their elements is equal to {@code null}
+     * @throws IllegalArgumentException if the rows differ in length
+     */
+    public ComplexMatrix(ComplexNumber[][] values) throws NullPointerException, IllegalArgumentException {
+        this(values.length, values.length == 0 ? 0 : values[0].length);
+        for(int i = 0; i < rows; i++) {
+            if(values[i].length != columns) throw new IllegalArgumentException("rows differ in length");
+            for(int j = 0; j < columns; j++) set(i, j, values[i][j]);
+        }
+    }
+
+    /**
+     * Constructs a new {@code ComplexMatrix} with a copy of the values of <i>a</i>.
+     * @param a an instance of {@code ComplexMatrix}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     */
+    public ComplexMatrix(ComplexMatrix a) throws NullPointerException {
+        this(a.rows, a.columns, a.real.clone(), a.imaginary.clone());
+    }
+
+    /**
+     * @param n the number of rows and columns
+     * @return  a new <i>n</i> x <i>n</i> identity matrix
+     * @throws IllegalArgumentException if {@code n} is negative
+     */
+    public static @NotNull ComplexMatrix identity(int n) throws IllegalArgumentException {
+        ComplexMatrix a = new ComplexMatrix(n, n);
+        for(int i = 0; i < n; i++) a.real[i * n + i] = 1;
+        return a;
+    }
+
+    //Basic functions (to set/get data from objects of this class):
+    /**
+     * @return  the number of rows
+     */
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * @return  the number of columns
+     */
+    public int columns() {
+        return columns;
+    }
+
+    /**
+     * Returns the array holding the real parts, <i>Re(z)</i>, row after row. It is the backing array and not a copy.
+     * @return  the real parts of all elements
+     */
+    public double[] real() {
+        return real;
+    }
+
+    /**
+     * Returns the array holding the imaginary parts, <i>Im(z)</i>, row after row. It is the backing array and not a copy.
+     * @return  the imaginary parts of all elements
+     */
+    public double[] imaginary() {
+        return imaginary;
+    }
+
+    /**
+     * Returns the element in row {@code i} and column {@code j} as a new {@code ComplexNumber}.
+     * @param i the row of the element
+     * @param j the column of the element
+     * @return  a new {@code ComplexNumber} with the value of the element
+     * @throws IndexOutOfBoundsException if {@code i} or {@code j} is out of bounds
+     */
+    @Contract("_, _ -> new")
+    public @NotNull ComplexNumber get(int i, int j) {
+        int k = index(i, j);
+        return new ComplexNumber(real[k], imaginary[k]);
+    }
+
+    /**
+     * Copies the element in row {@code i} and column {@code j} into {@code dst}, without allocating a new object.
+     * @param i     the row of the element
+     * @param j     the column of the element
+     * @param dst   the {@code ComplexNumber} to be overwritten
+     * @return      {@code dst}
+     * @throws NullPointerException      if {@code dst} is equal to {@code null}
+     * @throws IndexOutOfBoundsException if {@code i} or {@code j} is out of bounds
+     */
+    @Contract("_, _, _ -> param3")
+    public ComplexNumber get(int i, int j, ComplexNumber dst) throws NullPointerException {
+        if(dst == null) throw new NullPointerException();
+        int k = index(i, j);
+        dst.set(real[k], imaginary[k]);
+        return dst;
+    }
+
+    /**
+     * Sets the element in row {@code i} and column {@code j} to the value of {@code z}.
+     * @param i the row of the element
+     * @param j the column of the element
+     * @param z an instance of {@code ComplexNumber}
+     * @throws NullPointerException      if {@code z} is equal to {@code null}
+     * @throws IndexOutOfBoundsException if {@code i} or {@code j} is out of bounds
+     */
+    public void set(int i, int j, ComplexNumber z) throws NullPointerException {
+        if(z == null) throw new NullPointerException();
+        set(i, j, z.getRe(), z.getIm());
+    }
+
+    /**
+     * Sets <i>Re(z)</i> and <i>Im(z)</i> of the element in row {@code i} and column {@code j} to the passed values.
+     * @param i         the row of the element
+     * @param j         the column of the element
+     * @param real      the real part, Re(z), of the element
+     * @param imaginary the imaginary part, Im(z), of the element
+     * @throws IndexOutOfBoundsException if {@code i} or {@code j} is out of bounds
+     */
+    public void set(int i, int j, double real, double imaginary) {
+        int k = index(i, j);
+        this.real[k] = real;
+        this.imaginary[k] = imaginary;
+    }
+
+    /**
+     * Return <i>Re(z)</i> of the element in row {@code i} and column {@code j}
+     * @param i the row of the element
+     * @param j the column of the element
+     * @return  a {@code double} of the real part, <i>Re(z)</i>, of the element
+     * @throws IndexOutOfBoundsException if {@code i} or {@code j} is out of bounds
+     */
+    public double getRe(int i, int j) {
+        return real[index(i, j)];
+    }
+
+    /**
+     * Return <i>Im(z)</i> of the element in row {@code i} and column {@code j}
+     * @param i the row of the element
+     * @param j the column of the element
+     * @return  a {@code double} of the imaginary part, <i>Im(z)</i>, of the element
+     * @throws IndexOutOfBoundsException if {@code i} or {@code j} is out of bounds
+     */
+    public double getIm(int i, int j) {
+        return imaginary[index(i, j)];
+    }
+
+    /**
+     * Copies all elements into new {@code ComplexNumber} objects.
+     * @return  the rows of the matrix as arrays of new {@code ComplexNumber} objects
+     */
+    public ComplexNumber[][] toArray() {
+        ComplexNumber[][] values = new ComplexNumber[rows][columns];
+        for(int i = 0; i < rows; i++) {
+            for(int j = 0; j < columns; j++) values[i][j] = get(i, j);
+        }
+        return values;
+    }
+
+    /**
+     * @return      a String representing the values in the format of: <br>{@code [[z00, z01, ...], [z10, z11, ...], ...]},
+     *              where every element is formatted like {@link ComplexNumber#toString()}
+     */
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder("[");
+        for(int i = 0; i < rows; i++) {
+            if(i > 0) s.append(", ");
+            s.append('[');
+            for(int j = 0; j < columns; j++) {
+                if(j > 0) s.append(", ");
+                ComplexFormat.format(real[i * columns + j], imaginary[i * columns + j], s);
+            }
+            s.append(']');
+        }
+        return s.append(']').toString();
+    }
+
+    /**
+     * Compares the values of the {@code ComplexMatrix} with the ones of {@code Object a}.
+     * @param a any {@code Object}
+     * @return  {@code true} if {@code a} is a {@code ComplexMatrix} of the same size with equal elements
+     */
+    @Override
+    public boolean equals(Object a) {
+        if(this == a) return true;
+        if(!(a instanceof ComplexMatrix b) || b.rows != rows || b.columns != columns) return false;
+        return Arrays.equals(real, b.real) && Arrays.equals(imaginary, b.imaginary);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * (31 * rows + columns) + Arrays.hashCode(real)) + Arrays.hashCode(imaginary);
+    }
+
+    //Matrix Operations:
+    /**
+     * Calculates the matrix product of {@code a} and {@code b} and stores it in {@code dst}.
+     * @param a     the left factor, an <i>m</i> x <i>k</i> matrix
+     * @param b     the right factor, a <i>k</i> x <i>n</i> matrix
+     * @param dst   the destination, an <i>m</i> x <i>n</i> matrix other than {@code a} and {@code b}
+     * @return      {@code dst}, holding {@code a} * {@code b}
+     * @throws NullPointerException     if {@code a}, {@code b} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the sizes of the matrices don't match or {@code dst} is one of the factors
+     */
+    @Contract("_, _, _ -> param3")
+    public static ComplexMatrix prod(ComplexMatrix a, ComplexMatrix b, ComplexMatrix dst) throws NullPointerException, IllegalArgumentException {
+        return prod(a, b, dst, false);
+    }
+
+    /**
+     * Calculates the matrix product of {@code a} and {@code b}.
+     * @param a the left factor, an <i>m</i> x <i>k</i> matrix
+     * @param b the right factor, a <i>k</i> x <i>n</i> matrix
+     * @return  a new <i>m</i> x <i>n</i> {@code ComplexMatrix}, holding {@code a} * {@code b}
+     * @throws NullPointerException     if either {@code a} or {@code b} is equal to {@code null}
+     * @throws IllegalArgumentException if the number of columns of {@code a} differs from the number of rows of {@code b}
+     */
+    public static @NotNull ComplexMatrix prod(ComplexMatrix a, ComplexMatrix b) throws NullPointerException, IllegalArgumentException {
+        if(a == null || b == null) throw new NullPointerException();
+        return prod(a, b, new ComplexMatrix(a.rows, b.columns));
+    }
+
+    /**
+     * Calculates the product of the matrix {@code a} and the vector {@code x} and stores it in {@code dst}.
+     * @param a     an <i>m</i> x <i>n</i> matrix
+     * @param x     a vector of length <i>n</i>
+     * @param dst   the destination, a vector of length <i>m</i> other than {@code x}
+     * @return      {@code dst}, holding {@code a} * {@code x}
+     * @throws NullPointerException     if {@code a}, {@code x} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the lengths of the vectors don't match {@code a} or {@code dst} is {@code x}
+     */
+    @Contract("_, _, _ -> param3")
+    public static ComplexArray prod(ComplexMatrix a, ComplexArray x, ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+        return prod(a, x, dst, false);
+    }
+
+    /**
+     * Calculates the product of the matrix {@code a} and the vector {@code x}.
+     * @param a an <i>m</i> x <i>n</i> matrix
+     * @param x a vector of length <i>n</i>
+     * @return  a new {@code ComplexArray} of length <i>m</i>, holding {@code a} * {@code x}
+     * @throws NullPointerException     if either {@code a} or {@code x} is equal to {@code null}
+     * @throws IllegalArgumentException if the length of {@code x} differs from the number of columns of {@code a}
+     */
+    public static @NotNull ComplexArray prod(ComplexMatrix a, ComplexArray x) throws NullPointerException, IllegalArgumentException {
+        if(a == null || x == null) throw new NullPointerException();
+        return prod(a, x, new ComplexArray(a.rows));
+    }
+
+    /**
+     * Calculates the conjugate transpose (<i>Hermitian adjoint</i>) of {@code a} and stores it in {@code dst}.
+     * @param a     an <i>m</i> x <i>n</i> matrix
+     * @param dst   the destination, an <i>n</i> x <i>m</i> matrix, may be {@code a} if it is square
+     * @return      {@code dst}, holding the element conj({@code a[j][i]}) in row i and column j
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the size of {@code dst} doesn't match
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexMatrix conjugateTranspose(ComplexMatrix a, ComplexMatrix dst) throws NullPointerException, IllegalArgumentException {
+        if(a == null || dst == null) throw new NullPointerException();
+        if(dst.rows != a.columns || dst.columns != a.rows) throw new IllegalArgumentException("matrix sizes don't match");
+        if(a == dst) {
+            int n = a.rows;
+            for(int i = 0; i < n; i++) {
+                a.imaginary[i * n + i] = -a.imaginary[i * n + i];
+                for(int j = i + 1; j < n; j++) {
+                    int u = i * n + j, l = j * n + i;
+                    double re = a.real[u], im = a.imaginary[u];
+                    a.real[u] = a.real[l];
+                    a.imaginary[u] = -a.imaginary[l];
+                    a.real[l] = re;
+                    a.imaginary[l] = -im;
+                }
+            }
+            return dst;
+        }
+        //Tiles keep both the rows being read and the ones being written in the cache:
+        for(int i0 = 0; i0 < a.rows; i0 += TILE) {
+            for(int j0 = 0; j0 < a.columns; j0 += TILE) {
+                int i1 = Math.min(a.rows, i0 + TILE), j1 = Math.min(a.columns, j0 + TILE);
+                for(int j = j0; j < j1; j++) {
+                    for(int i = i0; i < i1; i++) {
+                        dst.real[j * a.rows + i] = a.real[i * a.columns + j];
+                        dst.imaginary[j * a.rows + i] = -a.imaginary[i * a.columns + j];
+                    }
+                }
+            }
+        }
+        return dst;
+    }
+
+    /**
+     * Calculates the conjugate transpose (<i>Hermitian adjoint</i>) of {@code a}.
+     * @param a an <i>m</i> x <i>n</i> matrix
+     * @return  a new <i>n</i> x <i>m</i> {@code ComplexMatrix}, holding the element conj({@code a[j][i]}) in row i and column j
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     */
+    public static @NotNull ComplexMatrix conjugateTranspose(ComplexMatrix a) throws NullPointerException {
+        return conjugateTranspose(a, new ComplexMatrix(a.columns, a.rows));
+    }
+
+    //Linear Systems:
+    /**
+     * Calculates the LU decomposition of this matrix with partial pivoting. The matrix itself isn't changed.
+     * @return  the {@link LU} decomposition
+     * @throws IllegalArgumentException if the matrix isn't square
+     */
+    public @NotNull LU lu() throws IllegalArgumentException {
+        return new LU(this, false);
+    }
+
+    /**
+     * Calculates the determinant of this matrix through its LU decomposition.
+     * @return  a new {@code ComplexNumber} with the value of det(this)
+     * @throws IllegalArgumentException if the matrix isn't square
+     */
+    public @NotNull ComplexNumber determinant() throws IllegalArgumentException {
+        return lu().determinant();
+    }
+
+    /**
+     * Solves the linear system <i>this * x = b</i> through the LU decomposition of this matrix.
+     * To solve several systems with the same matrix, keep the decomposition from {@link #lu()} instead.
+     * @param b the right-hand side, its length has to be the size of the matrix
+     * @return  a new {@code ComplexArray}, holding the solution <i>x</i>
+     * @throws NullPointerException     if {@code b} is equal to {@code null}
+     * @throws IllegalArgumentException if the matrix isn't square or the length of {@code b} doesn't match
+     * @throws ArithmeticException      if the matrix is singular
+     */
+    public @NotNull ComplexArray solve(ComplexArray b) throws NullPointerException, IllegalArgumentException, ArithmeticException {
+        if(b == null) throw new NullPointerException();
+        return lu().solve(b);
+    }
+
+    //Parallel Operations:
+    /**
+     * Returns a view of this matrix whose operations run in parallel on the common {@code ForkJoinPool}.
+     * Matrices which are too small to profit from more threads are still processed on the calling thread.
+     * The results are the same as the ones of the sequential operations.
+     * @return  a {@link Parallel} view of this matrix
+     */
+    public Parallel parallel() {
+        return new Parallel();
+    }
+
+    /**
+     * {@code Parallel} is a view of a {@link ComplexMatrix} which runs the operations with the matrix as the
+     * first operand in parallel, see {@link ComplexMatrix#parallel()}. The rows of the result are split into chunks.
+     */
+    public final class Parallel {
+
+        private Parallel() {}
+
+        /**
+         * @param b     the right factor, a <i>k</i> x <i>n</i> matrix
+         * @param dst   the destination, an <i>m</i> x <i>n</i> matrix other than the matrix itself and {@code b}
+         * @return      {@code dst}, holding {@code this} * {@code b}
+         * @throws NullPointerException     if either {@code b} or {@code dst} is equal to {@code null}
+         * @throws IllegalArgumentException if the sizes of the matrices don't match or {@code dst} is one of the factors
+         * @see ComplexMatrix#prod(ComplexMatrix, ComplexMatrix, ComplexMatrix)
+         */
+        @Contract("_, _ -> param2")
+        public ComplexMatrix prod(ComplexMatrix b, ComplexMatrix dst) throws NullPointerException, IllegalArgumentException {
+            return ComplexMatrix.prod(ComplexMatrix.this, b, dst, true);
+        }
+
+        /**
+         * @param x     a vector of length <i>n</i>
+         * @param dst   the destination, a vector of length <i>m</i> other than {@code x}
+         * @return      {@code dst}, holding {@code this} * {@code x}
+         * @throws NullPointerException     if either {@code x} or {@code dst} is equal to {@code null}
+         * @throws IllegalArgumentException if the lengths of the vectors don't match the matrix or {@code dst} is {@code x}
+         * @see ComplexMatrix#prod(ComplexMatrix, ComplexArray, ComplexArray)
+         */
+        @Contract("_, _ -> param2")
+        public ComplexArray prod(ComplexArray x, ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+            return ComplexMatrix.prod(ComplexMatrix.this, x, dst, true);
+        }
+
+        /**
+         * @return  the {@link LU} decomposition of the matrix, see {@link ComplexMatrix#lu()}
+         * @throws IllegalArgumentException if the matrix isn't square
+         */
+        public @NotNull LU lu() throws IllegalArgumentException {
+            return new LU(ComplexMatrix.this, true);
+        }
+    }
+
+    /**
+     * {@code LU} is the decomposition <i>P * A = L * U</i> of a square matrix <i>A</i> with a permutation <i>P</i>,
+     * a lower triangular matrix <i>L</i> with ones on its diagonal and an upper triangular matrix <i>U</i>.
+     * The pivot of every column is the element with the biggest <i>|Re(z)| + |Im(z)|</i> below the diagonal.<br>
+     * <br> The decomposition factorizes blocks of 64 columns and then updates the rest of the matrix with one
+     * matrix product, so most of the work runs in the blocked product kernel. A matrix without an inverse is
+     * decomposed as well; its determinant is 0 and solving a system with it throws an {@code ArithmeticException}.
+     * An {@code LU} is immutable and can solve any number of systems, also from several threads.
+     */
+    public static final class LU {
+
+        private final int n;
+
+        //L below the diagonal (its ones aren't stored) and U on and above it, row after row:
+        private final double[] real, imaginary;
+
+        //Row i was swapped with row pivots[i] in step i:
+        private final int[] pivots;
+        private final boolean singular;
+
+        private LU(ComplexMatrix a, boolean parallel) {
+            if(a.rows != a.columns) throw new IllegalArgumentException("matrix isn't square");
+            n = a.rows;
+            real = a.real.clone();
+            imaginary = a.imaginary.clone();
+            pivots = new int[n];
+            singular = factorize(parallel);
+        }
+
+        /**
+         * @return  {@code true} if a pivot is 0, i.e. the matrix has no inverse
+         */
+        public boolean isSingular() {
+            return singular;
+        }
+
+        /**
+         * Returns the row swaps of the decomposition: in step {@code i} row {@code i} was swapped with row
+         * {@code pivots()[i]}, which is never smaller than {@code i}.
+         * @return  a new array with the index of the pivot row of every step
+         */
+        public int[] pivots() {
+            return pivots.clone();
+        }
+
+        /**
+         * @return  a new {@code ComplexMatrix} holding <i>L</i>, with ones on the diagonal and zeros above it
+         */
+        public @NotNull ComplexMatrix lower() {
+            ComplexMatrix l = new ComplexMatrix(n, n);
+            for(int i = 0; i < n; i++) {
+                System.arraycopy(real, i * n, l.real, i * n, i);
+                System.arraycopy(imaginary, i * n, l.imaginary, i * n, i);
+                l.real[i * n + i] = 1;
+            }
+            return l;
+        }
+
+        /**
+         * @return  a new {@code ComplexMatrix} holding <i>U</i>, with zeros below the diagonal
+         */
+        public @NotNull ComplexMatrix upper() {
+            ComplexMatrix u = new ComplexMatrix(n, n);
+            for(int i = 0; i < n; i++) {
+                System.arraycopy(real, i * n + i, u.real, i * n + i, n - i);
+                System.arraycopy(imaginary, i * n + i, u.imaginary, i * n + i, n - i);
+            }
+            return u;
+        }
+
+        /**
+         * Calculates the determinant as the product of the diagonal of <i>U</i>, negated for every row swap.
+         * The product is kept as a mantissa and a binary exponent, so it only overflows or underflows if the
+         * determinant itself does; for big matrices, {@link #logDeterminant()} is often the better choice.
+         * @return  a new {@code ComplexNumber} with the value of det(A)
+         */
+        public @NotNull ComplexNumber determinant() {
+            double re = 1, im = 0;
+            int exponent = 0;
+            for(int i = 0; i < n; i++) {
+                double c = real[i * n + i], d = imaginary[i * n + i];
+                double t = re * c - im * d;
+                im = re * d + im * c;
+                re = t;
+                if(pivots[i] != i) {
+                    re = -re;
+                    im = -im;
+                }
+                //Back to a mantissa in [1, 2), which the next product can neither overflow nor underflow:
+                double m = Math.max(Math.abs(re), Math.abs(im));
+                if(m > 0 && m < Double.POSITIVE_INFINITY) {
+                    int e = Math.getExponent(m);
+                    re = Math.scalb(re, -e);
+                    im = Math.scalb(im, -e);
+                    exponent += e;
+                }
+            }
+            return new ComplexNumber(Math.scalb(re, exponent), Math.scalb(im, exponent));
+        }
+
+        /**
+         * Calculates the natural logarithm of the determinant as the sum of the logarithms of the diagonal of <i>U</i>.
+         * Unlike the determinant, it stays in range for matrices of any size.
+         * @return  a new {@code ComplexNumber} with the value of log(det(A)), with the imaginary part in [-pi, pi];
+         *          the real part is {@code -Infinity} if the matrix is singular
+         */
+        public @NotNull ComplexNumber logDeterminant() {
+            double re = 0, im = 0;
+            for(int i = 0; i < n; i++) {
+                double c = real[i * n + i], d = imaginary[i * n + i];
+                re += ComplexNumber.logModulus(c, d);
+                im += Math.atan2(d, c);
+                if(pivots[i] != i) im += Math.PI;
+            }
+            return new ComplexNumber(re, Math.IEEEremainder(im, 2 * Math.PI));
+        }
+
+        /**
+         * Solves the linear system <i>A * x = b</i> and stores <i>x</i> in {@code dst}.
+         * @param b     the right-hand side, its length has to be the size of <i>A</i>
+         * @param dst   the destination, may be {@code b}
+         * @return      {@code dst}, holding the solution <i>x</i>
+         * @throws NullPointerException     if either {@code b} or {@code dst} is equal to {@code null}
+         * @throws IllegalArgumentException if the length of {@code b} or {@code dst} doesn't match
+         * @throws ArithmeticException      if <i>A</i> is singular
+         */
+        @Contract("_, _ -> param2")
+        public ComplexArray solve(ComplexArray b, ComplexArray dst) throws NullPointerException, IllegalArgumentException, ArithmeticException {
+            if(b == null || dst == null) throw new NullPointerException();
+            if(b.length() != n || dst.length() != n) throw new IllegalArgumentException("vector length doesn't match the matrix");
+            if(singular) throw new ArithmeticException("matrix is singular");
+            double[] xRe = dst.real(), xIm = dst.imaginary(), out = new double[2];
+            if(dst != b) {
+                System.arraycopy(b.real(), 0, xRe, 0, n);
+                System.arraycopy(b.imaginary(), 0, xIm, 0, n);
+            }
+            for(int i = 0; i < n; i++) {
+                int p = pivots[i];
+                double re = xRe[i], im = xIm[i];
+                xRe[i] = xRe[p];
+                xIm[i] = xIm[p];
+                xRe[p] = re;
+                xIm[p] = im;
+            }
+            //Forward substitution with L:
+            for(int i = 1; i < n; i++) {
+                double sRe = xRe[i], sIm = xIm[i];
+                for(int k = 0, r = i * n; k < i; k++) {
+                    sRe -= real[r + k] * xRe[k] - imaginary[r + k] * xIm[k];
+                    sIm -= real[r + k] * xIm[k] + imaginary[r + k] * xRe[k];
+                }
+                xRe[i] = sRe;
+                xIm[i] = sIm;
+            }
+            //Back substitution with U:
+            for(int i = n - 1; i >= 0; i--) {
+                double sRe = xRe[i], sIm = xIm[i];
+                for(int k = i + 1, r = i * n; k < n; k++) {
+                    sRe -= real[r + k] * xRe[k] - imaginary[r + k] * xIm[k];
+                    sIm -= real[r + k] * xIm[k] + imaginary[r + k] * xRe[k];
+                }
+                ComplexNumber.quotient(sRe, sIm, real[i * n + i], imaginary[i * n + i], out);
+                xRe[i] = out[0];
+                xIm[i] = out[1];
+            }
+            return dst;
+        }
+
+        /**
+         * Solves the linear system <i>A * x = b</i>.
+         * @param b the right-hand side, its length has to be the size of <i>A</i>
+         * @return  a new {@code ComplexArray}, holding the solution <i>x</i>
+         * @throws NullPointerException     if {@code b} is equal to {@code null}
+         * @throws IllegalArgumentException if the length of {@code b} doesn't match
+         * @throws ArithmeticException      if <i>A</i> is singular
+         */
+        public @NotNull ComplexArray solve(ComplexArray b) throws NullPointerException, IllegalArgumentException, ArithmeticException {
+            if(b == null) throw new NullPointerException();
+            return solve(b, new ComplexArray(b.length()));
+        }
+
+        /**
+         * Solves the linear systems <i>A * X = B</i> for all columns of <i>B</i> at once and stores <i>X</i> in {@code dst}.
+         * Every column of the result is equal to the solution of {@link #solve(ComplexArray, ComplexArray)} for
+         * the same column of <i>B</i>.
+         * @param b     the right-hand sides, a matrix with as many rows as <i>A</i>
+         * @param dst   the destination, a matrix of the same size as {@code b}, may be {@code b}
+         * @return      {@code dst}, holding the solutions <i>X</i>
+         * @throws NullPointerException     if either {@code b} or {@code dst} is equal to {@code null}
+         * @throws IllegalArgumentException if the size of {@code b} or {@code dst} doesn't match
+         * @throws ArithmeticException      if <i>A</i> is singular
+         */
+        @Contract("_, _ -> param2")
+        public ComplexMatrix solve(ComplexMatrix b, ComplexMatrix dst) throws NullPointerException, IllegalArgumentException, ArithmeticException {
+            if(b == null || dst == null) throw new NullPointerException();
+            if(b.rows != n || dst.rows != n || dst.columns != b.columns) throw new IllegalArgumentException("matrix sizes don't match");
+            if(singular) throw new ArithmeticException("matrix is singular");
+            int m = b.columns;
+            double[] xRe = dst.real, xIm = dst.imaginary, out = new double[2];
+            if(dst != b) {
+                System.arraycopy(b.real, 0, xRe, 0, n * m);
+                System.arraycopy(b.imaginary, 0, xIm, 0, n * m);
+            }
+            for(int i = 0; i < n; i++) {
+                if(pivots[i] != i) swapRows(xRe, xIm, m, i, pivots[i]);
+            }
+            //Forward substitution with L, whole rows at once:
+            for(int i = 1; i < n; i++) {
+                for(int k = 0; k < i; k++) {
+                    ComplexKernels.axpy(-real[i * n + k], -imaginary[i * n + k], xRe, xIm, k * m, xRe, xIm, i * m, m);
+                }
+            }
+            //Back substitution with U:
+            for(int i = n - 1; i >= 0; i--) {
+                for(int k = i + 1; k < n; k++) {
+                    ComplexKernels.axpy(-real[i * n + k], -imaginary[i * n + k], xRe, xIm, k * m, xRe, xIm, i * m, m);
+                }
+                double c = real[i * n + i], d = imaginary[i * n + i];
+                for(int j = i * m; j < (i + 1) * m; j++) {
+                    ComplexNumber.quotient(xRe[j], xIm[j], c, d, out);
+                    xRe[j] = out[0];
+                    xIm[j] = out[1];
+                }
+            }
+            return dst;
+        }
+
+        /**
+         * Solves the linear systems <i>A * X = B</i> for all columns of <i>B</i> at once.
+         * @param b the right-hand sides, a matrix with as many rows as <i>A</i>
+         * @return  a new {@code ComplexMatrix}, holding the solutions <i>X</i>
+         * @throws NullPointerException     if {@code b} is equal to {@code null}
+         * @throws IllegalArgumentException if the number of rows of {@code b} doesn't match
+         * @throws ArithmeticException      if <i>A</i> is singular
+         */
+        public @NotNull ComplexMatrix solve(ComplexMatrix b) throws NullPointerException, IllegalArgumentException, ArithmeticException {
+            if(b == null) throw new NullPointerException();
+            return solve(b, new ComplexMatrix(b.rows, b.columns));
+        }
+
+        //Blocked right-looking decomposition, returns true if a pivot is 0:
+        private boolean factorize(boolean parallel) {
+            boolean zeroPivot = false;
+            double[] out = new double[2];
+            for(int k = 0; k < n; k += NB) {
+                int end = Math.min(n, k + NB);
+                //Factorize the columns [k, end) of the rows [k, n):
+                for(int j = k; j < end; j++) {
+                    int p = j;
+                    double max = -1;
+                    for(int i = j; i < n; i++) {
+                        double m = Math.abs(real[i * n + j]) + Math.abs(imaginary[i * n + j]);
+                        if(m > max) {
+                            max = m;
+                            p = i;
+                        }
+                    }
+                    pivots[j] = p;
+                    if(p != j) swapRows(real, imaginary, n, j, p);
+                    double c = real[j * n + j], d = imaginary[j * n + j];
+                    if(c == 0 && d == 0) {
+                        //The rest of the column is 0 as well, there is nothing to eliminate:
+                        zeroPivot = true;
+                        continue;
+                    }
+                    for(int i = j + 1; i < n; i++) {
+                        ComplexNumber.quotient(real[i * n + j], imaginary[i * n + j], c, d, out);
+                        real[i * n + j] = out[0];
+                        imaginary[i * n + j] = out[1];
+                        ComplexKernels.axpy(-out[0], -out[1], real, imaginary, j * n + j + 1, real, imaginary, i * n + j + 1, end - j - 1);
+                    }
+                }
+                if(end == n) break;
+                //The rows [k, end) of U right of the block:
+                for(int j = k; j < end; j++) {
+                    for(int i = j + 1; i < end; i++) {
+                        ComplexKernels.axpy(-real[i * n + j], -imaginary[i * n + j], real, imaginary, j * n + end, real, imaginary, i * n + end, n - end);
+                    }
+                }
+                //The rest of the matrix minus the product of the block of L below and the block of U right of the block:
+                gemm(real, imaginary, end * n + k, n, real, imaginary, k * n + end, n, true,
+                        real, imaginary, end * n + end, n, n - end, end - k, n - end, parallel);
+            }
+            return zeroPivot;
+        }
+    }
+
+    //Helper functions:
+    private static ComplexMatrix prod(ComplexMatrix a, ComplexMatrix b, ComplexMatrix dst, boolean parallel) {
+        if(a == null || b == null || dst == null) throw new NullPointerException();
+        if(a.columns != b.rows || dst.rows != a.rows || dst.columns != b.columns) throw new IllegalArgumentException("matrix sizes don't match");
+        if(dst == a || dst == b) throw new IllegalArgumentException("the destination must not be a factor");
+        Arrays.fill(dst.real, 0);
+        Arrays.fill(dst.imaginary, 0);
+        gemm(a.real, a.imaginary, 0, a.columns, b.real, b.imaginary, 0, b.columns, false,
+                dst.real, dst.imaginary, 0, dst.columns, a.rows, a.columns, b.columns, parallel);
+        return dst;
+    }
+
+    private static ComplexArray prod(ComplexMatrix a, ComplexArray x, ComplexArray dst, boolean parallel) {
+        if(a == null || x == null || dst == null) throw new NullPointerException();
+        if(x.length() != a.columns || dst.length() != a.rows) throw new IllegalArgumentException("vector length doesn't match the matrix");
+        if(dst == x) throw new IllegalArgumentException("the destination must not be the vector");
+        double[] xRe = x.real(), xIm = x.imaginary(), dRe = dst.real(), dIm = dst.imaginary();
+        if(parallel) {
+            ParallelKernels.forEach(a.rows, ParallelKernels.Cost.MATRIX.nanos * a.columns,
+                    (from, to) -> ComplexKernels.gemv(a.real, a.imaginary, a.columns, xRe, xIm, dRe, dIm, from, to));
+        }
+        else ComplexKernels.gemv(a.real, a.imaginary, a.columns, xRe, xIm, dRe, dIm, 0, a.rows);
+        return dst;
+    }
+
+    //C += A * B (or C -= A * B with negate) for a rows x depth block of A and a depth x width block of B:
+    private static void gemm(double[] aRe, double[] aIm, int aOffset, int aStride, double[] bRe, double[] bIm, int bOffset, int bStride,
+                             boolean negate, double[] cRe, double[] cIm, int cOffset, int cStride, int rows, int depth, int width, boolean parallel) {
+        if(rows == 0 || depth == 0 || width == 0) return;
+        if(!parallel) {
+            gemm(aRe, aIm, aOffset, aStride, bRe, bIm, bOffset, bStride, negate, cRe, cIm, cOffset, cStride, rows, depth, width);
+            return;
+        }
+        //Every chunk of rows packs the blocks of B itself, which costs less than a chunk's share of the product:
+        ParallelKernels.forEach(rows, ParallelKernels.Cost.MATRIX.nanos * depth * width,
+                (from, to) -> gemm(aRe, aIm, aOffset + from * aStride, aStride, bRe, bIm, bOffset, bStride, negate,
+                        cRe, cIm, cOffset + from * cStride, cStride, to - from, depth, width));
+    }
+
+    private static void gemm(double[] aRe, double[] aIm, int aOffset, int aStride, double[] bRe, double[] bIm, int bOffset, int bStride,
+                             boolean negate, double[] cRe, double[] cIm, int cOffset, int cStride, int rows, int depth, int width) {
+        int strip = ComplexKernels.STRIP, kc = Math.min(KC, depth), nc = (Math.min(NC, width) + strip - 1) / strip * strip;
+        double[] pRe = new double[kc * nc], pIm = new double[kc * nc];
+        for(int j = 0; j < width; j += NC) {
+            int w = Math.min(NC, width - j);
+            for(int k = 0; k < depth; k += KC) {
+                int d = Math.min(KC, depth - k);
+                ComplexKernels.pack(bRe, bIm, bOffset + k * bStride + j, bStride, d, w, negate, pRe, pIm);
+                for(int i = 0; i < rows; i += MC) {
+                    ComplexKernels.gemm(aRe, aIm, aOffset + i * aStride + k, aStride, pRe, pIm, d, w,
+                            cRe, cIm, cOffset + i * cStride + j, cStride, Math.min(MC, rows - i));
+                }
+            }
+        }
+    }
+
+    private static void swapRows(double[] re, double[] im, int columns, int i, int j) {
+        for(int k = 0, a = i * columns, b = j * columns; k < columns; k++) {
+            double t = re[a + k];
+            re[a + k] = re[b + k];
+            re[b + k] = t;
+            t = im[a + k];
+            im[a + k] = im[b + k];
+            im[b + k] = t;
+        }
+    }
+
+    private int index(int i, int j) {
+        return Objects.checkIndex(i, rows) * columns + Objects.checkIndex(j, columns);
+    }
+
+    private static int size(int rows, int columns) {
+        if(rows < 0 || columns < 0) throw new IllegalArgumentException("negative size");
+        long size = (long)rows * columns;
+        if(size > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("matrix too large");
+        return (int)size;
+    }
+}
@@ -0,0 +1,268 @@
+package de.andimoo5.math;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * {@code ComplexMemo} remembers the results of an expensive complex function for recently used arguments, e.g.
+ * {@code new ComplexMemo(ComplexNumber::asin, 1024)}. It pays off for functions like {@code asin}, {@code acos},
+ * {@code atan}, {@code log(z, b)} or {@code pow} which get called again and again with a small set of recurring
+ * arguments, like fixed filter poles or the points of a lattice. Functions with further parameters are wrapped in
+ * a lambda, e.g. {@code (re, im, out) -> ComplexNumber.pow(re, im, 2.5, out)}.<br>
+ * <br> The arguments are the keys by their exact bit patterns, so {@code 0.0} and {@code -0.0} are different keys and
+ * a hit returns exactly the result the function gave. The entries live in an open-addressing hash table of primitive
+ * arrays, without any object per entry. It holds at most {@code capacity} entries; once it is full, a new entry evicts
+ * an old one chosen by the <i>CLOCK</i> algorithm, an approximation of <i>least recently used</i>: a hit marks its entry,
+ * and the clock hand evicts the first unmarked entry it passes, clearing the marks on its way.<br>
+ * <br> Lookups don't lock: they read the table optimistically and only retry under a read lock if a writer changed it
+ * at the same time. Inserting and evicting take the write lock. The function is called outside of any lock, so two
+ * threads missing the same argument may both calculate it. Exceptions of the function are passed on, and nothing is cached.
+ *
+ * @author  Andras Martin Moosbauer
+ * @version 2.0
+ * @see ComplexStream.ComplexUnaryOperator
+ */
+public final class ComplexMemo implements ComplexStream.ComplexUnaryOperator {
+
+    /**
+     * A snapshot of the statistics of a {@code ComplexMemo}.
+     * @param hits      the number of calls answered from the table
+     * @param misses    the number of calls which had to calculate the function
+     * @param evictions the number of entries evicted to make room for new ones
+     */
+    public record Stats(long hits, long misses, long evictions) {
+
+        /**
+         * @return  the share of the calls answered from the table, NaN if there were none
+         */
+        public double hitRate() {
+            return (double)hits / (hits + misses);
+        }
+    }
+
+    private final ComplexStream.ComplexUnaryOperator f;
+    private final int capacity, mask;
+
+    //Entry i has the bit patterns of its argument at keys[2i] and keys[2i+1] and its result at values[2i] and values[2i+1].
+    //The table is at most half full, so probe sequences stay short:
+    private final long[] keys;
+    private final double[] values;
+    private final boolean[] used;
+    //The CLOCK marks, set by hits without any lock; a mark on the wrong entry only influences the choice of a victim:
+    private final boolean[] referenced;
+    private int size, hand;
+
+    private final StampedLock lock = new StampedLock();
+    private final LongAdder hits = new LongAdder(), misses = new LongAdder();
+    private long evictions;
+
+    //Constructors of the "ComplexMemo" class:
+    /**
+     * Constructs a new {@code ComplexMemo} for the function {@code f}.
+     * @param f         the function to remember the results of, it has to give the same result for the same argument
+     * @param capacity  the maximum number of entries
+     * @throws NullPointerException     if {@code f} is equal to {@code null}
+     * @throws IllegalArgumentException if {@code capacity} is not positive or bigger than 2^29
+     */
+    public ComplexMemo(ComplexStream.ComplexUnaryOperator f, int capacity) throws NullPointerException, IllegalArgumentException {
+        if(f == null) throw new NullPointerException();
+        if(capacity <= 0 || capacity > 1 << 29) throw new IllegalArgumentException("capacity out of range: " + capacity);
+        this.f = f;
+        this.capacity = capacity;
+        int length = Integer.highestOneBit(capacity) << 2;
+        mask = length - 1;
+        keys = new long[2 * length];
+        values = new double[2 * length];
+        used = new boolean[length];
+        referenced = new boolean[length];
+    }
+
+    //Basic functions (to set/get data from objects of this class):
+    /**
+     * @return  the maximum number of entries
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return  the current number of entries
+     */
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @return  the current statistics of the hits, misses and evictions
+     */
+    public @NotNull Stats stats() {
+        long stamp = lock.readLock();
+        try {
+            return new Stats(hits.sum(), misses.sum(), evictions);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Removes all entries and resets the statistics.
+     */
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            Arrays.fill(used, false);
+            Arrays.fill(referenced, false);
+            size = hand = 0;
+            evictions = 0;
+            hits.reset();
+            misses.reset();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    //Methods for Function Evaluation:
+    /**
+     * Returns the result of the function for <i>re + im*i</i>, from the table if it is there.
+     * @param re    the real part, Re(z)
+     * @param im    the imaginary part, Im(z)
+     * @param out   receives the real part of the result at index 0 and the imaginary part at index 1
+     * @return      {@code out}
+     * @throws NullPointerException if {@code out} is equal to {@code null}
+     */
+    @Override
+    @Contract("_, _, _ -> param3")
+    public double[] apply(double re, double im, double[] out) throws NullPointerException {
+        if(out == null) throw new NullPointerException();
+        long kRe = Double.doubleToRawLongBits(re), kIm = Double.doubleToRawLongBits(im);
+        int h = hash(kRe, kIm);
+        long stamp = lock.tryOptimisticRead();
+        int i = find(kRe, kIm, h);
+        double vRe = i < 0 ? 0 : values[2 * i], vIm = i < 0 ? 0 : values[2 * i + 1];
+        if(!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                i = find(kRe, kIm, h);
+                if(i >= 0) {
+                    vRe = values[2 * i];
+                    vIm = values[2 * i + 1];
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        if(i >= 0) {
+            referenced[i] = true;
+            hits.increment();
+            out[0] = vRe;
+            out[1] = vIm;
+            return out;
+        }
+        misses.increment();
+        double[] result = f.apply(re, im, out);
+        put(kRe, kIm, h, result[0], result[1]);
+        if(result != out) {
+            out[0] = result[0];
+            out[1] = result[1];
+        }
+        return out;
+    }
+
+    /**
+     * Returns the result of the function for {@code z}, from the table if it is there.
+     * @param z an instance of {@code ComplexNumber}, it is not changed
+     * @return  a new {@code ComplexNumber} holding the result
+     * @throws NullPointerException if {@code z} is equal to {@code null}
+     */
+    @Contract("_ -> new")
+    public @NotNull ComplexNumber apply(ComplexNumber z) throws NullPointerException {
+        if(z == null) throw new NullPointerException();
+        double[] out = apply(z.getRe(), z.getIm(), new double[2]);
+        return new ComplexNumber(out[0], out[1]);
+    }
+
+    //Helper functions:
+    //The finalizer of MurmurHash3, spreading both keys over all bits:
+    private static int hash(long re, long im) {
+        long h = re * 0x9E3779B97F4A7C15L ^ im;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return (int)h;
+    }
+
+    //The slot of the key, or -1. It doesn't run forever even while a writer changes the table, as it stops after
+    //visiting every slot once:
+    private int find(long re, long im, int h) {
+        for(int n = 0, i = h & mask; n <= mask; n++, i = (i + 1) & mask) {
+            if(!used[i]) return -1;
+            if(keys[2 * i] == re && keys[2 * i + 1] == im) return i;
+        }
+        return -1;
+    }
+
+    private void put(long re, long im, int h, double vRe, double vIm) {
+        long stamp = lock.writeLock();
+        try {
+            //Another thread may have inserted the same key in the meantime:
+            if(find(re, im, h) >= 0) return;
+            if(size == capacity) evict();
+            int i = h & mask;
+            while(used[i]) i = (i + 1) & mask;
+            keys[2 * i] = re;
+            keys[2 * i + 1] = im;
+            values[2 * i] = vRe;
+            values[2 * i + 1] = vIm;
+            referenced[i] = false;
+            used[i] = true;
+            size++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    //Advances the clock hand to the first unmarked entry, clearing the marks it passes, and removes that entry:
+    private void evict() {
+        while(true) {
+            int i = hand;
+            hand = (hand + 1) & mask;
+            if(!used[i]) continue;
+            if(referenced[i]) {
+                referenced[i] = false;
+                continue;
+            }
+            remove(i);
+            evictions++;
+            return;
+        }
+    }
+
+    //Removes the entry in slot i by shifting the following entries of its probe sequence back, so no tombstones are needed:
+    private void remove(int i) {
+        for(int j = (i + 1) & mask; used[j]; j = (j + 1) & mask) {
+            int home = hash(keys[2 * j], keys[2 * j + 1]) & mask;
+            //The entry at j can move to i if its home slot isn't cyclically in (i, j]:
+            if(i <= j ? i < home && home <= j : i < home || home <= j) continue;
+            keys[2 * i] = keys[2 * j];
+            keys[2 * i + 1] = keys[2 * j + 1];
+            values[2 * i] = values[2 * j];
+            values[2 * i + 1] = values[2 * j + 1];
+            referenced[i] = referenced[j];
+            i = j;
+        }
+        used[i] = false;
+        referenced[i] = false;
+        size--;
+    }
+}
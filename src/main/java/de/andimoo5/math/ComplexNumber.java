@@ -7,6 +7,11 @@ import org.jetbrains.annotations.NotNull;
  * {@code ComplexNumber} is an implementation of complex numbers in Java.
  * It implements basic operations and some more. Arithmetic functions are implemented as
  * <i>static</i> and <i>non-static</i> versions. Most other functions are implemented as <i>static</i>.<br>
+ * <br> The exponential, logarithmic and trigonometric functions additionally come in allocation-free versions:
+ * one writing into a destination {@code ComplexNumber} (e.g. {@link #exp(ComplexNumber, ComplexNumber)}),
+ * one changing the number itself (e.g. {@link #expInPlace()}) and one working on primitive values
+ * (e.g. {@link #exp(double, double, double[])}). Faster versions of {@code exp}, {@code log}, {@code sqrt}, {@code sin} and
+ * {@code cos} that give up the last few digits are provided by {@link Accuracy}.<br>
  * <br> Features included in this class are:<br>
  * <ul>
  *     <li>Arithmetic Operations ({@link #sum(ComplexNumber, ComplexNumber)  addition}, {@link #diff(ComplexNumber, ComplexNumber) subtraction},
@@ -14,7 +19,7 @@ import org.jetbrains.annotations.NotNull;
  *     <li>Complex Operations ({@link #conjugate(ComplexNumber) conjugate}, {@link #mod(ComplexNumber) modulus (absolute, magnitude)},
  *          {@link #arg(ComplexNumber) argument (angle)}, {@link #rcp(ComplexNumber) reciprocal (multiplicative inverse)})</li>
  *     <li>Exponential and Logarithmic Functions ({@link #exp(ComplexNumber) exp}, {@link #log(ComplexNumber) log},
- *          {@link  #log10(ComplexNumber) log10}, {@link  #pow(ComplexNumber, int) pow}, {@link #sqrt(ComplexNumber) sqrt})</li>
+ *          {@link  #log10(ComplexNumber) log10}, {@link  #pow(ComplexNumber, long) pow}, {@link #sqrt(ComplexNumber) sqrt})</li>
  *     <li>Trigonometric Operations ({@link #sin(ComplexNumber) sin}, {@link #cos(ComplexNumber) cos}, {@link #tan(ComplexNumber) tan},
  *          {@link #asin(ComplexNumber) asin}, {@link #acos(ComplexNumber) acos}, {@link #asin(ComplexNumber) atan})</li>
  * </ul>
@@ -132,10 +137,46 @@ public class ComplexNumber extends Number implements Comparable<ComplexNumber> {
      */
     @Override
     public String toString() {
-        if(imaginary == 0) return String.valueOf(real);
-        if(real == 0) return imaginary + "i";
-        if(imaginary < 0) return String.valueOf(real) + String.valueOf(imaginary) + "i";
-        return real + "+" + imaginary + "i";
+        return toString(real, imaginary);
+    }
+
+    //Formats a complex number, shared with "ComplexValue":
+    static String toString(double real, double imaginary) {
+        return ComplexFormat.format(real, imaginary, new StringBuilder(48)).toString();
+    }
+
+    /**
+     * Appends the value to {@code sb} in the same format as {@link #toString()}, without creating a {@code String}.
+     * @param sb    the destination
+     * @return      {@code sb}
+     * @throws NullPointerException if {@code sb} is equal to {@code null}
+     */
+    @Contract("_ -> param1")
+    public StringBuilder appendTo(StringBuilder sb) throws NullPointerException {
+        return ComplexFormat.format(real, imaginary, sb);
+    }
+
+    /**
+     * Parses a complex number in the format of {@link #toString()}, e.g. {@code 5.0-3.0i}. The suffix {@code j} and
+     * the polar form {@code r@angle} are accepted as well, see {@link ComplexFormat} for details.
+     * @param s     the text, leading and trailing whitespace is ignored
+     * @return      a new {@code ComplexNumber} with the parsed value
+     * @throws NullPointerException     if {@code s} is equal to {@code null}
+     * @throws NumberFormatException    if {@code s} isn't a complex number
+     */
+    public static @NotNull ComplexNumber parse(CharSequence s) throws NullPointerException, NumberFormatException {
+        return ComplexFormat.parse(s);
+    }
+
+    /**
+     * Same as {@link #parse(CharSequence)}.
+     * @param s     the text, leading and trailing whitespace is ignored
+     * @return      a new {@code ComplexNumber} with the parsed value
+     * @throws NullPointerException     if {@code s} is equal to {@code null}
+     * @throws NumberFormatException    if {@code s} isn't a complex number
+     */
+    public static @NotNull ComplexNumber valueOf(String s) throws NullPointerException, NumberFormatException {
+        return ComplexFormat.parse(s);
     }
 
     /**
@@ -151,6 +192,25 @@ public class ComplexNumber extends Number implements Comparable<ComplexNumber> {
         return (real == ((ComplexNumber)z).real) && (imaginary == ((ComplexNumber)z).imaginary);
     }
 
+    /**
+     * Returns a hash code consistent with {@link #equals(Object)}, so {@code 0.0} and {@code -0.0} hash alike.
+     * <i><b>Waring!</b></i> - as a {@code ComplexNumber} is mutable, its hash code changes with its value.
+     * @return  a hash code of <i>Re(z)</i> and <i>Im(z)</i>
+     */
+    @Override
+    public final int hashCode() {
+        return 31 * Double.hashCode(real + 0.0) + Double.hashCode(imaginary + 0.0);
+    }
+
+    /**
+     * Returns an immutable copy of the value, see {@link ComplexValue}.
+     * @return  a {@code ComplexValue} with the same <i>Re(z)</i> and <i>Im(z)</i>
+     */
+    @Contract(" -> new")
+    public @NotNull ComplexValue toValue() {
+        return new ComplexValue(real, imaginary);
+    }
+
     //Methods needed due to extending "Number":
     /**
      * <i><b>Waring!</b></i> - by using this method the imaginary, <i>Im(z)</i>, as well as precession may be lost.
@@ -222,9 +282,11 @@ public class ComplexNumber extends Number implements Comparable<ComplexNumber> {
     /**
      * Mathematically adds {@code z} to itself.
      * @param z     number to be added, an instance of {@code ComplexNumber}
+     * @throws NullPointerException if {@code z} is equal to {@code null}
      */
-    public void add(ComplexNumber z) {
-        set(sum(this, z));
+    public void add(ComplexNumber z) throws NullPointerException {
+        if(z == null) throw new NullPointerException();
+        set(real + z.real, imaginary + z.imaginary);
     }
 
     /**
@@ -242,9 +304,11 @@ public class ComplexNumber extends Number implements Comparable<ComplexNumber> {
     /**
      * Mathematically subtracts {@code z} from itself.
      * @param z     number to be subtracted, an instance of {@code ComplexNumber}
+     * @throws NullPointerException if {@code z} is equal to {@code null}
      */
-    public void sub(ComplexNumber z) {
-        set(diff(this, z));
+    public void sub(ComplexNumber z) throws NullPointerException {
+        if(z == null) throw new NullPointerException();
+        set(real - z.real, imaginary - z.imaginary);
     }
 
     /**
@@ -264,9 +328,13 @@ public class ComplexNumber extends Number implements Comparable<ComplexNumber> {
     /**
      * Mathematically multiplies {@code z} to itself.
      * @param z     number to be multiplied with, an instance of {@code ComplexNumber}
+     * @throws NullPointerException if {@code z} is equal to {@code null}
      */
-    public void mul(ComplexNumber z) {
-        set(prod(this, z));
+    public void mul(ComplexNumber z) throws NullPointerException {
+        if(z == null) throw new NullPointerException();
+        double u = real * z.real - imaginary * z.imaginary;
+        double v = real * z.imaginary + imaginary * z.real;
+        set(u, v);
     }
 
     /**
@@ -281,17 +349,21 @@ public class ComplexNumber extends Number implements Comparable<ComplexNumber> {
     public static @NotNull ComplexNumber division(ComplexNumber z1, ComplexNumber z2) throws ArithmeticException, NullPointerException {
         if(z1 == null || z2 == null) throw new NullPointerException();
         if(z2.real == 0 && z2.imaginary == 0) throw new ArithmeticException("Can not divide by 0");
-        double u = (z1.real * z2.real + z1.imaginary * z2.imaginary) / (z2.real * z2.real + z2.imaginary * z2.imaginary);
-        double v = (z1.imaginary * z2.real - z1.real * z2.imaginary) / (z2.real * z2.real + z2.imaginary * z2.imaginary);
-        return new ComplexNumber(u, v);
+        double a = z1.real, b = z1.imaginary, c = z2.real, d = z2.imaginary;
+        return new ComplexNumber(quotientRe(a, b, c, d), quotientRe(b, -a, c, d));
     }
 
     /**
      * Mathematically divides {@code z} from itself.
      * @param z     number to be divided by, an instance of {@code ComplexNumber}
+     * @throws NullPointerException if {@code z} is equal to {@code null}
+     * @throws ArithmeticException  if {@code z} is equal to {@code 0}
      */
-    public void div(ComplexNumber z) {
-        set(division(this, z));
+    public void div(ComplexNumber z) throws ArithmeticException, NullPointerException {
+        if(z == null) throw new NullPointerException();
+        if(z.real == 0 && z.imaginary == 0) throw new ArithmeticException("Can not divide by 0");
+        double a = real, b = imaginary;
+        set(quotientRe(a, b, z.real, z.imaginary), quotientRe(b, -a, z.real, z.imaginary));
     }
 
     //Complex Operations:
@@ -315,7 +387,7 @@ public class ComplexNumber extends Number implements Comparable<ComplexNumber> {
      */
     public static double mod(ComplexNumber z) throws NullPointerException {
         if(z == null) throw new NullPointerException();
-        return Math.sqrt(z.real * z.real + z.imaginary * z.imaginary);
+        return modulus(z.real, z.imaginary);
     }
 
     /**
@@ -350,11 +422,47 @@ public class ComplexNumber extends Number implements Comparable<ComplexNumber> {
      * @throws NullPointerException if {@code z} is equal to {@code null}
      */
     public static ComplexNumber exp(ComplexNumber z) throws NullPointerException {
-        if(z == null) throw new NullPointerException();
-        double r = Math.exp(z.real);
-        double u = r * Math.cos(z.imaginary);
-        double v = r * Math.sin(z.imaginary);
-        return new ComplexNumber(u, v);
+        return exp(z, new ComplexNumber());
+    }
+
+    /**
+     * Calculates the exponential of {@code src} and stores it in {@code dst}, without allocating a new object.
+     * @param src   an instance of {@code ComplexNumber}
+     * @param dst   the destination, may be {@code src}
+     * @return      {@code dst}, holding e^{@code src}
+     * @throws NullPointerException if either {@code src} or {@code dst} is equal to {@code null}
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexNumber exp(ComplexNumber src, ComplexNumber dst) throws NullPointerException {
+        if(src == null || dst == null) throw new NullPointerException();
+        double r = Math.exp(src.real);
+        double u = r * Math.cos(src.imaginary);
+        double v = r * Math.sin(src.imaginary);
+        dst.set(u, v);
+        return dst;
+    }
+
+    /**
+     * Calculates the exponential of the complex number <i>re + im*i</i>.
+     * @param re    the real part, Re(z)
+     * @param im    the imaginary part, Im(z)
+     * @param out   receives <i>Re(e^z)</i> at index 0 and <i>Im(e^z)</i> at index 1
+     * @return      {@code out}
+     * @throws NullPointerException if {@code out} is equal to {@code null}
+     */
+    @Contract("_, _, _ -> param3")
+    public static double[] exp(double re, double im, double[] out) throws NullPointerException {
+        double r = Math.exp(re);
+        out[0] = r * Math.cos(im);
+        out[1] = r * Math.sin(im);
+        return out;
+    }
+
+    /**
+     * Sets itself to its exponential, e^<i>z</i>.
+     */
+    public void expInPlace() {
+        exp(this, this);
     }
 
     /**
@@ -365,22 +473,59 @@ public class ComplexNumber extends Number implements Comparable<ComplexNumber> {
      */
     @Contract("null -> fail; !null -> new")
     public static @NotNull ComplexNumber log(ComplexNumber z) throws  NullPointerException {
-        if(z == null) throw new NullPointerException();
-        return new ComplexNumber(Math.log(mod(z)), arg(z));
+        return log(z, new ComplexNumber());
     }
 
     /**
-     * Calculates the logarithm with the base {@code b} of a {@code ComplexNumber}.
+     * Calculates the natural logarithm <i>(base e)</i> of {@code src} and stores it in {@code dst},
+     * without allocating a new object.
+     * @param src   an instance of {@code ComplexNumber}
+     * @param dst   the destination, may be {@code src}
+     * @return      {@code dst}, holding log({@code src})
+     * @throws NullPointerException if either {@code src} or {@code dst} is equal to {@code null}
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexNumber log(ComplexNumber src, ComplexNumber dst) throws NullPointerException {
+        if(src == null || dst == null) throw new NullPointerException();
+        dst.set(logModulus(src.real, src.imaginary), arg(src));
+        return dst;
+    }
+
+    /**
+     * Calculates the natural logarithm <i>(base e)</i> of the complex number <i>re + im*i</i>.
+     * @param re    the real part, Re(z)
+     * @param im    the imaginary part, Im(z)
+     * @param out   receives <i>Re(log(z))</i> at index 0 and <i>Im(log(z))</i> at index 1
+     * @return      {@code out}
+     * @throws NullPointerException if {@code out} is equal to {@code null}
+     */
+    @Contract("_, _, _ -> param3")
+    public static double[] log(double re, double im, double[] out) throws NullPointerException {
+        out[0] = logModulus(re, im);
+        out[1] = Math.atan2(im, re);
+        return out;
+    }
+
+    /**
+     * Sets itself to its natural logarithm, log(<i>z</i>).
+     */
+    public void logInPlace() {
+        log(this, this);
+    }
+
+    /**
+     * Calculates the logarithm with the base {@code b} of a {@code ComplexNumber}, log({@code z}) / log({@code b}).
+     * The logarithms of the recently used bases are cached, so repeated calls with the same base only calculate log({@code z}).
      * @param z an instance of {@code ComplexNUmber}
      * @param b the base of the logarithm, as a {@code double}
      * @return  the log({@code z})
      * @throws NullPointerException if {@code z} is equal to {@code null}
-     * @throws ArithmeticException  if the base {@code b} of the logarithm is &lt;= 0
+     * @throws ArithmeticException  if the base {@code b} of the logarithm is &lt;= 0 or equal to 1
      */
     public static @NotNull ComplexNumber log(ComplexNumber z, double b) throws  NullPointerException, ArithmeticException {
         if(z == null) throw new NullPointerException();
-        if(b <= 0) throw new ArithmeticException("base of the log should be > 0");
-        return division(log(z), log(new ComplexNumber(b)));
+        double[] out = log(z.real, z.imaginary, b, new double[2]);
+        return new ComplexNumber(out[0], out[1]);
     }
 
     /**
@@ -397,18 +542,151 @@ public class ComplexNumber extends Number implements Comparable<ComplexNumber> {
 
     /**
      * Calculates {@code z} to the power of {@code power}.
-     * @param z     an instance of {@code ComplexNumber}
+     * @param z     an instance of {@code ComplexNumber}, it is not changed
      * @param power the power, as an {@code int}
      * @return      a {@code ComplexNumber}, which is {@code z}^{@code power}
      * @throws NullPointerException if {@code z} is equal to {@code null}
+     * @throws ArithmeticException  if {@code z} is equal to {@code 0} and {@code power} is negative
+     * @see #pow(ComplexNumber, long)
      */
     @Contract("null, _ -> fail")
-    public static @NotNull ComplexNumber pow(ComplexNumber z, int power) throws NullPointerException {
+    public static @NotNull ComplexNumber pow(ComplexNumber z, int power) throws NullPointerException, ArithmeticException {
+        return pow(z, (long)power);
+    }
+
+    /**
+     * Calculates {@code z} to the power of {@code power} by <i>exponentiation by squaring</i>, which needs
+     * O(log(|power|)) multiplications. {@code z}^0 is <i>1</i>, also for {@code z} equal to {@code 0}.
+     * @param z     an instance of {@code ComplexNumber}, it is not changed
+     * @param power the power, as a {@code long}
+     * @return      a {@code ComplexNumber}, which is {@code z}^{@code power}
+     * @throws NullPointerException if {@code z} is equal to {@code null}
+     * @throws ArithmeticException  if {@code z} is equal to {@code 0} and {@code power} is negative
+     */
+    @Contract("null, _ -> fail; !null, _ -> new")
+    public static @NotNull ComplexNumber pow(ComplexNumber z, long power) throws NullPointerException, ArithmeticException {
+        if(z == null) throw new NullPointerException();
+        if(power < 0 && z.real == 0 && z.imaginary == 0) throw new ArithmeticException("Can not divide by 0");
+        double[] out = pow(z.real, z.imaginary, power, new double[2]);
+        return new ComplexNumber(out[0], out[1]);
+    }
+
+    /**
+     * Calculates the complex number <i>re + im*i</i> to the power of {@code power} by <i>exponentiation by squaring</i>.
+     * A negative power is calculated as the power of the reciprocal; for <i>z</i> equal to {@code 0} that results
+     * in {@code NaN} instead of an exception.
+     * @param re    the real part, Re(z)
+     * @param im    the imaginary part, Im(z)
+     * @param power the power, as a {@code long}
+     * @param out   receives <i>Re(z^power)</i> at index 0 and <i>Im(z^power)</i> at index 1
+     * @return      {@code out}
+     * @throws NullPointerException if {@code out} is equal to {@code null}
+     */
+    @Contract("_, _, _, _ -> param4")
+    public static double[] pow(double re, double im, long power, double[] out) throws NullPointerException {
+        if(power < 0) {
+            quotient(1, 0, re, im, out);
+            re = out[0];
+            im = out[1];
+        }
+        double u = 1, v = 0;
+        //The absolute value of Long.MIN_VALUE is negative, but its bits are still right for an unsigned shift:
+        for(long n = Math.abs(power); n != 0; n >>>= 1) {
+            if((n & 1) != 0) {
+                double t = u * re - v * im;
+                v = u * im + v * re;
+                u = t;
+            }
+            if(n > 1 || n < 0) {
+                double t = re * re - im * im;
+                im = re * im + im * re;
+                re = t;
+            }
+        }
+        out[0] = u;
+        out[1] = v;
+        return out;
+    }
+
+    /**
+     * Calculates {@code z} to the power of the real number {@code power}, using the polar form
+     * <i>|z|^power * e^(i*arg(z)*power)</i>. This is the principal value, e.g. a power of 0.5 gives the same
+     * result as {@link #sqrt(ComplexNumber)}.
+     * @param z     an instance of {@code ComplexNumber}, it is not changed
+     * @param power the power, as a {@code double}
+     * @return      a {@code ComplexNumber}, which is {@code z}^{@code power}
+     * @throws NullPointerException if {@code z} is equal to {@code null}
+     * @throws ArithmeticException  if {@code z} is equal to {@code 0} and {@code power} is negative
+     */
+    @Contract("null, _ -> fail; !null, _ -> new")
+    public static @NotNull ComplexNumber pow(ComplexNumber z, double power) throws NullPointerException, ArithmeticException {
         if(z == null) throw new NullPointerException();
-        for(int i = 1; i < power; i++) {
-            z.mul(z);
+        if(power < 0 && z.real == 0 && z.imaginary == 0) throw new ArithmeticException("Can not divide by 0");
+        double[] out = pow(z.real, z.imaginary, power, new double[2]);
+        return new ComplexNumber(out[0], out[1]);
+    }
+
+    /**
+     * Calculates the complex number <i>re + im*i</i> to the power of the real number {@code power}, see
+     * {@link #pow(ComplexNumber, double)}.
+     * @param re    the real part, Re(z)
+     * @param im    the imaginary part, Im(z)
+     * @param power the power, as a {@code double}
+     * @param out   receives <i>Re(z^power)</i> at index 0 and <i>Im(z^power)</i> at index 1
+     * @return      {@code out}
+     * @throws NullPointerException if {@code out} is equal to {@code null}
+     */
+    @Contract("_, _, _, _ -> param4")
+    public static double[] pow(double re, double im, double power, double[] out) throws NullPointerException {
+        double r = Math.pow(modulus(re, im), power);
+        double a = Math.atan2(im, re) * power;
+        out[0] = r * Math.cos(a);
+        out[1] = r * Math.sin(a);
+        return out;
+    }
+
+    /**
+     * Calculates {@code z} to the power of the complex number {@code w}, which is the principal value of
+     * <i>e^(w*log(z))</i>. {@code 0}^{@code w} is <i>1</i> for {@code w} equal to {@code 0} and {@code 0} for a
+     * positive <i>Re(w)</i>.
+     * @param z an instance of {@code ComplexNumber}, it is not changed
+     * @param w the power, an instance of {@code ComplexNumber}
+     * @return  a {@code ComplexNumber}, which is {@code z}^{@code w}
+     * @throws NullPointerException if either {@code z} or {@code w} is equal to {@code null}
+     * @throws ArithmeticException  if {@code z} is equal to {@code 0} and <i>Re(w)</i> is &lt;= 0, but {@code w} isn't {@code 0}
+     */
+    @Contract("_, _ -> new")
+    public static @NotNull ComplexNumber pow(ComplexNumber z, ComplexNumber w) throws NullPointerException, ArithmeticException {
+        if(z == null || w == null) throw new NullPointerException();
+        if(z.real == 0 && z.imaginary == 0 && w.real <= 0 && !(w.real == 0 && w.imaginary == 0)) {
+            throw new ArithmeticException("Can not divide by 0");
         }
-        return z;
+        double[] out = pow(z.real, z.imaginary, w.real, w.imaginary, new double[2]);
+        return new ComplexNumber(out[0], out[1]);
+    }
+
+    /**
+     * Calculates the complex number <i>re + im*i</i> to the power of the complex number <i>wRe + wIm*i</i>,
+     * see {@link #pow(ComplexNumber, ComplexNumber)}.
+     * @param re    the real part, Re(z)
+     * @param im    the imaginary part, Im(z)
+     * @param wRe   the real part of the power, Re(w)
+     * @param wIm   the imaginary part of the power, Im(w)
+     * @param out   receives <i>Re(z^w)</i> at index 0 and <i>Im(z^w)</i> at index 1
+     * @return      {@code out}
+     * @throws NullPointerException if {@code out} is equal to {@code null}
+     */
+    @Contract("_, _, _, _, _ -> param5")
+    public static double[] pow(double re, double im, double wRe, double wIm, double[] out) throws NullPointerException {
+        if(re == 0 && im == 0) {
+            if(wRe == 0 && wIm == 0) out[0] = 1;
+            else out[0] = wRe > 0 ? 0 : Double.NaN;
+            out[1] = out[0] * 0;
+            return out;
+        }
+        //w * log(z), where log(z) = log|z| + i*arg(z):
+        double l = logModulus(re, im), a = Math.atan2(im, re);
+        return exp(wRe * l - wIm * a, wRe * a + wIm * l, out);
     }
 
     /**
@@ -418,10 +696,47 @@ public class ComplexNumber extends Number implements Comparable<ComplexNumber> {
      * @throws NullPointerException if {@code z} is equal to {@code null}
      */
     public static ComplexNumber sqrt(ComplexNumber z) throws NullPointerException {
-        if(z == null) throw new NullPointerException();
-        double u = Math.sqrt(mod(z)) * Math.cos(arg(z) / 2);
-        double v = Math.sqrt(mod(z)) * Math.sin(arg(z) / 2);
-        return new ComplexNumber(u, v);
+        return sqrt(z, new ComplexNumber());
+    }
+
+    /**
+     * Calculates the square root of {@code src} and stores it in {@code dst}, without allocating a new object.
+     * @param src   an instance of {@code ComplexNumber}
+     * @param dst   the destination, may be {@code src}
+     * @return      {@code dst}, holding the square root of {@code src}
+     * @throws NullPointerException if either {@code src} or {@code dst} is equal to {@code null}
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexNumber sqrt(ComplexNumber src, ComplexNumber dst) throws NullPointerException {
+        if(src == null || dst == null) throw new NullPointerException();
+        double r = Math.sqrt(mod(src));
+        double a = arg(src) / 2;
+        dst.set(r * Math.cos(a), r * Math.sin(a));
+        return dst;
+    }
+
+    /**
+     * Calculates the square root of the complex number <i>re + im*i</i>.
+     * @param re    the real part, Re(z)
+     * @param im    the imaginary part, Im(z)
+     * @param out   receives <i>Re(sqrt(z))</i> at index 0 and <i>Im(sqrt(z))</i> at index 1
+     * @return      {@code out}
+     * @throws NullPointerException if {@code out} is equal to {@code null}
+     */
+    @Contract("_, _, _ -> param3")
+    public static double[] sqrt(double re, double im, double[] out) throws NullPointerException {
+        double r = Math.sqrt(modulus(re, im));
+        double a = Math.atan2(im, re) / 2;
+        out[0] = r * Math.cos(a);
+        out[1] = r * Math.sin(a);
+        return out;
+    }
+
+    /**
+     * Sets itself to its square root.
+     */
+    public void sqrtInPlace() {
+        sqrt(this, this);
     }
 
     //Trigonometric Operations:
@@ -433,11 +748,45 @@ public class ComplexNumber extends Number implements Comparable<ComplexNumber> {
      */
     @Contract("null -> fail; !null -> new")
     public static @NotNull ComplexNumber sin(ComplexNumber z) {
-        if(z == null) throw new NullPointerException();
-        double x = Math.exp(z.imaginary);
-        double u = Math.sin(z.real) * (x + 1/x) / 2;
-        double v = Math.cos(z.real) * (x + 1/x) / 2;
-        return new ComplexNumber(u, v);
+        return sin(z, new ComplexNumber());
+    }
+
+    /**
+     * Calculates the sine of {@code src} and stores it in {@code dst}, without allocating a new object.
+     * @param src   an instance of {@code ComplexNumber}
+     * @param dst   the destination, may be {@code src}
+     * @return      {@code dst}, holding {@code sin(src)}
+     * @throws NullPointerException if either {@code src} or {@code dst} is equal to {@code null}
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexNumber sin(ComplexNumber src, ComplexNumber dst) throws NullPointerException {
+        if(src == null || dst == null) throw new NullPointerException();
+        double u = timesCosh(Math.sin(src.real), src.imaginary);
+        double v = timesSinh(Math.cos(src.real), src.imaginary);
+        dst.set(u, v);
+        return dst;
+    }
+
+    /**
+     * Calculates the sine of the complex number <i>re + im*i</i>.
+     * @param re    the real part, Re(z)
+     * @param im    the imaginary part, Im(z)
+     * @param out   receives <i>Re(sin(z))</i> at index 0 and <i>Im(sin(z))</i> at index 1
+     * @return      {@code out}
+     * @throws NullPointerException if {@code out} is equal to {@code null}
+     */
+    @Contract("_, _, _ -> param3")
+    public static double[] sin(double re, double im, double[] out) throws NullPointerException {
+        out[0] = timesCosh(Math.sin(re), im);
+        out[1] = timesSinh(Math.cos(re), im);
+        return out;
+    }
+
+    /**
+     * Sets itself to its sine.
+     */
+    public void sinInPlace() {
+        sin(this, this);
     }
 
     /**
@@ -448,11 +797,45 @@ public class ComplexNumber extends Number implements Comparable<ComplexNumber> {
      */
     @Contract("null -> fail; !null -> new")
     public static @NotNull ComplexNumber cos(ComplexNumber z) {
-        if(z == null) throw new NullPointerException();
-        double x = Math.exp(z.imaginary);
-        double u = Math.cos(z.real) * (x + 1/x) / 2;
-        double v = -Math.sin(z.real) * (x - 1/x) / 2;
-        return new ComplexNumber(u, v);
+        return cos(z, new ComplexNumber());
+    }
+
+    /**
+     * Calculates the cosine of {@code src} and stores it in {@code dst}, without allocating a new object.
+     * @param src   an instance of {@code ComplexNumber}
+     * @param dst   the destination, may be {@code src}
+     * @return      {@code dst}, holding {@code cos(src)}
+     * @throws NullPointerException if either {@code src} or {@code dst} is equal to {@code null}
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexNumber cos(ComplexNumber src, ComplexNumber dst) throws NullPointerException {
+        if(src == null || dst == null) throw new NullPointerException();
+        double u = timesCosh(Math.cos(src.real), src.imaginary);
+        double v = timesSinh(-Math.sin(src.real), src.imaginary);
+        dst.set(u, v);
+        return dst;
+    }
+
+    /**
+     * Calculates the cosine of the complex number <i>re + im*i</i>.
+     * @param re    the real part, Re(z)
+     * @param im    the imaginary part, Im(z)
+     * @param out   receives <i>Re(cos(z))</i> at index 0 and <i>Im(cos(z))</i> at index 1
+     * @return      {@code out}
+     * @throws NullPointerException if {@code out} is equal to {@code null}
+     */
+    @Contract("_, _, _ -> param3")
+    public static double[] cos(double re, double im, double[] out) throws NullPointerException {
+        out[0] = timesCosh(Math.cos(re), im);
+        out[1] = timesSinh(-Math.sin(re), im);
+        return out;
+    }
+
+    /**
+     * Sets itself to its cosine.
+     */
+    public void cosInPlace() {
+        cos(this, this);
     }
 
     /**
@@ -463,8 +846,69 @@ public class ComplexNumber extends Number implements Comparable<ComplexNumber> {
      */
     @Contract("null -> fail")
     public static @NotNull ComplexNumber tan(ComplexNumber z) throws NullPointerException {
-        if(z == null) throw new NullPointerException();
-        return division(sin(z), cos(z));
+        return tan(z, new ComplexNumber());
+    }
+
+    /**
+     * Calculates the tangent of {@code src} and stores it in {@code dst}, without allocating a new object.
+     * @param src   an instance of {@code ComplexNumber}
+     * @param dst   the destination, may be {@code src}
+     * @return      {@code dst}, holding {@code tan(src)}
+     * @throws NullPointerException if either {@code src} or {@code dst} is equal to {@code null}
+     * @throws ArithmeticException  if {@code cos(src)} is equal to {@code 0}
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexNumber tan(ComplexNumber src, ComplexNumber dst) throws NullPointerException, ArithmeticException {
+        if(src == null || dst == null) throw new NullPointerException();
+        //Same steps as tan(double, double, double[]):
+        double re = src.real, im = src.imaginary, s = Math.sin(re), c = Math.cos(re);
+        if(Math.abs(im) > TAN_LIMIT) {
+            dst.set(4 * s * c * Math.exp(-2 * Math.abs(im)), Math.copySign(1, im));
+            return dst;
+        }
+        double ch = Math.cosh(im), sh = Math.sinh(im);
+        double sinRe = s * ch, sinIm = c * sh;
+        double cosRe = c * ch, cosIm = -s * sh;
+        if(cosRe == 0 && cosIm == 0) throw new ArithmeticException("Can not divide by 0");
+        dst.set(quotientRe(sinRe, sinIm, cosRe, cosIm), quotientRe(sinIm, -sinRe, cosRe, cosIm));
+        return dst;
+    }
+
+    /**
+     * Calculates the tangent of the complex number <i>re + im*i</i>.
+     * @param re    the real part, Re(z)
+     * @param im    the imaginary part, Im(z)
+     * @param out   receives <i>Re(tan(z))</i> at index 0 and <i>Im(tan(z))</i> at index 1
+     * @return      {@code out}
+     * @throws NullPointerException if {@code out} is equal to {@code null}
+     * @throws ArithmeticException  if {@code cos(z)} is equal to {@code 0}
+     */
+    @Contract("_, _, _ -> param3")
+    public static double[] tan(double re, double im, double[] out) throws NullPointerException, ArithmeticException {
+        return tan(Math.sin(re), Math.cos(re), im, out);
+    }
+
+    //The tangent from s = sin(Re(z)) and c = cos(Re(z)), for callers which need them for the sine and cosine as well:
+    static double[] tan(double s, double c, double im, double[] out) throws ArithmeticException {
+        if(Math.abs(im) > TAN_LIMIT) {
+            //tan(z) = (sin(2re) + i*sinh(2im)) / (cos(2re) + cosh(2im)), which is i*sign(im) up to terms of e^(-2|im|):
+            out[0] = 4 * s * c * Math.exp(-2 * Math.abs(im));
+            out[1] = Math.copySign(1, im);
+            return out;
+        }
+        double ch = Math.cosh(im), sh = Math.sinh(im);
+        double sinRe = s * ch, sinIm = c * sh;
+        double cosRe = c * ch, cosIm = -s * sh;
+        if(cosRe == 0 && cosIm == 0) throw new ArithmeticException("Can not divide by 0");
+        return quotient(sinRe, sinIm, cosRe, cosIm, out);
+    }
+
+    /**
+     * Sets itself to its tangent.
+     * @throws ArithmeticException  if {@code cos(z)} is equal to {@code 0}
+     */
+    public void tanInPlace() throws ArithmeticException {
+        tan(this, this);
     }
 
     /**
@@ -475,16 +919,56 @@ public class ComplexNumber extends Number implements Comparable<ComplexNumber> {
      */
     @Contract("null -> fail")
     public static @NotNull ComplexNumber asin(ComplexNumber z) throws NullPointerException {
-        if(z == null) throw new NullPointerException();
-        z = new ComplexNumber(-z.real, -z.imaginary);
-        ComplexNumber tmp = prod(z, new ComplexNumber(0, 1));
-        z.mul(z);
-        z = diff(new ComplexNumber(1), z);
-        z = sqrt(z);
-        z.add(tmp);
-        z = log(z);
-        z.mul(new ComplexNumber(0, 1));
-        return z;
+        return asin(z, new ComplexNumber());
+    }
+
+    /**
+     * Calculates the arc sine of {@code src} and stores it in {@code dst}, without allocating a new object.
+     * @param src   an instance of {@code ComplexNumber}
+     * @param dst   the destination, may be {@code src}
+     * @return      {@code dst}, holding {@code asin(src)}
+     * @throws NullPointerException if either {@code src} or {@code dst} is equal to {@code null}
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexNumber asin(ComplexNumber src, ComplexNumber dst) throws NullPointerException {
+        if(src == null || dst == null) throw new NullPointerException();
+        //asin(z) = i*log(sqrt(1 - z^2) - i*z), evaluated for -z, dst serves as the intermediate result:
+        double x = -src.real, y = -src.imaginary;
+        double tRe = x * 0 - y, tIm = x + y * 0;
+        dst.set(1 - (x * x - y * y), 0 - (x * y + y * x));
+        sqrt(dst, dst);
+        dst.set(dst.real + tRe, dst.imaginary + tIm);
+        log(dst, dst);
+        dst.set(dst.real * 0 - dst.imaginary, dst.real + dst.imaginary * 0);
+        return dst;
+    }
+
+    /**
+     * Calculates the arc sine of the complex number <i>re + im*i</i>.
+     * @param re    the real part, Re(z)
+     * @param im    the imaginary part, Im(z)
+     * @param out   receives <i>Re(asin(z))</i> at index 0 and <i>Im(asin(z))</i> at index 1
+     * @return      {@code out}
+     * @throws NullPointerException if {@code out} is equal to {@code null}
+     */
+    @Contract("_, _, _ -> param3")
+    public static double[] asin(double re, double im, double[] out) throws NullPointerException {
+        //Same steps as asin(ComplexNumber, ComplexNumber), out serves as the intermediate result:
+        double x = -re, y = -im;
+        double tRe = x * 0 - y, tIm = x + y * 0;
+        sqrt(1 - (x * x - y * y), 0 - (x * y + y * x), out);
+        log(out[0] + tRe, out[1] + tIm, out);
+        double u = out[0], v = out[1];
+        out[0] = u * 0 - v;
+        out[1] = u + v * 0;
+        return out;
+    }
+
+    /**
+     * Sets itself to its arc sine.
+     */
+    public void asinInPlace() {
+        asin(this, this);
     }
 
     /**
@@ -495,9 +979,54 @@ public class ComplexNumber extends Number implements Comparable<ComplexNumber> {
      */
     @Contract("null -> fail")
     public static @NotNull ComplexNumber acos(ComplexNumber z) throws NullPointerException {
-        if(z == null) throw new NullPointerException();
-        z = atan(division(sqrt(diff(new ComplexNumber(1), prod(z, z))), z));
-        return z;
+        return acos(z, new ComplexNumber());
+    }
+
+    /**
+     * Calculates the arc cosine of {@code src} and stores it in {@code dst}, without allocating a new object.
+     * @param src   an instance of {@code ComplexNumber}
+     * @param dst   the destination, may be {@code src}
+     * @return      {@code dst}, holding {@code acos(src)}
+     * @throws NullPointerException if either {@code src} or {@code dst} is equal to {@code null}
+     * @throws ArithmeticException  if {@code src} is equal to {@code 0}
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexNumber acos(ComplexNumber src, ComplexNumber dst) throws NullPointerException, ArithmeticException {
+        if(src == null || dst == null) throw new NullPointerException();
+        //acos(z) = atan(sqrt(1 - z^2) / z), dst serves as the intermediate result:
+        double a = src.real, b = src.imaginary;
+        if(a == 0 && b == 0) throw new ArithmeticException("Can not divide by 0");
+        dst.set(1 - (a * a - b * b), 0 - (a * b + b * a));
+        sqrt(dst, dst);
+        double u = dst.real, v = dst.imaginary;
+        dst.set(quotientRe(u, v, a, b), quotientRe(v, -u, a, b));
+        return atan(dst, dst);
+    }
+
+    /**
+     * Calculates the arc cosine of the complex number <i>re + im*i</i>.
+     * @param re    the real part, Re(z)
+     * @param im    the imaginary part, Im(z)
+     * @param out   receives <i>Re(acos(z))</i> at index 0 and <i>Im(acos(z))</i> at index 1
+     * @return      {@code out}
+     * @throws NullPointerException if {@code out} is equal to {@code null}
+     * @throws ArithmeticException  if <i>z</i> is equal to {@code 0}
+     */
+    @Contract("_, _, _ -> param3")
+    public static double[] acos(double re, double im, double[] out) throws NullPointerException, ArithmeticException {
+        //Same steps as acos(ComplexNumber, ComplexNumber), out serves as the intermediate result:
+        if(re == 0 && im == 0) throw new ArithmeticException("Can not divide by 0");
+        sqrt(1 - (re * re - im * im), 0 - (re * im + im * re), out);
+        quotient(out[0], out[1], re, im, out);
+        return atan(out[0], out[1], out);
+    }
+
+    /**
+     * Sets itself to its arc cosine.
+     * @throws ArithmeticException  if it is equal to {@code 0}
+     */
+    public void acosInPlace() throws ArithmeticException {
+        acos(this, this);
     }
 
     /**
@@ -508,10 +1037,209 @@ public class ComplexNumber extends Number implements Comparable<ComplexNumber> {
      */
     @Contract("null -> fail")
     public static @NotNull ComplexNumber atan(ComplexNumber z) throws NullPointerException {
-        if(z == null) throw new NullPointerException();
-        ComplexNumber tmp = prod(z, new ComplexNumber(0,1));
-        z = division(sum(new ComplexNumber(1), tmp), diff(new ComplexNumber(1), tmp));
-        z = prod(division(new ComplexNumber(1), new ComplexNumber(0, 2)), log(z));
-        return z;
+        return atan(z, new ComplexNumber());
+    }
+
+    /**
+     * Calculates the arc tangent of {@code src} and stores it in {@code dst}, without allocating a new object.
+     * @param src   an instance of {@code ComplexNumber}
+     * @param dst   the destination, may be {@code src}
+     * @return      {@code dst}, holding {@code atan(src)}
+     * @throws NullPointerException if either {@code src} or {@code dst} is equal to {@code null}
+     * @throws ArithmeticException  if {@code src} is equal to {@code -i}
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexNumber atan(ComplexNumber src, ComplexNumber dst) throws NullPointerException, ArithmeticException {
+        if(src == null || dst == null) throw new NullPointerException();
+        //atan(z) = 1/(2i) * log((1 + i*z) / (1 - i*z)), dst serves as the intermediate result:
+        double tRe = src.real * 0 - src.imaginary, tIm = src.real + src.imaginary * 0;
+        double nRe = 1 + tRe, nIm = 0 + tIm, dRe = 1 - tRe, dIm = 0 - tIm;
+        if(dRe == 0 && dIm == 0) throw new ArithmeticException("Can not divide by 0");
+        dst.set(quotientRe(nRe, nIm, dRe, dIm), quotientRe(nIm, -nRe, dRe, dIm));
+        log(dst, dst);
+        dst.set(0.0 * dst.real + 0.5 * dst.imaginary, 0.0 * dst.imaginary - 0.5 * dst.real);
+        return dst;
+    }
+
+    /**
+     * Calculates the arc tangent of the complex number <i>re + im*i</i>.
+     * @param re    the real part, Re(z)
+     * @param im    the imaginary part, Im(z)
+     * @param out   receives <i>Re(atan(z))</i> at index 0 and <i>Im(atan(z))</i> at index 1
+     * @return      {@code out}
+     * @throws NullPointerException if {@code out} is equal to {@code null}
+     * @throws ArithmeticException  if <i>z</i> is equal to {@code -i}
+     */
+    @Contract("_, _, _ -> param3")
+    public static double[] atan(double re, double im, double[] out) throws NullPointerException, ArithmeticException {
+        //Same steps as atan(ComplexNumber, ComplexNumber), out serves as the intermediate result:
+        double tRe = re * 0 - im, tIm = re + im * 0;
+        double nRe = 1 + tRe, nIm = 0 + tIm, dRe = 1 - tRe, dIm = 0 - tIm;
+        if(dRe == 0 && dIm == 0) throw new ArithmeticException("Can not divide by 0");
+        quotient(nRe, nIm, dRe, dIm, out);
+        log(out[0], out[1], out);
+        double u = out[0], v = out[1];
+        out[0] = 0.0 * u + 0.5 * v;
+        out[1] = 0.0 * v - 0.5 * u;
+        return out;
+    }
+
+    /**
+     * Sets itself to its arc tangent.
+     * @throws ArithmeticException  if it is equal to {@code -i}
+     */
+    public void atanInPlace() throws ArithmeticException {
+        atan(this, this);
+    }
+
+    //Helper functions, shared with "ComplexValue" and the kernels:
+    //The logarithms of the recently used bases of log(z, b), found by the bit pattern of b. The entries are immutable,
+    //so threads can share the table without locking; at worst, two bases evict each other from a slot:
+    private record LogBase(double b, double log) {}
+
+    private static final LogBase[] LOG_BASES = new LogBase[16];
+
+    //The logarithm of re + im*i with the base b, shared with ComplexValue.log(double):
+    static double[] log(double re, double im, double b, double[] out) throws ArithmeticException {
+        if(b <= 0) throw new ArithmeticException("base of the log should be > 0");
+        double l = logOfBase(b);
+        if(l == 0) throw new ArithmeticException("Can not divide by 0");
+        return quotient(logModulus(re, im), Math.atan2(im, re), l, 0, out);
+    }
+
+    //log(b) for b > 0, the same as Re(log(b + 0i)):
+    static double logOfBase(double b) {
+        long bits = Double.doubleToRawLongBits(b);
+        int i = (int)(bits ^ bits >>> 32) * 0x9E3779B9 >>> 28;
+        LogBase e = LOG_BASES[i];
+        if(e != null && Double.doubleToRawLongBits(e.b) == bits) return e.log;
+        double log = logModulus(b, 0);
+        LOG_BASES[i] = new LogBase(b, log);
+        return log;
+    }
+
+    //Inside of these bounds, neither the squares nor the products of the parts overflow or lose precision to underflow:
+    static final double SAFE_MAX = 0x1p450, SAFE_MIN = 0x1p-450;
+    //Beyond this imaginary part, tan(z) is i*sign(Im(z)) except for a real part below e^-40:
+    static final double TAN_LIMIT = 20;
+
+    /**
+     * Calculates <i>sqrt(re^2 + im^2)</i> without overflow or underflow of the squares, like {@link Math#hypot(double, double)}.
+     * Only values outside of [2^-450, 2^450] are scaled by a power of 2 first, so the common case stays as fast as
+     * the direct formula, with the same result.
+     */
+    static double modulus(double re, double im) {
+        double a = Math.max(Math.abs(re), Math.abs(im));
+        if(a <= SAFE_MAX && (a >= SAFE_MIN || a == 0)) return Math.sqrt(re * re + im * im);
+        if(Double.isInfinite(re) || Double.isInfinite(im)) return Double.POSITIVE_INFINITY;
+        if(Double.isNaN(a)) return Double.NaN;
+        int e = Math.getExponent(a);
+        re = Math.scalb(re, -e);
+        im = Math.scalb(im, -e);
+        return Math.scalb(Math.sqrt(re * re + im * im), e);
+    }
+
+    /**
+     * Calculates <i>log|z|</i>. Close to the unit circle, where <i>log(re^2 + im^2)</i> would subtract nearly equal numbers,
+     * it is calculated as <i>log1p((a - 1)(a + 1) + b^2) / 2</i> instead, with <i>a &gt;= b</i> the absolute values of the parts.
+     */
+    static double logModulus(double re, double im) {
+        double s = re * re + im * im;
+        if(s > 0.5625 && s < 1.5625) {
+            double a = Math.max(Math.abs(re), Math.abs(im)), b = Math.min(Math.abs(re), Math.abs(im));
+            return Math.log1p((a - 1) * (a + 1) + b * b) / 2;
+        }
+        return Math.log(modulus(re, im));
+    }
+
+    /**
+     * Calculates <i>s cosh(y)</i>. From <i>|y| = 710.5</i> on, <i>cosh(y)</i> overflows while the product may still be finite,
+     * so for <i>|y| &gt;= 700</i>, where <i>cosh(y) = e^|y| / 2</i> to the last bit, <i>e^(|y|/2)</i> is multiplied in twice.
+     * A factor of 0 stays 0, also for an infinite <i>y</i>.
+     */
+    static double timesCosh(double s, double y) {
+        if(!(Math.abs(y) >= 700)) return s * Math.cosh(y);
+        if(s == 0) return s;
+        double h = Math.exp(Math.abs(y) / 2);
+        return s * (h / 2) * h;
+    }
+
+    /**
+     * Calculates <i>s sinh(y)</i> in the same way as {@link #timesCosh(double, double)}.
+     */
+    static double timesSinh(double s, double y) {
+        if(!(Math.abs(y) >= 700)) return s * Math.sinh(y);
+        double t = y < 0 ? -s : s;
+        if(t == 0) return t;
+        double h = Math.exp(Math.abs(y) / 2);
+        return t * (h / 2) * h;
+    }
+
+    /**
+     * Calculates <i>(a + b*i) / (c + d*i)</i> and stores it in {@code out}, division by 0 results in {@code NaN}.
+     * If all parts are inside of [2^-450, 2^450] (or 0 in the dividend), the direct formula can neither overflow
+     * nor underflow and is used as it is. Otherwise both parts are calculated by {@link #quotientRe(double, double, double, double)}.
+     */
+    static double[] quotient(double a, double b, double c, double d, double[] out) {
+        double ab = Math.max(Math.abs(a), Math.abs(b)), cd = Math.max(Math.abs(c), Math.abs(d));
+        if(cd >= SAFE_MIN && cd <= SAFE_MAX && ab <= SAFE_MAX && (ab >= SAFE_MIN || ab == 0)) {
+            double t = c * c + d * d;
+            out[0] = (a * c + b * d) / t;
+            out[1] = (b * c - a * d) / t;
+            return out;
+        }
+        out[0] = quotientRe(a, b, c, d);
+        out[1] = quotientRe(b, -a, c, d);
+        return out;
+    }
+
+    /**
+     * Calculates the real part of <i>(a + b*i) / (c + d*i)</i>, bit for bit as {@link #quotient(double, double, double, double, double[])}.
+     * The imaginary part is the real part of <i>(b - a*i) / (c + d*i)</i>, so two calls give the quotient without an array.
+     * Outside of the safe range, the robust algorithm of Baudin and Smith (<i>A Robust Complex Division in Scilab</i>, 2012)
+     * scales the operands and avoids the squares of the divisor.
+     */
+    static double quotientRe(double a, double b, double c, double d) {
+        double ab = Math.max(Math.abs(a), Math.abs(b)), cd = Math.max(Math.abs(c), Math.abs(d));
+        if(cd >= SAFE_MIN && cd <= SAFE_MAX && ab <= SAFE_MAX && (ab >= SAFE_MIN || ab == 0)) {
+            return (a * c + b * d) / (c * c + d * d);
+        }
+        //Scaling, with the constants of the paper (OV = Double.MAX_VALUE, UN = Double.MIN_NORMAL, eps = 2^-52):
+        double scale = 1;
+        if(ab >= Double.MAX_VALUE / 2) {
+            a *= 0.5;
+            b *= 0.5;
+            scale *= 2;
+        }
+        if(cd >= Double.MAX_VALUE / 2) {
+            c *= 0.5;
+            d *= 0.5;
+            scale *= 0.5;
+        }
+        if(ab <= Double.MIN_NORMAL * 0x1p53) {
+            a *= 0x1p105;
+            b *= 0x1p105;
+            scale *= 0x1p-105;
+        }
+        if(cd <= Double.MIN_NORMAL * 0x1p53) {
+            c *= 0x1p105;
+            d *= 0x1p105;
+            scale *= 0x1p105;
+        }
+        if(Math.abs(d) <= Math.abs(c)) {
+            double r = d / c, t = 1 / (c + d * r);
+            return realPart(a, b, c, d, r, t) * scale;
+        }
+        double r = c / d, t = 1 / (d + c * r);
+        return realPart(b, a, d, c, r, t) * scale;
+    }
+
+    private static double realPart(double a, double b, double c, double d, double r, double t) {
+        if(r != 0) {
+            double br = b * r;
+            if(br != 0) return (a + br) * t;
+            return a * t + (b * t) * r;
+        }
+        return (a + d * (b / c)) * t;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,492 @@
+package de.andimoo5.math;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * {@code ComplexPolynomial} is an immutable polynomial <i>p(z) = a0 + a1*z + a2*z^2 + ... + an*z^n</i>
+ * with complex coefficients, stored as two primitive arrays like {@link ComplexArray}.<br>
+ * <br> Features included in this class are:<br>
+ * <ul>
+ *     <li>Evaluation with <i>Horner's method</i> on primitive accumulators, for single points
+ *          ({@link #evaluate(double, double, double[]) evaluate}) and for whole arrays of points
+ *          ({@link #evaluate(ComplexArray, ComplexArray) batch evaluation}), which is split across all cores
+ *          for large inputs</li>
+ *     <li>Evaluation of the derivative together with the value
+ *          ({@link #evaluateWithDerivative(double, double, double[]) evaluateWithDerivative}) and the derivative
+ *          itself as a polynomial ({@link #derivative() derivative})</li>
+ *     <li>Root finding with the <i>Aberth–Ehrlich</i> method ({@link #roots() roots}), which finds all roots at
+ *          once; a {@link RootFinder} keeps its workspace between calls</li>
+ * </ul>
+ *
+ * @author  Andras Martin Moosbauer
+ * @version 2.0
+ */
+public class ComplexPolynomial {
+
+    //Coefficients, index k belongs to z^k; the leading coefficient isn't 0 unless the polynomial is 0:
+    private final double[] real, imaginary;
+
+    //Constructors of the "ComplexPolynomial" class:
+    /**
+     * Constructs a new {@code ComplexPolynomial} from the real and imaginary parts of its coefficients,
+     * ordered by ascending power. The arrays are copied; leading zero coefficients are dropped.
+     * @param real      the real parts of the coefficients, index k belongs to z^k
+     * @param imaginary the imaginary parts of the coefficients, index k belongs to z^k
+     * @throws NullPointerException     if either {@code real} or {@code imaginary} is equal to {@code null}
+     * @throws IllegalArgumentException if {@code real} and {@code imaginary} differ in length
+     */
+    public ComplexPolynomial(double[] real, double[] imaginary) throws NullPointerException, IllegalArgumentException {
+        if(real == null || imaginary == null) throw new NullPointerException();
+        if(real.length != imaginary.length) throw new IllegalArgumentException("real and imaginary parts differ in length");
+        int n = real.length;
+        while(n > 1 && real[n - 1] == 0 && imaginary[n - 1] == 0) n--;
+        this.real = Arrays.copyOf(real, Math.max(n, 1));
+        this.imaginary = Arrays.copyOf(imaginary, Math.max(n, 1));
+    }
+
+    /**
+     * Constructs a new {@code ComplexPolynomial} from its coefficients, ordered by ascending power.
+     * @param coefficients  instances of {@code ComplexNumber}, index k belongs to z^k
+     * @throws NullPointerException if {@code coefficients} or one of its elements is equal to {@code null}
+     */
+    public ComplexPolynomial(ComplexNumber... coefficients) throws NullPointerException {
+        this(new ComplexArray(coefficients));
+    }
+
+    /**
+     * Constructs a new {@code ComplexPolynomial} from its coefficients, ordered by ascending power.
+     * @param coefficients  the coefficients, index k belongs to z^k
+     * @throws NullPointerException if {@code coefficients} is equal to {@code null}
+     */
+    public ComplexPolynomial(ComplexArray coefficients) throws NullPointerException {
+        this(coefficients.real(), coefficients.imaginary());
+    }
+
+    /**
+     * Constructs the polynomial <i>(z - r1)(z - r2)...(z - rn)</i> with the given roots.
+     * @param roots the roots of the polynomial
+     * @return      a monic {@code ComplexPolynomial} of the degree {@code roots.length()}
+     * @throws NullPointerException if {@code roots} is equal to {@code null}
+     */
+    @Contract("_ -> new")
+    public static @NotNull ComplexPolynomial fromRoots(ComplexArray roots) throws NullPointerException {
+        int n = roots.length();
+        double[] re = new double[n + 1], im = new double[n + 1];
+        re[0] = 1;
+        //Multiplies the product so far by (z - r), from the highest coefficient downwards so it can be done in place:
+        for(int k = 0; k < n; k++) {
+            double rRe = roots.getRe(k), rIm = roots.getIm(k);
+            for(int j = k + 1; j > 0; j--) {
+                double u = re[j - 1] - (re[j] * rRe - im[j] * rIm);
+                double v = im[j - 1] - (re[j] * rIm + im[j] * rRe);
+                re[j] = u;
+                im[j] = v;
+            }
+            double u = -(re[0] * rRe - im[0] * rIm);
+            im[0] = -(re[0] * rIm + im[0] * rRe);
+            re[0] = u;
+        }
+        return new ComplexPolynomial(re, im);
+    }
+
+    //Basic functions (to get data from objects of this class):
+    /**
+     * @return  the degree of the polynomial, the zero polynomial has the degree 0
+     */
+    public int degree() {
+        return real.length - 1;
+    }
+
+    /**
+     * Returns the coefficient of <i>z^k</i> as a new {@code ComplexNumber}.
+     * @param k the power the coefficient belongs to
+     * @return  a new {@code ComplexNumber}, {@code 0} if {@code k} is bigger than the degree
+     * @throws IllegalArgumentException if {@code k} is negative
+     */
+    @Contract("_ -> new")
+    public @NotNull ComplexNumber coefficient(int k) throws IllegalArgumentException {
+        if(k < 0) throw new IllegalArgumentException("negative power");
+        if(k >= real.length) return new ComplexNumber();
+        return new ComplexNumber(real[k], imaginary[k]);
+    }
+
+    /**
+     * @return  a copy of the coefficients, index k belongs to z^k
+     */
+    public ComplexArray coefficients() {
+        return new ComplexArray(real.clone(), imaginary.clone());
+    }
+
+    /**
+     * @return      a String representing the polynomial in the format of: <br>{@code (a0) + (a1)z + (a2)z^2 + ...}
+     */
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        for(int k = 0; k < real.length; k++) {
+            if(k > 0) s.append(" + ");
+            s.append('(').append(ComplexNumber.toString(real[k], imaginary[k])).append(')');
+            if(k > 0) s.append('z');
+            if(k > 1) s.append('^').append(k);
+        }
+        return s.toString();
+    }
+
+    /**
+     * Compares the coefficients of the {@code ComplexPolynomial} with the ones of {@code Object p}.
+     * @param p any {@code Object}
+     * @return  {@code true} if {@code p} is a {@code ComplexPolynomial} with the same degree and equal coefficients
+     */
+    @Override
+    public boolean equals(Object p) {
+        if(this == p) return true;
+        if(!(p instanceof ComplexPolynomial q) || q.real.length != real.length) return false;
+        for(int k = 0; k < real.length; k++) {
+            if(real[k] != q.real[k] || imaginary[k] != q.imaginary[k]) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = 1;
+        //Adding 0.0 turns -0.0 into 0.0, as both are equal:
+        for(int k = 0; k < real.length; k++) h = 31 * (31 * h + Double.hashCode(real[k] + 0.0)) + Double.hashCode(imaginary[k] + 0.0);
+        return h;
+    }
+
+    //Evaluation:
+    /**
+     * Evaluates the polynomial at <i>re + im*i</i> with <i>Horner's method</i>.
+     * @param re    the real part of the point
+     * @param im    the imaginary part of the point
+     * @param out   receives <i>Re(p(z))</i> at index 0 and <i>Im(p(z))</i> at index 1
+     * @return      {@code out}
+     * @throws NullPointerException if {@code out} is equal to {@code null}
+     */
+    @Contract("_, _, _ -> param3")
+    public double[] evaluate(double re, double im, double[] out) throws NullPointerException {
+        double u = real[real.length - 1], v = imaginary[real.length - 1];
+        for(int k = real.length - 2; k >= 0; k--) {
+            double t = u * re - v * im + real[k];
+            v = u * im + v * re + imaginary[k];
+            u = t;
+        }
+        out[0] = u;
+        out[1] = v;
+        return out;
+    }
+
+    /**
+     * Evaluates the polynomial at {@code z}.
+     * @param z an instance of {@code ComplexNumber}
+     * @return  a new {@code ComplexNumber} holding <i>p(z)</i>
+     * @throws NullPointerException if {@code z} is equal to {@code null}
+     */
+    @Contract("_ -> new")
+    public @NotNull ComplexNumber evaluate(ComplexNumber z) throws NullPointerException {
+        return evaluate(z, new ComplexNumber());
+    }
+
+    /**
+     * Evaluates the polynomial at {@code z} and stores the result in {@code dst}.
+     * @param z     an instance of {@code ComplexNumber}
+     * @param dst   the destination, may be {@code z}
+     * @return      {@code dst}, holding <i>p(z)</i>
+     * @throws NullPointerException if either {@code z} or {@code dst} is equal to {@code null}
+     */
+    @Contract("_, _ -> param2")
+    public ComplexNumber evaluate(ComplexNumber z, ComplexNumber dst) throws NullPointerException {
+        if(z == null || dst == null) throw new NullPointerException();
+        double re = z.getRe(), im = z.getIm();
+        double u = real[real.length - 1], v = imaginary[real.length - 1];
+        for(int k = real.length - 2; k >= 0; k--) {
+            double t = u * re - v * im + real[k];
+            v = u * im + v * re + imaginary[k];
+            u = t;
+        }
+        dst.set(u, v);
+        return dst;
+    }
+
+    /**
+     * Evaluates the polynomial and its derivative at <i>re + im*i</i> in one pass of <i>Horner's method</i>.
+     * @param re    the real part of the point
+     * @param im    the imaginary part of the point
+     * @param out   receives <i>p(z)</i> at the indices 0 (Re) and 1 (Im) and <i>p'(z)</i> at 2 (Re) and 3 (Im)
+     * @return      {@code out}
+     * @throws NullPointerException           if {@code out} is equal to {@code null}
+     * @throws ArrayIndexOutOfBoundsException if {@code out} is shorter than 4
+     */
+    @Contract("_, _, _ -> param3")
+    public double[] evaluateWithDerivative(double re, double im, double[] out) throws NullPointerException {
+        double u = real[real.length - 1], v = imaginary[real.length - 1], du = 0, dv = 0;
+        for(int k = real.length - 2; k >= 0; k--) {
+            double t = du * re - dv * im + u;
+            dv = du * im + dv * re + v;
+            du = t;
+            t = u * re - v * im + real[k];
+            v = u * im + v * re + imaginary[k];
+            u = t;
+        }
+        out[0] = u;
+        out[1] = v;
+        out[2] = du;
+        out[3] = dv;
+        return out;
+    }
+
+    /**
+     * Evaluates the polynomial at every element of {@code points} and stores the results in {@code dst}.
+     * Large inputs are split into chunks which are evaluated in parallel on the common {@code ForkJoinPool}.
+     * @param points    the points to evaluate the polynomial at
+     * @param dst       the destination, may be {@code points}
+     * @return          {@code dst}, holding <i>p(points[i])</i>
+     * @throws NullPointerException     if either {@code points} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> param2")
+    public ComplexArray evaluate(ComplexArray points, ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+        batch(points, dst, false);
+        return dst;
+    }
+
+    /**
+     * Evaluates the derivative <i>p'</i> at every element of {@code points} and stores the results in {@code dst},
+     * without building the derivative polynomial. Large inputs are evaluated in parallel.
+     * @param points    the points to evaluate the derivative at
+     * @param dst       the destination, may be {@code points}
+     * @return          {@code dst}, holding <i>p'(points[i])</i>
+     * @throws NullPointerException     if either {@code points} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> param2")
+    public ComplexArray evaluateDerivative(ComplexArray points, ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+        batch(points, dst, true);
+        return dst;
+    }
+
+    /**
+     * @return  the derivative <i>p'(z) = a1 + 2*a2*z + ... + n*an*z^(n-1)</i> as a new polynomial
+     */
+    @Contract(" -> new")
+    public @NotNull ComplexPolynomial derivative() {
+        int n = Math.max(real.length - 1, 1);
+        double[] re = new double[n], im = new double[n];
+        for(int k = 1; k < real.length; k++) {
+            re[k - 1] = k * real[k];
+            im[k - 1] = k * imaginary[k];
+        }
+        return new ComplexPolynomial(re, im);
+    }
+
+    //Root finding:
+    /**
+     * Finds all roots of the polynomial, see {@link RootFinder}.
+     * @return  a new {@code ComplexArray} with {@link #degree()} roots, repeated by their multiplicity
+     * @throws ArithmeticException  if the polynomial is the zero polynomial
+     */
+    public ComplexArray roots() throws ArithmeticException {
+        ComplexArray roots = new ComplexArray(degree());
+        new RootFinder(degree()).roots(this, roots);
+        return roots;
+    }
+
+    /**
+     * {@code RootFinder} finds all roots of a {@code ComplexPolynomial} at once with the <i>Aberth–Ehrlich</i>
+     * method, which converges cubically to simple roots. The first guesses lie on circles whose radii come from the
+     * Newton polygon of the coefficients, so that roots of very different size are all found. A root has converged
+     * once its correction is at the rounding level of the root, or the value of the polynomial at the rounding level
+     * of its evaluation. A root whose correction isn't finite, because the polynomial overflows there or it met
+     * another root, starts over from another point. If not all roots have converged after {@value #MAX_ITERATIONS}
+     * iterations, an {@code ArithmeticException} is thrown instead of returning inaccurate roots.<br>
+     * <br> It keeps its workspace between calls, so finding the roots of many polynomials up to its maximum degree
+     * doesn't allocate. A {@code RootFinder} isn't thread-safe; use one per thread.
+     */
+    public static class RootFinder {
+
+        /**
+         * The maximum number of corrections of a root.
+         */
+        public static final int MAX_ITERATIONS = 500;
+
+        //Relative size of a correction below which a root counts as converged:
+        private static final double TOLERANCE = 4 * Math.ulp(1.0);
+
+        //Current approximations of the roots, and the flags for the converged ones:
+        private final double[] zRe, zIm;
+        private final boolean[] done;
+        //The absolute values of the coefficients, for the rounding error of an evaluation:
+        private final double[] moduli;
+        private final double[] out = new double[4], ratio = new double[2];
+        //The corners of the Newton polygon, and the moduli of the first guesses:
+        private final int[] hull;
+        private final double[] radii;
+        //The number of restarts so far, which sets the angle of the next one:
+        private int restarts;
+
+        /**
+         * Constructs a new {@code RootFinder} for polynomials up to the given degree.
+         * @param maxDegree the maximum degree of the polynomials
+         * @throws IllegalArgumentException if {@code maxDegree} is negative
+         */
+        public RootFinder(int maxDegree) throws IllegalArgumentException {
+            if(maxDegree < 0) throw new IllegalArgumentException("negative degree");
+            zRe = new double[maxDegree];
+            zIm = new double[maxDegree];
+            done = new boolean[maxDegree];
+            moduli = new double[maxDegree + 1];
+            hull = new int[maxDegree + 1];
+            radii = new double[maxDegree];
+        }
+
+        /**
+         * Finds all roots of {@code p} and stores them in {@code dst}.
+         * @param p     the polynomial
+         * @param dst   the destination, its length has to be the degree of {@code p}
+         * @return      {@code dst}, holding the roots repeated by their multiplicity
+         * @throws NullPointerException     if either {@code p} or {@code dst} is equal to {@code null}
+         * @throws IllegalArgumentException if the degree of {@code p} is bigger than the maximum degree of this
+         *                                  {@code RootFinder} or differs from the length of {@code dst}
+         * @throws ArithmeticException      if {@code p} is the zero polynomial, or if not all roots have converged
+         *                                  after {@value #MAX_ITERATIONS} iterations
+         */
+        @Contract("_, _ -> param2")
+        public ComplexArray roots(ComplexPolynomial p, ComplexArray dst) throws NullPointerException, IllegalArgumentException, ArithmeticException {
+            if(p == null || dst == null) throw new NullPointerException();
+            int n = p.degree();
+            if(n > zRe.length) throw new IllegalArgumentException("degree exceeds the workspace");
+            if(n != dst.length()) throw new IllegalArgumentException("destination length differs from the degree");
+            if(n == 0 && p.real[0] == 0 && p.imaginary[0] == 0) throw new ArithmeticException("the zero polynomial has no finite set of roots");
+            initialGuesses(p, n);
+            int active = n;
+            for(int iteration = 0; iteration < MAX_ITERATIONS && active > 0; iteration++) {
+                active = 0;
+                for(int k = 0; k < n; k++) {
+                    if(done[k]) continue;
+                    if(step(p, n, k)) done[k] = true;
+                    else active++;
+                }
+            }
+            if(active > 0) throw new ArithmeticException(active + " roots haven't converged after " + MAX_ITERATIONS + " iterations");
+            System.arraycopy(zRe, 0, dst.real(), 0, n);
+            System.arraycopy(zIm, 0, dst.imaginary(), 0, n);
+            return dst;
+        }
+
+        //Places the first guesses on several circles, one per edge of the Newton polygon of p, each with the
+        //modulus that the roots of its edge have about in common as radius:
+        private void initialGuesses(ComplexPolynomial p, int n) {
+            for(int k = 0; k <= n; k++) moduli[k] = Math.hypot(p.real[k], p.imaginary[k]);
+            //The upper convex hull of the points (k, log|a_k|), the Newton polygon of p:
+            int size = 0;
+            for(int k = 0; k <= n; k++) {
+                if(moduli[k] == 0) continue;
+                while(size >= 2 && (hull[size - 1] - hull[size - 2]) * (Math.log(moduli[k]) - Math.log(moduli[hull[size - 2]]))
+                        >= (Math.log(moduli[hull[size - 1]]) - Math.log(moduli[hull[size - 2]])) * (k - hull[size - 2])) size--;
+                hull[size++] = k;
+            }
+            restarts = 0;
+            //Roots of a polynomial without constant term are 0:
+            for(int k = 0; k < hull[0]; k++) {
+                zRe[k] = zIm[k] = radii[k] = 0;
+                done[k] = false;
+            }
+            //Each edge from i to j of the Newton polygon stands for j - i roots of about the same modulus:
+            for(int e = 1; e < size; e++) {
+                int i = hull[e - 1], j = hull[e];
+                double r = Math.exp((Math.log(moduli[i]) - Math.log(moduli[j])) / (j - i));
+                for(int k = i; k < j; k++) {
+                    //The offset keeps the guesses off the symmetry axes of real polynomials:
+                    double angle = 2 * Math.PI * (k - i) / (j - i) + 2 * Math.PI * e / n + 0.4;
+                    zRe[k] = r * Math.cos(angle);
+                    zIm[k] = r * Math.sin(angle);
+                    radii[k] = r;
+                    done[k] = false;
+                }
+            }
+        }
+
+        //One Aberth correction of root k, returns true if it has converged:
+        private boolean step(ComplexPolynomial p, int n, int k) {
+            double re = zRe[k], im = zIm[k];
+            p.evaluateWithDerivative(re, im, out);
+            if(out[0] == 0 && out[1] == 0) return true;
+            if(!Double.isFinite(out[0]) || !Double.isFinite(out[1])) {
+                restart(n, k);
+                return false;
+            }
+            if(out[2] == 0 && out[3] == 0) {
+                //A stationary point, nudge the root away from it:
+                zRe[k] = re + 64 * Math.ulp(Math.max(Math.abs(re), radii[k]));
+                return false;
+            }
+            //ratio = p(z) / p'(z), without the squares of p'(z), which underflow close to multiple roots:
+            ComplexNumber.quotient(out[0], out[1], out[2], out[3], ratio);
+            double rRe = ratio[0], rIm = ratio[1];
+            //sum = sum over j != k of 1 / (z_k - z_j):
+            double sRe = 0, sIm = 0;
+            for(int j = 0; j < n; j++) {
+                if(j == k) continue;
+                double a = re - zRe[j], b = im - zIm[j];
+                double t = a * a + b * b;
+                sRe += a / t;
+                sIm -= b / t;
+            }
+            //w = ratio / (1 - ratio * sum):
+            ComplexNumber.quotient(rRe, rIm, 1 - (rRe * sRe - rIm * sIm), -(rRe * sIm + rIm * sRe), ratio);
+            double wRe = ratio[0], wIm = ratio[1];
+            if(!Double.isFinite(wRe) || !Double.isFinite(wIm)) {
+                restart(n, k);
+                return false;
+            }
+            zRe[k] = re - wRe;
+            zIm[k] = im - wIm;
+            return Math.hypot(wRe, wIm) <= TOLERANCE * Math.hypot(zRe[k], zIm[k])
+                    || Math.hypot(out[0], out[1]) <= n * TOLERANCE * bound(n, Math.hypot(re, im));
+        }
+
+        //The sum of |a_i| r^i, which bounds the rounding error of Horner's scheme at |z| = r with a factor of about 2n ulp:
+        private double bound(int n, double r) {
+            double b = moduli[n];
+            for(int i = n - 1; i >= 0; i--) b = b * r + moduli[i];
+            return b;
+        }
+
+        //Moves root k to another point on the circle of its first guess:
+        private void restart(int n, int k) {
+            double angle = 2 * Math.PI * k / n + 0.4 + 1.1 * ++restarts;
+            zRe[k] = radii[k] * Math.cos(angle);
+            zIm[k] = radii[k] * Math.sin(angle);
+        }
+    }
+
+    //Helper functions:
+    private void batch(ComplexArray points, ComplexArray dst, boolean derivative) {
+        if(points == null || dst == null) throw new NullPointerException();
+        if(points.length() != dst.length()) throw new IllegalArgumentException("arrays differ in length");
+        //Every point takes one Horner step per coefficient, twice as many with the derivative:
+        double nanos = ParallelKernels.Cost.HORNER.nanos * real.length * (derivative ? 2 : 1);
+        ParallelKernels.forEach(points.length(), nanos, (from, to) -> evaluate(points, dst, derivative, from, to));
+    }
+
+    private void evaluate(ComplexArray points, ComplexArray dst, boolean derivative, int from, int to) {
+        double[] pRe = points.real(), pIm = points.imaginary(), dRe = dst.real(), dIm = dst.imaginary();
+        double[] out = new double[4];
+        for(int i = from; i < to; i++) {
+            if(derivative) {
+                evaluateWithDerivative(pRe[i], pIm[i], out);
+                dRe[i] = out[2];
+                dIm[i] = out[3];
+            }
+            else {
+                evaluate(pRe[i], pIm[i], out);
+                dRe[i] = out[0];
+                dIm[i] = out[1];
+            }
+        }
+    }
+}
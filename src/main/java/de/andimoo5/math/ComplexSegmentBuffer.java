@@ -0,0 +1,608 @@
+package de.andimoo5.math;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * {@code ComplexSegmentBuffer} is an array of complex numbers in a {@link MemorySegment}, outside of the Java heap.
+ * The numbers are stored interleaved as little-endian {@code double} values, <i>Re(z)</i> at the byte offset
+ * <i>16*i</i> and <i>Im(z)</i> at <i>16*i + 8</i>, which is also the format of files written by most tools for
+ * complex samples. Indices are {@code long}, so a buffer can be bigger than any Java array.<br>
+ * <br> A buffer is either allocated in an {@link Arena} ({@link #allocate(Arena, long) allocate}) or mapped directly
+ * onto a file ({@link #map(Path, FileChannel.MapMode, long, Arena) map}), in which case the operating system pages the
+ * data in and out as needed. Either way the buffer is valid as long as its arena is alive; closing the arena frees
+ * the memory or unmaps the file.<br>
+ * <br> Single elements are read and written through {@code ComplexNumber} objects, like the elements of
+ * {@link ComplexArray}. The bulk operations are the ones of {@code ComplexArray} and work directly on the memory
+ * of the buffers, without copying them to the heap. Just like there, dividing by {@code 0} and undefined function
+ * values give {@code NaN} instead of throwing an exception.<br>
+ * <br> <b>Note:</b> this class uses the <i>Foreign Function &amp; Memory API</i>, which is a preview API in Java 21.
+ * It is compiled with {@code --enable-preview}, so it only loads on exactly Java 21 with {@code --enable-preview} on
+ * the command line of the JVM; any other version, or a missing flag, fails with an {@link UnsupportedClassVersionError}
+ * on its first use. No other class of the library refers to it, so they all work without the flag.
+ *
+ * @author  Andras Martin Moosbauer
+ * @version 2.0
+ */
+public final class ComplexSegmentBuffer {
+
+    /**
+     * The layout of one part of a complex number: a little-endian {@code double} without alignment constraints.
+     */
+    public static final ValueLayout.OfDouble LAYOUT = ValueLayout.JAVA_DOUBLE_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * The size of one complex number in bytes.
+     */
+    public static final long BYTES = 16;
+
+    private final MemorySegment segment;
+    private final long length;
+
+    //Constructors of the "ComplexSegmentBuffer" class:
+    private ComplexSegmentBuffer(MemorySegment segment) {
+        this.segment = segment;
+        this.length = segment.byteSize() / BYTES;
+    }
+
+    /**
+     * Allocates a new buffer of the given length in {@code arena}, with all elements equal to 0.
+     * @param arena     the arena which owns the memory
+     * @param length    the number of complex numbers
+     * @return          a new {@code ComplexSegmentBuffer}
+     * @throws NullPointerException     if {@code arena} is equal to {@code null}
+     * @throws IllegalArgumentException if {@code length} is negative or too big
+     */
+    @Contract("_, _ -> new")
+    public static @NotNull ComplexSegmentBuffer allocate(Arena arena, long length) throws NullPointerException, IllegalArgumentException {
+        if(arena == null) throw new NullPointerException();
+        if(length < 0 || length > Long.MAX_VALUE / BYTES) throw new IllegalArgumentException("invalid length");
+        return new ComplexSegmentBuffer(arena.allocate(length * BYTES, Double.BYTES));
+    }
+
+    /**
+     * Returns a buffer backed by {@code segment}. Changes to the segment are visible in the buffer and vice versa.
+     * @param segment   a segment of interleaved little-endian {@code double} values
+     * @return          a new {@code ComplexSegmentBuffer}
+     * @throws NullPointerException     if {@code segment} is equal to {@code null}
+     * @throws IllegalArgumentException if the size of {@code segment} isn't a multiple of {@value #BYTES}
+     */
+    @Contract("null -> fail; !null -> new")
+    public static @NotNull ComplexSegmentBuffer wrap(MemorySegment segment) throws NullPointerException, IllegalArgumentException {
+        if(segment == null) throw new NullPointerException();
+        if(segment.byteSize() % BYTES != 0) throw new IllegalArgumentException("segment size is not a multiple of " + BYTES);
+        return new ComplexSegmentBuffer(segment);
+    }
+
+    /**
+     * Maps {@code length} complex numbers of {@code channel}, starting at the byte {@code offset}, into memory.
+     * In {@link FileChannel.MapMode#READ_WRITE READ_WRITE} mode the file grows if it is too short.
+     * @param channel   the channel of the file
+     * @param mode      the mode of the mapping
+     * @param offset    the position in the file, in bytes
+     * @param length    the number of complex numbers
+     * @param arena     the arena which controls how long the mapping is valid
+     * @return          a new {@code ComplexSegmentBuffer}
+     * @throws NullPointerException     if {@code channel}, {@code mode} or {@code arena} is equal to {@code null}
+     * @throws IllegalArgumentException if {@code offset} or {@code length} is negative or too big
+     * @throws IOException              if the file can't be mapped
+     */
+    @Contract("_, _, _, _, _ -> new")
+    public static @NotNull ComplexSegmentBuffer map(FileChannel channel, FileChannel.MapMode mode, long offset, long length, Arena arena) throws NullPointerException, IllegalArgumentException, IOException {
+        if(channel == null || mode == null || arena == null) throw new NullPointerException();
+        if(offset < 0 || length < 0 || length > Long.MAX_VALUE / BYTES) throw new IllegalArgumentException("invalid offset or length");
+        return new ComplexSegmentBuffer(channel.map(mode, offset, length * BYTES, arena));
+    }
+
+    /**
+     * Maps {@code length} complex numbers from the beginning of {@code file} into memory. In
+     * {@link FileChannel.MapMode#READ_WRITE READ_WRITE} mode the file is created if it doesn't exist and grows if it
+     * is too short; a negative {@code length} maps the whole file. The file is closed again, the mapping stays valid
+     * as long as {@code arena} is alive.
+     * @param file      the path of the file
+     * @param mode      the mode of the mapping
+     * @param length    the number of complex numbers, or {@code -1} for all numbers in the file
+     * @param arena     the arena which controls how long the mapping is valid
+     * @return          a new {@code ComplexSegmentBuffer}
+     * @throws NullPointerException if {@code file}, {@code mode} or {@code arena} is equal to {@code null}
+     * @throws IOException          if the file can't be opened or mapped
+     */
+    @Contract("_, _, _, _ -> new")
+    public static @NotNull ComplexSegmentBuffer map(Path file, FileChannel.MapMode mode, long length, Arena arena) throws NullPointerException, IOException {
+        if(file == null || mode == null || arena == null) throw new NullPointerException();
+        boolean write = mode == FileChannel.MapMode.READ_WRITE;
+        try(FileChannel channel = write
+                ? FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE)
+                : FileChannel.open(file, StandardOpenOption.READ)) {
+            return map(channel, mode, 0, length < 0 ? channel.size() / BYTES : length, arena);
+        }
+    }
+
+    //Basic functions (to get data from objects of this class):
+    /**
+     * @return  the number of complex numbers in the buffer
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * @return  the segment backing the buffer
+     */
+    public MemorySegment segment() {
+        return segment;
+    }
+
+    /**
+     * Returns the real part of the element at index {@code i}.
+     * @param i the index of the element
+     * @return  <i>Re(z)</i> of the element
+     * @throws IndexOutOfBoundsException if {@code i} is out of bounds
+     */
+    public double getRe(long i) {
+        return segment.get(LAYOUT, offset(i));
+    }
+
+    /**
+     * Returns the imaginary part of the element at index {@code i}.
+     * @param i the index of the element
+     * @return  <i>Im(z)</i> of the element
+     * @throws IndexOutOfBoundsException if {@code i} is out of bounds
+     */
+    public double getIm(long i) {
+        return segment.get(LAYOUT, offset(i) + Double.BYTES);
+    }
+
+    /**
+     * Returns the element at index {@code i} as a new {@code ComplexNumber}.
+     * @param i the index of the element
+     * @return  a new {@code ComplexNumber} with the value of the element
+     * @throws IndexOutOfBoundsException if {@code i} is out of bounds
+     */
+    @Contract("_ -> new")
+    public @NotNull ComplexNumber get(long i) {
+        return get(i, new ComplexNumber());
+    }
+
+    /**
+     * Copies the element at index {@code i} into {@code dst}, without allocating a new object.
+     * @param i     the index of the element
+     * @param dst   the destination
+     * @return      {@code dst}, holding the value of the element
+     * @throws NullPointerException      if {@code dst} is equal to {@code null}
+     * @throws IndexOutOfBoundsException if {@code i} is out of bounds
+     */
+    @Contract("_, _ -> param2")
+    public ComplexNumber get(long i, ComplexNumber dst) throws NullPointerException {
+        if(dst == null) throw new NullPointerException();
+        dst.set(getRe(i), getIm(i));
+        return dst;
+    }
+
+    /**
+     * Sets the element at index {@code i} to the value of {@code z}.
+     * @param i the index of the element
+     * @param z the new value
+     * @throws NullPointerException      if {@code z} is equal to {@code null}
+     * @throws IndexOutOfBoundsException if {@code i} is out of bounds
+     */
+    public void set(long i, ComplexNumber z) throws NullPointerException {
+        if(z == null) throw new NullPointerException();
+        set(i, z.getRe(), z.getIm());
+    }
+
+    /**
+     * Sets the element at index {@code i} to <i>re + im*i</i>.
+     * @param i     the index of the element
+     * @param re    the new real part, Re(z)
+     * @param im    the new imaginary part, Im(z)
+     * @throws IndexOutOfBoundsException if {@code i} is out of bounds
+     */
+    public void set(long i, double re, double im) {
+        long o = offset(i);
+        segment.set(LAYOUT, o, re);
+        segment.set(LAYOUT, o + Double.BYTES, im);
+    }
+
+    /**
+     * Copies {@code dst.length()} elements, starting at index {@code from}, into {@code dst}.
+     * @param from  the index of the first element
+     * @param dst   the destination
+     * @return      {@code dst}
+     * @throws NullPointerException      if {@code dst} is equal to {@code null}
+     * @throws IndexOutOfBoundsException if the elements are out of bounds
+     */
+    @Contract("_, _ -> param2")
+    public ComplexArray copyTo(long from, ComplexArray dst) throws NullPointerException {
+        if(dst == null) throw new NullPointerException();
+        double[] re = dst.real(), im = dst.imaginary();
+        for(int k = 0; k < re.length; k++) {
+            long o = offset(from + k);
+            re[k] = segment.get(LAYOUT, o);
+            im[k] = segment.get(LAYOUT, o + Double.BYTES);
+        }
+        return dst;
+    }
+
+    /**
+     * Copies the elements of {@code src} into the buffer, starting at index {@code to}.
+     * @param src   the source
+     * @param to    the index of the first element to be written
+     * @throws NullPointerException      if {@code src} is equal to {@code null}
+     * @throws IndexOutOfBoundsException if the elements are out of bounds
+     */
+    public void copyFrom(ComplexArray src, long to) throws NullPointerException {
+        if(src == null) throw new NullPointerException();
+        double[] re = src.real(), im = src.imaginary();
+        for(int k = 0; k < re.length; k++) {
+            long o = offset(to + k);
+            segment.set(LAYOUT, o, re[k]);
+            segment.set(LAYOUT, o + Double.BYTES, im[k]);
+        }
+    }
+
+    /**
+     * Writes the changes of a buffer mapped in {@link FileChannel.MapMode#READ_WRITE READ_WRITE} mode to its file.
+     * Buffers which aren't mapped are left as they are.
+     */
+    public void force() {
+        if(segment.isMapped()) segment.force();
+    }
+
+    /**
+     * @return      a String representing the buffer in the format of: <br>{@code ComplexSegmentBuffer[length=n]}
+     */
+    @Override
+    public String toString() {
+        return "ComplexSegmentBuffer[length=" + length + "]";
+    }
+
+    //Methods for Arithmetic Operations:
+    /**
+     * Calculates the element-wise sum of {@code a} and {@code b} and stores it in {@code dst}.
+     * @param a     1st summands of the addition
+     * @param b     2nd summands of the addition
+     * @param dst   the destination, may be {@code a} or {@code b}
+     * @return      {@code dst}, holding {@code a[i]} + {@code b[i]}
+     * @throws NullPointerException     if {@code a}, {@code b} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the buffers differ in length
+     */
+    @Contract("_, _, _ -> param3")
+    public static ComplexSegmentBuffer sum(ComplexSegmentBuffer a, ComplexSegmentBuffer b, ComplexSegmentBuffer dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, b, dst);
+        MemorySegment x = a.segment, y = b.segment, d = dst.segment;
+        for(long o = 0, n = a.length * BYTES; o < n; o += Double.BYTES) {
+            d.set(LAYOUT, o, x.get(LAYOUT, o) + y.get(LAYOUT, o));
+        }
+        return dst;
+    }
+
+    /**
+     * Calculates the element-wise difference of {@code a} and {@code b} and stores it in {@code dst}.
+     * @param a     minuends of the difference
+     * @param b     subtrahends of the difference
+     * @param dst   the destination, may be {@code a} or {@code b}
+     * @return      {@code dst}, holding {@code a[i]} - {@code b[i]}
+     * @throws NullPointerException     if {@code a}, {@code b} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the buffers differ in length
+     */
+    @Contract("_, _, _ -> param3")
+    public static ComplexSegmentBuffer diff(ComplexSegmentBuffer a, ComplexSegmentBuffer b, ComplexSegmentBuffer dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, b, dst);
+        MemorySegment x = a.segment, y = b.segment, d = dst.segment;
+        for(long o = 0, n = a.length * BYTES; o < n; o += Double.BYTES) {
+            d.set(LAYOUT, o, x.get(LAYOUT, o) - y.get(LAYOUT, o));
+        }
+        return dst;
+    }
+
+    /**
+     * Calculates the element-wise product of {@code a} and {@code b} and stores it in {@code dst}.
+     * @param a     1st multipliers of the product
+     * @param b     2nd multipliers of the product
+     * @param dst   the destination, may be {@code a} or {@code b}
+     * @return      {@code dst}, holding {@code a[i]} * {@code b[i]}
+     * @throws NullPointerException     if {@code a}, {@code b} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the buffers differ in length
+     */
+    @Contract("_, _, _ -> param3")
+    public static ComplexSegmentBuffer prod(ComplexSegmentBuffer a, ComplexSegmentBuffer b, ComplexSegmentBuffer dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, b, dst);
+        MemorySegment x = a.segment, y = b.segment, d = dst.segment;
+        for(long o = 0, n = a.length * BYTES; o < n; o += BYTES) {
+            double p = x.get(LAYOUT, o), q = x.get(LAYOUT, o + Double.BYTES);
+            double c = y.get(LAYOUT, o), e = y.get(LAYOUT, o + Double.BYTES);
+            d.set(LAYOUT, o, p * c - q * e);
+            d.set(LAYOUT, o + Double.BYTES, p * e + q * c);
+        }
+        return dst;
+    }
+
+    /**
+     * Calculates the element-wise division of {@code a} and {@code b} and stores it in {@code dst}.
+     * A divisor equal to {@code 0} makes the affected element {@code NaN}.
+     * @param a     dividends of the division
+     * @param b     divisors of the division
+     * @param dst   the destination, may be {@code a} or {@code b}
+     * @return      {@code dst}, holding {@code a[i]} / {@code b[i]}
+     * @throws NullPointerException     if {@code a}, {@code b} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the buffers differ in length
+     */
+    @Contract("_, _, _ -> param3")
+    public static ComplexSegmentBuffer division(ComplexSegmentBuffer a, ComplexSegmentBuffer b, ComplexSegmentBuffer dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, b, dst);
+        MemorySegment x = a.segment, y = b.segment, d = dst.segment;
+        double[] out = new double[2];
+        for(long o = 0, n = a.length * BYTES; o < n; o += BYTES) {
+            ComplexNumber.quotient(x.get(LAYOUT, o), x.get(LAYOUT, o + Double.BYTES), y.get(LAYOUT, o), y.get(LAYOUT, o + Double.BYTES), out);
+            d.set(LAYOUT, o, out[0]);
+            d.set(LAYOUT, o + Double.BYTES, out[1]);
+        }
+        return dst;
+    }
+
+    /**
+     * Mathematically adds {@code b} element-wise to itself.
+     * @param b numbers to be added
+     */
+    public void add(ComplexSegmentBuffer b) {
+        sum(this, b, this);
+    }
+
+    /**
+     * Mathematically subtracts {@code b} element-wise from itself.
+     * @param b numbers to be subtracted
+     */
+    public void sub(ComplexSegmentBuffer b) {
+        diff(this, b, this);
+    }
+
+    /**
+     * Mathematically multiplies {@code b} element-wise to itself.
+     * @param b numbers to be multiplied with
+     */
+    public void mul(ComplexSegmentBuffer b) {
+        prod(this, b, this);
+    }
+
+    /**
+     * Mathematically divides itself element-wise by {@code b}.
+     * @param b numbers to be divided by
+     */
+    public void div(ComplexSegmentBuffer b) {
+        division(this, b, this);
+    }
+
+    //Complex Operations:
+    /**
+     * Calculates the conjugate of every element of {@code a} and stores it in {@code dst}.
+     * @param a     the numbers to calculate the conjugate from
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding the conjugate of {@code a[i]}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the buffers differ in length
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexSegmentBuffer conjugate(ComplexSegmentBuffer a, ComplexSegmentBuffer dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, a, dst);
+        MemorySegment x = a.segment, d = dst.segment;
+        for(long o = 0, n = a.length * BYTES; o < n; o += BYTES) {
+            d.set(LAYOUT, o, x.get(LAYOUT, o));
+            d.set(LAYOUT, o + Double.BYTES, -x.get(LAYOUT, o + Double.BYTES));
+        }
+        return dst;
+    }
+
+    /**
+     * Calculates the {@code modulus (absolute value / magnitude)} of the elements [{@code from},
+     * {@code from + dst.length}) of {@code a}.
+     * @param a     the numbers to calculate the modulus from
+     * @param from  the index of the first element
+     * @param dst   the destination
+     * @return      {@code dst}, holding the modulus of {@code a[from + k]}
+     * @throws NullPointerException      if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IndexOutOfBoundsException if the elements are out of bounds
+     */
+    @Contract("_, _, _ -> param3")
+    public static double[] mod(ComplexSegmentBuffer a, long from, double[] dst) throws NullPointerException {
+        if(a == null || dst == null) throw new NullPointerException();
+        for(int k = 0; k < dst.length; k++) {
+            dst[k] = ComplexNumber.modulus(a.getRe(from + k), a.getIm(from + k));
+        }
+        return dst;
+    }
+
+    /**
+     * Calculates the {@code argument (angle)} of the elements [{@code from}, {@code from + dst.length}) of {@code a}.
+     * @param a     the numbers to calculate the argument from
+     * @param from  the index of the first element
+     * @param dst   the destination
+     * @return      {@code dst}, holding the argument of {@code a[from + k]} in radians
+     * @throws NullPointerException      if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IndexOutOfBoundsException if the elements are out of bounds
+     */
+    @Contract("_, _, _ -> param3")
+    public static double[] arg(ComplexSegmentBuffer a, long from, double[] dst) throws NullPointerException {
+        if(a == null || dst == null) throw new NullPointerException();
+        for(int k = 0; k < dst.length; k++) {
+            dst[k] = Math.atan2(a.getIm(from + k), a.getRe(from + k));
+        }
+        return dst;
+    }
+
+    //Exponential and Logarithmic Functions:
+    /**
+     * Calculates every element of {@code a} to the power of {@code power} and stores it in {@code dst},
+     * see {@link ComplexArray#pow(ComplexArray, long, ComplexArray)}.
+     * @param a     the bases
+     * @param power the power, as a {@code long}
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding {@code a[i]}^{@code power}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the buffers differ in length
+     */
+    @Contract("_, _, _ -> param3")
+    public static ComplexSegmentBuffer pow(ComplexSegmentBuffer a, long power, ComplexSegmentBuffer dst) throws NullPointerException, IllegalArgumentException {
+        return map(a, dst, (re, im, out) -> ComplexNumber.pow(re, im, power, out));
+    }
+
+    /**
+     * Calculates the exponential, e^<i>z</i>, of every element of {@code a} and stores it in {@code dst}.
+     * @param a     the arguments
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding {@code exp(a[i])}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the buffers differ in length
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexSegmentBuffer exp(ComplexSegmentBuffer a, ComplexSegmentBuffer dst) throws NullPointerException, IllegalArgumentException {
+        return map(a, dst, ComplexNumber::exp);
+    }
+
+    /**
+     * Calculates the natural logarithm <i>(base e)</i> of every element of {@code a} and stores it in {@code dst}.
+     * @param a     the arguments
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding {@code log(a[i])}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the buffers differ in length
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexSegmentBuffer log(ComplexSegmentBuffer a, ComplexSegmentBuffer dst) throws NullPointerException, IllegalArgumentException {
+        return map(a, dst, ComplexNumber::log);
+    }
+
+    /**
+     * Calculates the square root of every element of {@code a} and stores it in {@code dst}.
+     * @param a     the arguments
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding {@code sqrt(a[i])}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the buffers differ in length
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexSegmentBuffer sqrt(ComplexSegmentBuffer a, ComplexSegmentBuffer dst) throws NullPointerException, IllegalArgumentException {
+        return map(a, dst, ComplexNumber::sqrt);
+    }
+
+    //Trigonometric Operations:
+    /**
+     * Calculates the sine of every element of {@code a} and stores it in {@code dst}.
+     * @param a     the arguments
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding {@code sin(a[i])}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the buffers differ in length
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexSegmentBuffer sin(ComplexSegmentBuffer a, ComplexSegmentBuffer dst) throws NullPointerException, IllegalArgumentException {
+        return map(a, dst, ComplexNumber::sin);
+    }
+
+    /**
+     * Calculates the cosine of every element of {@code a} and stores it in {@code dst}.
+     * @param a     the arguments
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding {@code cos(a[i])}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the buffers differ in length
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexSegmentBuffer cos(ComplexSegmentBuffer a, ComplexSegmentBuffer dst) throws NullPointerException, IllegalArgumentException {
+        return map(a, dst, ComplexNumber::cos);
+    }
+
+    /**
+     * Calculates the tangent of every element of {@code a} and stores it in {@code dst}.
+     * @param a     the arguments
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding {@code tan(a[i])}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the buffers differ in length
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexSegmentBuffer tan(ComplexSegmentBuffer a, ComplexSegmentBuffer dst) throws NullPointerException, IllegalArgumentException {
+        return map(a, dst, ComplexNumber::tan);
+    }
+
+    /**
+     * Calculates the arc sine of every element of {@code a} and stores it in {@code dst}.
+     * @param a     the arguments
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding {@code asin(a[i])}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the buffers differ in length
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexSegmentBuffer asin(ComplexSegmentBuffer a, ComplexSegmentBuffer dst) throws NullPointerException, IllegalArgumentException {
+        return map(a, dst, ComplexNumber::asin);
+    }
+
+    /**
+     * Calculates the arc cosine of every element of {@code a} and stores it in {@code dst}.
+     * @param a     the arguments
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding {@code acos(a[i])}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the buffers differ in length
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexSegmentBuffer acos(ComplexSegmentBuffer a, ComplexSegmentBuffer dst) throws NullPointerException, IllegalArgumentException {
+        return map(a, dst, ComplexNumber::acos);
+    }
+
+    /**
+     * Calculates the arc tangent of every element of {@code a} and stores it in {@code dst}.
+     * @param a     the arguments
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding {@code atan(a[i])}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the buffers differ in length
+     */
+    @Contract("_, _ -> param2")
+    public static ComplexSegmentBuffer atan(ComplexSegmentBuffer a, ComplexSegmentBuffer dst) throws NullPointerException, IllegalArgumentException {
+        return map(a, dst, ComplexNumber::atan);
+    }
+
+    //Helper functions:
+    //One of the primitive functions of ComplexNumber, like ComplexNumber.exp(double, double, double[]):
+    @FunctionalInterface
+    private interface Function {
+        double[] apply(double re, double im, double[] out);
+    }
+
+    private static ComplexSegmentBuffer map(ComplexSegmentBuffer a, ComplexSegmentBuffer dst, Function f) {
+        checkLengths(a, a, dst);
+        MemorySegment x = a.segment, d = dst.segment;
+        double[] out = new double[2];
+        for(long o = 0, n = a.length * BYTES; o < n; o += BYTES) {
+            try {
+                f.apply(x.get(LAYOUT, o), x.get(LAYOUT, o + Double.BYTES), out);
+            } catch(ArithmeticException e) {
+                out[0] = out[1] = Double.NaN;
+            }
+            d.set(LAYOUT, o, out[0]);
+            d.set(LAYOUT, o + Double.BYTES, out[1]);
+        }
+        return dst;
+    }
+
+    private static void checkLengths(ComplexSegmentBuffer a, ComplexSegmentBuffer b, ComplexSegmentBuffer dst) {
+        if(a == null || b == null || dst == null) throw new NullPointerException();
+        if(a.length != b.length || a.length != dst.length) throw new IllegalArgumentException("buffers differ in length");
+    }
+
+    private long offset(long i) {
+        if(i < 0 || i >= length) throw new IndexOutOfBoundsException("Index " + i + " out of bounds for length " + length);
+        return i * BYTES;
+    }
+}
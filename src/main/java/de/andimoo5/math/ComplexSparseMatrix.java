@@ -0,0 +1,508 @@
+package de.andimoo5.math;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * {@code ComplexSparseMatrix} is a sparse matrix of complex numbers, which only stores its non-zero entries.
+ * Which entries are stored is fixed, their values can be changed through {@link #real()} and {@link #imaginary()}. The entries are compressed either by rows (<i>CSR</i>) or by columns (<i>CSC</i>), see
+ * {@link Format}: the entries of row (or column) k are at the positions [{@code pointers()[k]}, {@code pointers()[k + 1]})
+ * of the arrays {@link #indices()}, holding their columns (or rows) in ascending order, {@link #real()} and
+ * {@link #imaginary()}. All of them are primitive arrays.<br>
+ * <br> Matrices are built with a {@link Builder}, which collects entries in any order without creating
+ * {@code ComplexNumber} objects, from a dense matrix ({@link #fromDense(ComplexMatrix, Format) fromDense})
+ * or from existing arrays. {@link #convert(Format) convert} changes the format.<br>
+ * <br> The product with a vector ({@link #prod(ComplexSparseMatrix, ComplexArray, ComplexArray) prod}) accumulates
+ * every element like {@link ComplexNumber#sum(ComplexNumber, ComplexNumber) sum} of
+ * {@link ComplexNumber#prod(ComplexNumber, ComplexNumber) prod}, in the order of the columns. {@link #parallel()}
+ * splits it across the common {@code ForkJoinPool} with the same result. The {@link IterativeSolver}s solve
+ * linear systems with it.
+ *
+ * @author  Andras Martin Moosbauer
+ * @version 2.0
+ */
+public class ComplexSparseMatrix {
+
+    /**
+     * The way the entries of a {@link ComplexSparseMatrix} are compressed.
+     */
+    public enum Format {
+        /**
+         * <i>Compressed sparse rows</i>, the entries are stored row after row, sorted by their column.
+         * The product with a vector computes every element as one sum over a row.
+         */
+        CSR,
+        /**
+         * <i>Compressed sparse columns</i>, the entries are stored column after column, sorted by their row.
+         * The product with a vector adds every column, scaled by an element of the vector, to the result.
+         */
+        CSC
+    }
+
+    private final Format format;
+    private final int rows, columns;
+
+    //Positions of the rows (or columns), the columns (or rows) of the entries and their values:
+    private final int[] pointers, indices;
+    private final double[] real, imaginary;
+
+    //Constructors of the "ComplexSparseMatrix" class:
+    /**
+     * Constructs a new {@code ComplexSparseMatrix} from its compressed arrays, which are checked and <b>not</b> copied.
+     * @param format    the format of the arrays
+     * @param rows      the number of rows
+     * @param columns   the number of columns
+     * @param pointers  the start of every row (or column) in the other arrays, followed by the number of entries
+     * @param indices   the columns (or rows) of the entries, ascending within every row (or column)
+     * @param real      the real parts, Re(z), of the entries
+     * @param imaginary the imaginary parts, Im(z), of the entries
+     * @throws NullPointerException     if one of the arguments is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays don't describe a valid matrix of the given size
+     */
+    public ComplexSparseMatrix(Format format, int rows, int columns, int[] pointers, int[] indices, double[] real, double[] imaginary)
+            throws NullPointerException, IllegalArgumentException {
+        if(format == null || pointers == null || indices == null || real == null || imaginary == null) throw new NullPointerException();
+        if(rows < 0 || columns < 0) throw new IllegalArgumentException("negative size");
+        int outer = format == Format.CSR ? rows : columns, inner = format == Format.CSR ? columns : rows;
+        if(pointers.length != outer + 1 || pointers[0] != 0 || pointers[outer] != indices.length
+                || real.length != indices.length || imaginary.length != indices.length) throw new IllegalArgumentException("arrays don't match");
+        for(int k = 0; k < outer; k++) {
+            if(pointers[k] > pointers[k + 1]) throw new IllegalArgumentException("pointers aren't ascending");
+        }
+        for(int k = 0; k < outer; k++) {
+            for(int p = pointers[k]; p < pointers[k + 1]; p++) {
+                if(indices[p] < 0 || indices[p] >= inner || p > pointers[k] && indices[p] <= indices[p - 1])
+                    throw new IllegalArgumentException("invalid or unsorted index at " + p);
+            }
+        }
+        this.format = format;
+        this.rows = rows;
+        this.columns = columns;
+        this.pointers = pointers;
+        this.indices = indices;
+        this.real = real;
+        this.imaginary = imaginary;
+    }
+
+    /**
+     * Creates a {@code ComplexSparseMatrix} with the non-zero elements of a dense matrix.
+     * @param a         an instance of {@code ComplexMatrix}
+     * @param format    the format of the new matrix
+     * @return          a new {@code ComplexSparseMatrix} with the same elements as {@code a}
+     * @throws NullPointerException if either {@code a} or {@code format} is equal to {@code null}
+     */
+    public static @NotNull ComplexSparseMatrix fromDense(ComplexMatrix a, Format format) throws NullPointerException {
+        if(a == null || format == null) throw new NullPointerException();
+        Builder builder = new Builder(a.rows(), a.columns());
+        double[] re = a.real(), im = a.imaginary();
+        for(int i = 0, k = 0; i < a.rows(); i++) {
+            for(int j = 0; j < a.columns(); j++, k++) {
+                if(re[k] != 0 || im[k] != 0) builder.add(i, j, re[k], im[k]);
+            }
+        }
+        return builder.build(format);
+    }
+
+    //Basic functions (to get data from objects of this class):
+    /**
+     * @return  the format of the matrix
+     */
+    public Format format() {
+        return format;
+    }
+
+    /**
+     * @return  the number of rows
+     */
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * @return  the number of columns
+     */
+    public int columns() {
+        return columns;
+    }
+
+    /**
+     * @return  the number of stored entries
+     */
+    public int nonZeros() {
+        return indices.length;
+    }
+
+    /**
+     * Returns the start of every row (or column) in the other arrays, followed by the number of entries.
+     * It is the backing array and not a copy, so it must not be changed.
+     * @return  the positions of the rows (or columns)
+     */
+    public int[] pointers() {
+        return pointers;
+    }
+
+    /**
+     * Returns the columns (or rows) of the entries. It is the backing array and not a copy, so it must not be changed.
+     * @return  the columns (or rows) of the entries
+     */
+    public int[] indices() {
+        return indices;
+    }
+
+    /**
+     * Returns the real parts, <i>Re(z)</i>, of the entries. It is the backing array and not a copy.
+     * @return  the real parts of the entries
+     */
+    public double[] real() {
+        return real;
+    }
+
+    /**
+     * Returns the imaginary parts, <i>Im(z)</i>, of the entries. It is the backing array and not a copy.
+     * @return  the imaginary parts of the entries
+     */
+    public double[] imaginary() {
+        return imaginary;
+    }
+
+    /**
+     * Returns the element in row {@code i} and column {@code j} as a new {@code ComplexNumber}, which is 0 if it isn't stored.
+     * @param i the row of the element
+     * @param j the column of the element
+     * @return  a new {@code ComplexNumber} with the value of the element
+     * @throws IndexOutOfBoundsException if {@code i} or {@code j} is out of bounds
+     */
+    @Contract("_, _ -> new")
+    public @NotNull ComplexNumber get(int i, int j) {
+        Objects.checkIndex(i, rows);
+        Objects.checkIndex(j, columns);
+        int k = format == Format.CSR ? i : j;
+        int p = Arrays.binarySearch(indices, pointers[k], pointers[k + 1], format == Format.CSR ? j : i);
+        return p < 0 ? new ComplexNumber() : new ComplexNumber(real[p], imaginary[p]);
+    }
+
+    /**
+     * Returns this matrix in the given format. The entries are reordered in linear time.
+     * @param format    the format of the result
+     * @return          this matrix if it has the format already, a new {@code ComplexSparseMatrix} otherwise
+     * @throws NullPointerException if {@code format} is equal to {@code null}
+     */
+    public @NotNull ComplexSparseMatrix convert(Format format) throws NullPointerException {
+        if(format == null) throw new NullPointerException();
+        if(format == this.format) return this;
+        //Counting sort by the indices; walking the old rows (or columns) in order keeps the new ones sorted:
+        int outer = pointers.length - 1, inner = format == Format.CSR ? rows : columns, n = indices.length;
+        int[] p = new int[inner + 1], idx = new int[n];
+        double[] re = new double[n], im = new double[n];
+        for(int q = 0; q < n; q++) p[indices[q] + 1]++;
+        for(int k = 0; k < inner; k++) p[k + 1] += p[k];
+        int[] next = Arrays.copyOf(p, inner);
+        for(int k = 0; k < outer; k++) {
+            for(int q = pointers[k]; q < pointers[k + 1]; q++) {
+                int t = next[indices[q]]++;
+                idx[t] = k;
+                re[t] = real[q];
+                im[t] = imaginary[q];
+            }
+        }
+        return new ComplexSparseMatrix(format, rows, columns, p, idx, re, im);
+    }
+
+    /**
+     * @return  a new {@code ComplexMatrix} with the same elements
+     * @throws IllegalArgumentException if the matrix has more elements than fit into an array
+     */
+    public @NotNull ComplexMatrix toDense() throws IllegalArgumentException {
+        ComplexMatrix a = new ComplexMatrix(rows, columns);
+        for(int k = 0; k < pointers.length - 1; k++) {
+            for(int p = pointers[k]; p < pointers[k + 1]; p++) {
+                int i = format == Format.CSR ? k : indices[p], j = format == Format.CSR ? indices[p] : k;
+                a.set(i, j, real[p], imaginary[p]);
+            }
+        }
+        return a;
+    }
+
+    /**
+     * @return      a String representing the stored entries in the format of: <br>{@code {(i, j)=z, ...}},
+     *              in the order of storage, where every element is formatted like {@link ComplexNumber#toString()}
+     */
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder("{");
+        for(int k = 0; k < pointers.length - 1; k++) {
+            for(int p = pointers[k]; p < pointers[k + 1]; p++) {
+                if(p > 0) s.append(", ");
+                int i = format == Format.CSR ? k : indices[p], j = format == Format.CSR ? indices[p] : k;
+                s.append('(').append(i).append(", ").append(j).append(")=");
+                ComplexFormat.format(real[p], imaginary[p], s);
+            }
+        }
+        return s.append('}').toString();
+    }
+
+    /**
+     * Compares the entries of the {@code ComplexSparseMatrix} with the ones of {@code Object a}.
+     * @param a any {@code Object}
+     * @return  {@code true} if {@code a} is a {@code ComplexSparseMatrix} of the same format and size with the same
+     *          stored entries
+     */
+    @Override
+    public boolean equals(Object a) {
+        if(this == a) return true;
+        if(!(a instanceof ComplexSparseMatrix b) || b.format != format || b.rows != rows || b.columns != columns) return false;
+        return Arrays.equals(pointers, b.pointers) && Arrays.equals(indices, b.indices)
+                && Arrays.equals(real, b.real) && Arrays.equals(imaginary, b.imaginary);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = 31 * (31 * format.hashCode() + rows) + columns;
+        h = 31 * (31 * h + Arrays.hashCode(indices)) + Arrays.hashCode(real);
+        return 31 * h + Arrays.hashCode(imaginary);
+    }
+
+    //Matrix Operations:
+    /**
+     * Calculates the product of the matrix {@code a} and the vector {@code x} and stores it in {@code dst}.
+     * @param a     an <i>m</i> x <i>n</i> matrix
+     * @param x     a vector of length <i>n</i>
+     * @param dst   the destination, a vector of length <i>m</i> other than {@code x}
+     * @return      {@code dst}, holding {@code a} * {@code x}
+     * @throws NullPointerException     if {@code a}, {@code x} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the lengths of the vectors don't match {@code a} or {@code dst} is {@code x}
+     */
+    @Contract("_, _, _ -> param3")
+    public static ComplexArray prod(ComplexSparseMatrix a, ComplexArray x, ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+        return prod(a, x, dst, false);
+    }
+
+    /**
+     * Calculates the product of the matrix {@code a} and the vector {@code x}.
+     * @param a an <i>m</i> x <i>n</i> matrix
+     * @param x a vector of length <i>n</i>
+     * @return  a new {@code ComplexArray} of length <i>m</i>, holding {@code a} * {@code x}
+     * @throws NullPointerException     if either {@code a} or {@code x} is equal to {@code null}
+     * @throws IllegalArgumentException if the length of {@code x} differs from the number of columns of {@code a}
+     */
+    public static @NotNull ComplexArray prod(ComplexSparseMatrix a, ComplexArray x) throws NullPointerException, IllegalArgumentException {
+        if(a == null || x == null) throw new NullPointerException();
+        return prod(a, x, new ComplexArray(a.rows));
+    }
+
+    //Parallel Operations:
+    /**
+     * Returns a view of this matrix whose operations run in parallel on the common {@code ForkJoinPool}.
+     * Matrices which are too small to profit from more threads are still processed on the calling thread.
+     * The results are the same as the ones of the sequential operations.
+     * @return  a {@link Parallel} view of this matrix
+     */
+    public Parallel parallel() {
+        return new Parallel();
+    }
+
+    /**
+     * {@code Parallel} is a view of a {@link ComplexSparseMatrix} which runs the operations with the matrix as the
+     * first operand in parallel, see {@link ComplexSparseMatrix#parallel()}. The rows of the result are split
+     * into chunks.
+     */
+    public final class Parallel {
+
+        private Parallel() {}
+
+        /**
+         * @param x     a vector of length <i>n</i>
+         * @param dst   the destination, a vector of length <i>m</i> other than {@code x}
+         * @return      {@code dst}, holding {@code this} * {@code x}
+         * @throws NullPointerException     if either {@code x} or {@code dst} is equal to {@code null}
+         * @throws IllegalArgumentException if the lengths of the vectors don't match the matrix or {@code dst} is {@code x}
+         * @see ComplexSparseMatrix#prod(ComplexSparseMatrix, ComplexArray, ComplexArray)
+         */
+        @Contract("_, _ -> param2")
+        public ComplexArray prod(ComplexArray x, ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+            return ComplexSparseMatrix.prod(ComplexSparseMatrix.this, x, dst, true);
+        }
+    }
+
+    /**
+     * {@code Builder} collects the entries of a {@link ComplexSparseMatrix} in any order and compresses them
+     * into either format. Entries at the same position are added up in the order they were added.
+     * The entries are kept in growing primitive arrays, so adding one doesn't allocate anything most of the time.
+     * A {@code Builder} can build any number of matrices and keeps its entries until {@link #clear()} is called.
+     * It isn't thread-safe.
+     */
+    public static final class Builder {
+
+        private final int rows, columns;
+        private int size;
+        private int[] rowIndices, columnIndices;
+        private double[] real, imaginary;
+
+        /**
+         * Constructs a new {@code Builder} for a matrix of the given size.
+         * @param rows      the number of rows
+         * @param columns   the number of columns
+         * @throws IllegalArgumentException if {@code rows} or {@code columns} is negative
+         */
+        public Builder(int rows, int columns) throws IllegalArgumentException {
+            this(rows, columns, 16);
+        }
+
+        /**
+         * Constructs a new {@code Builder} for a matrix of the given size with room for {@code capacity} entries.
+         * @param rows      the number of rows
+         * @param columns   the number of columns
+         * @param capacity  the expected number of entries
+         * @throws IllegalArgumentException if {@code rows}, {@code columns} or {@code capacity} is negative
+         */
+        public Builder(int rows, int columns, int capacity) throws IllegalArgumentException {
+            if(rows < 0 || columns < 0 || capacity < 0) throw new IllegalArgumentException("negative size");
+            this.rows = rows;
+            this.columns = columns;
+            rowIndices = new int[capacity];
+            columnIndices = new int[capacity];
+            real = new double[capacity];
+            imaginary = new double[capacity];
+        }
+
+        /**
+         * Adds the value <i>re + im*i</i> to the element in row {@code i} and column {@code j}.
+         * @param i     the row of the element
+         * @param j     the column of the element
+         * @param re    the real part, Re(z), of the value
+         * @param im    the imaginary part, Im(z), of the value
+         * @return      this {@code Builder}
+         * @throws IndexOutOfBoundsException if {@code i} or {@code j} is out of bounds
+         */
+        @Contract("_, _, _, _ -> this")
+        public Builder add(int i, int j, double re, double im) {
+            Objects.checkIndex(i, rows);
+            Objects.checkIndex(j, columns);
+            if(size == real.length) grow();
+            rowIndices[size] = i;
+            columnIndices[size] = j;
+            real[size] = re;
+            imaginary[size] = im;
+            size++;
+            return this;
+        }
+
+        /**
+         * @return  the number of entries added since the last {@link #clear()}
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Removes all entries, but keeps the memory for them.
+         */
+        public void clear() {
+            size = 0;
+        }
+
+        /**
+         * Compresses the entries into a new matrix. The entries are distributed in linear time; only rows
+         * (or columns) whose entries weren't added in ascending order have to be sorted.
+         * @param format    the format of the matrix
+         * @return          a new {@code ComplexSparseMatrix} with the sum of the entries at every position
+         * @throws NullPointerException if {@code format} is equal to {@code null}
+         */
+        public @NotNull ComplexSparseMatrix build(Format format) throws NullPointerException {
+            if(format == null) throw new NullPointerException();
+            int[] outerIndices = format == Format.CSR ? rowIndices : columnIndices;
+            int[] innerIndices = format == Format.CSR ? columnIndices : rowIndices;
+            int outer = format == Format.CSR ? rows : columns;
+            //Counting sort by row (or column), which keeps the order of addition within each one:
+            int[] p = new int[outer + 1], idx = new int[size];
+            double[] re = new double[size], im = new double[size];
+            for(int q = 0; q < size; q++) p[outerIndices[q] + 1]++;
+            for(int k = 0; k < outer; k++) p[k + 1] += p[k];
+            int[] next = Arrays.copyOf(p, outer);
+            for(int q = 0; q < size; q++) {
+                int t = next[outerIndices[q]]++;
+                idx[t] = innerIndices[q];
+                re[t] = real[q];
+                im[t] = imaginary[q];
+            }
+            long[] keys = null;
+            int[] sortedIdx = null;
+            double[] sortedRe = null, sortedIm = null;
+            int n = 0;
+            for(int k = 0; k < outer; k++) {
+                int start = p[k], end = p[k + 1];
+                p[k] = n;
+                boolean sorted = true;
+                for(int q = start + 1; q < end && sorted; q++) sorted = idx[q] > idx[q - 1];
+                int[] fromIdx = idx;
+                double[] fromRe = re, fromIm = im;
+                if(!sorted) {
+                    //Sorting the index together with the position keeps equal indices in the order of addition:
+                    if(keys == null) {
+                        keys = new long[size];
+                        sortedIdx = new int[size];
+                        sortedRe = new double[size];
+                        sortedIm = new double[size];
+                    }
+                    for(int q = start; q < end; q++) keys[q] = (long)idx[q] << 32 | q;
+                    Arrays.sort(keys, start, end);
+                    for(int q = start; q < end; q++) {
+                        int from = (int)keys[q];
+                        sortedIdx[q] = idx[from];
+                        sortedRe[q] = re[from];
+                        sortedIm[q] = im[from];
+                    }
+                    fromIdx = sortedIdx;
+                    fromRe = sortedRe;
+                    fromIm = sortedIm;
+                }
+                //Entries at the same position are merged, so the compressed ones never overtake the ones still to be read:
+                for(int q = start; q < end; q++) {
+                    if(n > p[k] && idx[n - 1] == fromIdx[q]) {
+                        re[n - 1] += fromRe[q];
+                        im[n - 1] += fromIm[q];
+                        continue;
+                    }
+                    idx[n] = fromIdx[q];
+                    re[n] = fromRe[q];
+                    im[n] = fromIm[q];
+                    n++;
+                }
+            }
+            p[outer] = n;
+            return new ComplexSparseMatrix(format, rows, columns, p, Arrays.copyOf(idx, n), Arrays.copyOf(re, n), Arrays.copyOf(im, n));
+        }
+
+        private void grow() {
+            int capacity = Math.max(16, real.length + (real.length >> 1));
+            rowIndices = Arrays.copyOf(rowIndices, capacity);
+            columnIndices = Arrays.copyOf(columnIndices, capacity);
+            real = Arrays.copyOf(real, capacity);
+            imaginary = Arrays.copyOf(imaginary, capacity);
+        }
+    }
+
+    //Helper functions:
+    private static ComplexArray prod(ComplexSparseMatrix a, ComplexArray x, ComplexArray dst, boolean parallel) {
+        if(a == null || x == null || dst == null) throw new NullPointerException();
+        if(x.length() != a.columns || dst.length() != a.rows) throw new IllegalArgumentException("vector length doesn't match the matrix");
+        if(dst == x) throw new IllegalArgumentException("the destination must not be the vector");
+        double[] xRe = x.real(), xIm = x.imaginary(), dRe = dst.real(), dIm = dst.imaginary();
+        double nanos = ParallelKernels.Cost.MATRIX.nanos * Math.max(1.0, (double)a.nonZeros() / Math.max(1, a.rows));
+        if(a.format == Format.CSR) {
+            ParallelKernels.RangeAction action = (from, to) -> ComplexKernels.spmvRows(a.pointers, a.indices, a.real, a.imaginary, xRe, xIm, dRe, dIm, from, to);
+            if(parallel) ParallelKernels.forEach(a.rows, nanos, action);
+            else action.apply(0, a.rows);
+        }
+        else {
+            //Every range of rows searches its start in all columns, so there is one range per thread:
+            ParallelKernels.RangeAction action = (from, to) -> ComplexKernels.spmvColumns(a.pointers, a.indices, a.real, a.imaginary, xRe, xIm, dRe, dIm, from, to);
+            if(parallel) ParallelKernels.split(a.rows, nanos, action);
+            else action.apply(0, a.rows);
+        }
+        return dst;
+    }
+}
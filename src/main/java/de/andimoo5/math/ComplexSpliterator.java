@@ -0,0 +1,54 @@
+package de.andimoo5.math;
+
+import java.util.Spliterator;
+
+/**
+ * {@code ComplexSpliterator} is a {@link Spliterator} over complex numbers which hands out every element as a pair
+ * of {@code doubles}, <i>Re(z)</i> and <i>Im(z)</i>, instead of a {@code ComplexNumber} object. It is the source of
+ * a {@link ComplexStream}: parallel streams split it with {@link #trySplit()} and let every part run on its own thread.<br>
+ * <br> The spliterators of {@link ComplexArray#stream()} and {@link InterleavedComplexArray#stream()} are
+ * {@link Spliterator#SIZED sized} and split their range of indexes in halves. Like the spliterators of Java arrays
+ * they don't detect changes of the array while it is traversed.
+ *
+ * @author  Andras Martin Moosbauer
+ * @version 2.0
+ * @see ComplexStream#of(ComplexSpliterator, boolean)
+ */
+public interface ComplexSpliterator {
+
+    /**
+     * Passes the next element to {@code action}, if there is one.
+     * @param action    the action to perform
+     * @return          {@code false} if there were no elements left
+     * @throws NullPointerException if {@code action} is equal to {@code null}
+     */
+    boolean tryAdvance(ComplexStream.ComplexConsumer action) throws NullPointerException;
+
+    /**
+     * Passes all remaining elements to {@code action}, in the order of the elements.
+     * @param action    the action to perform
+     * @throws NullPointerException if {@code action} is equal to {@code null}
+     */
+    default void forEachRemaining(ComplexStream.ComplexConsumer action) throws NullPointerException {
+        if(action == null) throw new NullPointerException();
+        while(tryAdvance(action));
+    }
+
+    /**
+     * Splits off a prefix of the remaining elements, see {@link Spliterator#trySplit()}.
+     * @return  a {@code ComplexSpliterator} over the prefix, or {@code null} if this one can't be split
+     */
+    ComplexSpliterator trySplit();
+
+    /**
+     * @return  the number of remaining elements, or {@code Long.MAX_VALUE} if it is unknown
+     * @see Spliterator#estimateSize()
+     */
+    long estimateSize();
+
+    /**
+     * @return  the characteristics of this spliterator, a combination of the constants of {@link Spliterator}
+     * @see Spliterator#characteristics()
+     */
+    int characteristics();
+}
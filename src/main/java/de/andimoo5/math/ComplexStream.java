@@ -0,0 +1,739 @@
+package de.andimoo5.math;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.Supplier;
+import java.util.stream.DoubleStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@code ComplexStream} is a sequence of complex numbers supporting sequential and parallel aggregate operations,
+ * like a {@code Stream<ComplexNumber>}. Unlike the latter it passes every element along as a pair of {@code doubles},
+ * <i>Re(z)</i> and <i>Im(z)</i>, so a pipeline of {@link #map(ComplexUnaryOperator) map} and
+ * {@link #filter(ComplexPredicate) filter} steps doesn't create any object per element.<br>
+ * <br> The functions of the pipeline take the parts as {@code doubles}. Functions returning a complex number write it into
+ * an array of length 2 and return that array, just like the primitive functions of {@link ComplexNumber} and
+ * {@link Accuracy}, so {@code stream.map(ComplexNumber::exp)} computes <i>exp(z)</i> of every element.<br>
+ * <br> Streams are created by {@link ComplexArray#stream()} and {@link InterleavedComplexArray#stream()}, from a
+ * {@code Stream<ComplexNumber>} or from two {@code DoubleStreams} with {@link #of(Stream) of}, or from any
+ * {@link ComplexSpliterator}. {@link #boxed()} and {@link #mapToDouble(ComplexToDoubleFunction) mapToDouble} lead back
+ * to the streams of Java.<br>
+ * <br> Like a Java stream, a {@code ComplexStream} is lazy and can be used only once: intermediate operations only
+ * build up the pipeline, which runs when a terminal operation is invoked.<br>
+ * <br> The terminal operations split the source into parts of a few thousand elements, whether the stream is parallel
+ * or not, and combine the results of the parts in the order of the elements. As long as the source always splits the
+ * same way, like the spliterators of the arrays do, {@link #reduce(double, double, ComplexBinaryOperator) reduce} and
+ * {@link #collect(Supplier, ObjComplexConsumer, BiConsumer) collect} give the same result, bit by bit, for sequential
+ * and parallel streams and for any number of threads.
+ *
+ * @author  Andras Martin Moosbauer
+ * @version 2.0
+ * @see ComplexSpliterator
+ * @see ComplexCollectors
+ */
+public final class ComplexStream {
+
+    //Functional interfaces (the primitive counterparts of the ones in java.util.function):
+    /**
+     * An operation taking a complex number, like {@link java.util.function.Consumer}.
+     */
+    @FunctionalInterface
+    public interface ComplexConsumer {
+        void accept(double re, double im);
+    }
+
+    /**
+     * A function from a complex number to a complex number, which it writes into {@code out},
+     * like {@link ComplexNumber#exp(double, double, double[])}.
+     */
+    @FunctionalInterface
+    public interface ComplexUnaryOperator {
+        double[] apply(double re, double im, double[] out);
+    }
+
+    /**
+     * A function from two complex numbers to a complex number, which it writes into {@code out}. The arguments are
+     * passed by value, so {@code out} may be the array they were read from.
+     */
+    @FunctionalInterface
+    public interface ComplexBinaryOperator {
+        double[] apply(double re1, double im1, double re2, double im2, double[] out);
+    }
+
+    /**
+     * A condition on a complex number, like {@link java.util.function.Predicate}.
+     */
+    @FunctionalInterface
+    public interface ComplexPredicate {
+        boolean test(double re, double im);
+    }
+
+    /**
+     * A function from a complex number to a {@code double}, like {@link java.util.function.ToDoubleFunction}.
+     */
+    @FunctionalInterface
+    public interface ComplexToDoubleFunction {
+        double applyAsDouble(double re, double im);
+    }
+
+    /**
+     * An operation taking an object and a complex number, like {@link java.util.function.ObjDoubleConsumer}.
+     */
+    @FunctionalInterface
+    public interface ObjComplexConsumer<R> {
+        void accept(R r, double re, double im);
+    }
+
+    /**
+     * A function passing any number of complex numbers for each complex number to {@code downstream},
+     * like {@link DoubleStream.DoubleMapMultiFunction}.
+     */
+    @FunctionalInterface
+    public interface ComplexMapMultiFunction {
+        void accept(double re, double im, ComplexConsumer downstream);
+    }
+
+    //The terminal operations don't split parts of up to this many elements any further. The cost of the functions of
+    //the pipeline is unknown, so this assumes some ten nanoseconds per element (see ParallelKernels.TASK_NANOS):
+    private static final int GRAIN = 1 << 13;
+
+    //Characteristics which a pipeline step may break, as it changes the values:
+    private static final int VALUE_CHARACTERISTICS = Spliterator.DISTINCT | Spliterator.SORTED | Spliterator.NONNULL;
+
+    //A step of the pipeline, it turns the consumer of its output into the consumer of its input:
+    @FunctionalInterface
+    private interface Stage {
+        ComplexConsumer wrap(ComplexConsumer downstream);
+    }
+
+    private final ComplexSpliterator source;
+    //The composition of all steps, null if there are none:
+    private final Stage stage;
+    //false if a step may change the number of elements:
+    private final boolean sized;
+    private boolean parallel, used;
+
+    private ComplexStream(ComplexSpliterator source, Stage stage, boolean sized, boolean parallel) {
+        this.source = source;
+        this.stage = stage;
+        this.sized = sized;
+        this.parallel = parallel;
+    }
+
+    //Creating streams:
+    /**
+     * Creates a new {@code ComplexStream} from a {@link ComplexSpliterator}, like {@link StreamSupport#stream}.
+     * @param spliterator   the source of the elements
+     * @param parallel      {@code true} to create a parallel stream
+     * @return              a new {@code ComplexStream}
+     * @throws NullPointerException if {@code spliterator} is equal to {@code null}
+     */
+    @Contract("_, _ -> new")
+    public static @NotNull ComplexStream of(ComplexSpliterator spliterator, boolean parallel) throws NullPointerException {
+        if(spliterator == null) throw new NullPointerException();
+        return new ComplexStream(spliterator, null, true, parallel);
+    }
+
+    /**
+     * Creates a new {@code ComplexStream} holding the values of the elements of {@code stream}, which gets consumed.
+     * The new stream is parallel if {@code stream} is.
+     * @param stream    a stream of complex numbers, none of which may be {@code null}
+     * @return          a new {@code ComplexStream}
+     * @throws NullPointerException if {@code stream} is equal to {@code null}
+     */
+    @Contract("_ -> new")
+    public static @NotNull ComplexStream of(Stream<ComplexNumber> stream) throws NullPointerException {
+        if(stream == null) throw new NullPointerException();
+        return new ComplexStream(new Unboxing(stream.spliterator()), null, true, stream.isParallel());
+    }
+
+    /**
+     * Creates a new sequential {@code ComplexStream} whose elements have their real parts from {@code real} and their
+     * imaginary parts from {@code imaginary}; both streams get consumed. The new stream ends with the shorter one of them.
+     * Two independent streams can't be split at the same element, so the new stream always runs on a single thread.
+     * @param real      the real parts, Re(z)
+     * @param imaginary the imaginary parts, Im(z)
+     * @return          a new {@code ComplexStream}
+     * @throws NullPointerException if either {@code real} or {@code imaginary} is equal to {@code null}
+     */
+    @Contract("_, _ -> new")
+    public static @NotNull ComplexStream of(DoubleStream real, DoubleStream imaginary) throws NullPointerException {
+        if(real == null || imaginary == null) throw new NullPointerException();
+        return new ComplexStream(new Zip(real.spliterator(), imaginary.spliterator()), null, true, false);
+    }
+
+    //A sequential stream of the elements [0, length), Re(z) of element i at re[reOffset + i * stride], Im(z) at im[imOffset + i * stride]:
+    static ComplexStream array(double[] re, int reOffset, double[] im, int imOffset, int stride, int length) {
+        return new ComplexStream(new ArraySpliterator(re, reOffset, im, imOffset, stride, 0, length), null, true, false);
+    }
+
+    //Basic functions (to set/get data from objects of this class):
+    /**
+     * @return  {@code true} if the terminal operation of this stream will run in parallel
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Makes the terminal operation of this stream run in parallel on the common {@code ForkJoinPool}.
+     * @return  this stream
+     */
+    @Contract(" -> this")
+    public ComplexStream parallel() {
+        parallel = true;
+        return this;
+    }
+
+    /**
+     * Makes the terminal operation of this stream run on the calling thread.
+     * @return  this stream
+     */
+    @Contract(" -> this")
+    public ComplexStream sequential() {
+        parallel = false;
+        return this;
+    }
+
+    //Intermediate operations:
+    /**
+     * Returns a stream of the results of {@code f} for the elements of this stream.
+     * Exceptions of {@code f}, like the {@code ArithmeticException} of {@link ComplexNumber#tan(double, double, double[])}
+     * at a pole, are passed on to the caller of the terminal operation.
+     * @param f the function to apply, it gets a new array for its results on every thread
+     * @return  a new {@code ComplexStream}
+     * @throws NullPointerException     if {@code f} is equal to {@code null}
+     * @throws IllegalStateException    if this stream has already been used
+     */
+    @Contract("_ -> new")
+    public @NotNull ComplexStream map(ComplexUnaryOperator f) throws NullPointerException, IllegalStateException {
+        if(f == null) throw new NullPointerException();
+        return then(downstream -> {
+            double[] out = new double[2];
+            return (re, im) -> {
+                double[] z = f.apply(re, im, out);
+                downstream.accept(z[0], z[1]);
+            };
+        }, true);
+    }
+
+    /**
+     * Returns a stream of the elements of this stream which fulfill {@code condition}.
+     * @param condition the condition to test
+     * @return          a new {@code ComplexStream}
+     * @throws NullPointerException     if {@code condition} is equal to {@code null}
+     * @throws IllegalStateException    if this stream has already been used
+     */
+    @Contract("_ -> new")
+    public @NotNull ComplexStream filter(ComplexPredicate condition) throws NullPointerException, IllegalStateException {
+        if(condition == null) throw new NullPointerException();
+        return then(downstream -> (re, im) -> {
+            if(condition.test(re, im)) downstream.accept(re, im);
+        }, false);
+    }
+
+    /**
+     * Returns a stream of all elements that {@code f} passes to its consumer for the elements of this stream,
+     * like {@link Stream#mapMulti}.
+     * @param f the function to apply
+     * @return  a new {@code ComplexStream}
+     * @throws NullPointerException     if {@code f} is equal to {@code null}
+     * @throws IllegalStateException    if this stream has already been used
+     */
+    @Contract("_ -> new")
+    public @NotNull ComplexStream mapMulti(ComplexMapMultiFunction f) throws NullPointerException, IllegalStateException {
+        if(f == null) throw new NullPointerException();
+        return then(downstream -> (re, im) -> f.accept(re, im, downstream), false);
+    }
+
+    //Terminal operations:
+    /**
+     * Passes every element to {@code action}. In a parallel stream {@code action} is called from several threads
+     * at once and in no particular order.
+     * @param action    the action to perform
+     * @throws NullPointerException     if {@code action} is equal to {@code null}
+     * @throws IllegalStateException    if this stream has already been used
+     */
+    public void forEach(ComplexConsumer action) throws NullPointerException, IllegalStateException {
+        if(action == null) throw new NullPointerException();
+        evaluate(() -> action, ComplexConsumer::accept, (a, b) -> a);
+    }
+
+    /**
+     * Reduces the elements with {@code f}, like {@link Stream#reduce(Object, BinaryOperator)}. Every part of the
+     * source starts from the identity, and the results of the parts are combined with {@code f} in the order of the
+     * elements. Hence {@code f} has to be associative and {@code re + im*i} its identity for a meaningful result,
+     * but the result is reproducible even for operations that are associative only up to rounding, like addition.
+     * @param re    the real part of the identity
+     * @param im    the imaginary part of the identity
+     * @param f     the operation combining two values
+     * @return      a new {@code ComplexNumber} holding the result, the identity if the stream is empty
+     * @throws NullPointerException     if {@code f} is equal to {@code null}
+     * @throws IllegalStateException    if this stream has already been used
+     */
+    @Contract("_, _, _ -> new")
+    public @NotNull ComplexNumber reduce(double re, double im, ComplexBinaryOperator f) throws NullPointerException, IllegalStateException {
+        if(f == null) throw new NullPointerException();
+        double[] z = evaluate(() -> new double[] {re, im}, (a, x, y) -> {
+            double[] r = f.apply(a[0], a[1], x, y, a);
+            a[0] = r[0];
+            a[1] = r[1];
+        }, (a, b) -> {
+            double[] r = f.apply(a[0], a[1], b[0], b[1], a);
+            a[0] = r[0];
+            a[1] = r[1];
+            return a;
+        });
+        return new ComplexNumber(z[0], z[1]);
+    }
+
+    /**
+     * Collects the elements into mutable containers, like {@link DoubleStream#collect}. Every part of the source gets
+     * its own container from {@code supplier}, and {@code combiner} merges them in the order of the elements.
+     * @param supplier      creates a new, empty container
+     * @param accumulator   adds an element to a container
+     * @param combiner      adds all elements of its 2nd argument to its 1st argument
+     * @param <R>           the type of the containers
+     * @return              the container holding all elements
+     * @throws NullPointerException     if any argument is equal to {@code null}
+     * @throws IllegalStateException    if this stream has already been used
+     */
+    public <R> R collect(Supplier<R> supplier, ObjComplexConsumer<R> accumulator, BiConsumer<R, R> combiner) throws NullPointerException, IllegalStateException {
+        if(supplier == null || accumulator == null || combiner == null) throw new NullPointerException();
+        return evaluate(supplier, accumulator, (a, b) -> {
+            combiner.accept(a, b);
+            return a;
+        });
+    }
+
+    /**
+     * Calculates the sum of the elements without any rounding error and rounds only the final result (see
+     * {@link ComplexCollectors#sum()}), so it is independent of how the stream gets split.
+     * @return  a new {@code ComplexNumber} holding the sum, 0 if the stream is empty
+     * @throws IllegalStateException    if this stream has already been used
+     */
+    @Contract(" -> new")
+    public @NotNull ComplexNumber sum() throws IllegalStateException {
+        ExactSum[] s = evaluate(() -> new ExactSum[] {new ExactSum(), new ExactSum()}, (a, re, im) -> {
+            a[0].add(re);
+            a[1].add(im);
+        }, (a, b) -> {
+            a[0].add(b[0]);
+            a[1].add(b[1]);
+            return a;
+        });
+        return new ComplexNumber(s[0].value(), s[1].value());
+    }
+
+    /**
+     * @return  the number of elements
+     * @throws IllegalStateException    if this stream has already been used
+     */
+    public long count() throws IllegalStateException {
+        return evaluate(() -> new long[1], (a, re, im) -> a[0]++, (a, b) -> {
+            a[0] += b[0];
+            return a;
+        })[0];
+    }
+
+    /**
+     * @return  a new {@code ComplexArray} holding the elements in their order
+     * @throws IllegalStateException    if this stream has already been used
+     */
+    @Contract(" -> new")
+    public @NotNull ComplexArray toArray() throws IllegalStateException {
+        Buffer b = evaluate(Buffer::new, Buffer::add, Buffer::add);
+        return new ComplexArray(Arrays.copyOf(b.re, b.size), Arrays.copyOf(b.im, b.size));
+    }
+
+    /**
+     * Returns a {@code Stream} with a new {@code ComplexNumber} for every element. It is parallel if this stream is.
+     * @return  a new {@code Stream<ComplexNumber>}
+     * @throws IllegalStateException    if this stream has already been used
+     */
+    public @NotNull Stream<ComplexNumber> boxed() throws IllegalStateException {
+        return StreamSupport.stream(new Boxing(spliterator()), parallel);
+    }
+
+    /**
+     * Returns a {@code DoubleStream} of the results of {@code f} for the elements, e.g. {@code mapToDouble((re, im) -> re)}
+     * for the real parts. It is parallel if this stream is.
+     * @param f the function to apply
+     * @return  a new {@code DoubleStream}
+     * @throws NullPointerException     if {@code f} is equal to {@code null}
+     * @throws IllegalStateException    if this stream has already been used
+     */
+    public @NotNull DoubleStream mapToDouble(ComplexToDoubleFunction f) throws NullPointerException, IllegalStateException {
+        if(f == null) throw new NullPointerException();
+        return StreamSupport.doubleStream(new ToDouble(spliterator(), f), parallel);
+    }
+
+    /**
+     * Returns a {@code ComplexSpliterator} over the elements of this stream, which runs the steps of the pipeline
+     * on the elements of the source as they are requested.
+     * @return  a {@code ComplexSpliterator}
+     * @throws IllegalStateException    if this stream has already been used
+     */
+    public @NotNull ComplexSpliterator spliterator() throws IllegalStateException {
+        use();
+        return stage == null ? source : new Wrapping(source, stage, sized);
+    }
+
+    //Helper functions:
+    private void use() {
+        if(used) throw new IllegalStateException("stream has already been operated upon");
+        used = true;
+    }
+
+    private ComplexStream then(Stage next, boolean sizePreserving) {
+        use();
+        Stage previous = stage;
+        Stage composed = previous == null ? next : downstream -> previous.wrap(next.wrap(downstream));
+        return new ComplexStream(source, composed, sized && sizePreserving, parallel);
+    }
+
+    private <R> R evaluate(Supplier<R> supplier, ObjComplexConsumer<R> accumulator, BinaryOperator<R> combiner) {
+        use();
+        Evaluation<R> evaluation = new Evaluation<>(source, stage, supplier, accumulator, combiner);
+        if(parallel && ForkJoinPool.getCommonPoolParallelism() > 1) return ForkJoinPool.commonPool().invoke(evaluation);
+        return evaluation.run(false);
+    }
+
+    //Splits the source in halves until the parts have at most GRAIN elements and combines the results of the parts
+    //in their order, forking the prefixes to the pool if it runs in parallel:
+    private static final class Evaluation<R> extends RecursiveTask<R> {
+
+        private final ComplexSpliterator spliterator;
+        private final Stage stage;
+        private final Supplier<R> supplier;
+        private final ObjComplexConsumer<R> accumulator;
+        private final BinaryOperator<R> combiner;
+
+        Evaluation(ComplexSpliterator spliterator, Stage stage, Supplier<R> supplier, ObjComplexConsumer<R> accumulator, BinaryOperator<R> combiner) {
+            this.spliterator = spliterator;
+            this.stage = stage;
+            this.supplier = supplier;
+            this.accumulator = accumulator;
+            this.combiner = combiner;
+        }
+
+        @Override
+        protected R compute() {
+            return run(true);
+        }
+
+        R run(boolean fork) {
+            ComplexSpliterator prefix;
+            if(spliterator.estimateSize() <= GRAIN || (prefix = spliterator.trySplit()) == null) {
+                R r = supplier.get();
+                ComplexConsumer sink = (re, im) -> accumulator.accept(r, re, im);
+                spliterator.forEachRemaining(stage == null ? sink : stage.wrap(sink));
+                return r;
+            }
+            Evaluation<R> left = new Evaluation<>(prefix, stage, supplier, accumulator, combiner);
+            Evaluation<R> right = new Evaluation<>(spliterator, stage, supplier, accumulator, combiner);
+            if(fork) {
+                left.fork();
+                R r = right.run(true);
+                return combiner.apply(left.join(), r);
+            }
+            R l = left.run(false);
+            return combiner.apply(l, right.run(false));
+        }
+    }
+
+    //A growing list of complex numbers:
+    private static final class Buffer {
+
+        private double[] re = new double[16], im = new double[16];
+        private int size;
+
+        void add(double x, double y) {
+            if(size == re.length) {
+                re = Arrays.copyOf(re, 2 * size);
+                im = Arrays.copyOf(im, 2 * size);
+            }
+            re[size] = x;
+            im[size++] = y;
+        }
+
+        Buffer add(Buffer b) {
+            for(int i = 0; i < b.size; i++) add(b.re[i], b.im[i]);
+            return this;
+        }
+    }
+
+    //Spliterators:
+    //The elements [from, to) of one or two arrays, Re(z) of element i at re[reOffset + i * stride], Im(z) at im[imOffset + i * stride]:
+    private static final class ArraySpliterator implements ComplexSpliterator {
+
+        private final double[] re, im;
+        private final int reOffset, imOffset, stride, to;
+        private int from;
+
+        ArraySpliterator(double[] re, int reOffset, double[] im, int imOffset, int stride, int from, int to) {
+            this.re = re;
+            this.reOffset = reOffset;
+            this.im = im;
+            this.imOffset = imOffset;
+            this.stride = stride;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean tryAdvance(ComplexConsumer action) {
+            if(action == null) throw new NullPointerException();
+            if(from >= to) return false;
+            int i = from++;
+            action.accept(re[reOffset + i * stride], im[imOffset + i * stride]);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(ComplexConsumer action) {
+            if(action == null) throw new NullPointerException();
+            int i = from;
+            from = to;
+            for(; i < to; i++) action.accept(re[reOffset + i * stride], im[imOffset + i * stride]);
+        }
+
+        @Override
+        public ComplexSpliterator trySplit() {
+            int mid = (from + to) >>> 1;
+            if(mid <= from) return null;
+            ComplexSpliterator prefix = new ArraySpliterator(re, reOffset, im, imOffset, stride, from, mid);
+            from = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - from;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.IMMUTABLE;
+        }
+    }
+
+    //The elements of a source passed through the steps of a pipeline. The outputs of a step for one element of the
+    //source are buffered until they are requested:
+    private static final class Wrapping implements ComplexSpliterator {
+
+        private final ComplexSpliterator source;
+        private final Stage stage;
+        private final boolean sized;
+        private final Buffer buffer = new Buffer();
+        private ComplexConsumer sink;
+        private int next;
+
+        Wrapping(ComplexSpliterator source, Stage stage, boolean sized) {
+            this.source = source;
+            this.stage = stage;
+            this.sized = sized;
+        }
+
+        @Override
+        public boolean tryAdvance(ComplexConsumer action) {
+            if(action == null) throw new NullPointerException();
+            while(next == buffer.size) {
+                buffer.size = next = 0;
+                if(sink == null) sink = stage.wrap(buffer::add);
+                if(!source.tryAdvance(sink)) return false;
+            }
+            action.accept(buffer.re[next], buffer.im[next]);
+            next++;
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(ComplexConsumer action) {
+            if(action == null) throw new NullPointerException();
+            for(; next < buffer.size; next++) action.accept(buffer.re[next], buffer.im[next]);
+            source.forEachRemaining(stage.wrap(action));
+        }
+
+        @Override
+        public ComplexSpliterator trySplit() {
+            if(next < buffer.size) return null;
+            ComplexSpliterator prefix = source.trySplit();
+            return prefix == null ? null : new Wrapping(prefix, stage, sized);
+        }
+
+        @Override
+        public long estimateSize() {
+            long size = source.estimateSize();
+            return size == Long.MAX_VALUE ? size : size + buffer.size - next;
+        }
+
+        @Override
+        public int characteristics() {
+            int c = source.characteristics() & ~VALUE_CHARACTERISTICS;
+            return sized ? c : c & ~(Spliterator.SIZED | Spliterator.SUBSIZED);
+        }
+    }
+
+    //The values of the elements of a Spliterator<ComplexNumber>:
+    private static final class Unboxing implements ComplexSpliterator {
+
+        private final Spliterator<ComplexNumber> source;
+
+        Unboxing(Spliterator<ComplexNumber> source) {
+            this.source = source;
+        }
+
+        @Override
+        public boolean tryAdvance(ComplexConsumer action) {
+            if(action == null) throw new NullPointerException();
+            return source.tryAdvance(z -> action.accept(z.getRe(), z.getIm()));
+        }
+
+        @Override
+        public void forEachRemaining(ComplexConsumer action) {
+            if(action == null) throw new NullPointerException();
+            source.forEachRemaining(z -> action.accept(z.getRe(), z.getIm()));
+        }
+
+        @Override
+        public ComplexSpliterator trySplit() {
+            Spliterator<ComplexNumber> prefix = source.trySplit();
+            return prefix == null ? null : new Unboxing(prefix);
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics() & ~VALUE_CHARACTERISTICS;
+        }
+    }
+
+    //The pairs of the elements of two Spliterator.OfDouble, up to the end of the shorter one:
+    private static final class Zip implements ComplexSpliterator {
+
+        private final Spliterator.OfDouble real, imaginary;
+        private double re, im;
+        private final DoubleConsumer setRe = x -> re = x, setIm = y -> im = y;
+
+        Zip(Spliterator.OfDouble real, Spliterator.OfDouble imaginary) {
+            this.real = real;
+            this.imaginary = imaginary;
+        }
+
+        @Override
+        public boolean tryAdvance(ComplexConsumer action) {
+            if(action == null) throw new NullPointerException();
+            if(!real.tryAdvance(setRe) || !imaginary.tryAdvance(setIm)) return false;
+            action.accept(re, im);
+            return true;
+        }
+
+        @Override
+        public ComplexSpliterator trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Math.min(real.estimateSize(), imaginary.estimateSize());
+        }
+
+        @Override
+        public int characteristics() {
+            return real.characteristics() & imaginary.characteristics() & (Spliterator.ORDERED | Spliterator.SIZED);
+        }
+    }
+
+    //A new ComplexNumber for every element of a ComplexSpliterator:
+    private static final class Boxing implements Spliterator<ComplexNumber> {
+
+        private final ComplexSpliterator source;
+
+        Boxing(ComplexSpliterator source) {
+            this.source = source;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super ComplexNumber> action) {
+            if(action == null) throw new NullPointerException();
+            return source.tryAdvance((re, im) -> action.accept(new ComplexNumber(re, im)));
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super ComplexNumber> action) {
+            if(action == null) throw new NullPointerException();
+            source.forEachRemaining((re, im) -> action.accept(new ComplexNumber(re, im)));
+        }
+
+        @Override
+        public Spliterator<ComplexNumber> trySplit() {
+            ComplexSpliterator prefix = source.trySplit();
+            return prefix == null ? null : new Boxing(prefix);
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics() | Spliterator.NONNULL;
+        }
+    }
+
+    //The results of a function for the elements of a ComplexSpliterator:
+    private static final class ToDouble implements Spliterator.OfDouble {
+
+        private final ComplexSpliterator source;
+        private final ComplexToDoubleFunction f;
+
+        ToDouble(ComplexSpliterator source, ComplexToDoubleFunction f) {
+            this.source = source;
+            this.f = f;
+        }
+
+        @Override
+        public boolean tryAdvance(DoubleConsumer action) {
+            if(action == null) throw new NullPointerException();
+            return source.tryAdvance((re, im) -> action.accept(f.applyAsDouble(re, im)));
+        }
+
+        @Override
+        public void forEachRemaining(DoubleConsumer action) {
+            if(action == null) throw new NullPointerException();
+            source.forEachRemaining((re, im) -> action.accept(f.applyAsDouble(re, im)));
+        }
+
+        @Override
+        public Spliterator.OfDouble trySplit() {
+            ComplexSpliterator prefix = source.trySplit();
+            return prefix == null ? null : new ToDouble(prefix, f);
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics() & ~VALUE_CHARACTERISTICS;
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package de.andimoo5.math;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * {@code ComplexValue} is an immutable complex number. Unlike {@link ComplexNumber} it can't be changed after its
+ * creation, so it is safe to share, to use as a key of a hash map or to cache. Every operation returns a new
+ * {@code ComplexValue}, which allows fluent expressions like {@code a.mul(b).add(c).exp()}.<br>
+ * <br> As it has no identity worth keeping, the JIT compiler can keep short-lived instances in registers
+ * (scalar replacement) instead of allocating them on the heap, and the record is a candidate for a value
+ * class once those are available in Java.<br>
+ * <br> The operations mirror the ones of {@code ComplexNumber} and give the same results. Following the rules of
+ * records, {@link #equals(Object) equals} compares the bit patterns of the parts, so {@code NaN} is equal to itself
+ * and {@code 0.0} differs from {@code -0.0}.
+ *
+ * @param re    the real part, Re(z), of the complex number
+ * @param im    the imaginary part, Im(z), of the complex number
+ * @author  Andras Martin Moosbauer
+ * @version 2.0
+ */
+public record ComplexValue(double re, double im) implements Comparable<ComplexValue> {
+
+    /**
+     * The complex number <i>0</i>.
+     */
+    public static final ComplexValue ZERO = new ComplexValue(0, 0);
+
+    /**
+     * The complex number <i>1</i>.
+     */
+    public static final ComplexValue ONE = new ComplexValue(1, 0);
+
+    /**
+     * The imaginary unit <i>i</i>.
+     */
+    public static final ComplexValue I = new ComplexValue(0, 1);
+
+    //Conversions between "ComplexValue" and "ComplexNumber":
+    /**
+     * Returns the value of {@code z} as a {@code ComplexValue}.
+     * @param z an instance of {@code ComplexNumber}
+     * @return  a {@code ComplexValue} with the same <i>Re(z)</i> and <i>Im(z)</i>
+     * @throws NullPointerException if {@code z} is equal to {@code null}
+     */
+    @Contract("null -> fail; !null -> new")
+    public static @NotNull ComplexValue of(ComplexNumber z) throws NullPointerException {
+        if(z == null) throw new NullPointerException();
+        return new ComplexValue(z.getRe(), z.getIm());
+    }
+
+    /**
+     * @return  a new, mutable {@code ComplexNumber} with the same value
+     */
+    @Contract(" -> new")
+    public @NotNull ComplexNumber toComplexNumber() {
+        return new ComplexNumber(re, im);
+    }
+
+    /**
+     * @return      a String representing the value in the same format as {@link ComplexNumber#toString()}
+     */
+    @Override
+    public String toString() {
+        return ComplexNumber.toString(re, im);
+    }
+
+    /**
+     * Compares the {@code ComplexValue} with {@code z} by their {@link #mod() modulus}, like
+     * {@link ComplexNumber#compareTo(ComplexNumber)}.
+     * @param z the {@code ComplexValue} to be compared to
+     * @return  <i>-1</i>, <i>0</i> or <i>1</i> if the modulus is smaller, equal or bigger than the one of {@code z}
+     * @throws NullPointerException if {@code z} is equal to {@code null}
+     */
+    @Override
+    public int compareTo(ComplexValue z) throws NullPointerException {
+        if(z == null) throw new NullPointerException();
+        double t = mod() - z.mod();
+        if(t == 0) return 0;
+        if(t < 0) return -1;
+        return 1;
+    }
+
+    //Methods for Arithmetic Operations:
+    /**
+     * @param z summand of the addition
+     * @return  the sum: {@code this} + {@code z}
+     * @throws NullPointerException if {@code z} is equal to {@code null}
+     */
+    public ComplexValue add(ComplexValue z) throws NullPointerException {
+        return new ComplexValue(re + z.re, im + z.im);
+    }
+
+    /**
+     * @param z subtrahend of the difference
+     * @return  the difference: {@code this} - {@code z}
+     * @throws NullPointerException if {@code z} is equal to {@code null}
+     */
+    public ComplexValue sub(ComplexValue z) throws NullPointerException {
+        return new ComplexValue(re - z.re, im - z.im);
+    }
+
+    /**
+     * @param z multiplier of the product
+     * @return  the product: {@code this} * {@code z}
+     * @throws NullPointerException if {@code z} is equal to {@code null}
+     */
+    public ComplexValue mul(ComplexValue z) throws NullPointerException {
+        return new ComplexValue(re * z.re - im * z.im, re * z.im + im * z.re);
+    }
+
+    /**
+     * @param z divisor of the division
+     * @return  the division: {@code this} / {@code z}
+     * @throws NullPointerException if {@code z} is equal to {@code null}
+     * @throws ArithmeticException  if {@code z} is equal to {@code 0}
+     */
+    public ComplexValue div(ComplexValue z) throws NullPointerException, ArithmeticException {
+        if(z.re == 0 && z.im == 0) throw new ArithmeticException("Can not divide by 0");
+        return new ComplexValue(ComplexNumber.quotientRe(re, im, z.re, z.im), ComplexNumber.quotientRe(im, -re, z.re, z.im));
+    }
+
+    //Complex Operations:
+    /**
+     * @return  the conjugate of this complex number
+     */
+    public ComplexValue conjugate() {
+        return new ComplexValue(re, -im);
+    }
+
+    /**
+     * @return  the {@code modulus (absolute value / magnitude)}
+     */
+    public double mod() {
+        return ComplexNumber.modulus(re, im);
+    }
+
+    /**
+     * @return  the {@code argument (angle)} in radians
+     */
+    public double arg() {
+        return Math.atan2(im, re);
+    }
+
+    /**
+     * @return  the {@code reciprocal (multiplicative inverse)}, or {@code 0} if this is equal to {@code 0}
+     */
+    public ComplexValue rcp() {
+        if(re == 0 && im == 0) return this;
+        return ONE.div(this);
+    }
+
+    //Exponential and Logarithmic Functions:
+    /**
+     * @return  the exponential, e^<i>z</i>
+     */
+    public ComplexValue exp() {
+        double r = Math.exp(re);
+        return new ComplexValue(r * Math.cos(im), r * Math.sin(im));
+    }
+
+    /**
+     * @return  the natural logarithm <i>(base e)</i>
+     */
+    public ComplexValue log() {
+        return new ComplexValue(ComplexNumber.logModulus(re, im), arg());
+    }
+
+    /**
+     * @param b the base of the logarithm, as a {@code double}
+     * @return  the logarithm with the base {@code b}
+     * @throws ArithmeticException  if the base {@code b} of the logarithm is &lt;= 0 or equal to 1
+     */
+    public ComplexValue log(double b) throws ArithmeticException {
+        return value(ComplexNumber.log(re, im, b, new double[2]));
+    }
+
+    /**
+     * @return  the logarithm with the base 10
+     */
+    public ComplexValue log10() {
+        return log(10);
+    }
+
+    /**
+     * @param power the power, as a {@code long}
+     * @return      this complex number to the power of {@code power}
+     * @throws ArithmeticException  if this is equal to {@code 0} and {@code power} is negative
+     * @see ComplexNumber#pow(ComplexNumber, long)
+     */
+    public ComplexValue pow(long power) throws ArithmeticException {
+        if(power < 0 && re == 0 && im == 0) throw new ArithmeticException("Can not divide by 0");
+        return value(ComplexNumber.pow(re, im, power, new double[2]));
+    }
+
+    /**
+     * @param power the power, as a {@code double}
+     * @return      this complex number to the power of {@code power}
+     * @throws ArithmeticException  if this is equal to {@code 0} and {@code power} is negative
+     * @see ComplexNumber#pow(ComplexNumber, double)
+     */
+    public ComplexValue pow(double power) throws ArithmeticException {
+        if(power < 0 && re == 0 && im == 0) throw new ArithmeticException("Can not divide by 0");
+        return value(ComplexNumber.pow(re, im, power, new double[2]));
+    }
+
+    /**
+     * @param w the power
+     * @return  this complex number to the power of {@code w}
+     * @throws NullPointerException if {@code w} is equal to {@code null}
+     * @throws ArithmeticException  if this is equal to {@code 0} and the power is undefined
+     * @see ComplexNumber#pow(ComplexNumber, ComplexNumber)
+     */
+    public ComplexValue pow(ComplexValue w) throws NullPointerException, ArithmeticException {
+        if(re == 0 && im == 0 && w.re <= 0 && !(w.re == 0 && w.im == 0)) {
+            throw new ArithmeticException("Can not divide by 0");
+        }
+        return value(ComplexNumber.pow(re, im, w.re, w.im, new double[2]));
+    }
+
+    /**
+     * @return  the square root
+     */
+    public ComplexValue sqrt() {
+        double r = Math.sqrt(mod());
+        double a = arg() / 2;
+        return new ComplexValue(r * Math.cos(a), r * Math.sin(a));
+    }
+
+    //Trigonometric Operations:
+    /**
+     * @return  the sine
+     */
+    public ComplexValue sin() {
+        return new ComplexValue(ComplexNumber.timesCosh(Math.sin(re), im), ComplexNumber.timesSinh(Math.cos(re), im));
+    }
+
+    /**
+     * @return  the cosine
+     */
+    public ComplexValue cos() {
+        return new ComplexValue(ComplexNumber.timesCosh(Math.cos(re), im), ComplexNumber.timesSinh(-Math.sin(re), im));
+    }
+
+    /**
+     * @return  the tangent
+     * @throws ArithmeticException  if the cosine is equal to {@code 0}
+     */
+    public ComplexValue tan() throws ArithmeticException {
+        return value(ComplexNumber.tan(re, im, new double[2]));
+    }
+
+    /**
+     * @return  the arc sine
+     */
+    public ComplexValue asin() {
+        return value(ComplexNumber.asin(re, im, new double[2]));
+    }
+
+    /**
+     * @return  the arc cosine
+     * @throws ArithmeticException  if this is equal to {@code 0}
+     */
+    public ComplexValue acos() throws ArithmeticException {
+        return value(ComplexNumber.acos(re, im, new double[2]));
+    }
+
+    /**
+     * @return  the arc tangent
+     * @throws ArithmeticException  if this is equal to {@code -i}
+     */
+    public ComplexValue atan() throws ArithmeticException {
+        return value(ComplexNumber.atan(re, im, new double[2]));
+    }
+
+    //Helper functions:
+    //Wraps the result of a primitive function of ComplexNumber; the scratch array doesn't escape, so once the call is
+    //inlined the JIT compiler can keep it in registers like the ComplexValue itself:
+    private static ComplexValue value(double[] out) {
+        return new ComplexValue(out[0], out[1]);
+    }
+}
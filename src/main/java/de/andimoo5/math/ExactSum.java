@@ -0,0 +1,88 @@
+package de.andimoo5.math;
+
+import java.util.Arrays;
+
+/**
+ * {@code ExactSum} adds up {@code doubles} without any rounding error and rounds the total only once, when it is read
+ * with {@link #value()} (Shewchuk's algorithm, the same as Python's {@code math.fsum}). The sum is kept as a short
+ * list of non-overlapping partial sums, ordered by increasing magnitude; typical inputs need no more than a few.<br>
+ * <br> As the sum is exact, the result doesn't depend on the order of the additions or on how the values are split
+ * between several instances that get {@link #add(ExactSum) combined} later. This is what makes parallel reductions
+ * over streams reproducible, however the stream is split.<br>
+ * <br> Infinite and NaN inputs give the same result as their plain sum. If the exact sum leaves the range of
+ * {@code double} on its way, the result is infinite.
+ *
+ * @author  Andras Martin Moosbauer
+ * @version 2.0
+ */
+final class ExactSum {
+
+    //The non-overlapping partial sums, by increasing magnitude:
+    private double[] partials = new double[4];
+    private int size;
+
+    //The sum of the infinite and NaN inputs and of the overflowed partial sums, 0 if there are none:
+    private double special;
+
+    /**
+     * Adds {@code x} to the sum.
+     * @param x the summand
+     */
+    void add(double x) {
+        if(!Double.isFinite(x)) {
+            special += x;
+            return;
+        }
+        int n = 0;
+        for(int j = 0; j < size; j++) {
+            double y = partials[j];
+            if(Math.abs(x) < Math.abs(y)) {
+                double t = x;
+                x = y;
+                y = t;
+            }
+            double hi = x + y, lo = y - (hi - x);
+            if(!Double.isFinite(hi)) {
+                special += hi;
+                size = 0;
+                return;
+            }
+            if(lo != 0) partials[n++] = lo;
+            x = hi;
+        }
+        if(n == partials.length) partials = Arrays.copyOf(partials, 2 * n);
+        partials[n] = x;
+        size = n + 1;
+    }
+
+    /**
+     * Adds the sum of {@code s} to this sum.
+     * @param s the other sum, it stays unchanged
+     */
+    void add(ExactSum s) {
+        for(int j = 0; j < s.size; j++) add(s.partials[j]);
+        special += s.special;
+    }
+
+    /**
+     * @return  the exact sum, correctly rounded to the nearest {@code double}
+     */
+    double value() {
+        if(special != 0) return special;
+        int n = size;
+        if(n == 0) return 0;
+        double hi = partials[--n], lo = 0;
+        while(n > 0) {
+            double x = hi, y = partials[--n];
+            hi = x + y;
+            lo = y - (hi - x);
+            if(lo != 0) break;
+        }
+        //If the rest of the partial sums points the same way as the error lo, hi was rounded the wrong way in a tie:
+        if(n > 0 && (lo < 0 && partials[n - 1] < 0 || lo > 0 && partials[n - 1] > 0)) {
+            double y = lo * 2, x = hi + y;
+            if(y == x - hi) hi = x;
+        }
+        return hi;
+    }
+}
@@ -0,0 +1,510 @@
+package de.andimoo5.math;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * {@code FFT} is a plan for the discrete Fourier transform of one size, working in place on split real and imaginary
+ * {@code double[]} buffers (the layout of {@link ComplexArray}). Plans are immutable, cached by their size and
+ * shared between threads; get one with {@link #of(int)}.<br>
+ * <br> The forward transform is <i>X[k] = sum of x[j] * e^(-2*pi*i*j*k/n)</i>, the inverse transform uses the
+ * positive exponent and divides by <i>n</i>, so {@code inverse(forward(x))} gives back {@code x}. The twiddle factors
+ * are the conjugates of the {@link RootsOfUnity} of the size, so they only take trigonometric functions for the first
+ * octant. Plans don't copy them but read the shared table, or with a stride the cached table of a small multiple of
+ * the size, whose roots are the same bit for bit.<br>
+ * <br> Features included in this class are:<br>
+ * <ul>
+ *     <li>An iterative radix-2 transform for sizes that are powers of 2</li>
+ *     <li>An iterative mixed-radix transform for sizes whose prime factors are all at most {@value #MAX_RADIX}</li>
+ *     <li><i>Bluestein's</i> algorithm for every other size, which turns the transform into a convolution
+ *          computed with a radix-2 plan</li>
+ *     <li>Transforms of real input ({@link #forwardReal(double[], double[], double[]) forwardReal},
+ *          {@link #inverseReal(double[], double[], double[]) inverseReal}), which pack an even number of real values
+ *          into a complex transform of half the size</li>
+ * </ul>
+ * The radix-2 transform doesn't allocate, the mixed-radix transform only needs a buffer with the size of the biggest
+ * radix and <i>Bluestein's</i> algorithm two work buffers of about twice the size of the transform per call.
+ * The cache holds plans with at most {@value #CACHE_LIMIT} elements of tables in total, like the one of
+ * {@code RootsOfUnity}, and drops the least recently used ones beyond that; bigger plans are created but not cached.
+ *
+ * @author  Andras Martin Moosbauer
+ * @version 2.0
+ */
+public final class FFT {
+
+    /**
+     * The biggest prime factor handled by the mixed-radix transform, sizes with bigger ones use <i>Bluestein's</i>
+     * algorithm.
+     */
+    public static final int MAX_RADIX = 13;
+
+    /**
+     * The maximum size of the tables of all cached plans together, in elements: the twiddle factors they read, the
+     * digit reversal of mixed-radix plans and the chirp and filter of <i>Bluestein</i> plans.
+     */
+    public static final int CACHE_LIMIT = RootsOfUnity.CACHE_LIMIT;
+
+    //A plan may read the twiddle factors from a cached table of up to this many times its size:
+    private static final int MAX_STRIDE = 8;
+
+    //The plans in the order of their last use; all accesses are synchronized on it:
+    private static final LinkedHashMap<Integer, FFT> PLANS = new LinkedHashMap<>(16, 0.75f, true);
+    private static long cached;
+
+    private enum Algorithm { RADIX_2, MIXED_RADIX, BLUESTEIN }
+
+    private final int n;
+    private final Algorithm algorithm;
+
+    //Twiddle factors e^(-2*pi*i*k/n), the conjugates of the roots at k * stride of a shared table:
+    private final double[] rootRe, rootIm;
+    private final int stride;
+
+    //Mixed-radix: the radices in the order of the stages, and the digit reversal as target index and cycle starts:
+    private final int[] factors, target, cycles;
+
+    //Bluestein: the chirp e^(-pi*i*k^2/n), the transformed filter and the radix-2 plan of the convolution:
+    private final double[] chirpRe, chirpIm, filterRe, filterIm;
+    private final FFT convolution;
+
+    //The plan of half the size for real transforms, kept once it's needed, as big plans aren't cached:
+    private volatile FFT half;
+
+    //Constructors of the "FFT" class:
+    private FFT(int n) {
+        this.n = n;
+        int[] f = factorize(n);
+        if(Integer.bitCount(n) == 1) algorithm = Algorithm.RADIX_2;
+        else if(f != null) algorithm = Algorithm.MIXED_RADIX;
+        else algorithm = Algorithm.BLUESTEIN;
+
+        RootsOfUnity roots = RootsOfUnity.multipleOf(n, MAX_STRIDE);
+        rootRe = roots.re;
+        rootIm = roots.im;
+        stride = roots.size() / n;
+
+        if(algorithm == Algorithm.MIXED_RADIX) {
+            factors = f;
+            target = digitReversal(n, f);
+            cycles = cycles(target);
+        }
+        else factors = target = cycles = null;
+
+        if(algorithm == Algorithm.BLUESTEIN) {
+            int m = Integer.highestOneBit(2 * n - 1) << 1;
+            convolution = of(m);
+            chirpRe = new double[n];
+            chirpIm = new double[n];
+            filterRe = new double[m];
+            filterIm = new double[m];
+            double[] out = new double[2];
+            for(int k = 0; k < n; k++) {
+                //e^(-pi*i*k^2/n) is the root w^(-k^2) of the 2n-th roots, without a table of 2n roots:
+                RootsOfUnity.root(-(long)k * k, 2L * n, out);
+                chirpRe[k] = out[0];
+                chirpIm[k] = out[1];
+                filterRe[k] = out[0];
+                filterIm[k] = -out[1];
+                if(k > 0) {
+                    filterRe[m - k] = out[0];
+                    filterIm[m - k] = -out[1];
+                }
+            }
+            convolution.transform(filterRe, filterIm);
+        }
+        else {
+            convolution = null;
+            chirpRe = chirpIm = filterRe = filterIm = null;
+        }
+    }
+
+    /**
+     * Returns the plan for transforms of the size {@code n}. Plans are created on the first request and cached.
+     * @param n the size of the transform
+     * @return  the {@code FFT} plan for the size {@code n}
+     * @throws IllegalArgumentException if {@code n} is smaller than 1
+     */
+    public static @NotNull FFT of(int n) throws IllegalArgumentException {
+        if(n < 1) throw new IllegalArgumentException("size has to be positive");
+        synchronized(PLANS) {
+            FFT plan = PLANS.get(n);
+            if(plan != null) return plan;
+        }
+        //Created without the lock, as a Bluestein plan creates its radix-2 plan while being created:
+        FFT plan = new FFT(n);
+        synchronized(PLANS) {
+            FFT previous = PLANS.get(n);
+            if(previous != null) return previous;
+            long size = plan.tableSize();
+            if(size > CACHE_LIMIT) return plan;
+            PLANS.put(n, plan);
+            cached += size;
+            //The new plan is the most recently used one, so it is never dropped here:
+            for(Iterator<FFT> it = PLANS.values().iterator(); cached > CACHE_LIMIT; ) {
+                cached -= it.next().tableSize();
+                it.remove();
+            }
+            return plan;
+        }
+    }
+
+    //The size of the tables of all cached plans, for the tests:
+    static long cached() {
+        synchronized(PLANS) {
+            return cached;
+        }
+    }
+
+    //Basic functions (to get data from objects of this class):
+    /**
+     * @return  the size of the transform
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * @return  a String naming the size and the algorithm of the plan, e.g. {@code FFT[n=12, MIXED_RADIX]}
+     */
+    @Override
+    public String toString() {
+        return "FFT[n=" + n + ", " + algorithm + "]";
+    }
+
+    //Complex transforms:
+    /**
+     * Replaces {@code re} and {@code im} with their forward transform.
+     * @param re    the real parts, its length has to be the size of the plan
+     * @param im    the imaginary parts, its length has to be the size of the plan
+     * @throws NullPointerException     if either {@code re} or {@code im} is equal to {@code null}
+     * @throws IllegalArgumentException if the length of {@code re} or {@code im} differs from the size of the plan
+     */
+    public void forward(double[] re, double[] im) throws NullPointerException, IllegalArgumentException {
+        checkLengths(re, im, n);
+        transform(re, im);
+    }
+
+    /**
+     * Replaces {@code re} and {@code im} with their inverse transform, including the division by <i>n</i>.
+     * @param re    the real parts, its length has to be the size of the plan
+     * @param im    the imaginary parts, its length has to be the size of the plan
+     * @throws NullPointerException     if either {@code re} or {@code im} is equal to {@code null}
+     * @throws IllegalArgumentException if the length of {@code re} or {@code im} differs from the size of the plan
+     */
+    public void inverse(double[] re, double[] im) throws NullPointerException, IllegalArgumentException {
+        checkLengths(re, im, n);
+        inverseTransform(re, im);
+    }
+
+    /**
+     * Replaces the elements of {@code a} with their forward transform.
+     * @param a an instance of {@code ComplexArray}, its length has to be the size of the plan
+     * @return  {@code a}
+     * @throws NullPointerException     if {@code a} is equal to {@code null}
+     * @throws IllegalArgumentException if the length of {@code a} differs from the size of the plan
+     */
+    @Contract("_ -> param1")
+    public ComplexArray forward(ComplexArray a) throws NullPointerException, IllegalArgumentException {
+        forward(a.real(), a.imaginary());
+        return a;
+    }
+
+    /**
+     * Replaces the elements of {@code a} with their inverse transform, including the division by <i>n</i>.
+     * @param a an instance of {@code ComplexArray}, its length has to be the size of the plan
+     * @return  {@code a}
+     * @throws NullPointerException     if {@code a} is equal to {@code null}
+     * @throws IllegalArgumentException if the length of {@code a} differs from the size of the plan
+     */
+    @Contract("_ -> param1")
+    public ComplexArray inverse(ComplexArray a) throws NullPointerException, IllegalArgumentException {
+        inverse(a.real(), a.imaginary());
+        return a;
+    }
+
+    //Real transforms:
+    /**
+     * Computes the forward transform of the real values {@code x}. As the transform of real input is conjugate
+     * symmetric, only the first <i>n/2 + 1</i> frequencies are stored. For even sizes the values are packed into a
+     * complex transform of half the size, odd sizes use a full complex transform.
+     * @param x     the real input, its length has to be the size of the plan; it isn't changed
+     * @param re    receives the real parts of the frequencies 0 to <i>n/2</i>, its length has to be <i>n/2 + 1</i>
+     * @param im    receives the imaginary parts of the frequencies 0 to <i>n/2</i>, its length has to be <i>n/2 + 1</i>
+     * @throws NullPointerException     if {@code x}, {@code re} or {@code im} is equal to {@code null}
+     * @throws IllegalArgumentException if an array doesn't have the required length
+     */
+    public void forwardReal(double[] x, double[] re, double[] im) throws NullPointerException, IllegalArgumentException {
+        if(x == null) throw new NullPointerException();
+        if(x.length != n) throw new IllegalArgumentException("array length differs from the transform size");
+        int h = n / 2;
+        checkLengths(re, im, h + 1);
+        if(n % 2 != 0) {
+            double[] fRe = x.clone(), fIm = new double[n];
+            transform(fRe, fIm);
+            System.arraycopy(fRe, 0, re, 0, h + 1);
+            System.arraycopy(fIm, 0, im, 0, h + 1);
+            return;
+        }
+        //z[k] = x[2k] + x[2k+1]*i, transformed in the first n/2 elements of the output:
+        for(int k = 0; k < h; k++) {
+            re[k] = x[2 * k];
+            im[k] = x[2 * k + 1];
+        }
+        half().transform(re, im);
+        double z0 = re[0], z1 = im[0];
+        re[0] = z0 + z1;
+        im[0] = 0;
+        re[h] = z0 - z1;
+        im[h] = 0;
+        //X[k] = E + w^k*O and X[h-k] = conj(E - w^k*O), with E and O the transforms of the even and odd values:
+        for(int k = 1, m = h - 1; k <= m; k++, m--) {
+            double a = re[k], b = im[k], c = re[m], d = im[m];
+            double eRe = (a + c) / 2, eIm = (b - d) / 2;
+            double oRe = (b + d) / 2, oIm = (c - a) / 2;
+            double wRe = rootRe[k * stride], wIm = -rootIm[k * stride];
+            double tRe = wRe * oRe - wIm * oIm, tIm = wRe * oIm + wIm * oRe;
+            re[m] = eRe - tRe;
+            im[m] = tIm - eIm;
+            re[k] = eRe + tRe;
+            im[k] = eIm + tIm;
+        }
+    }
+
+    /**
+     * Computes the real values {@code x} from the first <i>n/2 + 1</i> frequencies of their transform, including
+     * the division by <i>n</i>; this is the inverse of {@link #forwardReal(double[], double[], double[]) forwardReal}.
+     * For even sizes {@code re} and {@code im} are used as work buffers and get overwritten.
+     * @param re    the real parts of the frequencies 0 to <i>n/2</i>, its length has to be <i>n/2 + 1</i>
+     * @param im    the imaginary parts of the frequencies 0 to <i>n/2</i>, its length has to be <i>n/2 + 1</i>
+     * @param x     receives the real values, its length has to be the size of the plan
+     * @throws NullPointerException     if {@code re}, {@code im} or {@code x} is equal to {@code null}
+     * @throws IllegalArgumentException if an array doesn't have the required length
+     */
+    public void inverseReal(double[] re, double[] im, double[] x) throws NullPointerException, IllegalArgumentException {
+        if(x == null) throw new NullPointerException();
+        if(x.length != n) throw new IllegalArgumentException("array length differs from the transform size");
+        int h = n / 2;
+        checkLengths(re, im, h + 1);
+        if(n % 2 != 0) {
+            double[] fRe = new double[n], fIm = new double[n];
+            System.arraycopy(re, 0, fRe, 0, h + 1);
+            System.arraycopy(im, 0, fIm, 0, h + 1);
+            for(int k = h + 1; k < n; k++) {
+                fRe[k] = re[n - k];
+                fIm[k] = -im[n - k];
+            }
+            inverseTransform(fRe, fIm);
+            System.arraycopy(fRe, 0, x, 0, n);
+            return;
+        }
+        //Z[k] = E + O*i with E = (X[k] + conj(X[h-k])) / 2 and O = conj(w^k) * (X[k] - conj(X[h-k])) / 2:
+        double x0 = re[0], xh = re[h];
+        re[0] = (x0 + xh) / 2;
+        im[0] = (x0 - xh) / 2;
+        for(int k = 1, m = h - 1; k <= m; k++, m--) {
+            double a = re[k], b = im[k], c = re[m], d = im[m];
+            double eRe = (a + c) / 2, eIm = (b - d) / 2;
+            double dRe = (a - c) / 2, dIm = (b + d) / 2;
+            double wRe = rootRe[k * stride], wIm = rootIm[k * stride];
+            double oRe = wRe * dRe - wIm * dIm, oIm = wRe * dIm + wIm * dRe;
+            //For h-k: E is conjugated and O = -w^k * conj(X[k] - conj(X[h-k])) / 2 = conj(oRe + oIm*i):
+            re[m] = eRe + oIm;
+            im[m] = oRe - eIm;
+            re[k] = eRe - oIm;
+            im[k] = eIm + oRe;
+        }
+        half().inverseTransform(re, im);
+        for(int k = 0; k < h; k++) {
+            x[2 * k] = re[k];
+            x[2 * k + 1] = im[k];
+        }
+    }
+
+    //Helper functions:
+    private FFT half() {
+        FFT h = half;
+        if(h == null) half = h = of(n / 2);
+        return h;
+    }
+
+    //The elements of the tables the plan holds on to, with the shared twiddle factors, which it keeps from being dropped:
+    private long tableSize() {
+        long size = rootRe.length;
+        if(target != null) size += target.length + cycles.length;
+        if(chirpRe != null) size += 2L * chirpRe.length + 2L * filterRe.length;
+        return size;
+    }
+
+    private static void checkLengths(double[] re, double[] im, int length) {
+        if(re == null || im == null) throw new NullPointerException();
+        if(re.length != length || im.length != length) throw new IllegalArgumentException("array length differs from the transform size");
+    }
+
+    //Works on the first n elements of re and im:
+    private void transform(double[] re, double[] im) {
+        switch(algorithm) {
+            case RADIX_2 -> radix2(re, im);
+            case MIXED_RADIX -> mixedRadix(re, im);
+            case BLUESTEIN -> bluestein(re, im);
+        }
+    }
+
+    //The inverse is the conjugate of the forward transform of the conjugate, divided by n:
+    private void inverseTransform(double[] re, double[] im) {
+        for(int i = 0; i < n; i++) im[i] = -im[i];
+        transform(re, im);
+        double s = 1.0 / n;
+        for(int i = 0; i < n; i++) {
+            re[i] *= s;
+            im[i] *= -s;
+        }
+    }
+
+    private void radix2(double[] re, double[] im) {
+        for(int i = 1, j = 0; i < n; i++) {
+            int bit = n >> 1;
+            for(; (j & bit) != 0; bit >>= 1) j ^= bit;
+            j ^= bit;
+            if(i < j) {
+                double t = re[i]; re[i] = re[j]; re[j] = t;
+                t = im[i]; im[i] = im[j]; im[j] = t;
+            }
+        }
+        for(int len = 2; len <= n; len <<= 1) {
+            int half = len >> 1, step = n / len * stride;
+            for(int j = 0; j < half; j++) {
+                double wRe = rootRe[j * step], wIm = -rootIm[j * step];
+                for(int a = j; a < n; a += len) {
+                    int b = a + half;
+                    double xRe = re[b] * wRe - im[b] * wIm, xIm = re[b] * wIm + im[b] * wRe;
+                    re[b] = re[a] - xRe;
+                    im[b] = im[a] - xIm;
+                    re[a] += xRe;
+                    im[a] += xIm;
+                }
+            }
+        }
+    }
+
+    private void mixedRadix(double[] re, double[] im) {
+        //Moves every element along its cycle of the digit reversal:
+        for(int start : cycles) {
+            double cRe = re[start], cIm = im[start];
+            int i = start;
+            do {
+                i = target[i];
+                double t = re[i]; re[i] = cRe; cRe = t;
+                t = im[i]; im[i] = cIm; cIm = t;
+            } while(i != start);
+        }
+        double[] tRe = new double[factors[factors.length - 1]], tIm = new double[tRe.length];
+        int span = 1;
+        for(int p : factors) {
+            int len = span * p, step = n / len * stride, pStep = n / p * stride;
+            for(int b = 0; b < n; b += len) {
+                for(int j = 0; j < span; j++) {
+                    int base = b + j;
+                    if(p == 2) {
+                        int c = base + span;
+                        double wRe = rootRe[j * step], wIm = -rootIm[j * step];
+                        double xRe = re[c] * wRe - im[c] * wIm, xIm = re[c] * wIm + im[c] * wRe;
+                        re[c] = re[base] - xRe;
+                        im[c] = im[base] - xIm;
+                        re[base] += xRe;
+                        im[base] += xIm;
+                        continue;
+                    }
+                    butterfly(re, im, tRe, tIm, base, span, p, j * step, pStep);
+                }
+            }
+            span = len;
+        }
+    }
+
+    //A radix-p butterfly on the elements base + q*span, which are multiplied with the twiddles at q*twiddle in the table first:
+    private void butterfly(double[] re, double[] im, double[] tRe, double[] tIm, int base, int span, int p, int twiddle, int pStep) {
+        tRe[0] = re[base];
+        tIm[0] = im[base];
+        for(int q = 1; q < p; q++) {
+            int i = base + q * span, t = q * twiddle;
+            double wRe = rootRe[t], wIm = -rootIm[t];
+            tRe[q] = re[i] * wRe - im[i] * wIm;
+            tIm[q] = re[i] * wIm + im[i] * wRe;
+        }
+        for(int r = 0; r < p; r++) {
+            double sRe = tRe[0], sIm = tIm[0];
+            for(int q = 1, k = r; q < p; q++, k = (k + r) % p) {
+                double wRe = rootRe[k * pStep], wIm = -rootIm[k * pStep];
+                sRe += tRe[q] * wRe - tIm[q] * wIm;
+                sIm += tRe[q] * wIm + tIm[q] * wRe;
+            }
+            re[base + r * span] = sRe;
+            im[base + r * span] = sIm;
+        }
+    }
+
+    private void bluestein(double[] re, double[] im) {
+        int m = filterRe.length;
+        double[] aRe = new double[m], aIm = new double[m];
+        for(int k = 0; k < n; k++) {
+            aRe[k] = re[k] * chirpRe[k] - im[k] * chirpIm[k];
+            aIm[k] = re[k] * chirpIm[k] + im[k] * chirpRe[k];
+        }
+        convolution.transform(aRe, aIm);
+        for(int k = 0; k < m; k++) {
+            double t = aRe[k] * filterRe[k] - aIm[k] * filterIm[k];
+            aIm[k] = aRe[k] * filterIm[k] + aIm[k] * filterRe[k];
+            aRe[k] = t;
+        }
+        convolution.inverseTransform(aRe, aIm);
+        for(int k = 0; k < n; k++) {
+            re[k] = aRe[k] * chirpRe[k] - aIm[k] * chirpIm[k];
+            im[k] = aRe[k] * chirpIm[k] + aIm[k] * chirpRe[k];
+        }
+    }
+
+    //Returns the prime factors of n in ascending order, or null if one of them is bigger than MAX_RADIX:
+    private static int[] factorize(int n) {
+        int[] f = new int[32];
+        int count = 0;
+        for(int p = 2; p <= MAX_RADIX && n > 1; p++) {
+            while(n % p == 0) {
+                f[count++] = p;
+                n /= p;
+            }
+        }
+        return n == 1 ? Arrays.copyOf(f, count) : null;
+    }
+
+    //The position of input i after the reordering, so every stage combines neighbouring sub-transforms:
+    private static int[] digitReversal(int n, int[] factors) {
+        int[] target = new int[n];
+        for(int i = 0; i < n; i++) {
+            int rest = i, position = 0, stride = n;
+            //The last stage splits the input with the biggest stride, so its digit is the lowest one:
+            for(int s = factors.length - 1; s >= 0; s--) {
+                stride /= factors[s];
+                position += (rest % factors[s]) * stride;
+                rest /= factors[s];
+            }
+            target[i] = position;
+        }
+        return target;
+    }
+
+    private static int[] cycles(int[] target) {
+        boolean[] visited = new boolean[target.length];
+        int[] starts = new int[target.length];
+        int count = 0;
+        for(int i = 0; i < target.length; i++) {
+            if(visited[i] || target[i] == i) continue;
+            starts[count++] = i;
+            for(int j = i; !visited[j]; j = target[j]) visited[j] = true;
+        }
+        return Arrays.copyOf(starts, count);
+    }
+}
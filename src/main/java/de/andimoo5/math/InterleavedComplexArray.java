@@ -0,0 +1,475 @@
+package de.andimoo5.math;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * {@code InterleavedComplexArray} is a fixed-length array of complex numbers stored in a single {@code double[]},
+ * with <i>Re(z)</i> of element {@code i} at index {@code 2*i} and <i>Im(z)</i> at index {@code 2*i+1}.
+ * This is the layout most native libraries and file formats use, so it can be exchanged without reordering.
+ * It offers the same operations as {@link ComplexArray}; prefer the split layout of {@code ComplexArray}
+ * for heavy computations, as its kernels don't need to shuffle real and imaginary parts.
+ *
+ * @author  Andras Martin Moosbauer
+ * @version 2.0
+ * @see ComplexArray
+ */
+public class InterleavedComplexArray {
+
+    //Values of the complex numbers, alternating Re(z) and Im(z):
+    private final double[] data;
+
+    //Constructors of the "InterleavedComplexArray" class:
+    /**
+     * Constructs a new {@code InterleavedComplexArray} of the given length with all elements equal to 0.
+     * @param length    the number of complex numbers
+     * @throws NegativeArraySizeException if {@code length} is negative
+     */
+    public InterleavedComplexArray(int length) {
+        this(new double[2 * length]);
+    }
+
+    /**
+     * Constructs a new {@code InterleavedComplexArray} backed by the passed array. The array is <b>not</b> copied,
+     * so changes to it are visible in the {@code InterleavedComplexArray} and vice versa.
+     * @param data  alternating real parts, Re(z), and imaginary parts, Im(z)
+     * @throws NullPointerException     if {@code data} is equal to {@code null}
+     * @throws IllegalArgumentException if the length of {@code data} is odd
+     */
+    public InterleavedComplexArray(double[] data) throws NullPointerException, IllegalArgumentException {
+        if(data == null) throw new NullPointerException();
+        if(data.length % 2 != 0) throw new IllegalArgumentException("interleaved data must have an even length");
+        this.data = data;
+    }
+
+    /**
+     * Constructs a new {@code InterleavedComplexArray} holding copies of the values of the passed complex numbers.
+     * @param values    instances of {@code ComplexNumber}
+     * @throws NullPointerException if {@code values} or one of its elements is equal to {@code null}
+     */
+    public InterleavedComplexArray(ComplexNumber... values) throws NullPointerException {
+        this(values.length);
+        for(int i = 0; i < values.length; i++) set(i, values[i]);
+    }
+
+    /**
+     * Constructs a new {@code InterleavedComplexArray} with a copy of the values of <i>a</i>.
+     * @param a an instance of {@code InterleavedComplexArray}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     */
+    public InterleavedComplexArray(InterleavedComplexArray a) throws NullPointerException {
+        this(a.data.clone());
+    }
+
+    //Basic functions (to set/get data from objects of this class):
+    /**
+     * @return  the number of complex numbers in this array
+     */
+    public int length() {
+        return data.length / 2;
+    }
+
+    /**
+     * Returns the interleaved values. It is the backing array and not a copy.
+     * @return  alternating real and imaginary parts of all elements
+     */
+    public double[] data() {
+        return data;
+    }
+
+    /**
+     * Returns the element at index {@code i} as a new {@code ComplexNumber}.
+     * @param i the index of the element
+     * @return  a new {@code ComplexNumber} with the value of the element
+     * @throws ArrayIndexOutOfBoundsException if {@code i} is out of bounds
+     */
+    @Contract("_ -> new")
+    public @NotNull ComplexNumber get(int i) {
+        return new ComplexNumber(getRe(i), getIm(i));
+    }
+
+    /**
+     * Copies the element at index {@code i} into {@code dst}, without allocating a new object.
+     * @param i     the index of the element
+     * @param dst   the {@code ComplexNumber} to be overwritten
+     * @return      {@code dst}
+     * @throws NullPointerException           if {@code dst} is equal to {@code null}
+     * @throws ArrayIndexOutOfBoundsException if {@code i} is out of bounds
+     */
+    @Contract("_, _ -> param2")
+    public ComplexNumber get(int i, ComplexNumber dst) throws NullPointerException {
+        if(dst == null) throw new NullPointerException();
+        dst.set(getRe(i), getIm(i));
+        return dst;
+    }
+
+    /**
+     * Sets the element at index {@code i} to the value of {@code z}.
+     * @param i the index of the element
+     * @param z an instance of {@code ComplexNumber}
+     * @throws NullPointerException           if {@code z} is equal to {@code null}
+     * @throws ArrayIndexOutOfBoundsException if {@code i} is out of bounds
+     */
+    public void set(int i, ComplexNumber z) throws NullPointerException {
+        if(z == null) throw new NullPointerException();
+        set(i, z.getRe(), z.getIm());
+    }
+
+    /**
+     * Sets <i>Re(z)</i> and <i>Im(z)</i> of the element at index {@code i} to the passed values.
+     * @param i         the index of the element
+     * @param real      the real part, Re(z), of the element
+     * @param imaginary the imaginary part, Im(z), of the element
+     * @throws ArrayIndexOutOfBoundsException if {@code i} is out of bounds
+     */
+    public void set(int i, double real, double imaginary) {
+        if(i < 0 || i >= length()) throw new ArrayIndexOutOfBoundsException(i);
+        data[2 * i] = real;
+        data[2 * i + 1] = imaginary;
+    }
+
+    /**
+     * Return <i>Re(z)</i> of the element at index {@code i}
+     * @param i the index of the element
+     * @return  a {@code double} of the real part, <i>Re(z)</i>, of the element
+     */
+    public double getRe(int i) {
+        if(i < 0 || i >= length()) throw new ArrayIndexOutOfBoundsException(i);
+        return data[2 * i];
+    }
+
+    /**
+     * Return <i>Im(z)</i> of the element at index {@code i}
+     * @param i the index of the element
+     * @return  a {@code double} of the imaginary part, <i>Im(z)</i>, of the element
+     */
+    public double getIm(int i) {
+        if(i < 0 || i >= length()) throw new ArrayIndexOutOfBoundsException(i);
+        return data[2 * i + 1];
+    }
+
+    /**
+     * Copies all elements into new {@code ComplexNumber} objects.
+     * @return  an array of new {@code ComplexNumber} objects
+     */
+    public ComplexNumber[] toArray() {
+        ComplexNumber[] values = new ComplexNumber[length()];
+        for(int i = 0; i < values.length; i++) values[i] = get(i);
+        return values;
+    }
+
+    /**
+     * Copies all elements into a new {@link ComplexArray}.
+     * @return  a {@code ComplexArray} with the same values
+     */
+    public ComplexArray toSplit() {
+        ComplexArray a = new ComplexArray(length());
+        double[] re = a.real(), im = a.imaginary();
+        for(int i = 0; i < re.length; i++) {
+            re[i] = data[2 * i];
+            im[i] = data[2 * i + 1];
+        }
+        return a;
+    }
+
+    /**
+     * Returns a sequential {@link ComplexStream} over the elements, which passes them on as pairs of {@code doubles}
+     * without creating any {@code ComplexNumber} objects. Its spliterator splits the array in halves, so
+     * {@link ComplexStream#parallel()} processes the parts on the common {@code ForkJoinPool}.
+     * @return  a new {@code ComplexStream} over this array
+     */
+    @Contract(" -> new")
+    public @NotNull ComplexStream stream() {
+        return ComplexStream.array(data, 0, data, 1, 2, length());
+    }
+
+    /**
+     * @return      a String representing the values in the format of: <br>{@code [z0, z1, ...]},
+     *              where every element is formatted like {@link ComplexNumber#toString()}
+     */
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder("[");
+        for(int i = 0; i < length(); i++) {
+            if(i > 0) s.append(", ");
+            ComplexFormat.format(data[2 * i], data[2 * i + 1], s);
+        }
+        return s.append(']').toString();
+    }
+
+    /**
+     * Compares the values of the {@code InterleavedComplexArray} with the ones of {@code Object a}.
+     * @param a any {@code Object}
+     * @return  {@code true} if {@code a} is an {@code InterleavedComplexArray} of the same length with equal elements
+     */
+    @Override
+    public boolean equals(Object a) {
+        if(this == a) return true;
+        if(!(a instanceof InterleavedComplexArray)) return false;
+        return Arrays.equals(data, ((InterleavedComplexArray)a).data);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(data);
+    }
+
+    //Methods for Arithmetic Operations:
+    /**
+     * Calculates the element-wise sum of {@code a} and {@code b} and stores it in {@code dst}.
+     * @param a     1st summands of the addition
+     * @param b     2nd summands of the addition
+     * @param dst   the destination, may be {@code a} or {@code b}
+     * @return      {@code dst}, holding {@code a[i]} + {@code b[i]}
+     * @throws NullPointerException     if {@code a}, {@code b} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _, _ -> param3")
+    public static InterleavedComplexArray sum(InterleavedComplexArray a, InterleavedComplexArray b, InterleavedComplexArray dst)
+            throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, b, dst);
+        ComplexKernels.sumInterleaved(a.data, b.data, dst.data, 0, a.length());
+        return dst;
+    }
+
+    /**
+     * Calculates the element-wise sum of {@code a} and {@code b}.
+     * @param a 1st summands of the addition
+     * @param b 2nd summands of the addition
+     * @return  a new {@code InterleavedComplexArray} holding {@code a[i]} + {@code b[i]}
+     * @throws NullPointerException     if either {@code a} or {@code b} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> new")
+    public static @NotNull InterleavedComplexArray sum(InterleavedComplexArray a, InterleavedComplexArray b)
+            throws NullPointerException, IllegalArgumentException {
+        if(a == null) throw new NullPointerException();
+        return sum(a, b, new InterleavedComplexArray(a.length()));
+    }
+
+    /**
+     * Mathematically adds {@code b} element-wise to itself.
+     * @param b numbers to be added
+     */
+    public void add(InterleavedComplexArray b) {
+        sum(this, b, this);
+    }
+
+    /**
+     * Calculates the element-wise difference of {@code a} and {@code b} and stores it in {@code dst}.
+     * @param a     minuends of the difference
+     * @param b     subtrahends of the difference
+     * @param dst   the destination, may be {@code a} or {@code b}
+     * @return      {@code dst}, holding {@code a[i]} - {@code b[i]}
+     * @throws NullPointerException     if {@code a}, {@code b} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _, _ -> param3")
+    public static InterleavedComplexArray diff(InterleavedComplexArray a, InterleavedComplexArray b, InterleavedComplexArray dst)
+            throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, b, dst);
+        ComplexKernels.diffInterleaved(a.data, b.data, dst.data, 0, a.length());
+        return dst;
+    }
+
+    /**
+     * Calculates the element-wise difference of {@code a} and {@code b}.
+     * @param a minuends of the difference
+     * @param b subtrahends of the difference
+     * @return  a new {@code InterleavedComplexArray} holding {@code a[i]} - {@code b[i]}
+     * @throws NullPointerException     if either {@code a} or {@code b} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> new")
+    public static @NotNull InterleavedComplexArray diff(InterleavedComplexArray a, InterleavedComplexArray b)
+            throws NullPointerException, IllegalArgumentException {
+        if(a == null) throw new NullPointerException();
+        return diff(a, b, new InterleavedComplexArray(a.length()));
+    }
+
+    /**
+     * Mathematically subtracts {@code b} element-wise from itself.
+     * @param b numbers to be subtracted
+     */
+    public void sub(InterleavedComplexArray b) {
+        diff(this, b, this);
+    }
+
+    /**
+     * Calculates the element-wise product of {@code a} and {@code b} and stores it in {@code dst}.
+     * @param a     1st multipliers of the product
+     * @param b     2nd multipliers of the product
+     * @param dst   the destination, may be {@code a} or {@code b}
+     * @return      {@code dst}, holding {@code a[i]} * {@code b[i]}
+     * @throws NullPointerException     if {@code a}, {@code b} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _, _ -> param3")
+    public static InterleavedComplexArray prod(InterleavedComplexArray a, InterleavedComplexArray b, InterleavedComplexArray dst)
+            throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, b, dst);
+        ComplexKernels.prodInterleaved(a.data, b.data, dst.data, 0, a.length());
+        return dst;
+    }
+
+    /**
+     * Calculates the element-wise product of {@code a} and {@code b}.
+     * @param a 1st multipliers of the product
+     * @param b 2nd multipliers of the product
+     * @return  a new {@code InterleavedComplexArray} holding {@code a[i]} * {@code b[i]}
+     * @throws NullPointerException     if either {@code a} or {@code b} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> new")
+    public static @NotNull InterleavedComplexArray prod(InterleavedComplexArray a, InterleavedComplexArray b)
+            throws NullPointerException, IllegalArgumentException {
+        if(a == null) throw new NullPointerException();
+        return prod(a, b, new InterleavedComplexArray(a.length()));
+    }
+
+    /**
+     * Mathematically multiplies {@code b} element-wise to itself.
+     * @param b numbers to be multiplied with
+     */
+    public void mul(InterleavedComplexArray b) {
+        prod(this, b, this);
+    }
+
+    /**
+     * Calculates the element-wise division of {@code a} and {@code b} and stores it in {@code dst}.
+     * Unlike {@link ComplexNumber#division(ComplexNumber, ComplexNumber)} a divisor equal to {@code 0}
+     * doesn't throw an exception, the affected element becomes {@code NaN} instead.
+     * @param a     dividends of the division
+     * @param b     divisors of the division
+     * @param dst   the destination, may be {@code a} or {@code b}
+     * @return      {@code dst}, holding {@code a[i]} / {@code b[i]}
+     * @throws NullPointerException     if {@code a}, {@code b} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _, _ -> param3")
+    public static InterleavedComplexArray division(InterleavedComplexArray a, InterleavedComplexArray b, InterleavedComplexArray dst)
+            throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, b, dst);
+        ComplexKernels.divisionInterleaved(a.data, b.data, dst.data, 0, a.length());
+        return dst;
+    }
+
+    /**
+     * Calculates the element-wise division of {@code a} and {@code b}.
+     * @param a dividends of the division
+     * @param b divisors of the division
+     * @return  a new {@code InterleavedComplexArray} holding {@code a[i]} / {@code b[i]}
+     * @throws NullPointerException     if either {@code a} or {@code b} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     * @see #division(InterleavedComplexArray, InterleavedComplexArray, InterleavedComplexArray)
+     */
+    @Contract("_, _ -> new")
+    public static @NotNull InterleavedComplexArray division(InterleavedComplexArray a, InterleavedComplexArray b)
+            throws NullPointerException, IllegalArgumentException {
+        if(a == null) throw new NullPointerException();
+        return division(a, b, new InterleavedComplexArray(a.length()));
+    }
+
+    /**
+     * Mathematically divides itself element-wise by {@code b}.
+     * @param b numbers to be divided by
+     * @see #division(InterleavedComplexArray, InterleavedComplexArray, InterleavedComplexArray)
+     */
+    public void div(InterleavedComplexArray b) {
+        division(this, b, this);
+    }
+
+    //Complex Operations:
+    /**
+     * Calculates the conjugate of every element of {@code a} and stores it in {@code dst}.
+     * @param a     the numbers to calculate the conjugate from
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding the conjugate of {@code a[i]}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> param2")
+    public static InterleavedComplexArray conjugate(InterleavedComplexArray a, InterleavedComplexArray dst)
+            throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, a, dst);
+        ComplexKernels.conjugateInterleaved(a.data, dst.data, 0, a.length());
+        return dst;
+    }
+
+    /**
+     * Calculates the conjugate of every element of {@code a}.
+     * @param a the numbers to calculate the conjugate from
+     * @return  a new {@code InterleavedComplexArray} holding the conjugate of {@code a[i]}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     */
+    @Contract("_ -> new")
+    public static @NotNull InterleavedComplexArray conjugate(InterleavedComplexArray a) throws NullPointerException {
+        if(a == null) throw new NullPointerException();
+        return conjugate(a, new InterleavedComplexArray(a.length()));
+    }
+
+    /**
+     * Calculates the {@code modulus (absolute value / magnitude)} of every element of {@code a}.
+     * @param a     the numbers to calculate the modulus from
+     * @param dst   the destination
+     * @return      {@code dst}, holding the modulus of {@code a[i]}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if {@code dst} has a different length
+     */
+    @Contract("_, _ -> param2")
+    public static double[] mod(InterleavedComplexArray a, double[] dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, dst);
+        ComplexKernels.modInterleaved(a.data, dst, 0, a.length());
+        return dst;
+    }
+
+    /**
+     * Calculates the {@code modulus (absolute value / magnitude)} of every element of {@code a}.
+     * @param a the numbers to calculate the modulus from
+     * @return  a new {@code double[]} holding the modulus of {@code a[i]}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     */
+    public static double[] mod(InterleavedComplexArray a) throws NullPointerException {
+        if(a == null) throw new NullPointerException();
+        return mod(a, new double[a.length()]);
+    }
+
+    /**
+     * Calculates the {@code argument (angle)} of every element of {@code a}.
+     * @param a     the numbers to calculate the argument from
+     * @param dst   the destination
+     * @return      {@code dst}, holding the argument of {@code a[i]} in radians
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if {@code dst} has a different length
+     */
+    @Contract("_, _ -> param2")
+    public static double[] arg(InterleavedComplexArray a, double[] dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, dst);
+        ComplexKernels.argInterleaved(a.data, dst, 0, a.length());
+        return dst;
+    }
+
+    /**
+     * Calculates the {@code argument (angle)} of every element of {@code a}.
+     * @param a the numbers to calculate the argument from
+     * @return  a new {@code double[]} holding the argument of {@code a[i]} in radians
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     */
+    public static double[] arg(InterleavedComplexArray a) throws NullPointerException {
+        if(a == null) throw new NullPointerException();
+        return arg(a, new double[a.length()]);
+    }
+
+    //Helper functions:
+    private static void checkLengths(InterleavedComplexArray a, InterleavedComplexArray b, InterleavedComplexArray dst) {
+        if(a == null || b == null || dst == null) throw new NullPointerException();
+        if(a.data.length != b.data.length || a.data.length != dst.data.length) throw new IllegalArgumentException("arrays differ in length");
+    }
+
+    private static void checkLengths(InterleavedComplexArray a, double[] dst) {
+        if(a == null || dst == null) throw new NullPointerException();
+        if(a.length() != dst.length) throw new IllegalArgumentException("arrays differ in length");
+    }
+}
@@ -0,0 +1,420 @@
+package de.andimoo5.math;
+
+import java.util.Arrays;
+
+/**
+ * {@code IterativeSolver} solves linear systems <i>A * x = b</i> with a sparse square matrix <i>A</i> by a
+ * <i>Krylov subspace</i> method, which only needs products of <i>A</i> with vectors:<br>
+ * <ul>
+ *     <li>{@link BiCGSTAB}, the <i>biconjugate gradient stabilized</i> method, with a fixed amount of memory
+ *          and two products per iteration</li>
+ *     <li>{@link GMRES}, the <i>generalized minimal residual</i> method, restarted after a fixed number of
+ *          iterations; its residual never grows, but it keeps one vector per iteration until the restart</li>
+ * </ul>
+ * A solver allocates all of its vectors when it is constructed and reuses them for every system of its size, so
+ * solving doesn't allocate arrays. It stops as soon as the residual <i>|b - A*x|</i> is at most
+ * {@link #tolerance()} times <i>|b|</i>.<br>
+ * <br> A parallel solver splits the products and the vector operations across the common {@code ForkJoinPool}.
+ * The inner products are summed up in chunks that don't depend on the number of threads, so a parallel and a
+ * sequential solver give the same result, bit by bit. A solver isn't thread-safe; use one per thread.
+ *
+ * @author  Andras Martin Moosbauer
+ * @version 2.0
+ */
+public abstract class IterativeSolver {
+
+    private static final double NANOS = ParallelKernels.Cost.MATRIX.nanos;
+
+    private final int size, maxIterations;
+    private final double tolerance;
+    private final boolean parallel;
+
+    //Result of the last call of "solve", and the scratch space of the complex scalar operations:
+    private double residual = Double.NaN;
+    final double[] out = new double[2];
+
+    IterativeSolver(int size, double tolerance, int maxIterations, boolean parallel) {
+        if(size < 0) throw new IllegalArgumentException("negative size");
+        if(!(tolerance >= 0) || maxIterations < 0) throw new IllegalArgumentException("invalid tolerance or number of iterations");
+        this.size = size;
+        this.tolerance = tolerance;
+        this.maxIterations = maxIterations;
+        this.parallel = parallel;
+    }
+
+    //Basic functions (to get data from objects of this class):
+    /**
+     * @return  the size of the systems this solver can solve
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return  the relative residual <i>|b - A*x| / |b|</i> at which the solver stops
+     */
+    public double tolerance() {
+        return tolerance;
+    }
+
+    /**
+     * @return  the maximum number of iterations of one call of {@link #solve solve}
+     */
+    public int maxIterations() {
+        return maxIterations;
+    }
+
+    /**
+     * @return  the relative residual <i>|b - A*x| / |b|</i> reached by the last call of {@link #solve solve},
+     *          {@code NaN} before the first one
+     */
+    public double residual() {
+        return residual;
+    }
+
+    /**
+     * Solves the linear system <i>a * x = b</i>, starting with the values of {@code x} as the first approximation.
+     * @param a the matrix, square with the size of the solver
+     * @param b the right-hand side
+     * @param x the first approximation, overwritten by the solution
+     * @return  the number of iterations
+     * @throws NullPointerException     if {@code a}, {@code b} or {@code x} is equal to {@code null}
+     * @throws IllegalArgumentException if the sizes don't match the solver or {@code x} is {@code b}
+     * @throws ArithmeticException      if the solver breaks down or doesn't reach the tolerance within the maximum
+     *                                  number of iterations; {@code x} holds the last approximation then
+     */
+    public final int solve(ComplexSparseMatrix a, ComplexArray b, ComplexArray x) throws NullPointerException, IllegalArgumentException, ArithmeticException {
+        if(a == null || b == null || x == null) throw new NullPointerException();
+        if(a.rows() != size || a.columns() != size || b.length() != size || x.length() != size) throw new IllegalArgumentException("sizes don't match the solver");
+        if(x == b) throw new IllegalArgumentException("the solution must not be the right-hand side");
+        residual = Double.NaN;
+        double bNorm = norm(b);
+        if(bNorm == 0) {
+            clear(x);
+            residual = 0;
+            return 0;
+        }
+        return iterate(a, b, x, bNorm);
+    }
+
+    //The method itself, x is the first approximation:
+    abstract int iterate(ComplexSparseMatrix a, ComplexArray b, ComplexArray x, double bNorm);
+
+    /**
+     * {@code BiCGSTAB} is the <i>biconjugate gradient stabilized</i> method by van der Vorst, for general
+     * non-Hermitian systems. It keeps six vectors and computes two products with the matrix per iteration.
+     */
+    public static final class BiCGSTAB extends IterativeSolver {
+
+        private final ComplexArray r, r0, p, v, s, t;
+
+        /**
+         * Constructs a new sequential {@code BiCGSTAB} solver.
+         * @param size          the size of the systems
+         * @param tolerance     the relative residual at which the solver stops
+         * @param maxIterations the maximum number of iterations
+         * @throws IllegalArgumentException if {@code size} or {@code maxIterations} is negative or {@code tolerance} isn't a non-negative number
+         */
+        public BiCGSTAB(int size, double tolerance, int maxIterations) throws IllegalArgumentException {
+            this(size, tolerance, maxIterations, false);
+        }
+
+        /**
+         * Constructs a new {@code BiCGSTAB} solver.
+         * @param size          the size of the systems
+         * @param tolerance     the relative residual at which the solver stops
+         * @param maxIterations the maximum number of iterations
+         * @param parallel      {@code true} to run the products and vector operations in parallel
+         * @throws IllegalArgumentException if {@code size} or {@code maxIterations} is negative or {@code tolerance} isn't a non-negative number
+         */
+        public BiCGSTAB(int size, double tolerance, int maxIterations, boolean parallel) throws IllegalArgumentException {
+            super(size, tolerance, maxIterations, parallel);
+            r = new ComplexArray(size);
+            r0 = new ComplexArray(size);
+            p = new ComplexArray(size);
+            v = new ComplexArray(size);
+            s = new ComplexArray(size);
+            t = new ComplexArray(size);
+        }
+
+        @Override
+        int iterate(ComplexSparseMatrix a, ComplexArray b, ComplexArray x, double bNorm) {
+            double limit = tolerance() * bNorm;
+            residual(a, b, x, r);
+            double rNorm = norm(r);
+            setResidual(rNorm / bNorm);
+            if(rNorm <= limit) return 0;
+            copy(r, r0);
+            clear(p);
+            clear(v);
+            double rhoRe = 1, rhoIm = 0, alphaRe = 1, alphaIm = 0, omegaRe = 1, omegaIm = 0;
+            for(int iteration = 1; iteration <= maxIterations(); iteration++) {
+                dot(r0, r);
+                double rhoNewRe = out[0], rhoNewIm = out[1];
+                if(rhoNewRe == 0 && rhoNewIm == 0) throw new ArithmeticException("BiCGSTAB broke down");
+                //beta = (rhoNew / rho) * (alpha / omega), p = r + beta * (p - omega * v):
+                ComplexNumber.quotient(rhoNewRe, rhoNewIm, rhoRe, rhoIm, out);
+                double qRe = out[0], qIm = out[1];
+                ComplexNumber.quotient(alphaRe, alphaIm, omegaRe, omegaIm, out);
+                double betaRe = qRe * out[0] - qIm * out[1], betaIm = qRe * out[1] + qIm * out[0];
+                axpy(-omegaRe, -omegaIm, v, p);
+                xpay(r, betaRe, betaIm, p);
+                multiply(a, p, v);
+                //alpha = rhoNew / <r0, v>, s = r - alpha * v:
+                dot(r0, v);
+                if(out[0] == 0 && out[1] == 0) throw new ArithmeticException("BiCGSTAB broke down");
+                ComplexNumber.quotient(rhoNewRe, rhoNewIm, out[0], out[1], out);
+                alphaRe = out[0];
+                alphaIm = out[1];
+                copy(r, s);
+                axpy(-alphaRe, -alphaIm, v, s);
+                double sNorm = norm(s);
+                if(sNorm <= limit) {
+                    axpy(alphaRe, alphaIm, p, x);
+                    setResidual(sNorm / bNorm);
+                    return iteration;
+                }
+                //omega = <t, s> / <t, t>, x = x + alpha * p + omega * s, r = s - omega * t:
+                multiply(a, s, t);
+                double tt = norm(t);
+                dot(t, s);
+                omegaRe = out[0] / (tt * tt);
+                omegaIm = out[1] / (tt * tt);
+                axpy(alphaRe, alphaIm, p, x);
+                axpy(omegaRe, omegaIm, s, x);
+                copy(s, r);
+                axpy(-omegaRe, -omegaIm, t, r);
+                rNorm = norm(r);
+                setResidual(rNorm / bNorm);
+                if(rNorm <= limit) return iteration;
+                if(omegaRe == 0 && omegaIm == 0 || !Double.isFinite(rNorm)) throw new ArithmeticException("BiCGSTAB broke down");
+                rhoRe = rhoNewRe;
+                rhoIm = rhoNewIm;
+            }
+            throw new ArithmeticException("BiCGSTAB didn't converge within " + maxIterations() + " iterations");
+        }
+    }
+
+    /**
+     * {@code GMRES} is the <i>generalized minimal residual</i> method by Saad and Schultz, restarted after a fixed
+     * number of iterations. Every iteration extends an orthonormal basis of the Krylov subspace by one vector
+     * (with the modified Gram-Schmidt process) and minimizes the residual over it with Givens rotations.
+     */
+    public static final class GMRES extends IterativeSolver {
+
+        private final int restart;
+
+        //The orthonormal basis, the Hessenberg matrix (row-major, restart columns), the rotations and the right-hand side:
+        private final ComplexArray[] basis;
+        private final double[] hRe, hIm, c, sRe, sIm, gRe, gIm;
+
+        /**
+         * Constructs a new sequential {@code GMRES} solver.
+         * @param size          the size of the systems
+         * @param restart       the number of iterations after which the method is restarted
+         * @param tolerance     the relative residual at which the solver stops
+         * @param maxIterations the maximum number of iterations, counting all restarts
+         * @throws IllegalArgumentException if {@code size} or {@code maxIterations} is negative, {@code restart} isn't
+         *                                  positive or {@code tolerance} isn't a non-negative number
+         */
+        public GMRES(int size, int restart, double tolerance, int maxIterations) throws IllegalArgumentException {
+            this(size, restart, tolerance, maxIterations, false);
+        }
+
+        /**
+         * Constructs a new {@code GMRES} solver. It keeps {@code restart + 1} vectors of the given size.
+         * @param size          the size of the systems
+         * @param restart       the number of iterations after which the method is restarted
+         * @param tolerance     the relative residual at which the solver stops
+         * @param maxIterations the maximum number of iterations, counting all restarts
+         * @param parallel      {@code true} to run the products and vector operations in parallel
+         * @throws IllegalArgumentException if {@code size} or {@code maxIterations} is negative, {@code restart} isn't
+         *                                  positive or {@code tolerance} isn't a non-negative number
+         */
+        public GMRES(int size, int restart, double tolerance, int maxIterations, boolean parallel) throws IllegalArgumentException {
+            super(size, tolerance, maxIterations, parallel);
+            if(restart < 1) throw new IllegalArgumentException("restart has to be positive");
+            this.restart = restart;
+            basis = new ComplexArray[restart + 1];
+            for(int i = 0; i <= restart; i++) basis[i] = new ComplexArray(size);
+            hRe = new double[(restart + 1) * restart];
+            hIm = new double[(restart + 1) * restart];
+            c = new double[restart];
+            sRe = new double[restart];
+            sIm = new double[restart];
+            gRe = new double[restart + 1];
+            gIm = new double[restart + 1];
+        }
+
+        @Override
+        int iterate(ComplexSparseMatrix a, ComplexArray b, ComplexArray x, double bNorm) {
+            double limit = tolerance() * bNorm;
+            int iteration = 0;
+            while(true) {
+                ComplexArray r = basis[0];
+                residual(a, b, x, r);
+                double beta = norm(r);
+                setResidual(beta / bNorm);
+                if(beta <= limit) return iteration;
+                if(iteration >= maxIterations() || !Double.isFinite(beta)) break;
+                scale(r, 1 / beta);
+                gRe[0] = beta;
+                gIm[0] = 0;
+                int k = 0;
+                double estimate = beta;
+                while(k < restart && iteration < maxIterations() && estimate > limit) {
+                    ComplexArray w = basis[k + 1];
+                    multiply(a, basis[k], w);
+                    //Modified Gram-Schmidt against the basis so far:
+                    for(int i = 0; i <= k; i++) {
+                        dot(basis[i], w);
+                        hRe[i * restart + k] = out[0];
+                        hIm[i * restart + k] = out[1];
+                        axpy(-out[0], -out[1], basis[i], w);
+                    }
+                    double h = norm(w);
+                    if(h != 0) scale(w, 1 / h);
+                    //The previous rotations, then a new one that eliminates h:
+                    for(int i = 0; i < k; i++) rotate(i, i * restart + k, (i + 1) * restart + k);
+                    givens(k, hRe[k * restart + k], hIm[k * restart + k], h);
+                    double xRe = hRe[k * restart + k], xIm = hIm[k * restart + k];
+                    hRe[k * restart + k] = c[k] * xRe + (sRe[k] * h);
+                    hIm[k * restart + k] = c[k] * xIm + (sIm[k] * h);
+                    hRe[(k + 1) * restart + k] = 0;
+                    hIm[(k + 1) * restart + k] = 0;
+                    //g[k + 1] = -conj(s) * g[k], g[k] = c * g[k]:
+                    double g0Re = gRe[k], g0Im = gIm[k];
+                    gRe[k + 1] = -(sRe[k] * g0Re + sIm[k] * g0Im);
+                    gIm[k + 1] = -(sRe[k] * g0Im - sIm[k] * g0Re);
+                    gRe[k] = c[k] * g0Re;
+                    gIm[k] = c[k] * g0Im;
+                    estimate = Math.hypot(gRe[k + 1], gIm[k + 1]);
+                    k++;
+                    iteration++;
+                    //The Krylov subspace is invariant, the solution lies in it:
+                    if(h == 0) break;
+                }
+                update(x, k);
+            }
+            throw new ArithmeticException("GMRES didn't converge within " + maxIterations() + " iterations");
+        }
+
+        //Applies rotation i to the entries p and q of the Hessenberg matrix: (p, q) = (c*p + s*q, -conj(s)*p + c*q):
+        private void rotate(int i, int p, int q) {
+            double pRe = hRe[p], pIm = hIm[p], qRe = hRe[q], qIm = hIm[q];
+            hRe[p] = c[i] * pRe + (sRe[i] * qRe - sIm[i] * qIm);
+            hIm[p] = c[i] * pIm + (sRe[i] * qIm + sIm[i] * qRe);
+            hRe[q] = c[i] * qRe - (sRe[i] * pRe + sIm[i] * pIm);
+            hIm[q] = c[i] * qIm - (sRe[i] * pIm - sIm[i] * pRe);
+        }
+
+        //The rotation that maps (a, h) with a real h >= 0 to (|(a, h)| * a/|a|, 0):
+        private void givens(int k, double aRe, double aIm, double h) {
+            double m = ComplexNumber.modulus(aRe, aIm);
+            if(h == 0) {
+                c[k] = 1;
+                sRe[k] = sIm[k] = 0;
+            }
+            else if(m == 0) {
+                c[k] = 0;
+                sRe[k] = 1;
+                sIm[k] = 0;
+            }
+            else {
+                double r = Math.hypot(m, h);
+                c[k] = m / r;
+                sRe[k] = aRe / m * (h / r);
+                sIm[k] = aIm / m * (h / r);
+            }
+        }
+
+        //Solves the triangular system H * y = g of the first k columns and adds the basis times y to x:
+        private void update(ComplexArray x, int k) {
+            for(int i = k - 1; i >= 0; i--) {
+                double yRe = gRe[i], yIm = gIm[i];
+                for(int j = i + 1; j < k; j++) {
+                    double hr = hRe[i * restart + j], hi = hIm[i * restart + j];
+                    yRe -= hr * gRe[j] - hi * gIm[j];
+                    yIm -= hr * gIm[j] + hi * gRe[j];
+                }
+                ComplexNumber.quotient(yRe, yIm, hRe[i * restart + i], hIm[i * restart + i], out);
+                //g[i] isn't needed anymore, it holds y[i] from now on:
+                gRe[i] = out[0];
+                gIm[i] = out[1];
+            }
+            for(int i = 0; i < k; i++) axpy(gRe[i], gIm[i], basis[i], x);
+        }
+    }
+
+    //Helper functions, all vector operations run in parallel if the solver does:
+    final void setResidual(double residual) {
+        this.residual = residual;
+    }
+
+    //r = b - a * x:
+    final void residual(ComplexSparseMatrix a, ComplexArray b, ComplexArray x, ComplexArray r) {
+        multiply(a, x, r);
+        double[] bRe = b.real(), bIm = b.imaginary(), rRe = r.real(), rIm = r.imaginary();
+        forEach((from, to) -> ComplexKernels.diff(bRe, bIm, rRe, rIm, rRe, rIm, from, to));
+    }
+
+    final void multiply(ComplexSparseMatrix a, ComplexArray x, ComplexArray dst) {
+        if(parallel) a.parallel().prod(x, dst);
+        else ComplexSparseMatrix.prod(a, x, dst);
+    }
+
+    //out = <a, b>, the sum of conj(a[i]) * b[i]:
+    final void dot(ComplexArray a, ComplexArray b) {
+        double[] aRe = a.real(), aIm = a.imaginary(), bRe = b.real(), bIm = b.imaginary();
+        out[0] = ParallelKernels.reduce(size, NANOS, parallel, (from, to) -> ComplexKernels.dotRe(aRe, aIm, bRe, bIm, from, to));
+        out[1] = ParallelKernels.reduce(size, NANOS, parallel, (from, to) -> ComplexKernels.dotIm(aRe, aIm, bRe, bIm, from, to));
+    }
+
+    final double norm(ComplexArray a) {
+        double[] re = a.real(), im = a.imaginary();
+        return Math.sqrt(ParallelKernels.reduce(size, NANOS, parallel, (from, to) -> ComplexKernels.normSquared(re, im, from, to)));
+    }
+
+    //y = y + alpha * x:
+    final void axpy(double alphaRe, double alphaIm, ComplexArray x, ComplexArray y) {
+        double[] xRe = x.real(), xIm = x.imaginary(), yRe = y.real(), yIm = y.imaginary();
+        forEach((from, to) -> ComplexKernels.axpy(alphaRe, alphaIm, xRe, xIm, from, yRe, yIm, from, to - from));
+    }
+
+    //y = x + alpha * y:
+    final void xpay(ComplexArray x, double alphaRe, double alphaIm, ComplexArray y) {
+        double[] xRe = x.real(), xIm = x.imaginary(), yRe = y.real(), yIm = y.imaginary();
+        forEach((from, to) -> {
+            for(int i = from; i < to; i++) {
+                double c = yRe[i], d = yIm[i];
+                yRe[i] = xRe[i] + (alphaRe * c - alphaIm * d);
+                yIm[i] = xIm[i] + (alphaRe * d + alphaIm * c);
+            }
+        });
+    }
+
+    final void scale(ComplexArray a, double factor) {
+        double[] re = a.real(), im = a.imaginary();
+        forEach((from, to) -> {
+            for(int i = from; i < to; i++) {
+                re[i] *= factor;
+                im[i] *= factor;
+            }
+        });
+    }
+
+    final void copy(ComplexArray src, ComplexArray dst) {
+        System.arraycopy(src.real(), 0, dst.real(), 0, size);
+        System.arraycopy(src.imaginary(), 0, dst.imaginary(), 0, size);
+    }
+
+    final void clear(ComplexArray a) {
+        Arrays.fill(a.real(), 0);
+        Arrays.fill(a.imaginary(), 0);
+    }
+
+    private void forEach(ParallelKernels.RangeAction action) {
+        if(parallel) ParallelKernels.forEach(size, NANOS, action);
+        else action.apply(0, size);
+    }
+}
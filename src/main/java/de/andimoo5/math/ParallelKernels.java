@@ -0,0 +1,207 @@
+package de.andimoo5.math;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * {@code ParallelKernels} runs the kernels of {@link ComplexKernels} on the common {@link ForkJoinPool}.
+ * An index range is cut into chunks of equal size, which are handed out by recursively splitting the range
+ * of chunks in halves.<br>
+ * <br> The chunk size follows from the cost of one element: every chunk should take about {@link #TASK_NANOS}
+ * nanoseconds, so expensive functions like {@code asin} are split into much smaller chunks than cheap ones
+ * like {@code sum}. Ranges that fit into a single chunk run on the calling thread, as scheduling them would take
+ * longer than the work itself.<br>
+ * <br> Reductions first compute one partial result per chunk and then combine them in the order of the chunks.
+ * The chunk size doesn't depend on the number of threads, so a reduction gives the same result, bit by bit,
+ * whether it runs sequentially or in parallel.
+ *
+ * @author  Andras Martin Moosbauer
+ * @version 2.0
+ */
+final class ParallelKernels {
+
+    /**
+     * The time in nanoseconds each chunk should take.
+     */
+    static final double TASK_NANOS = 100_000;
+
+    //Chunks are a multiple of this, so the vector loops of the kernels don't end in a scalar tail:
+    private static final int ALIGNMENT = 64;
+
+    /**
+     * The cost of the operations per element in nanoseconds, calibrated with the JMH benchmarks in
+     * {@code benchmarks/} (scalar operations on typical values, see {@code baseline/baseline.json}).
+     */
+    enum Cost {
+        ADD(1), SUB(1), MUL(2), DIV(4), CONJUGATE(1), MOD(2), ARG(18),
+        EXP(36), LOG(42), SQRT(103), POW(8), POW_REAL(90), POW_COMPLEX(110),
+        SIN(36), COS(43), TAN(62), ASIN(347), ACOS(179), ATAN(41),
+        SUM(0.5), NORM(1), HORNER(2),
+        //The compensated reductions, with twice the additions of SUM and the error-free products of DOT:
+        COMPENSATED_SUM(1), DOT(3),
+        //One complex multiply-add of the matrix kernels:
+        MATRIX(0.5);
+
+        final double nanos;
+
+        Cost(double nanos) {
+            this.nanos = nanos;
+        }
+    }
+
+    /**
+     * Processes the elements [{@code from}, {@code to}) of a chunk.
+     */
+    @FunctionalInterface
+    interface RangeAction {
+        void apply(int from, int to);
+    }
+
+    /**
+     * Computes the partial result of the elements [{@code from}, {@code to}) of a chunk.
+     */
+    @FunctionalInterface
+    interface RangeReduction {
+        double apply(int from, int to);
+    }
+
+    /**
+     * Writes the {@code width} partial results of the elements [{@code from}, {@code to}) of a chunk to
+     * {@code partial[offset]}, ..., {@code partial[offset + width - 1]}.
+     */
+    @FunctionalInterface
+    interface RangeAccumulation {
+        void apply(int from, int to, double[] partial, int offset);
+    }
+
+    private ParallelKernels() {}
+
+    /**
+     * @param nanos the cost of one element in nanoseconds
+     * @return      the number of elements per chunk
+     */
+    static int grain(double nanos) {
+        double elements = Math.ceil(TASK_NANOS / nanos);
+        if(elements >= Integer.MAX_VALUE - ALIGNMENT) return Integer.MAX_VALUE;
+        return Math.max(ALIGNMENT, ((int)elements + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT);
+    }
+
+    /**
+     * Applies {@code action} to all chunks of [0, {@code length}), in parallel if there is more than one chunk.
+     * @param length    the number of elements
+     * @param nanos     the cost of one element in nanoseconds
+     * @param action    the kernel to apply
+     */
+    static void forEach(int length, double nanos, RangeAction action) {
+        int grain = grain(nanos);
+        if(length <= grain || ForkJoinPool.getCommonPoolParallelism() < 2) {
+            action.apply(0, length);
+            return;
+        }
+        ForkJoinPool.commonPool().invoke(new Task(action, length, grain, 0, chunks(length, grain)));
+    }
+
+    /**
+     * Sums up the partial results of all chunks of [0, {@code length}) in the order of the chunks.
+     * @param length    the number of elements
+     * @param nanos     the cost of one element in nanoseconds, it determines the chunks
+     * @param parallel  {@code true} to compute the partial results in parallel
+     * @param reduction the kernel computing the partial result of a chunk
+     * @return          the sum of the partial results
+     */
+    static double reduce(int length, double nanos, boolean parallel, RangeReduction reduction) {
+        double[] partial = partials(length, nanos, parallel, 1, (from, to, out, offset) -> out[offset] = reduction.apply(from, to));
+        double s = 0;
+        for(double p : partial) s += p;
+        return s;
+    }
+
+    /**
+     * Computes {@code width} partial results for each chunk of [0, {@code length}). The partial results of chunk
+     * {@code c} are at the indexes [{@code c * width}, {@code (c + 1) * width}) of the returned array; combining them
+     * in this order gives the same result whether they were computed sequentially or in parallel.
+     * @param length        the number of elements
+     * @param nanos         the cost of one element in nanoseconds, it determines the chunks
+     * @param parallel      {@code true} to compute the partial results in parallel
+     * @param width         the number of partial results per chunk
+     * @param accumulation  the kernel computing the partial results of a chunk
+     * @return              the partial results of all chunks
+     */
+    static double[] partials(int length, double nanos, boolean parallel, int width, RangeAccumulation accumulation) {
+        int grain = grain(nanos), chunks = chunks(length, grain);
+        double[] partial = new double[chunks * width];
+        RangeAction action = (from, to) -> {
+            for(int c = from; c < to; c++) accumulation.apply(c * grain, end(length, grain, c), partial, c * width);
+        };
+        if(parallel && chunks > 1 && ForkJoinPool.getCommonPoolParallelism() > 1)
+            ForkJoinPool.commonPool().invoke(new Task(action, chunks, 1, 0, chunks));
+        else action.apply(0, chunks);
+        return partial;
+    }
+
+    /**
+     * Applies {@code action} to one chunk of [0, {@code length}) per thread of the common pool. This is meant for
+     * kernels with a fixed cost per chunk, independent of its size, which would make many small chunks expensive.
+     * The whole range runs on the calling thread if it takes less than two {@link #TASK_NANOS}.
+     * @param length    the number of elements
+     * @param nanos     the cost of one element in nanoseconds
+     * @param action    the kernel to apply
+     */
+    static void split(int length, double nanos, RangeAction action) {
+        int threads = ForkJoinPool.getCommonPoolParallelism();
+        if(threads < 2 || length < 2 || length * nanos < 2 * TASK_NANOS) {
+            action.apply(0, length);
+            return;
+        }
+        int grain = (int)(((long)length + threads - 1) / threads);
+        ForkJoinPool.commonPool().invoke(new Task(action, length, grain, 0, chunks(length, grain)));
+    }
+
+    /**
+     * Applies {@code action} to each of the {@code count} pieces [i, i + 1) in a task of its own. This is meant for
+     * pieces of uneven cost, like the tiles of an escape-time image: idle threads steal the remaining halves of the
+     * range from the busy ones, so a few expensive pieces don't hold up the rest.
+     * @param count     the number of pieces
+     * @param action    the kernel to apply
+     */
+    static void tasks(int count, RangeAction action) {
+        if(count < 2 || ForkJoinPool.getCommonPoolParallelism() < 2) {
+            action.apply(0, count);
+            return;
+        }
+        ForkJoinPool.commonPool().invoke(new Task(action, count, 1, 0, count));
+    }
+
+    private static int chunks(int length, int grain) {
+        return (int)(((long)length + grain - 1) / grain);
+    }
+
+    private static int end(int length, int grain, int chunk) {
+        return (int)Math.min(length, (long)(chunk + 1) * grain);
+    }
+
+    //Processes the chunks [lo, hi), splitting them in halves until only one is left:
+    private static final class Task extends RecursiveAction {
+
+        private final RangeAction action;
+        private final int length, grain, lo, hi;
+
+        Task(RangeAction action, int length, int grain, int lo, int hi) {
+            this.action = action;
+            this.length = length;
+            this.grain = grain;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if(hi - lo == 1) {
+                action.apply(lo * grain, end(length, grain, lo));
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new Task(action, length, grain, lo, mid), new Task(action, length, grain, mid, hi));
+        }
+    }
+}
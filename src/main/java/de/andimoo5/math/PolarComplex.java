@@ -0,0 +1,429 @@
+package de.andimoo5.math;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * {@code PolarComplex} is an immutable complex number in polar form, <i>z = r * e^(i*phi)</i>, with the modulus
+ * <i>r</i> and the angle <i>phi</i>. It is meant for calculations dominated by products, quotients, powers and roots:
+ * in polar form a product multiplies the moduli and adds the angles, a power is a real power and a product, and a
+ * square root is a real square root and a halving, while {@link ComplexNumber} needs {@code sqrt}, {@code atan2},
+ * {@code cos} and {@code sin} for every power or root and recalculates {@code mod()} and {@code arg()} on each call.<br>
+ * <br> The angle is kept in <i>(-pi, pi]</i>, the range of {@link Math#atan2(double, double)}; every constructor and
+ * operation reduces it exactly, so angles don't grow in long chains of products. Additions, subtractions and the
+ * other functions need the Cartesian form: it is calculated on first use and cached. The cache is written without
+ * synchronization, which is safe as it holds an immutable {@link ComplexValue}: a thread either sees it or calculates
+ * the same value once more.<br>
+ * <br> Converting to the Cartesian form and back is exact on the axes, e.g. <i>-1</i> is <i>1 * e^(i*pi)</i>, and
+ * otherwise accurate to a few ulp. {@link #equals(Object) equals} compares the polar form, so <i>0</i> with
+ * different angles are different values. {@link #toString()} gives the polar format {@code r@phi} of
+ * {@link ComplexFormat}, which {@link ComplexNumber#parse(CharSequence)} reads back.
+ *
+ * @author  Andras Martin Moosbauer
+ * @version 2.0
+ * @see PolarComplexArray
+ */
+public final class PolarComplex implements Comparable<PolarComplex> {
+
+    /**
+     * The complex number <i>0</i>.
+     */
+    public static final PolarComplex ZERO = new PolarComplex(0, 0);
+
+    /**
+     * The complex number <i>1</i>.
+     */
+    public static final PolarComplex ONE = new PolarComplex(1, 0);
+
+    /**
+     * The imaginary unit <i>i</i>.
+     */
+    public static final PolarComplex I = new PolarComplex(1, Math.PI / 2);
+
+    private static final double TWO_PI = 2 * Math.PI;
+
+    //The modulus, r, and the angle in (-pi, pi], phi:
+    private final double mod, arg;
+    //The Cartesian form, calculated on first use:
+    private ComplexValue cartesian;
+
+    //Constructors of the "PolarComplex" class:
+    /**
+     * Constructs a new {@code PolarComplex} <i>mod * e^(i*arg)</i>.
+     * @param mod   the modulus, <i>r</i>
+     * @param arg   the angle in radians, any finite value; it is reduced to <i>(-pi, pi]</i>
+     * @throws IllegalArgumentException if {@code mod} is negative
+     */
+    public PolarComplex(double mod, double arg) throws IllegalArgumentException {
+        if(mod < 0) throw new IllegalArgumentException("modulus has to be >= 0: " + mod);
+        this.mod = mod;
+        this.arg = reduce(arg);
+    }
+
+    //Conversions between "PolarComplex" and the Cartesian types:
+    /**
+     * Returns the polar form of the complex number <i>re + im*i</i>.
+     * @param re    the real part, Re(z)
+     * @param im    the imaginary part, Im(z)
+     * @return      a {@code PolarComplex} with the modulus and the angle of <i>re + im*i</i>
+     */
+    @Contract("_, _ -> new")
+    public static @NotNull PolarComplex of(double re, double im) {
+        return new PolarComplex(ComplexNumber.modulus(re, im), Math.atan2(im, re));
+    }
+
+    /**
+     * Returns the polar form of {@code z}.
+     * @param z an instance of {@code ComplexNumber}
+     * @return  a {@code PolarComplex} with the modulus and the angle of {@code z}
+     * @throws NullPointerException if {@code z} is equal to {@code null}
+     */
+    @Contract("null -> fail; !null -> new")
+    public static @NotNull PolarComplex of(ComplexNumber z) throws NullPointerException {
+        if(z == null) throw new NullPointerException();
+        return of(z.getRe(), z.getIm());
+    }
+
+    /**
+     * Returns the polar form of {@code z}.
+     * @param z an instance of {@code ComplexValue}
+     * @return  a {@code PolarComplex} with the modulus and the angle of {@code z}
+     * @throws NullPointerException if {@code z} is equal to {@code null}
+     */
+    @Contract("null -> fail; !null -> new")
+    public static @NotNull PolarComplex of(ComplexValue z) throws NullPointerException {
+        if(z == null) throw new NullPointerException();
+        return of(z.re(), z.im());
+    }
+
+    /**
+     * @return  a new, mutable {@code ComplexNumber} with the Cartesian form
+     */
+    @Contract(" -> new")
+    public @NotNull ComplexNumber toComplexNumber() {
+        ComplexValue c = toComplexValue();
+        return new ComplexNumber(c.re(), c.im());
+    }
+
+    /**
+     * @return  the Cartesian form, calculated on the first call
+     */
+    public @NotNull ComplexValue toComplexValue() {
+        ComplexValue c = cartesian;
+        if(c == null) {
+            double[] out = cartesian(mod, arg, new double[2]);
+            cartesian = c = new ComplexValue(out[0], out[1]);
+        }
+        return c;
+    }
+
+    //Basic functions (to get data from objects of this class):
+    /**
+     * @return  the {@code modulus (absolute value / magnitude)}, <i>r</i>
+     */
+    public double mod() {
+        return mod;
+    }
+
+    /**
+     * @return  the {@code argument (angle)} in radians, <i>phi</i>, in <i>(-pi, pi]</i>
+     */
+    public double arg() {
+        return arg;
+    }
+
+    /**
+     * @return  the real part, <i>r * cos(phi)</i>, from the cached Cartesian form
+     */
+    public double re() {
+        return toComplexValue().re();
+    }
+
+    /**
+     * @return  the imaginary part, <i>r * sin(phi)</i>, from the cached Cartesian form
+     */
+    public double im() {
+        return toComplexValue().im();
+    }
+
+    /**
+     * @return  a String in the polar format of {@link ComplexFormat}, e.g. {@code 2.0@1.5707963267948966}
+     */
+    @Override
+    public String toString() {
+        return mod + "@" + arg;
+    }
+
+    /**
+     * Compares the polar form with the one of {@code Object z}, by the bit patterns of the modulus and the angle,
+     * like the {@code equals} of a record.
+     * @param z any {@code Object}
+     * @return  {@code true} if {@code z} is a {@code PolarComplex} with the same modulus and angle
+     */
+    @Override
+    public boolean equals(Object z) {
+        if(this == z) return true;
+        if(!(z instanceof PolarComplex p)) return false;
+        return Double.compare(mod, p.mod) == 0 && Double.compare(arg, p.arg) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Double.hashCode(mod) + Double.hashCode(arg);
+    }
+
+    /**
+     * Compares the {@code PolarComplex} with {@code z} by their modulus, like {@link ComplexNumber#compareTo(ComplexNumber)}.
+     * @param z the {@code PolarComplex} to be compared to
+     * @return  <i>-1</i>, <i>0</i> or <i>1</i> if the modulus is smaller, equal or bigger than the one of {@code z}
+     * @throws NullPointerException if {@code z} is equal to {@code null}
+     */
+    @Override
+    public int compareTo(PolarComplex z) throws NullPointerException {
+        if(z == null) throw new NullPointerException();
+        double t = mod - z.mod;
+        if(t == 0) return 0;
+        if(t < 0) return -1;
+        return 1;
+    }
+
+    //Methods for Arithmetic Operations:
+    /**
+     * @param z summand of the addition
+     * @return  the sum: {@code this} + {@code z}, calculated in Cartesian form
+     * @throws NullPointerException if {@code z} is equal to {@code null}
+     */
+    public PolarComplex add(PolarComplex z) throws NullPointerException {
+        ComplexValue a = toComplexValue(), b = z.toComplexValue();
+        return of(a.re() + b.re(), a.im() + b.im());
+    }
+
+    /**
+     * @param z subtrahend of the difference
+     * @return  the difference: {@code this} - {@code z}, calculated in Cartesian form
+     * @throws NullPointerException if {@code z} is equal to {@code null}
+     */
+    public PolarComplex sub(PolarComplex z) throws NullPointerException {
+        ComplexValue a = toComplexValue(), b = z.toComplexValue();
+        return of(a.re() - b.re(), a.im() - b.im());
+    }
+
+    /**
+     * @param z multiplier of the product
+     * @return  the product: {@code this} * {@code z}, the product of the moduli and the sum of the angles
+     * @throws NullPointerException if {@code z} is equal to {@code null}
+     */
+    public PolarComplex mul(PolarComplex z) throws NullPointerException {
+        return new PolarComplex(mod * z.mod, arg + z.arg);
+    }
+
+    /**
+     * @param z divisor of the division
+     * @return  the division: {@code this} / {@code z}, the quotient of the moduli and the difference of the angles
+     * @throws NullPointerException if {@code z} is equal to {@code null}
+     * @throws ArithmeticException  if {@code z} is equal to {@code 0}
+     */
+    public PolarComplex div(PolarComplex z) throws NullPointerException, ArithmeticException {
+        if(z.mod == 0) throw new ArithmeticException("Can not divide by 0");
+        return new PolarComplex(mod / z.mod, arg - z.arg);
+    }
+
+    //Complex Operations:
+    /**
+     * @return  the conjugate of this complex number
+     */
+    public PolarComplex conjugate() {
+        return new PolarComplex(mod, -arg);
+    }
+
+    /**
+     * @return  the {@code reciprocal (multiplicative inverse)}, or {@code 0} if this is equal to {@code 0}
+     */
+    public PolarComplex rcp() {
+        if(mod == 0) return this;
+        return new PolarComplex(1 / mod, -arg);
+    }
+
+    //Exponential and Logarithmic Functions:
+    /**
+     * @return  the exponential, e^<i>z</i>, which is <i>e^Re(z)</i> with the angle <i>Im(z)</i>
+     */
+    public PolarComplex exp() {
+        ComplexValue c = toComplexValue();
+        return new PolarComplex(Math.exp(c.re()), c.im());
+    }
+
+    /**
+     * @return  the natural logarithm <i>(base e)</i>, which is <i>log(r) + i*phi</i>
+     */
+    public PolarComplex log() {
+        return of(Math.log(mod), arg);
+    }
+
+    /**
+     * @param b the base of the logarithm, as a {@code double}
+     * @return  the logarithm with the base {@code b}
+     * @throws ArithmeticException  if the base {@code b} of the logarithm is &lt;= 0 or equal to 1
+     */
+    public PolarComplex log(double b) throws ArithmeticException {
+        return of(ComplexNumber.log(toComplexNumber(), b));
+    }
+
+    /**
+     * @return  the logarithm with the base 10
+     */
+    public PolarComplex log10() {
+        return log(10);
+    }
+
+    /**
+     * @param power the power, as a {@code long}
+     * @return      this complex number to the power of {@code power}, <i>r^power</i> with the angle <i>power*phi</i>
+     * @throws ArithmeticException  if this is equal to {@code 0} and {@code power} is negative
+     */
+    public PolarComplex pow(long power) throws ArithmeticException {
+        return pow((double)power);
+    }
+
+    /**
+     * @param power the power, as a {@code double}
+     * @return      this complex number to the power of {@code power}, <i>r^power</i> with the angle <i>power*phi</i>;
+     *              like {@link ComplexNumber#pow(ComplexNumber, double)} this is the principal value
+     * @throws ArithmeticException  if this is equal to {@code 0} and {@code power} is negative
+     */
+    public PolarComplex pow(double power) throws ArithmeticException {
+        if(power < 0 && mod == 0) throw new ArithmeticException("Can not divide by 0");
+        return new PolarComplex(Math.pow(mod, power), arg * power);
+    }
+
+    /**
+     * @param w the power
+     * @return  this complex number to the power of {@code w}, the principal value of <i>e^(w*log(z))</i>
+     * @throws NullPointerException if {@code w} is equal to {@code null}
+     * @throws ArithmeticException  if this is equal to {@code 0} and <i>Re(w)</i> is &lt;= 0, but {@code w} isn't {@code 0}
+     * @see ComplexNumber#pow(ComplexNumber, ComplexNumber)
+     */
+    public PolarComplex pow(PolarComplex w) throws NullPointerException, ArithmeticException {
+        ComplexValue c = w.toComplexValue();
+        if(mod == 0) {
+            if(w.mod == 0) return ONE;
+            if(c.re() > 0) return ZERO;
+            throw new ArithmeticException("Can not divide by 0");
+        }
+        //w * log(z) with log(z) = log(r) + i*phi is the logarithm of the result:
+        double l = Math.log(mod);
+        return new PolarComplex(Math.exp(c.re() * l - c.im() * arg), c.re() * arg + c.im() * l);
+    }
+
+    /**
+     * @return  the square root, <i>sqrt(r)</i> with the angle <i>phi/2</i>
+     */
+    public PolarComplex sqrt() {
+        return new PolarComplex(Math.sqrt(mod), arg / 2);
+    }
+
+    /**
+     * Calculates all {@code n}-th roots, <i>r^(1/n)</i> with the angles <i>(phi + 2*pi*k)/n</i>.
+     * @param n the degree of the roots
+     * @return  an array of the {@code n} roots, starting with the principal one and going on counterclockwise
+     * @throws IllegalArgumentException if {@code n} is smaller than 1
+     */
+    public PolarComplex @NotNull [] roots(int n) throws IllegalArgumentException {
+        if(n < 1) throw new IllegalArgumentException("degree has to be positive: " + n);
+        double r = n == 2 ? Math.sqrt(mod) : Math.pow(mod, 1.0 / n);
+        PolarComplex[] roots = new PolarComplex[n];
+        for(int k = 0; k < n; k++) roots[k] = new PolarComplex(r, (arg + TWO_PI * k) / n);
+        return roots;
+    }
+
+    //Trigonometric Operations:
+    /**
+     * @return  the sine
+     */
+    public PolarComplex sin() {
+        return apply(ComplexNumber::sin);
+    }
+
+    /**
+     * @return  the cosine
+     */
+    public PolarComplex cos() {
+        return apply(ComplexNumber::cos);
+    }
+
+    /**
+     * @return  the tangent
+     * @throws ArithmeticException  if the cosine is equal to {@code 0}
+     */
+    public PolarComplex tan() throws ArithmeticException {
+        return apply(ComplexNumber::tan);
+    }
+
+    /**
+     * @return  the arc sine
+     */
+    public PolarComplex asin() {
+        return apply(ComplexNumber::asin);
+    }
+
+    /**
+     * @return  the arc cosine
+     * @throws ArithmeticException  if this is equal to {@code 0}
+     */
+    public PolarComplex acos() throws ArithmeticException {
+        return apply(ComplexNumber::acos);
+    }
+
+    /**
+     * @return  the arc tangent
+     * @throws ArithmeticException  if this is equal to {@code -i}
+     */
+    public PolarComplex atan() throws ArithmeticException {
+        return apply(ComplexNumber::atan);
+    }
+
+    //Helper functions:
+    private PolarComplex apply(ComplexStream.ComplexUnaryOperator f) {
+        ComplexValue c = toComplexValue();
+        double[] out = f.apply(c.re(), c.im(), new double[2]);
+        return of(out[0], out[1]);
+    }
+
+    /**
+     * Reduces {@code angle} exactly to <i>(-pi, pi]</i>, up to the rounding of <i>2*pi</i> to a {@code double}.
+     * @param angle an angle in radians
+     * @return      the same angle in <i>(-pi, pi]</i>, {@code NaN} if {@code angle} isn't finite
+     */
+    static double reduce(double angle) {
+        if(angle > -Math.PI && angle <= Math.PI) return angle;
+        double r = Math.IEEEremainder(angle, TWO_PI);
+        return r == -Math.PI ? Math.PI : r;
+    }
+
+    /**
+     * Calculates the Cartesian form of <i>mod * e^(i*arg)</i>. The angles of the axes give exact results, and a part
+     * with a sine or cosine of {@code 0} stays {@code 0} for an infinite modulus.
+     * @param mod   the modulus
+     * @param arg   the angle in radians
+     * @param out   receives the real part at index 0 and the imaginary part at index 1
+     * @return      {@code out}
+     */
+    static double[] cartesian(double mod, double arg, double[] out) {
+        double c, s;
+        if(arg == Math.PI) {
+            c = -1;
+            s = 0;
+        }
+        else if(arg == Math.PI / 2 || arg == -Math.PI / 2) {
+            c = 0;
+            s = Math.signum(arg);
+        }
+        else {
+            c = Math.cos(arg);
+            s = Math.sin(arg);
+        }
+        out[0] = c == 0 ? c : mod * c;
+        out[1] = s == 0 ? s : mod * s;
+        return out;
+    }
+}
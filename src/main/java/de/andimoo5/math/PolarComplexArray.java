@@ -0,0 +1,466 @@
+package de.andimoo5.math;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * {@code PolarComplexArray} is a fixed-length array of complex numbers in polar form, the bulk counterpart of
+ * {@link PolarComplex}: all moduli in one {@code double[]} and all angles in another. Products, quotients and square
+ * roots of whole arrays are then as cheap as real products, quotients and square roots, and run on the SIMD kernels
+ * of {@link VectorKernels}; powers need one {@link Math#pow(double, double)} per element.<br>
+ * <br> The angles are kept in <i>(-pi, pi]</i> as long as the stored ones are in that range; the products and
+ * quotients bring the sum or difference of two angles back with a single exact correction.<br>
+ * <br> The conversions from and to {@link ComplexArray} take an {@link Accuracy}:
+ * <ul>
+ *     <li>{@link Accuracy#STRICT}: {@link Math#atan2(double, double)} to polar form,
+ *          {@link Math#cos(double)} and {@link Math#sin(double)} back, like {@link PolarComplex} does it</li>
+ *     <li>{@link Accuracy#FAST}: like {@code STRICT} to polar form, but the joint polynomial sine and cosine of
+ *          {@code FAST} back, vectorized</li>
+ *     <li>{@link Accuracy#APPROX}: the short polynomials of {@code APPROX} for the angle and for the sine and cosine,
+ *          both vectorized</li>
+ * </ul>
+ * The moduli always come from the vectorized kernel of {@link ComplexArray#mod(ComplexArray, double[])}. The vector
+ * kernels give the same results, bit by bit, as their scalar versions, so the result doesn't depend on the CPU.
+ *
+ * @author  Andras Martin Moosbauer
+ * @version 2.0
+ * @see PolarComplex
+ * @see ComplexArray
+ */
+public class PolarComplexArray {
+
+    //Values of the complex numbers, the moduli, r, and the angles, phi:
+    private final double[] mod, arg;
+
+    //Constructors of the "PolarComplexArray" class:
+    /**
+     * Constructs a new {@code PolarComplexArray} of the given length with all elements equal to 0.
+     * @param length    the number of complex numbers
+     * @throws NegativeArraySizeException if {@code length} is negative
+     */
+    public PolarComplexArray(int length) {
+        this(new double[length], new double[length]);
+    }
+
+    /**
+     * Constructs a new {@code PolarComplexArray} backed by the passed arrays. The arrays are <b>not</b> copied,
+     * so changes to them are visible in the {@code PolarComplexArray} and vice versa.
+     * @param mod   the moduli, r, of the complex numbers, which should not be negative
+     * @param arg   the angles, phi, of the complex numbers, which should be in <i>(-pi, pi]</i>
+     * @throws NullPointerException     if either {@code mod} or {@code arg} is equal to {@code null}
+     * @throws IllegalArgumentException if {@code mod} and {@code arg} differ in length
+     */
+    public PolarComplexArray(double[] mod, double[] arg) throws NullPointerException, IllegalArgumentException {
+        if(mod == null || arg == null) throw new NullPointerException();
+        if(mod.length != arg.length) throw new IllegalArgumentException("moduli and angles differ in length");
+        this.mod = mod;
+        this.arg = arg;
+    }
+
+    /**
+     * Constructs a new {@code PolarComplexArray} holding the values of the passed complex numbers.
+     * @param values    instances of {@code PolarComplex}
+     * @throws NullPointerException if {@code values} or one of its elements is equal to {@code null}
+     */
+    public PolarComplexArray(PolarComplex... values) throws NullPointerException {
+        this(values.length);
+        for(int i = 0; i < values.length; i++) set(i, values[i]);
+    }
+
+    /**
+     * Constructs a new {@code PolarComplexArray} with a copy of the values of <i>a</i>.
+     * @param a an instance of {@code PolarComplexArray}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     */
+    public PolarComplexArray(PolarComplexArray a) throws NullPointerException {
+        this(a.mod.clone(), a.arg.clone());
+    }
+
+    //Conversions between "PolarComplexArray" and "ComplexArray":
+    /**
+     * Converts {@code a} to polar form with {@link Accuracy#STRICT}, see {@link #of(ComplexArray, Accuracy, PolarComplexArray)}.
+     * @param a an instance of {@code ComplexArray}
+     * @return  a new {@code PolarComplexArray} with the moduli and the angles of {@code a}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     */
+    @Contract("null -> fail; !null -> new")
+    public static @NotNull PolarComplexArray of(ComplexArray a) throws NullPointerException {
+        return of(a, Accuracy.STRICT);
+    }
+
+    /**
+     * Converts {@code a} to polar form, see {@link #of(ComplexArray, Accuracy, PolarComplexArray)}.
+     * @param a         an instance of {@code ComplexArray}
+     * @param accuracy  the accuracy of the angles
+     * @return          a new {@code PolarComplexArray} with the moduli and the angles of {@code a}
+     * @throws NullPointerException if either {@code a} or {@code accuracy} is equal to {@code null}
+     */
+    @Contract("null, _ -> fail; !null, _ -> new")
+    public static @NotNull PolarComplexArray of(ComplexArray a, Accuracy accuracy) throws NullPointerException {
+        if(a == null) throw new NullPointerException();
+        return of(a, accuracy, new PolarComplexArray(a.length()));
+    }
+
+    /**
+     * Converts {@code a} to polar form and stores it in {@code dst}. The moduli are exact to 1 ulp; the angles are
+     * calculated with {@link Math#atan2(double, double)}, or with the vectorized polynomial of {@link Accuracy#APPROX}.
+     * @param a         an instance of {@code ComplexArray}
+     * @param accuracy  the accuracy of the angles
+     * @param dst       the destination
+     * @return          {@code dst}, holding the moduli and the angles of {@code a}
+     * @throws NullPointerException     if {@code a}, {@code accuracy} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _, _ -> param3")
+    public static PolarComplexArray of(ComplexArray a, Accuracy accuracy, PolarComplexArray dst) throws NullPointerException, IllegalArgumentException {
+        if(a == null || accuracy == null || dst == null) throw new NullPointerException();
+        if(a.length() != dst.length()) throw new IllegalArgumentException("arrays differ in length");
+        double[] re = a.real(), im = a.imaginary();
+        ComplexKernels.mod(re, im, dst.mod, 0, re.length);
+        if(accuracy == Accuracy.APPROX) ComplexKernels.argApprox(re, im, dst.arg, 0, re.length);
+        else ComplexKernels.arg(re, im, dst.arg, 0, re.length);
+        //atan2 gives -pi for a negative real part with an imaginary part of -0.0:
+        for(int i = 0; i < re.length; i++) {
+            if(dst.arg[i] == -Math.PI) dst.arg[i] = Math.PI;
+        }
+        return dst;
+    }
+
+    /**
+     * Converts the values to Cartesian form with {@link Accuracy#STRICT}, see {@link #toComplexArray(Accuracy, ComplexArray)}.
+     * @return  a new {@code ComplexArray} with the Cartesian form of the values
+     */
+    @Contract(" -> new")
+    public @NotNull ComplexArray toComplexArray() {
+        return toComplexArray(Accuracy.STRICT);
+    }
+
+    /**
+     * Converts the values to Cartesian form, see {@link #toComplexArray(Accuracy, ComplexArray)}.
+     * @param accuracy  the accuracy of the sine and cosine
+     * @return          a new {@code ComplexArray} with the Cartesian form of the values
+     * @throws NullPointerException if {@code accuracy} is equal to {@code null}
+     */
+    @Contract("_ -> new")
+    public @NotNull ComplexArray toComplexArray(Accuracy accuracy) throws NullPointerException {
+        return toComplexArray(accuracy, new ComplexArray(length()));
+    }
+
+    /**
+     * Converts the values to Cartesian form and stores it in {@code dst}. With {@link Accuracy#STRICT} every element
+     * is the one of {@link PolarComplex#toComplexValue()}; the other tiers use their polynomial sine and cosine on
+     * whole vectors of angles.
+     * @param accuracy  the accuracy of the sine and cosine
+     * @param dst       the destination
+     * @return          {@code dst}, holding the Cartesian form of the values
+     * @throws NullPointerException     if either {@code accuracy} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if {@code dst} has a different length
+     */
+    @Contract("_, _ -> param2")
+    public ComplexArray toComplexArray(Accuracy accuracy, ComplexArray dst) throws NullPointerException, IllegalArgumentException {
+        if(accuracy == null || dst == null) throw new NullPointerException();
+        if(dst.length() != length()) throw new IllegalArgumentException("arrays differ in length");
+        if(accuracy == Accuracy.STRICT) ComplexKernels.cartesian(mod, arg, dst.real(), dst.imaginary(), 0, mod.length);
+        else ComplexKernels.cartesian(mod, arg, dst.real(), dst.imaginary(), 0, mod.length, accuracy == Accuracy.APPROX);
+        return dst;
+    }
+
+    //Basic functions (to set/get data from objects of this class):
+    /**
+     * @return  the number of complex numbers in this array
+     */
+    public int length() {
+        return mod.length;
+    }
+
+    /**
+     * Returns the array holding the moduli, <i>r</i>. It is the backing array and not a copy.
+     * @return  the moduli of all elements
+     */
+    public double[] mod() {
+        return mod;
+    }
+
+    /**
+     * Returns the array holding the angles, <i>phi</i>. It is the backing array and not a copy.
+     * @return  the angles of all elements
+     */
+    public double[] arg() {
+        return arg;
+    }
+
+    /**
+     * Returns the element at index {@code i}.
+     * @param i the index of the element
+     * @return  a {@code PolarComplex} with the value of the element
+     * @throws ArrayIndexOutOfBoundsException if {@code i} is out of bounds
+     * @throws IllegalArgumentException       if the modulus of the element is negative
+     */
+    public @NotNull PolarComplex get(int i) {
+        return new PolarComplex(mod[i], arg[i]);
+    }
+
+    /**
+     * Sets the element at index {@code i} to the value of {@code z}.
+     * @param i the index of the element
+     * @param z an instance of {@code PolarComplex}
+     * @throws NullPointerException           if {@code z} is equal to {@code null}
+     * @throws ArrayIndexOutOfBoundsException if {@code i} is out of bounds
+     */
+    public void set(int i, PolarComplex z) throws NullPointerException {
+        if(z == null) throw new NullPointerException();
+        set(i, z.mod(), z.arg());
+    }
+
+    /**
+     * Sets the modulus and the angle of the element at index {@code i} to the passed values.
+     * @param i     the index of the element
+     * @param mod   the modulus, r, of the element
+     * @param arg   the angle, phi, of the element
+     * @throws ArrayIndexOutOfBoundsException if {@code i} is out of bounds
+     */
+    public void set(int i, double mod, double arg) {
+        this.mod[i] = mod;
+        this.arg[i] = arg;
+    }
+
+    /**
+     * Return the modulus of the element at index {@code i}
+     * @param i the index of the element
+     * @return  a {@code double} of the modulus, <i>r</i>, of the element
+     */
+    public double getMod(int i) {
+        return mod[i];
+    }
+
+    /**
+     * Return the angle of the element at index {@code i}
+     * @param i the index of the element
+     * @return  a {@code double} of the angle, <i>phi</i>, of the element
+     */
+    public double getArg(int i) {
+        return arg[i];
+    }
+
+    /**
+     * Copies all elements into {@code PolarComplex} objects.
+     * @return  an array of {@code PolarComplex} objects
+     */
+    public PolarComplex[] toArray() {
+        PolarComplex[] values = new PolarComplex[length()];
+        for(int i = 0; i < values.length; i++) values[i] = get(i);
+        return values;
+    }
+
+    /**
+     * @return      a String representing the values in the format of: <br>{@code [z0, z1, ...]},
+     *              where every element is formatted like {@link PolarComplex#toString()}
+     */
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder("[");
+        for(int i = 0; i < mod.length; i++) {
+            if(i > 0) s.append(", ");
+            s.append(mod[i]).append('@').append(arg[i]);
+        }
+        return s.append(']').toString();
+    }
+
+    /**
+     * Compares the values of the {@code PolarComplexArray} with the ones of {@code Object a}.
+     * @param a any {@code Object}
+     * @return  {@code true} if {@code a} is a {@code PolarComplexArray} of the same length with equal elements
+     */
+    @Override
+    public boolean equals(Object a) {
+        if(this == a) return true;
+        if(!(a instanceof PolarComplexArray)) return false;
+        return Arrays.equals(mod, ((PolarComplexArray)a).mod) && Arrays.equals(arg, ((PolarComplexArray)a).arg);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(mod) + Arrays.hashCode(arg);
+    }
+
+    //Methods for Arithmetic Operations:
+    /**
+     * Calculates the element-wise product of {@code a} and {@code b} and stores it in {@code dst}: the products of
+     * the moduli and the sums of the angles.
+     * @param a     multiplicands of the multiplication
+     * @param b     multipliers of the multiplication
+     * @param dst   the destination, may be {@code a} or {@code b}
+     * @return      {@code dst}, holding {@code a[i]} * {@code b[i]}
+     * @throws NullPointerException     if {@code a}, {@code b} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _, _ -> param3")
+    public static PolarComplexArray prod(PolarComplexArray a, PolarComplexArray b, PolarComplexArray dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, b, dst);
+        ComplexKernels.polarProd(a.mod, a.arg, b.mod, b.arg, dst.mod, dst.arg, 0, a.length());
+        return dst;
+    }
+
+    /**
+     * Calculates the element-wise product of {@code a} and {@code b}.
+     * @param a multiplicands of the multiplication
+     * @param b multipliers of the multiplication
+     * @return  a new {@code PolarComplexArray} holding {@code a[i]} * {@code b[i]}
+     * @throws NullPointerException     if either {@code a} or {@code b} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> new")
+    public static @NotNull PolarComplexArray prod(PolarComplexArray a, PolarComplexArray b) throws NullPointerException, IllegalArgumentException {
+        if(a == null) throw new NullPointerException();
+        return prod(a, b, new PolarComplexArray(a.length()));
+    }
+
+    /**
+     * Mathematically multiplies {@code b} element-wise to itself.
+     * @param b numbers to be multiplied with
+     */
+    public void mul(PolarComplexArray b) {
+        prod(this, b, this);
+    }
+
+    /**
+     * Calculates the element-wise division of {@code a} and {@code b} and stores it in {@code dst}: the quotients of
+     * the moduli and the differences of the angles. A divisor equal to {@code 0} doesn't throw an exception, the
+     * modulus of the affected element becomes infinite or {@code NaN} instead.
+     * @param a     dividends of the division
+     * @param b     divisors of the division
+     * @param dst   the destination, may be {@code a} or {@code b}
+     * @return      {@code dst}, holding {@code a[i]} / {@code b[i]}
+     * @throws NullPointerException     if {@code a}, {@code b} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _, _ -> param3")
+    public static PolarComplexArray division(PolarComplexArray a, PolarComplexArray b, PolarComplexArray dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, b, dst);
+        ComplexKernels.polarDivision(a.mod, a.arg, b.mod, b.arg, dst.mod, dst.arg, 0, a.length());
+        return dst;
+    }
+
+    /**
+     * Calculates the element-wise division of {@code a} and {@code b}.
+     * @param a dividends of the division
+     * @param b divisors of the division
+     * @return  a new {@code PolarComplexArray} holding {@code a[i]} / {@code b[i]}
+     * @throws NullPointerException     if either {@code a} or {@code b} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> new")
+    public static @NotNull PolarComplexArray division(PolarComplexArray a, PolarComplexArray b) throws NullPointerException, IllegalArgumentException {
+        if(a == null) throw new NullPointerException();
+        return division(a, b, new PolarComplexArray(a.length()));
+    }
+
+    /**
+     * Mathematically divides itself element-wise by {@code b}.
+     * @param b numbers to be divided by
+     */
+    public void div(PolarComplexArray b) {
+        division(this, b, this);
+    }
+
+    //Complex Operations:
+    /**
+     * Calculates the conjugate of every element of {@code a} and stores it in {@code dst}. An angle of <i>pi</i>
+     * stays <i>pi</i>, as these are the negative real numbers.
+     * @param a     the numbers to calculate the conjugate from
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding the conjugate of {@code a[i]}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> param2")
+    public static PolarComplexArray conjugate(PolarComplexArray a, PolarComplexArray dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, a, dst);
+        for(int i = 0; i < a.mod.length; i++) {
+            double phi = a.arg[i];
+            dst.mod[i] = a.mod[i];
+            dst.arg[i] = phi == Math.PI ? phi : -phi;
+        }
+        return dst;
+    }
+
+    /**
+     * Calculates the conjugate of every element of {@code a}.
+     * @param a the numbers to calculate the conjugate from
+     * @return  a new {@code PolarComplexArray} holding the conjugate of {@code a[i]}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     */
+    @Contract("_ -> new")
+    public static @NotNull PolarComplexArray conjugate(PolarComplexArray a) throws NullPointerException {
+        if(a == null) throw new NullPointerException();
+        return conjugate(a, new PolarComplexArray(a.length()));
+    }
+
+    //Powers and Roots:
+    /**
+     * Calculates every element of {@code a} to the power of {@code power} and stores it in {@code dst}: the moduli
+     * to the power of {@code power} and the angles times {@code power}, reduced to <i>(-pi, pi]</i>. Like
+     * {@link PolarComplex#pow(double)} this is the principal value.
+     * @param a     the bases
+     * @param power the power, as a {@code double}
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding {@code a[i]}^{@code power}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _, _ -> param3")
+    public static PolarComplexArray pow(PolarComplexArray a, double power, PolarComplexArray dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, a, dst);
+        ComplexKernels.polarPow(a.mod, a.arg, power, dst.mod, dst.arg, 0, a.length());
+        return dst;
+    }
+
+    /**
+     * Calculates every element of {@code a} to the power of {@code power}.
+     * @param a     the bases
+     * @param power the power, as a {@code double}
+     * @return      a new {@code PolarComplexArray} holding {@code a[i]}^{@code power}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     */
+    @Contract("_, _ -> new")
+    public static @NotNull PolarComplexArray pow(PolarComplexArray a, double power) throws NullPointerException {
+        if(a == null) throw new NullPointerException();
+        return pow(a, power, new PolarComplexArray(a.length()));
+    }
+
+    /**
+     * Calculates the square root of every element of {@code a} and stores it in {@code dst}: the square roots of
+     * the moduli and the halves of the angles.
+     * @param a     the numbers to calculate the square root from
+     * @param dst   the destination, may be {@code a}
+     * @return      {@code dst}, holding the square root of {@code a[i]}
+     * @throws NullPointerException     if either {@code a} or {@code dst} is equal to {@code null}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    @Contract("_, _ -> param2")
+    public static PolarComplexArray sqrt(PolarComplexArray a, PolarComplexArray dst) throws NullPointerException, IllegalArgumentException {
+        checkLengths(a, a, dst);
+        ComplexKernels.polarSqrt(a.mod, a.arg, dst.mod, dst.arg, 0, a.length());
+        return dst;
+    }
+
+    /**
+     * Calculates the square root of every element of {@code a}.
+     * @param a the numbers to calculate the square root from
+     * @return  a new {@code PolarComplexArray} holding the square root of {@code a[i]}
+     * @throws NullPointerException if {@code a} is equal to {@code null}
+     */
+    @Contract("_ -> new")
+    public static @NotNull PolarComplexArray sqrt(PolarComplexArray a) throws NullPointerException {
+        if(a == null) throw new NullPointerException();
+        return sqrt(a, new PolarComplexArray(a.length()));
+    }
+
+    //Helper functions:
+    private static void checkLengths(PolarComplexArray a, PolarComplexArray b, PolarComplexArray dst) {
+        if(a == null || b == null || dst == null) throw new NullPointerException();
+        if(a.length() != b.length() || a.length() != dst.length()) throw new IllegalArgumentException("arrays differ in length");
+    }
+}
@@ -0,0 +1,242 @@
+package de.andimoo5.math;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.DoubleBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * {@code RootsOfUnity} is the table of the <i>n</i>-th roots of unity <i>w^k = e^(2*pi*i*k/n)</i>, <i>k = 0, ..., n-1</i>,
+ * for the twiddle factors of transforms and convolutions. Get the table of a size with {@link #of(int)}; tables are
+ * immutable, created on the first request and cached, so a loop over {@code re(k)} and {@code im(k)} replaces a call
+ * of {@link ComplexNumber#exp(double, double, double[])} per root.<br>
+ * <br> Only the roots in the first octant, with an angle of at most <i>pi/4</i>, are computed with {@link Math#cos}
+ * and {@link Math#sin}; all the others are mirrored from them. This makes the table more accurate than evaluating
+ * <i>e^(2*pi*i*k/n)</i> directly, as the argument of the functions never gets big, and its symmetries hold exactly:
+ * <i>w^(n-k)</i> is exactly the conjugate of <i>w^k</i>, and <i>w^(n/4)</i> is exactly <i>i</i>. The same reduction is
+ * available for single roots, without a table, as {@link #root(long, long, double[])}.<br>
+ * <br> The cache holds tables with at most {@value #CACHE_LIMIT} roots in total and drops the least recently used
+ * ones beyond that; bigger tables are created but not cached. {@code of} is safe to call from many threads. It doesn't
+ * lock while a table is computed, so threads asking for the same new size at the same time may each compute it,
+ * but they all end up with the cached one.
+ *
+ * @author  Andras Martin Moosbauer
+ * @version 2.0
+ * @see FFT
+ */
+public final class RootsOfUnity {
+
+    /**
+     * The maximum number of roots in all cached tables together, 64 MiB of {@code doubles}.
+     */
+    public static final int CACHE_LIMIT = 1 << 22;
+
+    //The tables in the order of their last use; all accesses are synchronized on it:
+    private static final LinkedHashMap<Integer, RootsOfUnity> CACHE = new LinkedHashMap<>(16, 0.75f, true);
+    private static long cached;
+
+    private final int n;
+    //Shared with the kernels of this package, which must not change them:
+    final double[] re, im;
+
+    //Constructors of the "RootsOfUnity" class:
+    private RootsOfUnity(int n) {
+        this.n = n;
+        re = new double[n];
+        im = new double[n];
+        //The first octant, or as much as the symmetries of n leave to compute:
+        int filled = n % 4 == 0 ? n / 8 : n % 2 == 0 ? n / 4 : n / 2;
+        double[] out = new double[2];
+        for(int k = 0; k <= filled; k++) {
+            root(k, n, out);
+            re[k] = out[0];
+            im[k] = out[1];
+        }
+        //w^(n/4-k) = i * conj(w^k):
+        if(n % 4 == 0) {
+            for(int k = filled + 1; k <= n / 4; k++) {
+                re[k] = im[n / 4 - k];
+                im[k] = re[n / 4 - k];
+            }
+            filled = n / 4;
+        }
+        //w^(n/2-k) = -conj(w^k):
+        if(n % 2 == 0) {
+            for(int k = filled + 1; k <= n / 2; k++) {
+                re[k] = -re[n / 2 - k];
+                im[k] = im[n / 2 - k];
+            }
+            filled = n / 2;
+        }
+        //w^(n-k) = conj(w^k):
+        for(int k = filled + 1; k < n; k++) {
+            re[k] = re[n - k];
+            im[k] = -im[n - k];
+        }
+    }
+
+    /**
+     * Returns the table of the {@code n}-th roots of unity. Tables are created on the first request and cached.
+     * @param n the number of roots
+     * @return  the {@code RootsOfUnity} of the size {@code n}
+     * @throws IllegalArgumentException if {@code n} is smaller than 1
+     */
+    public static @NotNull RootsOfUnity of(int n) throws IllegalArgumentException {
+        if(n < 1) throw new IllegalArgumentException("size has to be positive");
+        synchronized(CACHE) {
+            RootsOfUnity roots = CACHE.get(n);
+            if(roots != null) return roots;
+        }
+        RootsOfUnity roots = new RootsOfUnity(n);
+        synchronized(CACHE) {
+            RootsOfUnity previous = CACHE.get(n);
+            if(previous != null) return previous;
+            if(n > CACHE_LIMIT) return roots;
+            CACHE.put(n, roots);
+            cached += n;
+            //The new table is the most recently used one, so it is never dropped here:
+            for(Iterator<RootsOfUnity> it = CACHE.values().iterator(); cached > CACHE_LIMIT; ) {
+                cached -= it.next().n;
+                it.remove();
+            }
+            return roots;
+        }
+    }
+
+    /**
+     * Returns a cached table whose size is a multiple of {@code n} up to {@code maxFactor * n}, the smallest one if
+     * there are several, or the table of {@code n} itself. As the roots are computed from the reduced fraction
+     * <i>k/n</i>, <i>w^k</i> of {@code n} is bit for bit the root <i>k * size / n</i> of the returned table.
+     */
+    static @NotNull RootsOfUnity multipleOf(int n, int maxFactor) {
+        if(n < 1) throw new IllegalArgumentException("size has to be positive");
+        synchronized(CACHE) {
+            int best = 0;
+            for(int size : CACHE.keySet()) {
+                if(size % n == 0 && size / n <= maxFactor && (best == 0 || size < best)) best = size;
+            }
+            //get instead of the key alone, so the table counts as used:
+            if(best != 0) return CACHE.get(best);
+        }
+        return of(n);
+    }
+
+    //The number of roots in all cached tables, for the tests:
+    static long cached() {
+        synchronized(CACHE) {
+            return cached;
+        }
+    }
+
+    //Basic functions (to get data from objects of this class):
+    /**
+     * @return  the number of roots, <i>n</i>
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * @param k the exponent, any {@code int}; it is taken modulo <i>n</i>, so negative exponents give the conjugates
+     * @return  the real part of <i>w^k</i>, cos(<i>2*pi*k/n</i>)
+     */
+    public double re(int k) {
+        return re[Math.floorMod(k, n)];
+    }
+
+    /**
+     * @param k the exponent, any {@code int}; it is taken modulo <i>n</i>, so negative exponents give the conjugates
+     * @return  the imaginary part of <i>w^k</i>, sin(<i>2*pi*k/n</i>)
+     */
+    public double im(int k) {
+        return im[Math.floorMod(k, n)];
+    }
+
+    /**
+     * @param k     the exponent, any {@code int}; it is taken modulo <i>n</i>
+     * @param out   receives the real part of <i>w^k</i> at index 0 and the imaginary part at index 1
+     * @return      {@code out}
+     * @throws NullPointerException if {@code out} is equal to {@code null}
+     */
+    @Contract("_, _ -> param2")
+    public double[] get(int k, double[] out) throws NullPointerException {
+        int i = Math.floorMod(k, n);
+        out[0] = re[i];
+        out[1] = im[i];
+        return out;
+    }
+
+    /**
+     * @param k the exponent, any {@code int}; it is taken modulo <i>n</i>
+     * @return  a new {@code ComplexNumber} holding <i>w^k</i>
+     */
+    @Contract("_ -> new")
+    public @NotNull ComplexNumber get(int k) {
+        int i = Math.floorMod(k, n);
+        return new ComplexNumber(re[i], im[i]);
+    }
+
+    /**
+     * @return  a read-only view of the real parts of the roots, cos(<i>2*pi*k/n</i>) at index <i>k</i>
+     */
+    public @NotNull DoubleBuffer real() {
+        return DoubleBuffer.wrap(re).asReadOnlyBuffer();
+    }
+
+    /**
+     * @return  a read-only view of the imaginary parts of the roots, sin(<i>2*pi*k/n</i>) at index <i>k</i>
+     */
+    public @NotNull DoubleBuffer imag() {
+        return DoubleBuffer.wrap(im).asReadOnlyBuffer();
+    }
+
+    /**
+     * @return  a String naming the size, e.g. {@code RootsOfUnity[n=12]}
+     */
+    @Override
+    public String toString() {
+        return "RootsOfUnity[n=" + n + "]";
+    }
+
+    //Methods for single Roots:
+    /**
+     * Calculates the single root <i>e^(2*pi*i*k/n)</i> without a table, with the same accuracy and the same values
+     * as the tables of {@link #of(int)}. The exponent is reduced exactly to an angle of at most <i>pi/4</i> first,
+     * so it stays accurate for huge {@code k} and {@code n}, like the chirp <i>e^(pi*i*k^2/n) = w^(k^2)</i> for
+     * <i>2n</i> roots.
+     * @param k     the exponent, any {@code long}; it is taken modulo {@code n}
+     * @param n     the number of roots
+     * @param out   receives the real part at index 0 and the imaginary part at index 1
+     * @return      {@code out}
+     * @throws NullPointerException     if {@code out} is equal to {@code null}
+     * @throws IllegalArgumentException if {@code n} is smaller than 1 or bigger than 2^60
+     */
+    @Contract("_, _, _ -> param3")
+    public static double[] root(long k, long n, double[] out) throws NullPointerException, IllegalArgumentException {
+        if(out == null) throw new NullPointerException();
+        if(n < 1 || n > 1L << 60) throw new IllegalArgumentException("size out of range: " + n);
+        //The angle is 8k/n eighths of a turn: the octant o and the position t in it, mirrored in the odd octants:
+        long j = 8 * Math.floorMod(k, n);
+        int o = (int)(j / n);
+        long t = j - o * n;
+        if((o & 1) != 0) t = n - t;
+        double c, s;
+        if(t == n) c = s = Math.sqrt(0.5);
+        else {
+            double a = Math.PI / 4 * ((double)t / n);
+            c = Math.cos(a);
+            s = Math.sin(a);
+        }
+        //Odd octants mirror the angle, then the result is turned by quarter turns; adding 0.0 turns -0.0 into 0.0:
+        if((o & 1) != 0) s = -s;
+        switch((o + 1) / 2 & 3) {
+            case 0 -> { out[0] = c + 0.0; out[1] = s + 0.0; }
+            case 1 -> { out[0] = -s + 0.0; out[1] = c + 0.0; }
+            case 2 -> { out[0] = -c + 0.0; out[1] = -s + 0.0; }
+            default -> { out[0] = s + 0.0; out[1] = -c + 0.0; }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,480 @@
+package de.andimoo5.math;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@code VectorKernels} contains SIMD versions of the split layout kernels in {@link ComplexKernels}, built on the
+ * <i>Vector API</i> ({@code jdk.incubator.vector}). The vector width is the preferred one of the running CPU,
+ * e.g. 4 lanes with AVX2 or 8 lanes with AVX-512.<br>
+ * <br> Every kernel only processes as many elements as fit into whole vectors, starting at {@code from},
+ * and returns the index where it stopped; the caller finishes the remaining elements with its scalar loop.
+ * The kernels use the same operations in the same order as the scalar ones, so both give bit-identical results.<br>
+ * <br> This class must only be touched if the module {@code jdk.incubator.vector} is present,
+ * see {@link ComplexKernels#VECTORIZED}.
+ *
+ * @author  Andras Martin Moosbauer
+ * @version 2.0
+ */
+final class VectorKernels {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    //Number of doubles processed at once:
+    static final int LANES = SPECIES.length();
+
+    //The kernels for float storage process twice as many elements per vector:
+    private static final VectorSpecies<Float> FLOAT_SPECIES = FloatVector.SPECIES_PREFERRED;
+    private static final int FLOAT_LANES = FLOAT_SPECIES.length();
+    //The kernels which calculate in double load LANES floats at once, with half the width of a double vector:
+    private static final VectorSpecies<Float> HALF_SPECIES = VectorSpecies.of(float.class, VectorShape.forBitSize(SPECIES.vectorBitSize() / 2));
+
+    //The range of ComplexNumber.quotient and ComplexNumber.modulus in which the direct formulas are safe:
+    private static final double SAFE_MAX = ComplexNumber.SAFE_MAX, SAFE_MIN = ComplexNumber.SAFE_MIN;
+
+    //Adding and subtracting 1.5 * 2^52 rounds a double below 2^51 to an integer like Math.rint:
+    private static final double ROUNDING = 0x1.8p52;
+
+    private VectorKernels() {}
+
+    static int sum(double[] aRe, double[] aIm, double[] bRe, double[] bIm, double[] dRe, double[] dIm, int from, int to) {
+        int i = from;
+        for(int bound = from + SPECIES.loopBound(to - from); i < bound; i += LANES) {
+            DoubleVector.fromArray(SPECIES, aRe, i).add(DoubleVector.fromArray(SPECIES, bRe, i)).intoArray(dRe, i);
+            DoubleVector.fromArray(SPECIES, aIm, i).add(DoubleVector.fromArray(SPECIES, bIm, i)).intoArray(dIm, i);
+        }
+        return i;
+    }
+
+    static int diff(double[] aRe, double[] aIm, double[] bRe, double[] bIm, double[] dRe, double[] dIm, int from, int to) {
+        int i = from;
+        for(int bound = from + SPECIES.loopBound(to - from); i < bound; i += LANES) {
+            DoubleVector.fromArray(SPECIES, aRe, i).sub(DoubleVector.fromArray(SPECIES, bRe, i)).intoArray(dRe, i);
+            DoubleVector.fromArray(SPECIES, aIm, i).sub(DoubleVector.fromArray(SPECIES, bIm, i)).intoArray(dIm, i);
+        }
+        return i;
+    }
+
+    static int prod(double[] aRe, double[] aIm, double[] bRe, double[] bIm, double[] dRe, double[] dIm, int from, int to) {
+        int i = from;
+        for(int bound = from + SPECIES.loopBound(to - from); i < bound; i += LANES) {
+            DoubleVector a = DoubleVector.fromArray(SPECIES, aRe, i);
+            DoubleVector b = DoubleVector.fromArray(SPECIES, aIm, i);
+            DoubleVector c = DoubleVector.fromArray(SPECIES, bRe, i);
+            DoubleVector d = DoubleVector.fromArray(SPECIES, bIm, i);
+            a.mul(c).sub(b.mul(d)).intoArray(dRe, i);
+            a.mul(d).add(b.mul(c)).intoArray(dIm, i);
+        }
+        return i;
+    }
+
+    static int division(double[] aRe, double[] aIm, double[] bRe, double[] bIm, double[] dRe, double[] dIm, int from, int to) {
+        int i = from;
+        for(int bound = from + SPECIES.loopBound(to - from); i < bound; i += LANES) {
+            DoubleVector a = DoubleVector.fromArray(SPECIES, aRe, i);
+            DoubleVector b = DoubleVector.fromArray(SPECIES, aIm, i);
+            DoubleVector c = DoubleVector.fromArray(SPECIES, bRe, i);
+            DoubleVector d = DoubleVector.fromArray(SPECIES, bIm, i);
+            //Lanes outside of the safe range of ComplexNumber.quotient take its scaled path:
+            DoubleVector ab = a.abs().max(b.abs()), cd = c.abs().max(d.abs());
+            if(cd.compare(VectorOperators.GE, SAFE_MIN).and(cd.compare(VectorOperators.LE, SAFE_MAX))
+                    .and(ab.compare(VectorOperators.LE, SAFE_MAX))
+                    .and(ab.compare(VectorOperators.GE, SAFE_MIN).or(ab.compare(VectorOperators.EQ, 0))).allTrue()) {
+                DoubleVector t = c.mul(c).add(d.mul(d));
+                a.mul(c).add(b.mul(d)).div(t).intoArray(dRe, i);
+                b.mul(c).sub(a.mul(d)).div(t).intoArray(dIm, i);
+            }
+            else {
+                for(int j = i; j < i + LANES; j++) {
+                    double p = aRe[j], q = aIm[j], r = bRe[j], t = bIm[j];
+                    dRe[j] = ComplexNumber.quotientRe(p, q, r, t);
+                    dIm[j] = ComplexNumber.quotientRe(q, -p, r, t);
+                }
+            }
+        }
+        return i;
+    }
+
+    static int conjugate(double[] aRe, double[] aIm, double[] dRe, double[] dIm, int from, int to) {
+        int i = from;
+        for(int bound = from + SPECIES.loopBound(to - from); i < bound; i += LANES) {
+            DoubleVector.fromArray(SPECIES, aRe, i).intoArray(dRe, i);
+            DoubleVector.fromArray(SPECIES, aIm, i).neg().intoArray(dIm, i);
+        }
+        return i;
+    }
+
+    static int mod(double[] aRe, double[] aIm, double[] dst, int from, int to) {
+        int i = from;
+        for(int bound = from + SPECIES.loopBound(to - from); i < bound; i += LANES) {
+            DoubleVector re = DoubleVector.fromArray(SPECIES, aRe, i);
+            DoubleVector im = DoubleVector.fromArray(SPECIES, aIm, i);
+            DoubleVector m = re.abs().max(im.abs());
+            if(m.compare(VectorOperators.LE, SAFE_MAX).and(m.compare(VectorOperators.GE, SAFE_MIN).or(m.compare(VectorOperators.EQ, 0))).allTrue()) {
+                re.mul(re).add(im.mul(im)).lanewise(VectorOperators.SQRT).intoArray(dst, i);
+            }
+            else {
+                for(int j = i; j < i + LANES; j++) dst[j] = ComplexNumber.modulus(aRe[j], aIm[j]);
+            }
+        }
+        return i;
+    }
+
+    //Matrix kernels, see ComplexKernels.gemm; four rows of C times one strip are kept in registers:
+    static int gemm(double[] aRe, double[] aIm, int aOffset, int aStride, double[] pRe, double[] pIm, int depth, int width,
+                    double[] cRe, double[] cIm, int cOffset, int cStride, int rows) {
+        int strips = width / LANES;
+        for(int s = 0; s < strips; s++) {
+            int p0 = s * depth * LANES, j = s * LANES, r = 0;
+            for(; r + 3 < rows; r += 4) {
+                int a0 = aOffset + r * aStride, a1 = a0 + aStride, a2 = a1 + aStride, a3 = a2 + aStride;
+                int c0 = cOffset + r * cStride + j, c1 = c0 + cStride, c2 = c1 + cStride, c3 = c2 + cStride;
+                DoubleVector re0 = DoubleVector.fromArray(SPECIES, cRe, c0), im0 = DoubleVector.fromArray(SPECIES, cIm, c0);
+                DoubleVector re1 = DoubleVector.fromArray(SPECIES, cRe, c1), im1 = DoubleVector.fromArray(SPECIES, cIm, c1);
+                DoubleVector re2 = DoubleVector.fromArray(SPECIES, cRe, c2), im2 = DoubleVector.fromArray(SPECIES, cIm, c2);
+                DoubleVector re3 = DoubleVector.fromArray(SPECIES, cRe, c3), im3 = DoubleVector.fromArray(SPECIES, cIm, c3);
+                for(int k = 0, p = p0; k < depth; k++, p += LANES) {
+                    DoubleVector yRe = DoubleVector.fromArray(SPECIES, pRe, p), yIm = DoubleVector.fromArray(SPECIES, pIm, p);
+                    double xRe = aRe[a0 + k], xIm = aIm[a0 + k];
+                    re0 = re0.add(yRe.mul(xRe).sub(yIm.mul(xIm)));
+                    im0 = im0.add(yIm.mul(xRe).add(yRe.mul(xIm)));
+                    xRe = aRe[a1 + k];
+                    xIm = aIm[a1 + k];
+                    re1 = re1.add(yRe.mul(xRe).sub(yIm.mul(xIm)));
+                    im1 = im1.add(yIm.mul(xRe).add(yRe.mul(xIm)));
+                    xRe = aRe[a2 + k];
+                    xIm = aIm[a2 + k];
+                    re2 = re2.add(yRe.mul(xRe).sub(yIm.mul(xIm)));
+                    im2 = im2.add(yIm.mul(xRe).add(yRe.mul(xIm)));
+                    xRe = aRe[a3 + k];
+                    xIm = aIm[a3 + k];
+                    re3 = re3.add(yRe.mul(xRe).sub(yIm.mul(xIm)));
+                    im3 = im3.add(yIm.mul(xRe).add(yRe.mul(xIm)));
+                }
+                re0.intoArray(cRe, c0);
+                im0.intoArray(cIm, c0);
+                re1.intoArray(cRe, c1);
+                im1.intoArray(cIm, c1);
+                re2.intoArray(cRe, c2);
+                im2.intoArray(cIm, c2);
+                re3.intoArray(cRe, c3);
+                im3.intoArray(cIm, c3);
+            }
+            for(; r < rows; r++) {
+                int a = aOffset + r * aStride, c = cOffset + r * cStride + j;
+                DoubleVector re = DoubleVector.fromArray(SPECIES, cRe, c), im = DoubleVector.fromArray(SPECIES, cIm, c);
+                for(int k = 0, p = p0; k < depth; k++, p += LANES) {
+                    DoubleVector yRe = DoubleVector.fromArray(SPECIES, pRe, p), yIm = DoubleVector.fromArray(SPECIES, pIm, p);
+                    double xRe = aRe[a + k], xIm = aIm[a + k];
+                    re = re.add(yRe.mul(xRe).sub(yIm.mul(xIm)));
+                    im = im.add(yIm.mul(xRe).add(yRe.mul(xIm)));
+                }
+                re.intoArray(cRe, c);
+                im.intoArray(cIm, c);
+            }
+        }
+        return strips * LANES;
+    }
+
+    static int axpy(double xRe, double xIm, double[] bRe, double[] bIm, int bOffset, double[] dRe, double[] dIm, int dOffset, int length) {
+        int j = 0;
+        for(int bound = SPECIES.loopBound(length); j < bound; j += LANES) {
+            DoubleVector yRe = DoubleVector.fromArray(SPECIES, bRe, bOffset + j), yIm = DoubleVector.fromArray(SPECIES, bIm, bOffset + j);
+            DoubleVector.fromArray(SPECIES, dRe, dOffset + j).add(yRe.mul(xRe).sub(yIm.mul(xIm))).intoArray(dRe, dOffset + j);
+            DoubleVector.fromArray(SPECIES, dIm, dOffset + j).add(yIm.mul(xRe).add(yRe.mul(xIm))).intoArray(dIm, dOffset + j);
+        }
+        return j;
+    }
+
+    //The escape time iteration of ComplexGrid.escape on LANES points at once. Every lane runs the same operations as the
+    //scalar loop; lanes that escaped or turned out to be periodic are masked out, and the vector stops once all are:
+    static int escape(double[] reAxis, double im, boolean julia, double cRe, double cIm, int maxIterations, double bailout,
+                      int[] counts, double[] abs2, int offset, int from, int to) {
+        double[] n = new double[LANES];
+        int i = from;
+        for(int bound = from + SPECIES.loopBound(to - from); i < bound; i += LANES) {
+            DoubleVector p = DoubleVector.fromArray(SPECIES, reAxis, i), q = DoubleVector.broadcast(SPECIES, im);
+            DoubleVector x, y, cr, ci;
+            VectorMask<Double> active = SPECIES.maskAll(true);
+            if(julia) {
+                x = p;
+                y = q;
+                cr = DoubleVector.broadcast(SPECIES, cRe);
+                ci = DoubleVector.broadcast(SPECIES, cIm);
+            }
+            else {
+                x = y = DoubleVector.zero(SPECIES);
+                cr = p;
+                ci = q;
+                //The main cardioid and the period-2 bulb, see ComplexGrid.insideBulbs:
+                DoubleVector a = p.sub(0.25), q2 = q.mul(q), t = a.mul(a).add(q2), b = p.add(1);
+                active = t.mul(t.add(a)).compare(VectorOperators.LE, q2.mul(0.25))
+                        .or(b.mul(b).add(q2).compare(VectorOperators.LE, 0.0625)).not();
+            }
+            DoubleVector count = DoubleVector.broadcast(SPECIES, maxIterations), escaped = DoubleVector.zero(SPECIES);
+            DoubleVector px = x, py = y;
+            for(int k = 0; k < maxIterations && active.anyTrue(); k++) {
+                DoubleVector x2 = x.mul(x), y2 = y.mul(y), s = x2.add(y2);
+                VectorMask<Double> out = s.compare(VectorOperators.GT, bailout).and(active);
+                if(out.anyTrue()) {
+                    count = count.blend(DoubleVector.broadcast(SPECIES, k), out);
+                    escaped = escaped.blend(s, out);
+                    active = active.andNot(out);
+                }
+                y = x.add(x).mul(y).add(ci);
+                x = x2.sub(y2).add(cr);
+                active = active.andNot(x.compare(VectorOperators.EQ, px).and(y.compare(VectorOperators.EQ, py)));
+                if((k & (k + 1)) == 0) {
+                    px = x;
+                    py = y;
+                }
+            }
+            count.intoArray(n, 0);
+            for(int l = 0; l < LANES; l++) counts[offset + i + l] = (int)n[l];
+            if(abs2 != null) escaped.intoArray(abs2, offset + i);
+        }
+        return i;
+    }
+
+    //Kernels for float storage:
+    static int sum(float[] aRe, float[] aIm, float[] bRe, float[] bIm, float[] dRe, float[] dIm, int from, int to) {
+        int i = from;
+        for(int bound = from + FLOAT_SPECIES.loopBound(to - from); i < bound; i += FLOAT_LANES) {
+            FloatVector.fromArray(FLOAT_SPECIES, aRe, i).add(FloatVector.fromArray(FLOAT_SPECIES, bRe, i)).intoArray(dRe, i);
+            FloatVector.fromArray(FLOAT_SPECIES, aIm, i).add(FloatVector.fromArray(FLOAT_SPECIES, bIm, i)).intoArray(dIm, i);
+        }
+        return i;
+    }
+
+    static int diff(float[] aRe, float[] aIm, float[] bRe, float[] bIm, float[] dRe, float[] dIm, int from, int to) {
+        int i = from;
+        for(int bound = from + FLOAT_SPECIES.loopBound(to - from); i < bound; i += FLOAT_LANES) {
+            FloatVector.fromArray(FLOAT_SPECIES, aRe, i).sub(FloatVector.fromArray(FLOAT_SPECIES, bRe, i)).intoArray(dRe, i);
+            FloatVector.fromArray(FLOAT_SPECIES, aIm, i).sub(FloatVector.fromArray(FLOAT_SPECIES, bIm, i)).intoArray(dIm, i);
+        }
+        return i;
+    }
+
+    static int prod(float[] aRe, float[] aIm, float[] bRe, float[] bIm, float[] dRe, float[] dIm, int from, int to) {
+        int i = from;
+        for(int bound = from + FLOAT_SPECIES.loopBound(to - from); i < bound; i += FLOAT_LANES) {
+            FloatVector a = FloatVector.fromArray(FLOAT_SPECIES, aRe, i);
+            FloatVector b = FloatVector.fromArray(FLOAT_SPECIES, aIm, i);
+            FloatVector c = FloatVector.fromArray(FLOAT_SPECIES, bRe, i);
+            FloatVector d = FloatVector.fromArray(FLOAT_SPECIES, bIm, i);
+            a.mul(c).sub(b.mul(d)).intoArray(dRe, i);
+            a.mul(d).add(b.mul(c)).intoArray(dIm, i);
+        }
+        return i;
+    }
+
+    static int conjugate(float[] aRe, float[] aIm, float[] dRe, float[] dIm, int from, int to) {
+        int i = from;
+        for(int bound = from + FLOAT_SPECIES.loopBound(to - from); i < bound; i += FLOAT_LANES) {
+            FloatVector.fromArray(FLOAT_SPECIES, aRe, i).intoArray(dRe, i);
+            FloatVector.fromArray(FLOAT_SPECIES, aIm, i).neg().intoArray(dIm, i);
+        }
+        return i;
+    }
+
+    //See ComplexKernels.division, in double and rounded once to float:
+    static int division(float[] aRe, float[] aIm, float[] bRe, float[] bIm, float[] dRe, float[] dIm, int from, int to) {
+        int i = from;
+        for(int bound = from + HALF_SPECIES.loopBound(to - from); i < bound; i += LANES) {
+            DoubleVector a = widen(aRe, i), b = widen(aIm, i), c = widen(bRe, i), d = widen(bIm, i);
+            DoubleVector t = c.mul(c).add(d.mul(d));
+            narrow(a.mul(c).add(b.mul(d)).div(t)).intoArray(dRe, i);
+            narrow(b.mul(c).sub(a.mul(d)).div(t)).intoArray(dIm, i);
+        }
+        return i;
+    }
+
+    static int mod(float[] aRe, float[] aIm, float[] dst, int from, int to) {
+        int i = from;
+        for(int bound = from + HALF_SPECIES.loopBound(to - from); i < bound; i += LANES) {
+            DoubleVector a = widen(aRe, i), b = widen(aIm, i);
+            narrow(a.mul(a).add(b.mul(b)).lanewise(VectorOperators.SQRT)).intoArray(dst, i);
+        }
+        return i;
+    }
+
+    //The reductions of ComplexKernels.floatTotal, floatDot and floatNormSquared: they process whole blocks of
+    //ComplexKernels.PARTIALS elements, with partial sum k in lane k % LANES of vector k / LANES, and store the two
+    //vectors of partial sums to s (re and im) for the scalar loop. More vectors per block don't help, as C2 then
+    //gives up on intrinsifying the loop of floatDot:
+    static int floatTotal(float[] a, int from, int to, double[] s) {
+        DoubleVector s0 = DoubleVector.zero(SPECIES), s1 = s0;
+        int i = from;
+        for(int bound = from + (to - from) / (2 * LANES) * (2 * LANES); i < bound; i += 2 * LANES) {
+            s0 = s0.add(widen(a, i));
+            s1 = s1.add(widen(a, i + LANES));
+        }
+        s0.intoArray(s, 0);
+        s1.intoArray(s, LANES);
+        return i;
+    }
+
+    static int floatDot(float[] aRe, float[] aIm, float[] bRe, float[] bIm, int from, int to, double[] re, double[] im) {
+        DoubleVector re0 = DoubleVector.zero(SPECIES), re1 = re0, im0 = re0, im1 = re0;
+        int i = from;
+        for(int bound = from + (to - from) / (2 * LANES) * (2 * LANES); i < bound; i += 2 * LANES) {
+            DoubleVector a = widen(aRe, i), b = widen(aIm, i), c = widen(bRe, i), d = widen(bIm, i);
+            re0 = re0.add(a.mul(c).add(b.mul(d)));
+            im0 = im0.add(a.mul(d).sub(b.mul(c)));
+            int j = i + LANES;
+            a = widen(aRe, j);
+            b = widen(aIm, j);
+            c = widen(bRe, j);
+            d = widen(bIm, j);
+            re1 = re1.add(a.mul(c).add(b.mul(d)));
+            im1 = im1.add(a.mul(d).sub(b.mul(c)));
+        }
+        re0.intoArray(re, 0);
+        re1.intoArray(re, LANES);
+        im0.intoArray(im, 0);
+        im1.intoArray(im, LANES);
+        return i;
+    }
+
+    static int floatNormSquared(float[] aRe, float[] aIm, int from, int to, double[] s) {
+        DoubleVector s0 = DoubleVector.zero(SPECIES), s1 = s0;
+        int i = from;
+        for(int bound = from + (to - from) / (2 * LANES) * (2 * LANES); i < bound; i += 2 * LANES) {
+            DoubleVector a = widen(aRe, i), b = widen(aIm, i);
+            s0 = s0.add(a.mul(a).add(b.mul(b)));
+            a = widen(aRe, i + LANES);
+            b = widen(aIm, i + LANES);
+            s1 = s1.add(a.mul(a).add(b.mul(b)));
+        }
+        s0.intoArray(s, 0);
+        s1.intoArray(s, LANES);
+        return i;
+    }
+
+    //Kernels for polar storage, see ComplexKernels.cartesian; this is ApproxMath.sinCos (or sinCosApprox) on LANES angles
+    //at once, vectors with an angle beyond ApproxMath.MAX_REDUCTION or NaN go to the scalar version:
+    static int cartesian(double[] mod, double[] arg, double[] dRe, double[] dIm, int from, int to, boolean approx) {
+        double[] out = new double[2];
+        int i = from;
+        for(int bound = from + SPECIES.loopBound(to - from); i < bound; i += LANES) {
+            DoubleVector x = DoubleVector.fromArray(SPECIES, arg, i);
+            if(!x.abs().compare(VectorOperators.LE, ApproxMath.MAX_REDUCTION).allTrue()) {
+                for(int j = i; j < i + LANES; j++) {
+                    ComplexKernels.cartesian(mod[j], arg[j], approx, out);
+                    dRe[j] = out[0];
+                    dIm[j] = out[1];
+                }
+                continue;
+            }
+            //k = Math.rint(x * 2/pi), with its sign for a result of 0; the low bits of the rounded sum are the quadrant:
+            DoubleVector y = x.mul(ApproxMath.TWO_OVER_PI), t = y.add(ROUNDING), k = t.sub(ROUNDING);
+            k = k.blend(y.mul(0.0), k.compare(VectorOperators.EQ, 0));
+            LongVector q = t.reinterpretAsLongs();
+            DoubleVector r = x.sub(k.mul(ApproxMath.PIO2_1)).sub(k.mul(ApproxMath.PIO2_2));
+            DoubleVector r2, s, c;
+            if(approx) {
+                r2 = r.mul(r);
+                s = r.add(r.mul(r2).mul(r2.mul(ApproxMath.S9).add(ApproxMath.S7).mul(r2).add(ApproxMath.S5).mul(r2).add(ApproxMath.S3)));
+                c = r2.mul(ApproxMath.C10).add(ApproxMath.C8).mul(r2).add(ApproxMath.C6).mul(r2).add(ApproxMath.C4)
+                        .mul(r2).add(ApproxMath.C2).mul(r2).add(1);
+            }
+            else {
+                r = r.sub(k.mul(ApproxMath.PIO2_3));
+                r2 = r.mul(r);
+                s = r.add(r.mul(r2).mul(r2.mul(ApproxMath.S17).add(ApproxMath.S15).mul(r2).add(ApproxMath.S13).mul(r2)
+                        .add(ApproxMath.S11).mul(r2).add(ApproxMath.S9).mul(r2).add(ApproxMath.S7).mul(r2).add(ApproxMath.S5)
+                        .mul(r2).add(ApproxMath.S3)));
+                c = r2.mul(ApproxMath.C16).add(ApproxMath.C14).mul(r2).add(ApproxMath.C12).mul(r2).add(ApproxMath.C10)
+                        .mul(r2).add(ApproxMath.C8).mul(r2).add(ApproxMath.C6).mul(r2).add(ApproxMath.C4).mul(r2)
+                        .add(ApproxMath.C2).mul(r2).add(1);
+            }
+            //The quadrants of ApproxMath.quadrant: odd ones swap sine and cosine, then the signs follow:
+            VectorMask<Double> odd = q.and(1L).compare(VectorOperators.NE, 0L).cast(SPECIES);
+            DoubleVector sin = s.blend(c, odd), cos = c.blend(s, odd);
+            sin = sin.blend(sin.neg(), q.and(2L).compare(VectorOperators.NE, 0L).cast(SPECIES));
+            cos = cos.blend(cos.neg(), q.add(1L).and(2L).compare(VectorOperators.NE, 0L).cast(SPECIES));
+            DoubleVector m = DoubleVector.fromArray(SPECIES, mod, i);
+            m.mul(cos).blend(cos, cos.compare(VectorOperators.EQ, 0)).intoArray(dRe, i);
+            m.mul(sin).blend(sin, sin.compare(VectorOperators.EQ, 0)).intoArray(dIm, i);
+        }
+        return i;
+    }
+
+    //ApproxMath.atan2 on LANES points at once, vectors with an infinite, NaN or zero point go to the scalar version:
+    static int argApprox(double[] aRe, double[] aIm, double[] dst, int from, int to) {
+        int i = from;
+        for(int bound = from + SPECIES.loopBound(to - from); i < bound; i += LANES) {
+            DoubleVector x = DoubleVector.fromArray(SPECIES, aRe, i), y = DoubleVector.fromArray(SPECIES, aIm, i);
+            DoubleVector ax = x.abs(), ay = y.abs();
+            if(!ax.compare(VectorOperators.LT, Double.POSITIVE_INFINITY).and(ay.compare(VectorOperators.LT, Double.POSITIVE_INFINITY))
+                    .and(ax.compare(VectorOperators.NE, 0).or(ay.compare(VectorOperators.NE, 0))).allTrue()) {
+                for(int j = i; j < i + LANES; j++) dst[j] = ApproxMath.atan2(aIm[j], aRe[j]);
+                continue;
+            }
+            //The smaller over the bigger coordinate is the quotient the scalar version picks:
+            VectorMask<Double> swap = ay.compare(VectorOperators.GT, ax);
+            DoubleVector t = ax.min(ay).div(ax.max(ay));
+            VectorMask<Double> big = t.compare(VectorOperators.GT, ApproxMath.TAN_PI_12);
+            t = t.blend(t.mul(ApproxMath.SQRT3).sub(1).div(t.add(ApproxMath.SQRT3)), big);
+            DoubleVector offset = DoubleVector.zero(SPECIES).blend(Math.PI / 6, big);
+            DoubleVector t2 = t.mul(t);
+            DoubleVector p = t2.mul(1.0 / 13).add(-1.0 / 11).mul(t2).add(1.0 / 9).mul(t2).add(-1.0 / 7).mul(t2).add(1.0 / 5)
+                    .mul(t2).add(-1.0 / 3);
+            DoubleVector a = offset.add(t).add(t.mul(t2).mul(p));
+            a = a.blend(DoubleVector.broadcast(SPECIES, Math.PI / 2).sub(a), swap);
+            a = a.blend(DoubleVector.broadcast(SPECIES, Math.PI).sub(a), x.compare(VectorOperators.LT, 0));
+            //Math.copySign(a, y):
+            a = a.abs();
+            a.blend(a.neg(), y.reinterpretAsLongs().compare(VectorOperators.LT, 0L).cast(SPECIES)).intoArray(dst, i);
+        }
+        return i;
+    }
+
+    static int polarProd(double[] aMod, double[] aArg, double[] bMod, double[] bArg, double[] dMod, double[] dArg, int from, int to) {
+        int i = from;
+        for(int bound = from + SPECIES.loopBound(to - from); i < bound; i += LANES) {
+            DoubleVector.fromArray(SPECIES, aMod, i).mul(DoubleVector.fromArray(SPECIES, bMod, i)).intoArray(dMod, i);
+            wrap(DoubleVector.fromArray(SPECIES, aArg, i).add(DoubleVector.fromArray(SPECIES, bArg, i))).intoArray(dArg, i);
+        }
+        return i;
+    }
+
+    static int polarDivision(double[] aMod, double[] aArg, double[] bMod, double[] bArg, double[] dMod, double[] dArg, int from, int to) {
+        int i = from;
+        for(int bound = from + SPECIES.loopBound(to - from); i < bound; i += LANES) {
+            DoubleVector.fromArray(SPECIES, aMod, i).div(DoubleVector.fromArray(SPECIES, bMod, i)).intoArray(dMod, i);
+            wrap(DoubleVector.fromArray(SPECIES, aArg, i).sub(DoubleVector.fromArray(SPECIES, bArg, i))).intoArray(dArg, i);
+        }
+        return i;
+    }
+
+    static int polarSqrt(double[] aMod, double[] aArg, double[] dMod, double[] dArg, int from, int to) {
+        int i = from;
+        for(int bound = from + SPECIES.loopBound(to - from); i < bound; i += LANES) {
+            DoubleVector.fromArray(SPECIES, aMod, i).lanewise(VectorOperators.SQRT).intoArray(dMod, i);
+            DoubleVector.fromArray(SPECIES, aArg, i).mul(0.5).intoArray(dArg, i);
+        }
+        return i;
+    }
+
+    //LANES floats from index i, converted to double:
+    private static DoubleVector widen(float[] a, int i) {
+        return (DoubleVector)FloatVector.fromArray(HALF_SPECIES, a, i).convertShape(VectorOperators.F2D, SPECIES, 0);
+    }
+
+    //Rounds every lane to float:
+    private static FloatVector narrow(DoubleVector v) {
+        return (FloatVector)v.convertShape(VectorOperators.D2F, HALF_SPECIES, 0);
+    }
+
+    //See ComplexKernels.wrap; after the first correction the angle is above -pi, so the second one doesn't apply:
+    private static DoubleVector wrap(DoubleVector a) {
+        a = a.blend(a.sub(2 * Math.PI), a.compare(VectorOperators.GT, Math.PI));
+        return a.blend(a.add(2 * Math.PI), a.compare(VectorOperators.LE, -Math.PI));
+    }
+}
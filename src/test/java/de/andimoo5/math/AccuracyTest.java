@@ -0,0 +1,103 @@
+package de.andimoo5.math;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccuracyTest {
+
+    @FunctionalInterface
+    private interface Function {
+        double[] apply(Accuracy accuracy, double re, double im, double[] out);
+    }
+
+    private static final Function[] FUNCTIONS = {Accuracy::exp, Accuracy::log, Accuracy::sqrt, Accuracy::sin, Accuracy::cos};
+
+    //Typical values, wide ranges of the real part and values of very different magnitudes:
+    private static double[] sample(Random random, int k) {
+        return switch(k % 4) {
+            case 0 -> new double[] {random.nextGaussian(), random.nextGaussian()};
+            case 1 -> new double[] {(random.nextDouble() - 0.5) * 100, (random.nextDouble() - 0.5) * 20};
+            case 2 -> new double[] {(random.nextDouble() - 0.5) * 2e4, (random.nextDouble() - 0.5) * 1e-3};
+            default -> new double[] {Math.scalb(random.nextGaussian(), random.nextInt(40) - 20), Math.scalb(random.nextGaussian(), random.nextInt(40) - 20)};
+        };
+    }
+
+    @Test
+    void errorBounds() {
+        Random random = new Random(3);
+        double[] strict = new double[2], out = new double[2];
+        for(Accuracy accuracy : Accuracy.values()) {
+            for(Function f : FUNCTIONS) {
+                for(int k = 0; k < 100_000; k++) {
+                    double[] z = sample(random, k);
+                    f.apply(Accuracy.STRICT, z[0], z[1], strict);
+                    f.apply(accuracy, z[0], z[1], out);
+                    double m = Math.hypot(strict[0], strict[1]);
+                    if(!Double.isFinite(m)) continue;
+                    double error = Math.hypot(out[0] - strict[0], out[1] - strict[1]);
+                    if(error > accuracy.maxError * Math.max(1, m)) fail(accuracy + " at " + z[0] + "+" + z[1] + "i: error " + error);
+                }
+            }
+        }
+    }
+
+    @Test
+    void strictIsUnchanged() {
+        ComplexNumber z = new ComplexNumber(0.75, -1.25);
+        assertEquals(ComplexNumber.exp(z), Accuracy.STRICT.exp(z, new ComplexNumber()));
+        assertEquals(ComplexNumber.log(z), Accuracy.STRICT.log(z, new ComplexNumber()));
+        assertEquals(ComplexNumber.sqrt(z), Accuracy.STRICT.sqrt(z, new ComplexNumber()));
+        assertEquals(ComplexNumber.sin(z), Accuracy.STRICT.sin(z, new ComplexNumber()));
+        assertEquals(ComplexNumber.cos(z), Accuracy.STRICT.cos(z, new ComplexNumber()));
+    }
+
+    @Test
+    void arraysMatchScalars() {
+        Random random = new Random(5);
+        ComplexArray a = new ComplexArray(257);
+        for(int i = 0; i < a.length(); i++) a.set(i, random.nextGaussian() * 3, random.nextGaussian());
+        for(Accuracy accuracy : Accuracy.values()) {
+            ComplexArray[] results = {accuracy.exp(a, new ComplexArray(a.length())), accuracy.log(a, new ComplexArray(a.length())),
+                    accuracy.sqrt(a, new ComplexArray(a.length())), accuracy.sin(a, new ComplexArray(a.length())),
+                    accuracy.cos(a, new ComplexArray(a.length()))};
+            for(int f = 0; f < FUNCTIONS.length; f++) {
+                for(int i = 0; i < a.length(); i++) {
+                    double[] out = FUNCTIONS[f].apply(accuracy, a.getRe(i), a.getIm(i), new double[2]);
+                    assertEquals(new ComplexNumber(out[0], out[1]), results[f].get(i), accuracy + " " + f);
+                }
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> Accuracy.FAST.exp(a, new ComplexArray(3)));
+        assertThrows(NullPointerException.class, () -> Accuracy.APPROX.log(null, a));
+    }
+
+    @Test
+    void specialValues() {
+        for(Accuracy accuracy : new Accuracy[] {Accuracy.FAST, Accuracy.APPROX}) {
+            assertEquals(new ComplexNumber(0, 2), accuracy.sqrt(new ComplexNumber(-4), new ComplexNumber()));
+            assertEquals(new ComplexNumber(3), accuracy.sqrt(new ComplexNumber(9), new ComplexNumber()));
+            assertEquals(new ComplexNumber(1, -1), accuracy.sqrt(new ComplexNumber(0, -2), new ComplexNumber()));
+            assertEquals(new ComplexNumber(1), accuracy.exp(new ComplexNumber(), new ComplexNumber()));
+            assertEquals(Double.NEGATIVE_INFINITY, accuracy.log(new ComplexNumber(), new ComplexNumber()).getRe());
+            //No overflow of the squares:
+            assertEquals(300 * Math.log(10) + 0.5 * Math.log(2), accuracy.log(new ComplexNumber(1e300, 1e300), new ComplexNumber()).getRe(), 1e-9);
+            assertEquals(Math.PI / 4, accuracy.log(new ComplexNumber(1e300, 1e300), new ComplexNumber()).getIm(), 1e-9);
+            double[] out = accuracy.exp(Double.NaN, 0, new double[2]);
+            assertTrue(Double.isNaN(out[0]));
+        }
+        double[] out = new double[2];
+        for(double x = -10; x <= 10; x += 0.01) {
+            ApproxMath.sinCos(x, out);
+            assertEquals(Math.sin(x), out[0], 2 * Math.ulp(1.0));
+            assertEquals(Math.cos(x), out[1], 2 * Math.ulp(1.0));
+        }
+        assertEquals(Math.atan2(-0.0, -1), ApproxMath.atan2(-0.0, -1));
+        assertEquals(Math.atan2(1, -0.0), ApproxMath.atan2(1, -0.0), 1e-15);
+        assertEquals(0, ApproxMath.exp(-800));
+        assertEquals(Double.POSITIVE_INFINITY, ApproxMath.exp(800));
+        assertEquals(Math.exp(-740), ApproxMath.exp(-740), Math.exp(-740) * 1e-9);
+    }
+}
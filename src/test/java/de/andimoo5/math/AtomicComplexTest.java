@@ -0,0 +1,43 @@
+package de.andimoo5.math;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AtomicComplexTest {
+
+    @Test
+    void basics() {
+        AtomicComplex a = new AtomicComplex(1, 2);
+        assertEquals(new ComplexValue(1, 2), a.get());
+        assertEquals(new ComplexValue(1, 2), a.getAndSet(ComplexValue.I));
+        assertFalse(a.compareAndSet(ComplexValue.ONE, ComplexValue.ZERO));
+        assertTrue(a.compareAndSet(new ComplexValue(0, 1), ComplexValue.ONE));
+        assertEquals(ComplexValue.ONE, a.get());
+        assertEquals(new ComplexValue(3, -1), a.addAndGet(2, -1));
+        assertEquals(new ComplexValue(3, -1), a.getAndAdd(1, 1));
+        assertEquals(new ComplexValue(4, 0), a.get());
+        assertEquals(new ComplexValue(0, 8), a.updateAndGet(z -> z.mul(new ComplexValue(0, 2))));
+        assertEquals(new ComplexValue(1, 8), a.accumulateAndGet(ComplexValue.ONE, ComplexValue::add));
+        a.set(Double.NaN, 0);
+        //Compared by bit patterns, like ComplexValue.equals:
+        assertTrue(a.compareAndSet(new ComplexValue(Double.NaN, 0), ComplexValue.ZERO));
+        assertFalse(a.compareAndSet(new ComplexValue(-0.0, 0), ComplexValue.ONE));
+        assertEquals("0.0", new AtomicComplex().toString());
+        assertThrows(NullPointerException.class, () -> a.set(null));
+        assertThrows(NullPointerException.class, () -> a.updateAndGet(z -> null));
+    }
+
+    @Test
+    void noLostUpdates() throws InterruptedException {
+        AtomicComplex a = new AtomicComplex();
+        int threads = 8, n = 50_000;
+        ComplexAdderTest.concurrently(threads, () -> {
+            for(int i = 0; i < n; i++) {
+                if(i % 2 == 0) a.addAndGet(1, 2);
+                else a.updateAndGet(z -> z.add(new ComplexValue(1, 2)));
+            }
+        });
+        assertEquals(new ComplexValue(threads * n, 2.0 * threads * n), a.get());
+    }
+}
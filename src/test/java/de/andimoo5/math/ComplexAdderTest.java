@@ -0,0 +1,85 @@
+package de.andimoo5.math;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComplexAdderTest {
+
+    //Runs the action on the given number of threads, started at the same time:
+    static void concurrently(int threads, Runnable action) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for(int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch(InterruptedException e) {
+                    return;
+                }
+                action.run();
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for(Thread worker : workers) worker.join();
+    }
+
+    @Test
+    void basics() {
+        ComplexAdder adder = new ComplexAdder();
+        assertEquals(new ComplexNumber(), adder.sum());
+        adder.add(1, 2);
+        adder.add(new ComplexNumber(0.5, -3));
+        assertEquals(new ComplexNumber(1.5, -1), adder.sum());
+        assertEquals("1.5-1.0i", adder.toString());
+        assertEquals(new ComplexNumber(1.5, -1), adder.sumThenReset());
+        assertEquals(new ComplexNumber(), adder.sum());
+        adder.add(4, 4);
+        adder.reset();
+        assertEquals(new ComplexNumber(), adder.sum());
+        assertThrows(NullPointerException.class, () -> adder.add(null));
+    }
+
+    @Test
+    void noLostUpdates() throws InterruptedException {
+        //Integers stay exact, so any lost update would show up in the sum:
+        ComplexAdder adder = new ComplexAdder();
+        int threads = 8, n = 200_000;
+        concurrently(threads, () -> {
+            for(int i = 0; i < n; i++) adder.add(1, -2);
+        });
+        assertEquals(new ComplexNumber(threads * n, -2.0 * threads * n), adder.sum());
+    }
+
+    @Test
+    void sumThenResetWhileAdding() throws InterruptedException {
+        ComplexAdder adder = new ComplexAdder();
+        int threads = 4, n = 100_000;
+        ComplexNumber taken = new ComplexNumber();
+        AtomicBoolean split = new AtomicBoolean(), done = new AtomicBoolean();
+        Thread reader = new Thread(() -> {
+            while(!done.get()) {
+                ComplexNumber sum = adder.sumThenReset();
+                //No update is split between two results:
+                if(sum.getRe() != sum.getIm()) split.set(true);
+                taken.add(sum);
+            }
+        });
+        reader.start();
+        concurrently(threads, () -> {
+            for(int i = 0; i < n; i++) adder.add(1, 1);
+        });
+        done.set(true);
+        reader.join();
+        taken.add(adder.sumThenReset());
+        assertFalse(split.get());
+        assertEquals(new ComplexNumber(threads * n, threads * n), taken);
+    }
+}
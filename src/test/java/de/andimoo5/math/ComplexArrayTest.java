@@ -0,0 +1,303 @@
+package de.andimoo5.math;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+class ComplexArrayTest {
+
+    private ComplexArray a, b;
+
+    @BeforeEach
+    void setUp() {
+        a = new ComplexArray(new ComplexNumber(5, 2), new ComplexNumber(4, 3), new ComplexNumber(3, 4));
+        b = new ComplexArray(new ComplexNumber(5, 2), new ComplexNumber(2, 2), new ComplexNumber(-1, 0));
+    }
+
+    @Test
+    void getAndSet() {
+        assertEquals(3, a.length());
+        assertEquals(new ComplexNumber(4, 3), a.get(1));
+        ComplexNumber z = new ComplexNumber();
+        assertSame(z, a.get(2, z));
+        assertEquals(new ComplexNumber(3, 4), z);
+        a.set(0, new ComplexNumber(-1, 7));
+        assertEquals(-1, a.getRe(0));
+        assertEquals(7, a.getIm(0));
+        a.set(1, 8, 9);
+        assertEquals(8, a.real()[1]);
+        assertEquals(9, a.imaginary()[1]);
+    }
+
+    @Test
+    void constructors() {
+        assertThrows(IllegalArgumentException.class, () -> new ComplexArray(new double[2], new double[3]));
+        assertThrows(NullPointerException.class, () -> new ComplexArray(null, new double[3]));
+        ComplexArray copy = new ComplexArray(a);
+        assertEquals(a, copy);
+        copy.set(0, 0, 0);
+        assertNotEquals(a, copy);
+    }
+
+    @Test
+    void conversions() {
+        assertArrayEquals(new ComplexNumber[] {new ComplexNumber(5, 2), new ComplexNumber(4, 3), new ComplexNumber(3, 4)}, a.toArray());
+        assertEquals(a, a.toInterleaved().toSplit());
+        assertEquals("[5.0+2.0i, 4.0+3.0i, 3.0+4.0i]", a.toString());
+    }
+
+    @Test
+    void sum() {
+        assertEquals(new ComplexArray(new ComplexNumber(10, 4), new ComplexNumber(6, 5), new ComplexNumber(2, 4)), ComplexArray.sum(a, b));
+        a.add(b);
+        assertEquals(new ComplexNumber(6, 5), a.get(1));
+        assertThrows(IllegalArgumentException.class, () -> ComplexArray.sum(a, new ComplexArray(2)));
+    }
+
+    @Test
+    void diff() {
+        assertEquals(new ComplexArray(new ComplexNumber(), new ComplexNumber(2, 1), new ComplexNumber(4, 4)), ComplexArray.diff(a, b));
+        a.sub(a);
+        assertEquals(new ComplexArray(3), a);
+    }
+
+    @Test
+    void prod() {
+        ComplexArray p = ComplexArray.prod(a, b);
+        for(int i = 0; i < a.length(); i++) {
+            assertEquals(ComplexNumber.prod(a.get(i), b.get(i)), p.get(i));
+        }
+        assertEquals(new ComplexNumber(21, 20), p.get(0));
+        b.mul(a);
+        assertEquals(p, b);
+    }
+
+    @Test
+    void division() {
+        ComplexArray q = ComplexArray.division(a, b);
+        for(int i = 0; i < a.length(); i++) {
+            assertEquals(ComplexNumber.division(a.get(i), b.get(i)), q.get(i));
+        }
+        assertEquals(new ComplexNumber(1.75, -0.25), q.get(1));
+        a.div(new ComplexArray(3));
+        assertTrue(Double.isNaN(a.getRe(0)));
+    }
+
+    @Test
+    void divisionWithoutOverflow() {
+        //Long enough for the vector loop, extreme values in some lanes only:
+        ComplexArray x = new ComplexArray(67), y = new ComplexArray(67);
+        for(int i = 0; i < x.length(); i++) {
+            double scale = i % 5 == 0 ? 1e300 : i % 7 == 0 ? 1e-300 : 1;
+            x.set(i, (i + 1) * scale, (2 - i) * scale);
+            y.set(i, (3 + i) * scale, i * scale);
+        }
+        ComplexArray q = ComplexArray.division(x, y);
+        double[] m = ComplexArray.mod(x);
+        for(int i = 0; i < x.length(); i++) {
+            assertEquals(ComplexNumber.division(x.get(i), y.get(i)), q.get(i));
+            assertEquals(ComplexNumber.mod(x.get(i)), m[i]);
+            assertTrue(Double.isFinite(q.getRe(i)) && Double.isFinite(m[i]) && m[i] > 0);
+        }
+    }
+
+    @Test
+    void conjugate() {
+        ComplexArray.conjugate(a, a);
+        assertEquals(new ComplexArray(new ComplexNumber(5, -2), new ComplexNumber(4, -3), new ComplexNumber(3, -4)), a);
+    }
+
+    @Test
+    void modulus() {
+        assertArrayEquals(new double[] {ComplexNumber.mod(new ComplexNumber(5, 2)), 5.0, 5.0}, ComplexArray.mod(a));
+    }
+
+    @Test
+    void argument() {
+        assertEquals(0.9272952180016122, ComplexArray.arg(a)[2]);
+        assertEquals(Math.PI, ComplexArray.arg(b)[2]);
+    }
+
+    @Test
+    void pow() {
+        ComplexArray p = ComplexArray.pow(a, 5);
+        ComplexArray q = ComplexArray.pow(a, 0.5);
+        ComplexArray r = ComplexArray.pow(a, b);
+        for(int i = 0; i < a.length(); i++) {
+            assertEquals(ComplexNumber.pow(a.get(i), 5), p.get(i));
+            assertEquals(ComplexNumber.pow(a.get(i), 0.5), q.get(i));
+            assertEquals(ComplexNumber.pow(a.get(i), b.get(i)), r.get(i));
+        }
+        ComplexArray.pow(new ComplexArray(3), -1, a);
+        assertTrue(Double.isNaN(a.getRe(0)));
+    }
+
+    @Test
+    void functions() {
+        ComplexNumber[] expected = {ComplexNumber.exp(a.get(0)), ComplexNumber.exp(a.get(1)), ComplexNumber.exp(a.get(2))};
+        assertArrayEquals(expected, ComplexArray.exp(a).toArray());
+        assertEquals(ComplexNumber.log(a.get(1)), ComplexArray.log(a).get(1));
+        assertEquals(ComplexNumber.sqrt(a.get(2)), ComplexArray.sqrt(a).get(2));
+        assertEquals(ComplexNumber.sin(a.get(0)), ComplexArray.sin(a).get(0));
+        assertEquals(ComplexNumber.cos(a.get(0)), ComplexArray.cos(a).get(0));
+        assertEquals(ComplexNumber.tan(b.get(2)), ComplexArray.tan(b).get(2));
+        assertEquals(ComplexNumber.asin(a.get(1)), ComplexArray.asin(a).get(1));
+        assertEquals(ComplexNumber.acos(a.get(1)), ComplexArray.acos(a).get(1));
+        assertEquals(ComplexNumber.atan(a.get(1)), ComplexArray.atan(a).get(1));
+        //Undefined elements become NaN instead of throwing:
+        ComplexArray c = new ComplexArray(new ComplexNumber(0, 0), new ComplexNumber(0, -1));
+        assertTrue(Double.isNaN(ComplexArray.acos(c).getRe(0)));
+        assertTrue(Double.isNaN(ComplexArray.atan(c).getRe(1)));
+        assertSame(a, ComplexArray.exp(a, a));
+        assertEquals(expected[2], a.get(2));
+    }
+
+    @Test
+    void reductions() {
+        assertEquals(new ComplexNumber(12, 9), a.sum());
+        assertEquals(Math.sqrt(79), a.norm());
+        assertEquals(new ComplexNumber(), new ComplexArray(0).sum());
+        assertEquals(0, new ComplexArray(0).norm());
+        assertEquals(new ComplexNumber(4, 3), a.mean());
+        assertThrows(ArithmeticException.class, () -> new ComplexArray(0).mean());
+        //conj(a) * b = (25 + 4) + (10 - 10)i + (8 + 6) + (8 - 6)i + (-3) + (4)i:
+        assertEquals(new ComplexNumber(40, 6), a.dot(b));
+        assertEquals(new ComplexNumber(79, 0), a.dot(a));
+        assertEquals(Math.sqrt(29), a.maxMod());
+        assertEquals(0, new ComplexArray(0).maxMod());
+        assertThrows(IllegalArgumentException.class, () -> a.dot(new ComplexArray(2)));
+        assertThrows(NullPointerException.class, () -> a.dot(null));
+    }
+
+    //The exact sum of the values, rounded once:
+    private static double exact(double... values) {
+        BigDecimal s = BigDecimal.ZERO;
+        for(double x : values) s = s.add(new BigDecimal(x));
+        return s.doubleValue();
+    }
+
+    @Test
+    void accurateReductions() {
+        //A plain loop of additions loses all the ones next to the big values:
+        int n = 100_003;
+        ComplexArray x = new ComplexArray(4 * n);
+        for(int i = 0; i < n; i++) {
+            x.set(4 * i, 1, 0.1);
+            x.set(4 * i + 1, 1e100, -1e20);
+            x.set(4 * i + 2, 1, 0.1);
+            x.set(4 * i + 3, -1e100, 1e20);
+        }
+        double tenths = new BigDecimal(0.1).multiply(BigDecimal.valueOf(2L * n)).doubleValue();
+        assertEquals(2 * n, x.sum().getRe());
+        assertEquals(tenths, x.sum().getIm(), Math.ulp(tenths));
+        assertEquals(0.5, x.mean().getRe());
+        //Random values, compared with the exact sum:
+        Random random = new Random(7);
+        ComplexArray y = new ComplexArray(300_001), z = new ComplexArray(y.length());
+        for(int i = 0; i < y.length(); i++) {
+            y.set(i, random.nextGaussian() * Math.exp(random.nextInt(40)), random.nextGaussian());
+            z.set(i, random.nextGaussian(), random.nextGaussian() * Math.exp(random.nextInt(40)));
+        }
+        double re = exact(y.real()), im = exact(y.imaginary());
+        assertEquals(re, y.sum().getRe(), Math.ulp(re));
+        assertEquals(im, y.sum().getIm(), Math.ulp(im));
+        //The inner product of [1e16, 1, -1e16] and [1, 1, 1] is 1, a plain loop gives 0:
+        ComplexArray c = new ComplexArray(new ComplexNumber(1e16, 0), new ComplexNumber(1, 3e16), new ComplexNumber(-1e16, 0));
+        ComplexArray d = new ComplexArray(new ComplexNumber(1, 0), new ComplexNumber(1, 0), new ComplexNumber(1, 1));
+        assertEquals(new ComplexNumber(1, -4e16), c.dot(d));
+        //The imaginary part of conj(y) * y cancels exactly:
+        assertEquals(0, y.dot(y).getIm());
+        double[] products = new double[4 * y.length()];
+        for(int i = 0; i < y.length(); i++) {
+            BigDecimal a = new BigDecimal(y.getRe(i)), b = new BigDecimal(y.getIm(i)), e = new BigDecimal(z.getRe(i)), f = new BigDecimal(z.getIm(i));
+            products[4 * i] = a.multiply(e).add(b.multiply(f)).doubleValue();
+            products[4 * i + 1] = a.multiply(e).add(b.multiply(f)).subtract(new BigDecimal(products[4 * i])).doubleValue();
+            products[4 * i + 2] = a.multiply(f).subtract(b.multiply(e)).doubleValue();
+            products[4 * i + 3] = a.multiply(f).subtract(b.multiply(e)).subtract(new BigDecimal(products[4 * i + 2])).doubleValue();
+        }
+        double[] dotRe = new double[2 * y.length()], dotIm = new double[2 * y.length()];
+        for(int i = 0; i < y.length(); i++) {
+            dotRe[2 * i] = products[4 * i];
+            dotRe[2 * i + 1] = products[4 * i + 1];
+            dotIm[2 * i] = products[4 * i + 2];
+            dotIm[2 * i + 1] = products[4 * i + 3];
+        }
+        ComplexNumber dot = y.dot(z);
+        assertEquals(exact(dotRe), dot.getRe(), Math.ulp(exact(dotRe)));
+        assertEquals(exact(dotIm), dot.getIm(), Math.ulp(exact(dotIm)));
+    }
+
+    @Test
+    void normWithoutOverflow() {
+        ComplexArray x = new ComplexArray(new ComplexNumber(3e200, 4e200), new ComplexNumber(1e-200, 1));
+        assertEquals(5e200, x.norm(), 1e185);
+        assertEquals(5e-200, new ComplexArray(new ComplexNumber(3e-200, -4e-200)).norm(), 1e-215);
+        //Medium and small values:
+        assertEquals(Math.hypot(1e-160, 1e-155), new ComplexArray(new ComplexNumber(1e-160, 1e-155)).norm(), 1e-170);
+        assertEquals(Math.sqrt(2) * (Double.MAX_VALUE / 2), new ComplexArray(new ComplexNumber(Double.MAX_VALUE / 2, Double.MAX_VALUE / 2)).norm(), 1e293);
+        assertEquals(Double.POSITIVE_INFINITY, new ComplexArray(new ComplexNumber(Double.NEGATIVE_INFINITY, 1)).norm());
+        assertTrue(Double.isNaN(new ComplexArray(new ComplexNumber(1e-300, 0), new ComplexNumber(Double.NaN, 1)).norm()));
+        assertEquals(Math.hypot(1e300, 1e300), new ComplexArray(new ComplexNumber(1e300, 1e300), new ComplexNumber(1, 1)).maxMod());
+        assertEquals(Math.hypot(3e-300, 4e-300), new ComplexArray(new ComplexNumber(3e-300, 4e-300)).maxMod());
+        assertTrue(Double.isNaN(new ComplexArray(new ComplexNumber(Double.NaN, 0), new ComplexNumber(1, 1)).maxMod()));
+        //The maximum of the moduli of the elements:
+        Random random = new Random(8);
+        ComplexArray y = new ComplexArray(1001);
+        double max = 0;
+        for(int i = 0; i < y.length(); i++) {
+            y.set(i, Math.scalb(random.nextGaussian(), random.nextInt(2000) - 1000), random.nextGaussian());
+            max = Math.max(max, ComplexNumber.mod(y.get(i)));
+        }
+        assertEquals(max, y.maxMod());
+    }
+
+    @Test
+    void parallel() {
+        int n = 300_000;
+        ComplexArray x = new ComplexArray(n), y = new ComplexArray(n);
+        for(int i = 0; i < n; i++) {
+            x.set(i, Math.sin(i) * 3, Math.cos(i * 0.7) * 2);
+            y.set(i, 1 + Math.cos(i), Math.sin(i * 0.3));
+        }
+        //The parallel operations give the same results, bit by bit, as the sequential ones:
+        assertEquals(ComplexArray.sum(x, y), x.parallel().sum(y, new ComplexArray(n)));
+        assertEquals(ComplexArray.diff(x, y), x.parallel().diff(y, new ComplexArray(n)));
+        assertEquals(ComplexArray.prod(x, y), x.parallel().prod(y, new ComplexArray(n)));
+        assertEquals(ComplexArray.division(x, y), x.parallel().division(y, new ComplexArray(n)));
+        assertEquals(ComplexArray.conjugate(x), x.parallel().conjugate(new ComplexArray(n)));
+        assertArrayEquals(ComplexArray.mod(x), x.parallel().mod(new double[n]));
+        assertArrayEquals(ComplexArray.arg(x), x.parallel().arg(new double[n]));
+        assertEquals(ComplexArray.pow(x, 3), x.parallel().pow(3, new ComplexArray(n)));
+        assertEquals(ComplexArray.pow(x, 0.5), x.parallel().pow(0.5, new ComplexArray(n)));
+        assertEquals(ComplexArray.pow(x, y), x.parallel().pow(y, new ComplexArray(n)));
+        assertEquals(ComplexArray.exp(x), x.parallel().exp(new ComplexArray(n)));
+        assertEquals(ComplexArray.log(x), x.parallel().log(new ComplexArray(n)));
+        assertEquals(ComplexArray.sqrt(x), x.parallel().sqrt(new ComplexArray(n)));
+        assertEquals(ComplexArray.sin(x), x.parallel().sin(new ComplexArray(n)));
+        assertEquals(ComplexArray.cos(x), x.parallel().cos(new ComplexArray(n)));
+        assertEquals(ComplexArray.tan(x), x.parallel().tan(new ComplexArray(n)));
+        assertEquals(ComplexArray.asin(x), x.parallel().asin(new ComplexArray(n)));
+        assertEquals(ComplexArray.acos(x), x.parallel().acos(new ComplexArray(n)));
+        assertEquals(ComplexArray.atan(x), x.parallel().atan(new ComplexArray(n)));
+        assertEquals(x.sum(), x.parallel().sum());
+        assertEquals(x.norm(), x.parallel().norm());
+        assertEquals(x.mean(), x.parallel().mean());
+        assertEquals(x.dot(y), x.parallel().dot(y));
+        assertEquals(x.maxMod(), x.parallel().maxMod());
+        ComplexArray z = new ComplexArray(x);
+        z.parallel().mul(y);
+        z.parallel().div(y);
+        z.parallel().sub(x);
+        z.parallel().add(x);
+        ComplexArray expected = new ComplexArray(x);
+        expected.mul(y);
+        expected.div(y);
+        expected.sub(x);
+        expected.add(x);
+        assertEquals(expected, z);
+        assertThrows(IllegalArgumentException.class, () -> x.parallel().exp(new ComplexArray(3)));
+    }
+}
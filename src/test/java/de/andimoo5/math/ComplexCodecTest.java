@@ -0,0 +1,177 @@
+package de.andimoo5.math;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComplexCodecTest {
+
+    //Spans several chunks:
+    private static final int N = 10_000;
+
+    private static ComplexArray sample() {
+        ComplexArray a = new ComplexArray(N);
+        for(int i = 0; i < N; i++) a.set(i, Math.sin(i) * 100, Math.cos(i * 0.5) - 0.25);
+        return a;
+    }
+
+    private static byte[] encode(ComplexArray a, ComplexCodec.Precision p, ComplexCodec.Layout l) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ComplexCodec.write(a, p, l, out);
+        return out.toByteArray();
+    }
+
+    private static void assertClose(ComplexArray expected, ComplexArray actual, double relative, double absolute) {
+        assertEquals(expected.length(), actual.length());
+        for(int i = 0; i < expected.length(); i++) {
+            assertEquals(expected.getRe(i), actual.getRe(i), Math.abs(expected.getRe(i)) * relative + absolute);
+            assertEquals(expected.getIm(i), actual.getIm(i), Math.abs(expected.getIm(i)) * relative + absolute);
+        }
+    }
+
+    @Test
+    void header() throws IOException {
+        byte[] bytes = encode(new ComplexArray(new ComplexNumber(1, 2), new ComplexNumber(3, 4)),
+                ComplexCodec.Precision.FLOAT32, ComplexCodec.Layout.SPLIT);
+        assertEquals(ComplexCodec.HEADER_BYTES + 4 * 4, bytes.length);
+        assertEquals("CPLX", new String(bytes, 0, 4, StandardCharsets.US_ASCII));
+        ByteBuffer b = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(ComplexCodec.VERSION, b.get(4));
+        assertEquals(ComplexCodec.Precision.FLOAT32.ordinal(), b.get(5));
+        assertEquals(ComplexCodec.Layout.SPLIT.ordinal(), b.get(6));
+        assertEquals(2, b.getLong(8));
+        //Real parts first:
+        assertEquals(1f, b.getFloat(16));
+        assertEquals(3f, b.getFloat(20));
+        assertEquals(2f, b.getFloat(24));
+        assertEquals(4f, b.getFloat(28));
+    }
+
+    @Test
+    void float64RoundTripIsExact() throws IOException {
+        ComplexArray a = sample();
+        for(ComplexCodec.Layout l : ComplexCodec.Layout.values()) {
+            byte[] bytes = encode(a, ComplexCodec.Precision.FLOAT64, l);
+            assertEquals(ComplexCodec.HEADER_BYTES + 16 * N, bytes.length);
+            assertEquals(a, ComplexCodec.read(new ByteArrayInputStream(bytes)));
+            assertEquals(a.toInterleaved(), ComplexCodec.read(new ByteArrayInputStream(bytes), new InterleavedComplexArray(N)));
+        }
+    }
+
+    @Test
+    void lowerPrecisions() throws IOException {
+        ComplexArray a = sample();
+        for(ComplexCodec.Layout l : ComplexCodec.Layout.values()) {
+            byte[] bytes = encode(a, ComplexCodec.Precision.FLOAT32, l);
+            assertEquals(ComplexCodec.HEADER_BYTES + 8 * N, bytes.length);
+            assertClose(a, ComplexCodec.read(new ByteArrayInputStream(bytes)), 0x1p-24, 0);
+            //Values below 2^-14 are subnormal in binary16, with an absolute error of up to 2^-25:
+            bytes = encode(a, ComplexCodec.Precision.FLOAT16, l);
+            assertEquals(ComplexCodec.HEADER_BYTES + 4 * N, bytes.length);
+            assertClose(a, ComplexCodec.read(new ByteArrayInputStream(bytes)), 0x1p-11, 0x1p-25);
+        }
+        //Out of range of binary16:
+        byte[] bytes = encode(new ComplexArray(new ComplexNumber(1e5, -1e5)), ComplexCodec.Precision.FLOAT16, ComplexCodec.Layout.INTERLEAVED);
+        ComplexArray b = ComplexCodec.read(new ByteArrayInputStream(bytes));
+        assertEquals(Double.POSITIVE_INFINITY, b.getRe(0));
+        assertEquals(Double.NEGATIVE_INFINITY, b.getIm(0));
+    }
+
+    @Test
+    void float16RoundsOnce() {
+        //Just above the midpoint between 1 and the next binary16 value, (float) would round it down to the midpoint:
+        assertEquals(1.0009765625, Float.float16ToFloat(ComplexCodec.toFloat16(1.0004882812509095)));
+        assertEquals(1, Float.float16ToFloat(ComplexCodec.toFloat16(1.0004882812499)));
+        //Exact midpoints round to even:
+        assertEquals(1, Float.float16ToFloat(ComplexCodec.toFloat16(1 + 0x1p-11)));
+        assertEquals(-1.001953125, Float.float16ToFloat(ComplexCodec.toFloat16(-1 - 3 * 0x1p-11)));
+        //The nearest of the neighbours of the float rounding, ties to even:
+        Random random = new Random(5);
+        for(int k = 0; k < 100_000; k++) {
+            short h = Float.floatToFloat16((float)(random.nextDouble() * 2 - 1) * 60000);
+            double lo = Float.float16ToFloat(h), hi = Float.float16ToFloat((short)(h + 1));
+            if(Double.isInfinite(hi) || Math.signum(lo) != Math.signum(hi)) continue;
+            double mid = (lo + hi) / 2, d = mid + (random.nextInt(3) - 1) * Math.ulp(mid) * random.nextInt(1 << 20);
+            double expected = Math.abs(d - lo) < Math.abs(hi - d) || Math.abs(d - lo) == Math.abs(hi - d) && (h & 1) == 0 ? lo : hi;
+            assertEquals(expected, Float.float16ToFloat(ComplexCodec.toFloat16(d)), () -> "at " + d);
+        }
+        assertEquals(Float.POSITIVE_INFINITY, Float.float16ToFloat(ComplexCodec.toFloat16(1e300)));
+        assertEquals(65504, Float.float16ToFloat(ComplexCodec.toFloat16(65519.99)));
+        assertEquals(-0.0f, Float.float16ToFloat(ComplexCodec.toFloat16(-1e-300)));
+        assertTrue(Float.isNaN(Float.float16ToFloat(ComplexCodec.toFloat16(Double.NaN))));
+    }
+
+    @Test
+    void interleavedSource() throws IOException {
+        InterleavedComplexArray a = sample().toInterleaved();
+        for(ComplexCodec.Layout l : ComplexCodec.Layout.values()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ComplexCodec.write(a, ComplexCodec.Precision.FLOAT64, l, out);
+            assertArrayEquals(encode(sample(), ComplexCodec.Precision.FLOAT64, l), out.toByteArray());
+        }
+    }
+
+    @Test
+    void channelsMatchStreams() throws IOException {
+        ComplexArray a = sample();
+        for(ComplexCodec.Precision p : ComplexCodec.Precision.values()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ComplexCodec.write(a, p, ComplexCodec.Layout.INTERLEAVED, Channels.newChannel(out));
+            byte[] bytes = out.toByteArray();
+            assertArrayEquals(encode(a, p, ComplexCodec.Layout.INTERLEAVED), bytes);
+            assertEquals(ComplexCodec.read(new ByteArrayInputStream(bytes)),
+                    ComplexCodec.read(Channels.newChannel(new ByteArrayInputStream(bytes))));
+            ComplexArray dst = new ComplexArray(N);
+            assertSame(dst, ComplexCodec.read(Channels.newChannel(new ByteArrayInputStream(bytes)), dst));
+            assertEquals(ComplexCodec.read(new ByteArrayInputStream(bytes)), dst);
+        }
+    }
+
+    @Test
+    void consecutiveStreams() throws IOException {
+        ComplexArray a = sample(), b = new ComplexArray(new ComplexNumber(1, 2), new ComplexNumber(3, 4));
+        for(ComplexCodec.Precision p : ComplexCodec.Precision.values()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ComplexCodec.write(a, p, ComplexCodec.Layout.SPLIT, out);
+            ComplexCodec.write(b, p, ComplexCodec.Layout.INTERLEAVED, out);
+            out.write(42);
+            byte[] bytes = out.toByteArray();
+            ByteArrayInputStream in = new ByteArrayInputStream(bytes);
+            ComplexArray first = ComplexCodec.read(in);
+            assertEquals(b, ComplexCodec.read(in, new ComplexArray(2)));
+            //Nothing after the second array is read:
+            assertEquals(42, in.read());
+            ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream(bytes));
+            assertEquals(first, ComplexCodec.read(channel));
+            assertEquals(b.toInterleaved(), ComplexCodec.read(channel, new InterleavedComplexArray(2)));
+        }
+    }
+
+    @Test
+    void invalidStreams() throws IOException {
+        byte[] bytes = encode(sample(), ComplexCodec.Precision.FLOAT64, ComplexCodec.Layout.SPLIT);
+        assertThrows(EOFException.class, () -> ComplexCodec.read(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 1))));
+        assertThrows(EOFException.class, () -> ComplexCodec.read(new ByteArrayInputStream(Arrays.copyOf(bytes, 10))));
+        assertThrows(StreamCorruptedException.class, () -> ComplexCodec.read(new ByteArrayInputStream(bytes), new ComplexArray(N - 1)));
+        byte[] magic = bytes.clone();
+        magic[0] = 'X';
+        assertThrows(StreamCorruptedException.class, () -> ComplexCodec.read(new ByteArrayInputStream(magic)));
+        byte[] version = bytes.clone();
+        version[4] = 2;
+        assertThrows(StreamCorruptedException.class, () -> ComplexCodec.read(new ByteArrayInputStream(version)));
+        assertThrows(NullPointerException.class, () -> ComplexCodec.write(sample(), null, ComplexCodec.Layout.SPLIT, new ByteArrayOutputStream()));
+    }
+}
@@ -0,0 +1,85 @@
+package de.andimoo5.math;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComplexCollectorsTest {
+
+    private static double exact(List<ComplexNumber> values, boolean real) {
+        BigDecimal s = BigDecimal.ZERO;
+        for(ComplexNumber z : values) s = s.add(new BigDecimal(real ? z.getRe() : z.getIm()));
+        return s.doubleValue();
+    }
+
+    @Test
+    void exactSum() {
+        ExactSum s = new ExactSum();
+        for(double x : new double[] {1e100, 1, -1e100, 1e-100, 1e50, -1, -1e50}) s.add(x);
+        assertEquals(1e-100, s.value());
+        //1 + 2^-53 is a tie, which the last summand decides:
+        s = new ExactSum();
+        for(double x : new double[] {1, 0x1p-53, 0x1p-106}) s.add(x);
+        assertEquals(Math.nextUp(1.0), s.value());
+        ExactSum t = new ExactSum();
+        t.add(-1);
+        s.add(t);
+        assertEquals(0x1p-53 + 0x1p-106, s.value());
+        assertEquals(0, new ExactSum().value());
+        s = new ExactSum();
+        s.add(Double.POSITIVE_INFINITY);
+        s.add(1);
+        assertEquals(Double.POSITIVE_INFINITY, s.value());
+        s.add(Double.NEGATIVE_INFINITY);
+        assertTrue(Double.isNaN(s.value()));
+        s = new ExactSum();
+        s.add(Double.MAX_VALUE);
+        s.add(Double.MAX_VALUE);
+        assertEquals(Double.POSITIVE_INFINITY, s.value());
+        //Many partial sums:
+        s = new ExactSum();
+        for(int e = -1000; e <= 1000; e += 37) s.add(Math.scalb(1.0, e));
+        for(int e = -1000; e <= 1000; e += 37) {
+            if(e != -1000) s.add(-Math.scalb(1.0, e));
+        }
+        assertEquals(0x1p-1000, s.value());
+    }
+
+    @Test
+    void sum() {
+        List<ComplexNumber> values = TestData.wideRange(100_000, 1);
+        ComplexNumber sum = values.stream().collect(ComplexCollectors.sum());
+        assertEquals(new ComplexNumber(exact(values, true), exact(values, false)), sum);
+        //The same result for any order and any split:
+        assertEquals(sum, values.parallelStream().collect(ComplexCollectors.sum()));
+        Collections.shuffle(values, new Random(2));
+        assertEquals(sum, values.parallelStream().collect(ComplexCollectors.sum()));
+        assertEquals(new ComplexNumber(), Stream.<ComplexNumber>empty().collect(ComplexCollectors.sum()));
+        assertEquals(new ComplexNumber(1, -1.0 / 3), Stream.of(new ComplexNumber(1e300, 1), new ComplexNumber(3, -2), new ComplexNumber(-1e300, 0))
+                .collect(ComplexCollectors.mean()));
+        assertThrows(ArithmeticException.class, () -> Stream.<ComplexNumber>empty().collect(ComplexCollectors.mean()));
+        assertThrows(NullPointerException.class, () -> Stream.of(new ComplexNumber(), null).collect(ComplexCollectors.sum()));
+    }
+
+    @Test
+    void norm() {
+        List<ComplexNumber> values = TestData.wideRange(100_000, 3);
+        double norm = values.stream().collect(ComplexCollectors.norm());
+        ComplexArray a = new ComplexArray(values.toArray(new ComplexNumber[0]));
+        assertEquals(a.norm(), norm, Math.ulp(norm));
+        Collections.shuffle(values, new Random(4));
+        assertEquals(norm, values.parallelStream().collect(ComplexCollectors.norm()));
+        assertEquals(5e200, Stream.of(new ComplexNumber(3e200, 4e200), new ComplexNumber(1e-200, 0)).collect(ComplexCollectors.norm()), 1e185);
+        assertEquals(5e-200, Stream.of(new ComplexNumber(3e-200, 4e-200)).collect(ComplexCollectors.norm()), 1e-215);
+        assertEquals(0, Stream.<ComplexNumber>empty().collect(ComplexCollectors.norm()));
+        assertEquals(a.maxMod(), values.parallelStream().collect(ComplexCollectors.maxMod()));
+        assertEquals(0, Stream.<ComplexNumber>empty().collect(ComplexCollectors.maxMod()));
+        assertTrue(Double.isNaN(Stream.of(new ComplexNumber(Double.NaN, 0), new ComplexNumber(1, 1)).collect(ComplexCollectors.maxMod())));
+    }
+}
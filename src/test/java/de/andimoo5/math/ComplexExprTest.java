@@ -0,0 +1,114 @@
+package de.andimoo5.math;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComplexExprTest {
+
+    private static final int N = 1000;
+
+    private ComplexArray a, b, c;
+
+    @BeforeEach
+    void setUp() {
+        a = new ComplexArray(N);
+        b = new ComplexArray(N);
+        c = new ComplexArray(N);
+        for(int i = 0; i < N; i++) {
+            a.set(i, Math.sin(i), Math.cos(i * 0.3));
+            b.set(i, 0.5 + Math.cos(i), Math.sin(i * 0.7));
+            c.set(i, i * 0.01, -i * 0.02);
+        }
+    }
+
+    @Test
+    void fusedMatchesBulkOperations() {
+        //exp(a * b) + conjugate(c)
+        ComplexExpr e = ComplexExpr.of(a).mul(ComplexExpr.of(b)).exp().add(ComplexExpr.of(c).conjugate());
+        ComplexArray expected = ComplexArray.sum(ComplexArray.exp(ComplexArray.prod(a, b)), ComplexArray.conjugate(c));
+        assertEquals(expected, e.eval());
+        assertEquals(expected, e.evalParallel(new ComplexArray(N)));
+    }
+
+    @Test
+    void allOperations() {
+        ComplexExpr x = ComplexExpr.of(a), y = ComplexExpr.of(b);
+        assertEquals(ComplexArray.diff(a, b), x.sub(y).eval());
+        assertEquals(ComplexArray.division(a, b), ComplexExpr.division(x, y).eval());
+        assertEquals(ComplexArray.log(a), x.log().eval());
+        assertEquals(ComplexArray.sqrt(a), x.sqrt().eval());
+        assertEquals(ComplexArray.sin(a), x.sin().eval());
+        assertEquals(ComplexArray.cos(a), x.cos().eval());
+        assertEquals(ComplexArray.tan(a), x.tan().eval());
+        assertEquals(ComplexArray.asin(a), x.asin().eval());
+        assertEquals(ComplexArray.acos(a), x.acos().eval());
+        assertEquals(ComplexArray.atan(a), x.atan().eval());
+    }
+
+    @Test
+    void sharedTrigonometry() {
+        //sin(a)^2 + cos(a)^2 with sin, cos and tan of a computed together:
+        ComplexExpr x = ComplexExpr.of(a);
+        ComplexExpr s = x.sin(), co = x.cos();
+        ComplexExpr e = s.mul(s).add(co.mul(co)).add(x.tan().sub(x.tan()));
+        ComplexArray expected = ComplexArray.sum(ComplexArray.prod(ComplexArray.sin(a), ComplexArray.sin(a)),
+                ComplexArray.prod(ComplexArray.cos(a), ComplexArray.cos(a)));
+        ComplexArray zero = ComplexArray.diff(ComplexArray.tan(a), ComplexArray.tan(a));
+        assertEquals(ComplexArray.sum(expected, zero), e.eval());
+        ComplexArray r = e.eval();
+        for(int i = 0; i < N; i++) {
+            assertEquals(1, r.getRe(i), 1e-12);
+            assertEquals(0, r.getIm(i), 1e-12);
+        }
+    }
+
+    @Test
+    void sharedTrigonometryOfLargeImaginaryParts() {
+        //sin and cos beyond the overflow of e^Im, tan close to i or -i:
+        ComplexArray b = new ComplexArray(new ComplexNumber(0.5, 710.3), new ComplexNumber(0.5, -710.3), new ComplexNumber(1, 30),
+                new ComplexNumber(-2, -25), new ComplexNumber(0.3, 705), new ComplexNumber(1e-10, 708));
+        ComplexExpr x = ComplexExpr.of(b);
+        ComplexArray tan = x.tan().add(x.sin().sub(x.sin())).eval(), sin = x.sin().add(x.cos().sub(x.cos())).eval();
+        ComplexArray expectedTan = ComplexArray.tan(b), expectedSin = ComplexArray.sin(b);
+        for(int i = 0; i < b.length(); i++) {
+            assertTrue(Double.isFinite(sin.getRe(i)) && Double.isFinite(sin.getIm(i)), "index " + i);
+            //With a tolerance of 0, so that 0.0 and -0.0 count as equal:
+            assertEquals(expectedTan.getRe(i), tan.getRe(i), 0, "index " + i);
+            assertEquals(expectedTan.getIm(i), tan.getIm(i), 0, "index " + i);
+            assertEquals(expectedSin.getRe(i), sin.getRe(i), 0, "index " + i);
+            assertEquals(expectedSin.getIm(i), sin.getIm(i), 0, "index " + i);
+        }
+        assertEquals(1, tan.getIm(0));
+        assertEquals(-1, tan.getIm(1));
+    }
+
+    @Test
+    void constants() {
+        ComplexNumber k = new ComplexNumber(2, 1);
+        ComplexExpr e = ComplexExpr.of(a).mul(ComplexExpr.of(k));
+        assertEquals(ComplexNumber.prod(a.get(3), new ComplexNumber(2, 1)), e.eval().get(3));
+        //Constants are read at every evaluation:
+        k.set(0, 1);
+        assertEquals(new ComplexNumber(-a.getIm(3), a.getRe(3)), e.eval().get(3));
+        assertEquals(new ComplexNumber(3, 4), ComplexExpr.of(1, 2).mul(ComplexExpr.of(1, 2)).add(ComplexExpr.of(6, 0)).eval(new ComplexNumber()));
+        assertThrows(IllegalStateException.class, () -> ComplexExpr.of(a).eval(new ComplexNumber()));
+        assertThrows(IllegalStateException.class, () -> ComplexExpr.of(k).eval());
+    }
+
+    @Test
+    void inPlace() {
+        ComplexArray expected = ComplexArray.prod(a, ComplexArray.exp(a));
+        ComplexExpr x = ComplexExpr.of(a);
+        assertSame(a, x.mul(x.exp()).eval(a));
+        assertEquals(expected, a);
+        assertThrows(IllegalArgumentException.class, () -> x.eval(new ComplexArray(3)));
+    }
+
+    @Test
+    void string() {
+        ComplexExpr x = ComplexExpr.of(a);
+        assertEquals("(exp((a0 * a1)) + conjugate(a0))", x.mul(ComplexExpr.of(b)).exp().add(x.conjugate()).toString());
+    }
+}
@@ -0,0 +1,107 @@
+package de.andimoo5.math;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComplexFloatArrayTest {
+
+    @Test
+    void basics() {
+        ComplexFloatArray a = new ComplexFloatArray(new ComplexFloat(1, 2), new ComplexFloat(0.1f, -3));
+        assertEquals(2, a.length());
+        assertEquals(new ComplexFloat(0.1f, -3), a.get(1));
+        assertEquals(0.1f, a.getRe(1));
+        assertEquals("[1.0+2.0i, 0.1-3.0i]", a.toString());
+        assertEquals(a, new ComplexFloatArray(a));
+        assertEquals(a.hashCode(), new ComplexFloatArray(a).hashCode());
+        a.set(0, 5, 6);
+        assertEquals(5, a.real()[0]);
+        assertArrayEquals(new ComplexFloat[] {new ComplexFloat(5, 6), new ComplexFloat(0.1f, -3)}, a.toArray());
+        assertThrows(IllegalArgumentException.class, () -> new ComplexFloatArray(new float[2], new float[3]));
+        //Conversions: rounding to float, exact widening back:
+        ComplexArray d = new ComplexArray(new ComplexNumber(0.1, 1e300), new ComplexNumber(-2.5, 1e-50));
+        ComplexFloatArray f = ComplexFloatArray.of(d);
+        assertEquals(new ComplexFloat(0.1f, Float.POSITIVE_INFINITY), f.get(0));
+        assertEquals(new ComplexFloat(-2.5f, 0), f.get(1));
+        assertEquals(new ComplexNumber(0.1f, Double.POSITIVE_INFINITY), f.toComplexArray().get(0));
+        assertEquals(f, ComplexFloatArray.of(f.toComplexArray()));
+    }
+
+    @Test
+    void arithmetic() {
+        //Lengths that aren't a multiple of the vector lanes:
+        ComplexFloatArray a = TestData.floatArray(1001, 1), b = TestData.floatArray(1001, 2);
+        ComplexFloatArray sum = ComplexFloatArray.sum(a, b), diff = ComplexFloatArray.diff(a, b), prod = ComplexFloatArray.prod(a, b);
+        ComplexFloatArray quotient = ComplexFloatArray.division(a, b), conjugate = ComplexFloatArray.conjugate(a);
+        float[] mod = ComplexFloatArray.mod(a), arg = ComplexFloatArray.arg(a);
+        for(int i = 0; i < a.length(); i++) {
+            assertEquals(a.get(i).add(b.get(i)), sum.get(i));
+            assertEquals(a.get(i).sub(b.get(i)), diff.get(i));
+            assertEquals(a.get(i).mul(b.get(i)), prod.get(i));
+            assertEquals(a.get(i).div(b.get(i)), quotient.get(i));
+            assertEquals(a.get(i).conjugate(), conjugate.get(i));
+            assertEquals(a.get(i).mod(), mod[i]);
+            assertEquals(a.get(i).arg(), arg[i]);
+        }
+        ComplexFloatArray c = new ComplexFloatArray(a);
+        c.mul(b);
+        assertEquals(prod, c);
+        c.div(b);
+        c.sub(a);
+        assertTrue(c.norm() < 1e-5);
+        c.add(a);
+        assertEquals(new ComplexFloatArray(new ComplexFloat(Float.NaN, Float.NaN)),
+                ComplexFloatArray.division(new ComplexFloatArray(ComplexFloat.ONE), new ComplexFloatArray(ComplexFloat.ZERO)));
+        assertThrows(IllegalArgumentException.class, () -> ComplexFloatArray.sum(a, TestData.floatArray(3, 3)));
+    }
+
+    @Test
+    void functions() {
+        ComplexFloatArray a = TestData.floatArray(100, 4);
+        ComplexFloatArray exp = ComplexFloatArray.exp(a), log = ComplexFloatArray.log(a), sqrt = ComplexFloatArray.sqrt(a);
+        ComplexFloatArray sin = ComplexFloatArray.sin(a), cos = ComplexFloatArray.cos(a), tan = ComplexFloatArray.tan(a);
+        ComplexFloatArray asin = ComplexFloatArray.asin(a), acos = ComplexFloatArray.acos(a), atan = ComplexFloatArray.atan(a);
+        ComplexFloatArray cube = ComplexFloatArray.pow(a, 3L), root = ComplexFloatArray.pow(a, 0.5);
+        for(int i = 0; i < a.length(); i++) {
+            ComplexFloat z = a.get(i);
+            assertEquals(z.exp(), exp.get(i));
+            assertEquals(z.log(), log.get(i));
+            assertEquals(z.sqrt(), sqrt.get(i));
+            assertEquals(z.sin(), sin.get(i));
+            assertEquals(z.cos(), cos.get(i));
+            assertEquals(z.tan(), tan.get(i));
+            assertEquals(z.asin(), asin.get(i));
+            assertEquals(z.acos(), acos.get(i));
+            assertEquals(z.atan(), atan.get(i));
+            assertEquals(z.pow(3L), cube.get(i));
+            assertEquals(z.pow(0.5), root.get(i));
+        }
+        ComplexFloatArray special = new ComplexFloatArray(ComplexFloat.ZERO, new ComplexFloat(0, -1));
+        assertTrue(Float.isNaN(ComplexFloatArray.pow(special, -1L).getRe(0)));
+        assertTrue(Float.isNaN(ComplexFloatArray.atan(special).getRe(1)));
+    }
+
+    @Test
+    void reductions() {
+        //The double accumulation is as accurate as the compensated sum of the same values in double:
+        ComplexFloatArray a = TestData.floatArray(1_000_000, 5), b = TestData.floatArray(1_000_000, 6);
+        ComplexArray da = a.toComplexArray(), db = b.toComplexArray();
+        ComplexNumber exact = da.sum();
+        assertEquals(exact.getRe(), a.sum().getRe(), 1e-9);
+        assertEquals(exact.getIm(), a.sum().getIm(), 1e-9);
+        assertEquals(da.dot(db).getRe(), a.dot(b).getRe(), 1e-9);
+        assertEquals(da.dot(db).getIm(), a.dot(b).getIm(), 1e-9);
+        assertEquals(da.norm(), a.norm(), 1e-9);
+        assertEquals(da.maxMod(), a.maxMod(), 1e-12);
+        assertEquals(da.mean().getRe(), a.mean().getRe(), 1e-15);
+        //The squares of the biggest floats don't overflow:
+        ComplexFloatArray big = new ComplexFloatArray(new ComplexFloat(Float.MAX_VALUE, Float.MAX_VALUE));
+        assertEquals(Math.sqrt(2) * Float.MAX_VALUE, big.norm(), 1e25);
+        assertEquals(Math.sqrt(2) * Float.MAX_VALUE, big.maxMod(), 1e25);
+        assertTrue(Double.isNaN(new ComplexFloatArray(new ComplexFloat(Float.NaN, 0), ComplexFloat.ONE).maxMod()));
+        assertEquals(0, new ComplexFloatArray(0).maxMod());
+        assertThrows(ArithmeticException.class, () -> new ComplexFloatArray(0).mean());
+        assertThrows(IllegalArgumentException.class, () -> a.dot(TestData.floatArray(3, 7)));
+    }
+}
@@ -0,0 +1,64 @@
+package de.andimoo5.math;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComplexFloatTest {
+
+    private static final ComplexFloat A = new ComplexFloat(1.5f, -2), B = new ComplexFloat(-0.25f, 3);
+
+    @Test
+    void conversions() {
+        assertEquals(new ComplexFloat(0.1f, 0.2f), ComplexFloat.of(new ComplexNumber(0.1, 0.2)));
+        assertEquals(new ComplexFloat(0.1f, 0.2f), ComplexFloat.of(new ComplexValue(0.1, 0.2)));
+        //Widening is exact, so the round trip gives back the same value:
+        assertEquals(A, ComplexFloat.of(A.toComplexNumber()));
+        assertEquals(new ComplexValue(1.5, -2), A.toComplexValue());
+        assertEquals("0.1+0.2i", new ComplexFloat(0.1f, 0.2f).toString());
+        assertEquals("1.5-2.0i", A.toString());
+        assertEquals("-3.0i", new ComplexFloat(0, -3).toString());
+        assertNotEquals(new ComplexFloat(0.0f, 0), new ComplexFloat(-0.0f, 0));
+        assertEquals(-1, new ComplexFloat(3, 4).compareTo(new ComplexFloat(0, 5.0000005f)));
+        assertEquals(0, new ComplexFloat(3, 4).compareTo(new ComplexFloat(0, 5)));
+        assertThrows(NullPointerException.class, () -> ComplexFloat.of((ComplexNumber)null));
+    }
+
+    @Test
+    void arithmetic() {
+        assertEquals(new ComplexFloat(1.25f, 1), A.add(B));
+        assertEquals(new ComplexFloat(1.75f, -5), A.sub(B));
+        assertEquals(new ComplexFloat(1.5f * -0.25f + 6, 4.5f + 0.5f), A.mul(B));
+        //The quotient is rounded once from double:
+        ComplexNumber q = ComplexNumber.division(A.toComplexNumber(), B.toComplexNumber());
+        assertEquals(ComplexFloat.of(q), A.div(B));
+        assertThrows(ArithmeticException.class, () -> A.div(ComplexFloat.ZERO));
+        assertEquals(new ComplexFloat(1.5f, 2), A.conjugate());
+        assertEquals(2.5f, A.mod());
+        //No overflow for the biggest floats:
+        assertEquals(Float.MAX_VALUE, new ComplexFloat(Float.MAX_VALUE, Float.MAX_VALUE).div(ComplexFloat.ONE).re());
+        assertEquals((float)Math.sqrt(2) * Float.MAX_VALUE, new ComplexFloat(Float.MAX_VALUE, Float.MAX_VALUE).mod());
+        assertEquals(ComplexFloat.ZERO, ComplexFloat.ZERO.rcp());
+        assertEquals(ComplexFloat.ONE.div(A), A.rcp());
+    }
+
+    @Test
+    void functions() {
+        ComplexNumber z = A.toComplexNumber();
+        assertEquals(ComplexFloat.of(ComplexNumber.exp(z)), A.exp());
+        assertEquals(ComplexFloat.of(ComplexNumber.log(z)), A.log());
+        assertEquals(ComplexFloat.of(ComplexNumber.log(z, 2)), A.log(2));
+        assertEquals(ComplexFloat.of(ComplexNumber.sqrt(z)), A.sqrt());
+        assertEquals(ComplexFloat.of(ComplexNumber.sin(z)), A.sin());
+        assertEquals(ComplexFloat.of(ComplexNumber.cos(z)), A.cos());
+        assertEquals(ComplexFloat.of(ComplexNumber.tan(z)), A.tan());
+        assertEquals(ComplexFloat.of(ComplexNumber.asin(z)), A.asin());
+        assertEquals(ComplexFloat.of(ComplexNumber.acos(z)), A.acos());
+        assertEquals(ComplexFloat.of(ComplexNumber.atan(z)), A.atan());
+        assertEquals(ComplexFloat.of(ComplexNumber.pow(z, 3)), A.pow(3L));
+        assertEquals(ComplexFloat.of(ComplexNumber.pow(z, 0.5)), A.pow(0.5));
+        assertEquals(ComplexFloat.of(ComplexNumber.pow(z, B.toComplexNumber())), A.pow(B));
+        assertThrows(ArithmeticException.class, () -> ComplexFloat.ZERO.pow(-1L));
+        assertThrows(ArithmeticException.class, () -> new ComplexFloat(0, -1).atan());
+    }
+}
@@ -0,0 +1,106 @@
+package de.andimoo5.math;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComplexFormatTest {
+
+    @Test
+    void format() throws IOException {
+        assertEquals("0.0", ComplexFormat.format(0, 0, new StringBuilder()).toString());
+        assertEquals("5.0-3.0i", ComplexFormat.format(5, -3, new StringBuilder()).toString());
+        assertEquals("-5.0+3.0i", new ComplexNumber(-5, 3).appendTo(new StringBuilder()).toString());
+        assertEquals("1.0+NaNi", ComplexFormat.format(1, Double.NaN, new StringWriter()).toString());
+        ComplexArray a = new ComplexArray(new ComplexNumber(1, 2), new ComplexNumber(0, -1), new ComplexNumber(3));
+        assertEquals("1.0+2.0i\n-1.0i\n3.0", ComplexFormat.format(a, "\n", new StringWriter()).toString());
+        assertEquals("1.0+2.0i,-1.0i,3.0", ComplexFormat.format(a, ",", new StringBuilder()).toString());
+        assertEquals("[1.0+2.0i, -1.0i, 3.0]", a.toString());
+    }
+
+    @Test
+    void parse() {
+        assertEquals(new ComplexNumber(5, -3), ComplexNumber.parse("5.0-3.0i"));
+        assertEquals(new ComplexNumber(-5, 3), ComplexNumber.valueOf(" -5+3j "));
+        assertEquals(new ComplexNumber(2.5), ComplexNumber.parse("2.5"));
+        assertEquals(new ComplexNumber(0, -4500), ComplexNumber.parse("-4.5e3i"));
+        assertEquals(new ComplexNumber(1, 1), ComplexNumber.parse("1+i"));
+        assertEquals(new ComplexNumber(0, -1), ComplexNumber.parse("-j"));
+        assertEquals(new ComplexNumber(0, 1), ComplexNumber.parse("i"));
+        assertEquals(new ComplexNumber(1e-5, 2.5e10), ComplexNumber.parse("1.0E-5+2.5E10i"));
+        assertEquals(new ComplexNumber(0.5, -0.25), ComplexNumber.parse(".5-.25i"));
+        ComplexNumber z = ComplexNumber.parse("NaN-Infinityi");
+        assertTrue(Double.isNaN(z.getRe()));
+        assertEquals(Double.NEGATIVE_INFINITY, z.getIm());
+        //Polar form:
+        assertEquals(new ComplexNumber(2 * Math.cos(1.5), 2 * Math.sin(1.5)), ComplexNumber.parse("2@1.5"));
+        assertEquals(new ComplexNumber(2 * Math.cos(-1.5), 2 * Math.sin(-1.5)), ComplexNumber.parse("2∠-1.5"));
+        z = ComplexNumber.parse("2@90°");
+        assertEquals(0, z.getRe(), 1e-15);
+        assertEquals(2, z.getIm());
+        for(String s : new String[] {"", "+", "i5", "1+2", "1+2i3", "1..2", "1e", "1@", "--1", "1 + 2i", "0x10"}) {
+            assertThrows(NumberFormatException.class, () -> ComplexNumber.parse(s), s);
+        }
+    }
+
+    @Test
+    void parseIsCorrectlyRounded() {
+        Random random = new Random(42);
+        double[] out = new double[2];
+        for(int k = 0; k < 10_000; k++) {
+            //Both short numbers on the fast path and full length ones:
+            double re = k % 2 == 0 ? Math.round(random.nextGaussian() * 1e6) / 1e3 : random.nextGaussian() * Math.pow(10, random.nextInt(40) - 20);
+            double im = Double.longBitsToDouble(random.nextLong());
+            if(Double.isNaN(im)) continue;
+            String s = ComplexNumber.toString(re, im);
+            ComplexFormat.parse(s, 0, s.length(), out);
+            assertEquals(new ComplexNumber(re, im), new ComplexNumber(out[0], out[1]), s);
+        }
+        for(String s : new String[] {"0.1", "123456789012345678901234567890", "9007199254740993", "4.9e-324", "1e400", "0.000000000000000000000000001"}) {
+            ComplexFormat.parse(s, 0, s.length(), out);
+            assertEquals(Double.parseDouble(s), out[0], s);
+        }
+    }
+
+    @Test
+    void bulkParse() {
+        String text = "1.0+2.0i, -3j;4.5\n\n2@0\t-1-i\r\n";
+        ComplexArray expected = new ComplexArray(new ComplexNumber(1, 2), new ComplexNumber(0, -3), new ComplexNumber(4.5),
+                new ComplexNumber(2, 0), new ComplexNumber(-1, -1));
+        CharBuffer chars = CharBuffer.wrap(text);
+        ComplexArray dst = new ComplexArray(5);
+        assertEquals(5, ComplexFormat.parse(chars, dst, 0));
+        assertEquals(expected, dst);
+        ByteBuffer bytes = ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+        dst = new ComplexArray(7);
+        //Stops when the destination is full and continues at the same place:
+        assertEquals(3, ComplexFormat.parse(bytes, new ComplexArray(3), 0));
+        assertEquals(2, ComplexFormat.parse(bytes, dst, 5));
+        assertEquals(expected.get(3), dst.get(5));
+        assertEquals(expected.get(4), dst.get(6));
+        assertEquals(0, ComplexFormat.parse(bytes, dst, 0));
+        assertFalse(bytes.hasRemaining());
+        //The position is left at the invalid value:
+        CharBuffer invalid = CharBuffer.wrap("1, 2, x3, 4");
+        assertThrows(NumberFormatException.class, () -> ComplexFormat.parse(invalid, new ComplexArray(4), 0));
+        assertEquals(6, invalid.position());
+    }
+
+    @Test
+    void roundTrip() throws IOException {
+        Random random = new Random(7);
+        ComplexArray a = new ComplexArray(1000);
+        for(int i = 0; i < a.length(); i++) a.set(i, random.nextGaussian(), random.nextGaussian() * 1e-8);
+        String text = ComplexFormat.format(a, ",", new StringBuilder()).toString();
+        ComplexArray b = new ComplexArray(a.length());
+        assertEquals(a.length(), ComplexFormat.parse(CharBuffer.wrap(text), b, 0));
+        assertEquals(a, b);
+    }
+}
@@ -0,0 +1,123 @@
+package de.andimoo5.math;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComplexGridTest {
+
+    //The plain iteration, without any of the shortcuts:
+    private static int naive(double x, double y, double cr, double ci, int maxIterations, double bailout, double[] abs2) {
+        for(int n = 0; n < maxIterations; n++) {
+            double x2 = x * x, y2 = y * y;
+            if(x2 + y2 > bailout) {
+                abs2[0] = x2 + y2;
+                return n;
+            }
+            y = (x + x) * y + ci;
+            x = x2 - y2 + cr;
+        }
+        return maxIterations;
+    }
+
+    @Test
+    void grid() {
+        ComplexGrid grid = new ComplexGrid(-2, -1, 1, 1, 300, 200);
+        assertEquals(60_000, grid.size());
+        assertEquals(-2 + 0.005, grid.re(0), 1e-15);
+        assertEquals(1 - 0.005, grid.im(0), 1e-15);
+        assertEquals(-1 + 0.005, grid.im(199), 1e-15);
+        assertEquals("ComplexGrid[-2.0, -1.0; 1.0, 1.0; 300x200]", grid.toString());
+        assertThrows(IllegalArgumentException.class, () -> new ComplexGrid(1, 0, 1, 1, 10, 10));
+        assertThrows(IllegalArgumentException.class, () -> new ComplexGrid(0, 0, 1, Double.NaN, 10, 10));
+        assertThrows(IllegalArgumentException.class, () -> new ComplexGrid(0, 0, 1, 1, 100_000, 100_000));
+        assertThrows(IllegalArgumentException.class, () -> grid.mandelbrot(10, new int[5]));
+        assertThrows(IllegalArgumentException.class, () -> grid.mandelbrot(-1, new int[60_000]));
+        assertThrows(NullPointerException.class, () -> grid.julia(0, 0, 10, (double[])null));
+    }
+
+    @Test
+    void mandelbrot() {
+        //Several tiles in both directions, and a width that isn't a multiple of the lanes:
+        ComplexGrid grid = new ComplexGrid(-2.1, -1.2, 0.7, 1.2, 601, 41);
+        int max = 300;
+        int[] counts = grid.mandelbrot(max, new int[grid.size()]);
+        double[] smooth = grid.mandelbrot(max, new double[grid.size()]), abs2 = new double[1];
+        int inside = 0;
+        for(int y = 0; y < grid.height(); y++) {
+            for(int x = 0; x < grid.width(); x++) {
+                int i = y * grid.width() + x;
+                assertEquals(naive(0, 0, grid.re(x), grid.im(y), max, 4, abs2), counts[i], "x=" + x + ", y=" + y);
+                int n = naive(0, 0, grid.re(x), grid.im(y), max, 0x1p16, abs2);
+                if(n == max) {
+                    assertEquals(max, smooth[i]);
+                    inside++;
+                }
+                else assertEquals(n + 1 - Math.log(Math.log(abs2[0]) / 2) / Math.log(2), smooth[i], 1e-12);
+            }
+        }
+        assertTrue(inside > 1000);
+        //The same image, row by row in a grid of a single tile row:
+        ComplexGrid row = new ComplexGrid(-2.1, 1.2 - 2.4 / 41, 0.7, 1.2, 601, 1);
+        assertArrayEquals(java.util.Arrays.copyOf(counts, 601), row.mandelbrot(max, new int[601]));
+    }
+
+    @Test
+    void julia() {
+        ComplexGrid grid = new ComplexGrid(-1.6, -1, 1.6, 1, 333, 50);
+        int max = 200;
+        double cRe = -0.8, cIm = 0.156;
+        int[] counts = grid.julia(cRe, cIm, max, new int[grid.size()]);
+        double[] smooth = grid.julia(cRe, cIm, max, new double[grid.size()]), abs2 = new double[1];
+        for(int y = 0; y < grid.height(); y++) {
+            for(int x = 0; x < grid.width(); x++) {
+                int i = y * grid.width() + x;
+                assertEquals(naive(grid.re(x), grid.im(y), cRe, cIm, max, 4, abs2), counts[i]);
+                int n = naive(grid.re(x), grid.im(y), cRe, cIm, max, 0x1p16, abs2);
+                assertEquals(n == max ? max : n + 1 - Math.log(Math.log(abs2[0]) / 2) / Math.log(2), smooth[i], 1e-12);
+            }
+        }
+        //c = 0 is the unit disk, whose inner points converge to the fixed point 0:
+        int[] disk = new ComplexGrid(-0.5, -0.5, 0.5, 0.5, 64, 64).julia(0, 0, 1_000_000, new int[64 * 64]);
+        for(int n : disk) assertEquals(1_000_000, n);
+    }
+
+    @Test
+    void escapeTime() {
+        ComplexGrid grid = new ComplexGrid(-2, -1.1, 0.6, 1.1, 280, 30);
+        int max = 100;
+        //Starting at z = p is one step ahead of the Mandelbrot iteration starting at 0:
+        int[] counts = grid.escapeTime((zRe, zIm, pRe, pIm, out) -> {
+            out[0] = zRe * zRe - zIm * zIm + pRe;
+            out[1] = (zRe + zRe) * zIm + pIm;
+            return out;
+        }, 2, max, new int[grid.size()]);
+        int[] mandelbrot = grid.mandelbrot(max + 1, new int[grid.size()]);
+        for(int i = 0; i < counts.length; i++) assertEquals(mandelbrot[i] - 1, counts[i]);
+        //The cubic Mandelbrot set is symmetric to the real axis:
+        int[] cubic = new ComplexGrid(-1.5, -1.5, 1.5, 1.5, 60, 60).escapeTime((zRe, zIm, pRe, pIm, out) -> {
+            ComplexNumber.pow(zRe, zIm, 3L, out);
+            out[0] += pRe;
+            out[1] += pIm;
+            return out;
+        }, 2, 50, new int[3600]);
+        for(int y = 0; y < 30; y++) {
+            for(int x = 0; x < 60; x++) assertEquals(cubic[y * 60 + x], cubic[(59 - y) * 60 + x]);
+        }
+        assertThrows(IllegalArgumentException.class, () -> grid.escapeTime((a, b, c, d, out) -> out, 0, 10, new int[grid.size()]));
+    }
+
+    @Test
+    void evaluate() {
+        ComplexGrid grid = new ComplexGrid(-3, -3, 3, 3, 500, 70);
+        double[] re = new double[grid.size()], im = new double[grid.size()];
+        grid.evaluate(ComplexNumber::sin, re, im);
+        for(int y = 0; y < grid.height(); y += 7) {
+            for(int x = 0; x < grid.width(); x += 13) {
+                ComplexNumber z = ComplexNumber.sin(new ComplexNumber(grid.re(x), grid.im(y)));
+                assertEquals(z, new ComplexNumber(re[y * 500 + x], im[y * 500 + x]));
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> grid.evaluate(ComplexNumber::sin, re, new double[3]));
+    }
+}
@@ -0,0 +1,225 @@
+package de.andimoo5.math;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComplexMatrixTest {
+
+    private static ComplexMatrix scaled(ComplexMatrix a, double factor) {
+        ComplexMatrix b = new ComplexMatrix(a);
+        for(int k = 0; k < b.real().length; k++) {
+            b.real()[k] *= factor;
+            b.imaginary()[k] *= factor;
+        }
+        return b;
+    }
+
+    //The textbook triple loop, accumulating in the same order as the blocked product:
+    private static ComplexMatrix naive(ComplexMatrix a, ComplexMatrix b) {
+        ComplexMatrix c = new ComplexMatrix(a.rows(), b.columns());
+        for(int i = 0; i < a.rows(); i++) {
+            for(int j = 0; j < b.columns(); j++) {
+                double sRe = 0, sIm = 0;
+                for(int k = 0; k < a.columns(); k++) {
+                    double xRe = a.getRe(i, k), xIm = a.getIm(i, k), yRe = b.getRe(k, j), yIm = b.getIm(k, j);
+                    sRe += xRe * yRe - xIm * yIm;
+                    sIm += xRe * yIm + xIm * yRe;
+                }
+                c.set(i, j, sRe, sIm);
+            }
+        }
+        return c;
+    }
+
+    private static double distance(ComplexMatrix a, ComplexMatrix b) {
+        double max = 0;
+        for(int i = 0; i < a.real().length; i++) {
+            max = Math.max(max, Math.hypot(a.real()[i] - b.real()[i], a.imaginary()[i] - b.imaginary()[i]));
+        }
+        return max;
+    }
+
+    @Test
+    void basics() {
+        ComplexMatrix a = new ComplexMatrix(new ComplexNumber[][] {{new ComplexNumber(1, 2), new ComplexNumber(3)},
+                {new ComplexNumber(0, -1), new ComplexNumber(4, 4)}, {new ComplexNumber(), new ComplexNumber(5)}});
+        assertEquals(3, a.rows());
+        assertEquals(2, a.columns());
+        assertEquals(new ComplexNumber(0, -1), a.get(1, 0));
+        assertEquals(4, a.getIm(1, 1));
+        assertEquals("[[1.0+2.0i, 3.0], [-1.0i, 4.0+4.0i], [0.0, 5.0]]", a.toString());
+        ComplexMatrix b = new ComplexMatrix(a);
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        b.set(2, 0, 1, 1);
+        assertNotEquals(a, b);
+        assertArrayEquals(a.toArray()[1], new ComplexNumber[] {new ComplexNumber(0, -1), new ComplexNumber(4, 4)});
+        assertEquals(ComplexMatrix.identity(2), new ComplexMatrix(2, 2, new double[] {1, 0, 0, 1}, new double[4]));
+        assertThrows(IndexOutOfBoundsException.class, () -> a.get(0, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> a.set(3, 0, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ComplexMatrix(2, 2, new double[3], new double[3]));
+        assertThrows(IllegalArgumentException.class, () -> new ComplexMatrix(-1, 2));
+        assertThrows(IllegalArgumentException.class, () -> new ComplexMatrix(new ComplexNumber[][] {{new ComplexNumber()}, {}}));
+    }
+
+    @Test
+    void prod() {
+        ComplexMatrix a = new ComplexMatrix(new ComplexNumber[][] {{new ComplexNumber(1, 1), new ComplexNumber(2)},
+                {new ComplexNumber(0, 1), new ComplexNumber(-1, 0)}});
+        ComplexMatrix b = new ComplexMatrix(new ComplexNumber[][] {{new ComplexNumber(1, -1)}, {new ComplexNumber(0, 3)}});
+        assertEquals(new ComplexMatrix(new ComplexNumber[][] {{new ComplexNumber(2, 6)}, {new ComplexNumber(1, -2)}}), ComplexMatrix.prod(a, b));
+        //Sizes with tails in every block and strip dimension:
+        int[][] sizes = {{1, 1, 1}, {5, 7, 3}, {67, 131, 259}, {130, 257, 129}};
+        for(int[] size : sizes) {
+            ComplexMatrix x = TestData.matrix(size[0], size[1], 1), y = TestData.matrix(size[1], size[2], 2);
+            assertEquals(naive(x, y), ComplexMatrix.prod(x, y));
+        }
+        assertEquals(new ComplexMatrix(3, 4), ComplexMatrix.prod(new ComplexMatrix(3, 0), new ComplexMatrix(0, 4)));
+        assertThrows(IllegalArgumentException.class, () -> ComplexMatrix.prod(a, a, a));
+        assertThrows(IllegalArgumentException.class, () -> ComplexMatrix.prod(b, b));
+        assertThrows(NullPointerException.class, () -> ComplexMatrix.prod(a, (ComplexMatrix)null));
+    }
+
+    @Test
+    void vectorProd() {
+        ComplexMatrix a = TestData.matrix(37, 29, 3);
+        ComplexArray x = new ComplexArray(a.columns());
+        for(int i = 0; i < x.length(); i++) x.set(i, Math.sin(i), Math.cos(i));
+        ComplexMatrix column = new ComplexMatrix(x.length(), 1, x.real().clone(), x.imaginary().clone());
+        ComplexMatrix expected = naive(a, column);
+        assertEquals(new ComplexArray(expected.real(), expected.imaginary()), ComplexMatrix.prod(a, x));
+        assertThrows(IllegalArgumentException.class, () -> ComplexMatrix.prod(a, new ComplexArray(3)));
+        ComplexArray square = new ComplexArray(29);
+        assertThrows(IllegalArgumentException.class, () -> ComplexMatrix.prod(TestData.matrix(29, 29, 4), square, square));
+    }
+
+    @Test
+    void conjugateTranspose() {
+        ComplexMatrix a = new ComplexMatrix(new ComplexNumber[][] {{new ComplexNumber(1, 2), new ComplexNumber(3, -1), new ComplexNumber(0, 5)}});
+        assertEquals(new ComplexMatrix(new ComplexNumber[][] {{new ComplexNumber(1, -2)}, {new ComplexNumber(3, 1)}, {new ComplexNumber(0, -5)}}),
+                ComplexMatrix.conjugateTranspose(a));
+        ComplexMatrix b = TestData.matrix(45, 70, 5), c = ComplexMatrix.conjugateTranspose(b);
+        for(int i = 0; i < b.rows(); i++) {
+            for(int j = 0; j < b.columns(); j++) assertEquals(ComplexNumber.conjugate(b.get(i, j)), c.get(j, i));
+        }
+        assertEquals(b, ComplexMatrix.conjugateTranspose(c));
+        ComplexMatrix square = TestData.matrix(33, 33, 6), copy = new ComplexMatrix(square);
+        assertSame(square, ComplexMatrix.conjugateTranspose(square, square));
+        assertEquals(ComplexMatrix.conjugateTranspose(copy), square);
+        assertThrows(IllegalArgumentException.class, () -> ComplexMatrix.conjugateTranspose(b, b));
+    }
+
+    @Test
+    void parallel() {
+        //More rows than fit into a single chunk, so the work is really split:
+        ComplexMatrix a = TestData.matrix(300, 150, 7), b = TestData.matrix(150, 170, 8);
+        assertEquals(ComplexMatrix.prod(a, b), a.parallel().prod(b, new ComplexMatrix(300, 170)));
+        ComplexMatrix tall = TestData.matrix(3000, 100, 9);
+        ComplexArray x = new ComplexArray(100);
+        for(int i = 0; i < x.length(); i++) x.set(i, i, -i);
+        assertEquals(ComplexMatrix.prod(tall, x), tall.parallel().prod(x, new ComplexArray(3000)));
+        ComplexMatrix square = TestData.matrix(200, 200, 10);
+        ComplexMatrix.LU lu = square.lu(), parallel = square.parallel().lu();
+        assertEquals(lu.lower(), parallel.lower());
+        assertEquals(lu.upper(), parallel.upper());
+        assertArrayEquals(lu.pivots(), parallel.pivots());
+    }
+
+    @Test
+    void determinant() {
+        ComplexMatrix a = new ComplexMatrix(new ComplexNumber[][] {{new ComplexNumber(1), new ComplexNumber(2)},
+                {new ComplexNumber(3), new ComplexNumber(4)}});
+        assertEquals(new ComplexNumber(-2), a.determinant());
+        //det = (1+i)(2) - (i)(3-i) = 2+2i - (1+3i) = 1-i:
+        a = new ComplexMatrix(new ComplexNumber[][] {{new ComplexNumber(1, 1), new ComplexNumber(0, 1)},
+                {new ComplexNumber(3, -1), new ComplexNumber(2)}});
+        ComplexNumber det = a.determinant();
+        assertEquals(1, det.getRe(), 1e-15);
+        assertEquals(-1, det.getIm(), 1e-15);
+        assertEquals(new ComplexNumber(1), ComplexMatrix.identity(100).determinant());
+        assertThrows(IllegalArgumentException.class, () -> new ComplexMatrix(2, 3).determinant());
+    }
+
+    @Test
+    void determinantOfBigMatrices() {
+        int n = 300;
+        ComplexMatrix a = scaled(TestData.matrix(n, n, 17), 0.5);
+        ComplexMatrix.LU lu = a.lu();
+        ComplexNumber det = lu.determinant(), log = lu.logDeterminant();
+        assertTrue(Double.isFinite(det.getRe()) && Double.isFinite(det.getIm()), det::toString);
+        ComplexNumber logOfDet = ComplexNumber.log(det);
+        assertEquals(logOfDet.getRe(), log.getRe(), 1e-10 * Math.abs(log.getRe()));
+        assertEquals(logOfDet.getIm(), log.getIm(), 1e-9);
+        //Multiplying every element by 4 multiplies the determinant by 2^2n, which overflows:
+        ComplexMatrix b = scaled(a, 4);
+        ComplexNumber big = b.determinant(), logBig = b.lu().logDeterminant();
+        assertEquals(Double.POSITIVE_INFINITY, ComplexNumber.mod(big));
+        assertEquals(log.getRe() + 2 * n * Math.log(2), logBig.getRe(), 1e-10 * Math.abs(logBig.getRe()));
+        assertEquals(log.getIm(), logBig.getIm(), 1e-9);
+        //Dividing by 4 divides it by 2^2n, which stays finite:
+        b = scaled(a, 0.25);
+        ComplexNumber small = b.determinant();
+        assertEquals(Math.scalb(det.getRe(), -2 * n), small.getRe(), 1e-12 * Math.abs(small.getRe()));
+        assertEquals(Math.scalb(det.getIm(), -2 * n), small.getIm(), 1e-12 * Math.abs(small.getIm()));
+        assertEquals(Double.NEGATIVE_INFINITY, new ComplexMatrix(3, 3).lu().logDeterminant().getRe());
+        assertEquals(new ComplexNumber(0, Math.PI), new ComplexMatrix(new ComplexNumber[][] {{new ComplexNumber(-1)}}).lu().logDeterminant());
+    }
+
+    @Test
+    void lu() {
+        int n = 150;
+        ComplexMatrix a = TestData.matrix(n, n, 11);
+        ComplexMatrix.LU lu = a.lu();
+        assertFalse(lu.isSingular());
+        //P * A = L * U:
+        ComplexMatrix pa = new ComplexMatrix(a);
+        int[] pivots = lu.pivots();
+        for(int i = 0; i < n; i++) {
+            for(int j = 0; j < n; j++) {
+                ComplexNumber t = pa.get(i, j);
+                pa.set(i, j, pa.get(pivots[i], j));
+                pa.set(pivots[i], j, t);
+            }
+        }
+        assertTrue(distance(pa, ComplexMatrix.prod(lu.lower(), lu.upper())) < 1e-12);
+        //With |Re(z)| + |Im(z)| as the size of the pivots, no multiplier is bigger than sqrt(2):
+        ComplexMatrix l = lu.lower();
+        for(int i = 0; i < n; i++) {
+            for(int j = 0; j < i; j++) assertTrue(ComplexNumber.mod(l.get(i, j)) <= Math.sqrt(2) * (1 + 1e-15));
+        }
+    }
+
+    @Test
+    void solve() {
+        int n = 150;
+        ComplexMatrix a = TestData.matrix(n, n, 12), b = TestData.matrix(n, 3, 13);
+        ComplexMatrix.LU lu = a.lu();
+        ComplexMatrix x = lu.solve(b);
+        assertTrue(distance(ComplexMatrix.prod(a, x), b) < 1e-10);
+        for(int j = 0; j < b.columns(); j++) {
+            ComplexArray column = new ComplexArray(n);
+            for(int i = 0; i < n; i++) column.set(i, b.get(i, j));
+            ComplexArray y = lu.solve(column, column);
+            for(int i = 0; i < n; i++) assertEquals(x.get(i, j), y.get(i));
+        }
+        ComplexArray c = new ComplexArray(n);
+        for(int i = 0; i < n; i++) c.set(i, 1, i);
+        ComplexArray r = ComplexMatrix.prod(a, a.solve(c));
+        for(int i = 0; i < n; i++) assertEquals(0, ComplexNumber.mod(ComplexNumber.diff(r.get(i), c.get(i))), 1e-10);
+        assertThrows(IllegalArgumentException.class, () -> lu.solve(new ComplexArray(3)));
+    }
+
+    @Test
+    void singular() {
+        ComplexMatrix a = new ComplexMatrix(new ComplexNumber[][] {{new ComplexNumber(1, 1), new ComplexNumber(2, 2)},
+                {new ComplexNumber(2), new ComplexNumber(4)}});
+        a.set(1, 0, ComplexNumber.prod(a.get(0, 0), new ComplexNumber(0, 1)));
+        a.set(1, 1, ComplexNumber.prod(a.get(0, 1), new ComplexNumber(0, 1)));
+        ComplexMatrix.LU lu = a.lu();
+        assertTrue(lu.isSingular());
+        assertEquals(0, ComplexNumber.mod(lu.determinant()));
+        assertThrows(ArithmeticException.class, () -> lu.solve(new ComplexArray(2)));
+        assertThrows(ArithmeticException.class, () -> new ComplexMatrix(70, 70).solve(new ComplexArray(70)));
+    }
+}
@@ -0,0 +1,103 @@
+package de.andimoo5.math;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComplexMemoTest {
+
+    @Test
+    void hitsAndMisses() {
+        AtomicInteger calls = new AtomicInteger();
+        ComplexMemo memo = new ComplexMemo((re, im, out) -> {
+            calls.incrementAndGet();
+            return ComplexNumber.asin(re, im, out);
+        }, 16);
+        ComplexNumber z = new ComplexNumber(1, 1);
+        assertEquals(ComplexNumber.asin(z), memo.apply(z));
+        assertEquals(ComplexNumber.asin(z), memo.apply(z));
+        double[] out = memo.apply(1, 1, new double[2]);
+        assertEquals(ComplexNumber.asin(z), new ComplexNumber(out[0], out[1]));
+        assertEquals(1, calls.get());
+        assertEquals(new ComplexMemo.Stats(2, 1, 0), memo.stats());
+        assertEquals(2.0 / 3, memo.stats().hitRate());
+        //The keys are the exact bit patterns:
+        memo.apply(new ComplexNumber(0.0, 0.0));
+        memo.apply(new ComplexNumber(-0.0, 0.0));
+        memo.apply(new ComplexNumber(Double.NaN, 0.0));
+        memo.apply(new ComplexNumber(Double.NaN, 0.0));
+        assertEquals(4, calls.get());
+        assertEquals(4, memo.size());
+        memo.clear();
+        assertEquals(0, memo.size());
+        assertEquals(new ComplexMemo.Stats(0, 0, 0), memo.stats());
+        assertTrue(Double.isNaN(memo.stats().hitRate()));
+        memo.apply(z);
+        assertEquals(5, calls.get());
+    }
+
+    @Test
+    void eviction() {
+        AtomicInteger calls = new AtomicInteger();
+        ComplexMemo memo = new ComplexMemo((re, im, out) -> {
+            calls.incrementAndGet();
+            return ComplexNumber.exp(re, im, out);
+        }, 100);
+        Random random = new Random(1);
+        for(int i = 0; i < 10_000; i++) {
+            double re = random.nextInt(300), im = random.nextInt(3);
+            //A hot argument, used all the time, stays in the table:
+            memo.apply(i % 2 == 0 ? 0.5 : re, i % 2 == 0 ? 0.5 : im, new double[2]);
+            assertTrue(memo.size() <= 100);
+        }
+        assertEquals(100, memo.size());
+        int before = calls.get();
+        memo.apply(0.5, 0.5, new double[2]);
+        assertEquals(before, calls.get());
+        ComplexMemo.Stats stats = memo.stats();
+        assertEquals(10_001, stats.hits() + stats.misses());
+        assertEquals(stats.misses() - 100, stats.evictions());
+        //Every entry that is still there gives the right value:
+        for(int re = 0; re < 300; re++) {
+            for(int im = 0; im < 3; im++) {
+                assertEquals(ComplexNumber.exp(new ComplexNumber(re, im)), memo.apply(new ComplexNumber(re, im)));
+            }
+        }
+    }
+
+    @Test
+    void concurrent() throws InterruptedException {
+        ComplexMemo memo = new ComplexMemo(ComplexNumber::log, 64);
+        AtomicInteger wrong = new AtomicInteger();
+        ComplexAdderTest.concurrently(4, () -> {
+            Random random = new Random();
+            double[] out = new double[2];
+            for(int i = 0; i < 20_000; i++) {
+                double re = random.nextInt(100) + 1, im = random.nextInt(2);
+                memo.apply(re, im, out);
+                if(!ComplexNumber.log(new ComplexNumber(re, im)).equals(new ComplexNumber(out[0], out[1]))) wrong.incrementAndGet();
+            }
+        });
+        assertEquals(0, wrong.get());
+        assertTrue(memo.size() <= 64);
+        ComplexMemo.Stats stats = memo.stats();
+        assertEquals(80_000, stats.hits() + stats.misses());
+    }
+
+    @Test
+    void exceptions() {
+        ComplexMemo memo = new ComplexMemo((re, im, out) -> {
+            if(re == 0 && im == -1) throw new ArithmeticException();
+            return ComplexNumber.atan(re, im, out);
+        }, 4);
+        assertThrows(ArithmeticException.class, () -> memo.apply(new ComplexNumber(0, -1)));
+        assertThrows(ArithmeticException.class, () -> memo.apply(new ComplexNumber(0, -1)));
+        assertEquals(0, memo.size());
+        assertThrows(NullPointerException.class, () -> new ComplexMemo(null, 4));
+        assertThrows(IllegalArgumentException.class, () -> new ComplexMemo(ComplexNumber::exp, 0));
+        assertThrows(NullPointerException.class, () -> memo.apply(1, 2, null));
+    }
+}
@@ -58,6 +58,14 @@ class ComplexNumberTest {
         assertTrue(z.equals(new ComplexNumber(5, 4)));
     }
 
+    @Test
+    void testHashCode() {
+        z.set(5,4);
+        assertEquals(new ComplexNumber(5, 4).hashCode(), z.hashCode());
+        z.set(0.0, 1);
+        assertEquals(new ComplexNumber(-0.0, 1).hashCode(), z.hashCode());
+    }
+
     @Test
     void intValue() {
         z.set(5.6, 3.45);
@@ -127,6 +135,38 @@ class ComplexNumberTest {
         assertEquals(new ComplexNumber(1.75,-0.25), ComplexNumber.division(z, z2));
     }
 
+    @Test
+    void divisionWithoutOverflow() {
+        assertEquals(new ComplexNumber(1), ComplexNumber.division(new ComplexNumber(1e300, 1e300), new ComplexNumber(1e300, 1e300)));
+        ComplexNumber q = ComplexNumber.division(new ComplexNumber(1e-300, 1e-300), new ComplexNumber(1e-300, 1e-300));
+        assertEquals(1, q.getRe(), 1e-15);
+        assertEquals(0, q.getIm(), 1e-15);
+        q = ComplexNumber.division(new ComplexNumber(1e307, 1e-307), new ComplexNumber(1e204, 1e-204));
+        assertEquals(1e103, q.getRe(), 1e88);
+        assertEquals(-1e-305, q.getIm(), 1e-320);
+        q = ComplexNumber.division(new ComplexNumber(1), new ComplexNumber(1e-308, 1e-308));
+        assertEquals(5e307, q.getRe(), 1e293);
+        assertEquals(-5e307, q.getIm(), 1e293);
+        assertThrows(ArithmeticException.class, () -> ComplexNumber.division(new ComplexNumber(1e300), new ComplexNumber()));
+    }
+
+    @Test
+    void divisionWithoutArray() {
+        //Both parts from quotientRe give the same bits as quotient, inside and outside of the safe range:
+        double[] parts = {3, -0.5, 1e300, -2e-300, 0x1p-1070, Double.MAX_VALUE, 7e-200, 0};
+        double[] out = new double[2];
+        for(double a : parts) for(double b : parts) for(double c : parts) for(double d : parts) {
+            if(c == 0 && d == 0) continue;
+            ComplexNumber.quotient(a, b, c, d, out);
+            ComplexNumber q = ComplexNumber.division(new ComplexNumber(a, b), new ComplexNumber(c, d));
+            assertEquals(out[0], q.getRe());
+            assertEquals(out[1], q.getIm());
+            ComplexValue v = new ComplexValue(a, b).div(new ComplexValue(c, d));
+            assertEquals(out[0], v.re());
+            assertEquals(out[1], v.im());
+        }
+    }
+
     @Test
     void conjugate() {
         z.set(3,4);
@@ -139,6 +179,54 @@ class ComplexNumberTest {
         assertEquals(5.0, ComplexNumber.mod(z));
     }
 
+    @Test
+    void modulusWithoutOverflow() {
+        assertEquals(Math.hypot(3e200, 4e200), ComplexNumber.mod(new ComplexNumber(3e200, 4e200)), 1e186);
+        assertEquals(5e-200, ComplexNumber.mod(new ComplexNumber(3e-200, 4e-200)), 1e-214);
+        assertEquals(Double.MIN_VALUE, ComplexNumber.mod(new ComplexNumber(Double.MIN_VALUE, 0)));
+        assertEquals(Double.POSITIVE_INFINITY, ComplexNumber.mod(new ComplexNumber(Double.NaN, Double.NEGATIVE_INFINITY)));
+        assertTrue(Double.isNaN(ComplexNumber.mod(new ComplexNumber(Double.NaN, 1e300))));
+    }
+
+    @Test
+    void accurateNearCancellation() {
+        //log|z| close to |z| = 1 and sinh of a small imaginary part keep their relative accuracy:
+        double x = 1 + 1e-10;
+        assertEquals(Math.log1p(x - 1), ComplexNumber.log(new ComplexNumber(x)).getRe(), 1e-25);
+        assertEquals(0.5e-20, ComplexNumber.log(new ComplexNumber(1, 1e-10)).getRe(), 1e-35);
+        assertEquals(Math.cos(1) * Math.sinh(1e-10), ComplexNumber.sin(new ComplexNumber(1, 1e-10)).getIm(), 1e-25);
+        assertEquals(-Math.sin(1) * Math.sinh(-3e-12), ComplexNumber.cos(new ComplexNumber(1, -3e-12)).getIm(), 1e-27);
+        //No overflow of the intermediate products:
+        assertEquals(300 * Math.log(10) + 0.5 * Math.log(2), ComplexNumber.log(new ComplexNumber(1e300, 1e300)).getRe(), 1e-12);
+        ComplexNumber t = ComplexNumber.tan(new ComplexNumber(0.5, 400));
+        assertEquals(0, t.getRe(), 1e-300);
+        assertEquals(1, t.getIm());
+    }
+
+    @Test
+    void largeImaginaryParts() {
+        //cosh(710.3) is still finite, cosh(720) is not, but the products with small sines and cosines are:
+        ComplexNumber s = ComplexNumber.sin(new ComplexNumber(0.5, 710.3));
+        assertEquals(Math.exp(Math.log(Math.sin(0.5)) + 710.3 - Math.log(2)), s.getRe(), 1e-12 * Math.abs(s.getRe()));
+        assertEquals(Math.exp(Math.log(Math.cos(0.5)) + 710.3 - Math.log(2)), s.getIm(), 1e-12 * Math.abs(s.getIm()));
+        s = ComplexNumber.sin(new ComplexNumber(1e-10, -720));
+        assertEquals(Math.exp(Math.log(1e-10) + 720 - Math.log(2)), s.getRe(), 1e-12 * Math.abs(s.getRe()));
+        assertEquals(Double.NEGATIVE_INFINITY, s.getIm());
+        ComplexNumber c = ComplexNumber.cos(new ComplexNumber(Math.PI / 2, 720));
+        assertTrue(Double.isFinite(c.getRe()));
+        assertEquals(Math.exp(Math.log(Math.cos(Math.PI / 2)) + 720 - Math.log(2)), c.getRe(), 1e-12 * c.getRe());
+        assertEquals(ComplexValue.of(c), new ComplexValue(Math.PI / 2, 720).cos());
+        //A factor of 0 stays 0:
+        assertEquals(new ComplexNumber(0, Double.POSITIVE_INFINITY), ComplexNumber.sin(new ComplexNumber(0, 1e4)));
+        //tan(z) goes to i*sign(Im(z)):
+        assertEquals(new ComplexNumber(0, 1), ComplexNumber.tan(new ComplexNumber(0.5, 800)));
+        assertEquals(new ComplexNumber(0, -1), ComplexNumber.tan(new ComplexNumber(0.5, -710.3)));
+        ComplexNumber t = ComplexNumber.tan(new ComplexNumber(1, 30));
+        assertEquals(2 * Math.sin(2) * Math.exp(-60), t.getRe(), 1e-14 * t.getRe());
+        assertEquals(1, t.getIm());
+        assertEquals(ComplexNumber.tan(new ComplexNumber(1, 19.5)).getIm(), 1, 1e-16);
+    }
+
     @Test
     void argument() {
         z.set(3, 4);
@@ -154,7 +242,7 @@ class ComplexNumberTest {
     @Test
     void sin() {
         z.set(1, 2);
-        assertEquals(new ComplexNumber(3.165778513216168, 2.0327230070196656), ComplexNumber.sin(z));
+        assertEquals(new ComplexNumber(3.165778513216168, 1.9596010414216063), ComplexNumber.sin(z));
     }
 
     @Test
@@ -173,6 +261,13 @@ class ComplexNumberTest {
     void log() {
         z.set(1, 1);
         assertEquals(new ComplexNumber(Math.log(Math.sqrt(2)), 0.7853981633974483), ComplexNumber.log(z));
+        //The cached logarithm of the base gives the same result as dividing by log(b):
+        for(double b : new double[] {10, 2, Math.E, 0.5, 10, 1e-300, 2}) {
+            assertEquals(ComplexNumber.division(ComplexNumber.log(z), ComplexNumber.log(new ComplexNumber(b))), ComplexNumber.log(z, b));
+        }
+        assertEquals(3, ComplexNumber.log(new ComplexNumber(1000), 10).getRe(), 1e-15);
+        assertThrows(ArithmeticException.class, () -> ComplexNumber.log(z, 1));
+        assertThrows(ArithmeticException.class, () -> ComplexNumber.log(z, -2));
     }
 
     @Test
@@ -192,4 +287,141 @@ class ComplexNumberTest {
         z.set(1, 1);
         assertEquals(new ComplexNumber(1.0172219678978514, 0.40235947810852507), ComplexNumber.atan(z));
     }
+
+    @Test
+    void inPlaceArithmetic() {
+        z.set(5, 2);
+        z.add(new ComplexNumber(5, 2));
+        assertEquals(new ComplexNumber(10, 4), z);
+        z.sub(new ComplexNumber(5, 2));
+        assertEquals(new ComplexNumber(5, 2), z);
+        z.mul(z);
+        assertEquals(new ComplexNumber(21, 20), z);
+        z.set(4, 3);
+        z.div(new ComplexNumber(2, 2));
+        assertEquals(new ComplexNumber(1.75, -0.25), z);
+        assertThrows(ArithmeticException.class, () -> z.div(new ComplexNumber()));
+        assertThrows(NullPointerException.class, () -> z.add(null));
+    }
+
+    @Test
+    void tan() {
+        z.set(1, 2);
+        assertEquals(ComplexNumber.division(ComplexNumber.sin(z), ComplexNumber.cos(z)), ComplexNumber.tan(z));
+    }
+
+    @Test
+    void destinationFunctions() {
+        ComplexNumber dst = new ComplexNumber();
+        for(ComplexNumber x : new ComplexNumber[] {new ComplexNumber(1, 1), new ComplexNumber(-0.5, 2), new ComplexNumber(3, -4)}) {
+            assertSame(dst, ComplexNumber.exp(x, dst));
+            assertEquals(ComplexNumber.exp(x), dst);
+            assertEquals(ComplexNumber.log(x), ComplexNumber.log(x, dst));
+            assertEquals(ComplexNumber.sqrt(x), ComplexNumber.sqrt(x, dst));
+            assertEquals(ComplexNumber.sin(x), ComplexNumber.sin(x, dst));
+            assertEquals(ComplexNumber.cos(x), ComplexNumber.cos(x, dst));
+            assertEquals(ComplexNumber.tan(x), ComplexNumber.tan(x, dst));
+            assertEquals(ComplexNumber.asin(x), ComplexNumber.asin(x, dst));
+            assertEquals(ComplexNumber.acos(x), ComplexNumber.acos(x, dst));
+            assertEquals(ComplexNumber.atan(x), ComplexNumber.atan(x, dst));
+        }
+        assertThrows(ArithmeticException.class, () -> ComplexNumber.acos(new ComplexNumber(), dst));
+        assertThrows(ArithmeticException.class, () -> ComplexNumber.atan(new ComplexNumber(0, -1), dst));
+    }
+
+    @Test
+    void inPlaceFunctions() {
+        z.set(1, 1);
+        z.expInPlace();
+        assertEquals(new ComplexNumber(1.4686939399158851, 2.2873552871788423), z);
+        z.set(3, 4);
+        z.sqrtInPlace();
+        assertEquals(new ComplexNumber(2, 1), z);
+        z.set(1, 1);
+        z.logInPlace();
+        assertEquals(new ComplexNumber(Math.log(Math.sqrt(2)), 0.7853981633974483), z);
+        z.set(1, 1);
+        z.asinInPlace();
+        assertEquals(new ComplexNumber(0.6662394324925153, 1.0612750619050357), z);
+        z.set(1, 1);
+        z.acosInPlace();
+        assertEquals(new ComplexNumber(0.9045568943023815, -1.0612750619050355), z);
+        z.set(1, 1);
+        z.atanInPlace();
+        assertEquals(new ComplexNumber(1.0172219678978514, 0.40235947810852507), z);
+        z.set(1, 2);
+        z.sinInPlace();
+        assertEquals(ComplexNumber.sin(new ComplexNumber(1, 2)), z);
+        z.set(1, 2);
+        z.cosInPlace();
+        assertEquals(ComplexNumber.cos(new ComplexNumber(1, 2)), z);
+        z.set(1, 2);
+        z.tanInPlace();
+        assertEquals(ComplexNumber.tan(new ComplexNumber(1, 2)), z);
+    }
+
+    @Test
+    void primitiveFunctions() {
+        double[] out = new double[2];
+        for(ComplexNumber x : new ComplexNumber[] {new ComplexNumber(1, 1), new ComplexNumber(-0.5, 2), new ComplexNumber(3, -4)}) {
+            double re = x.getRe(), im = x.getIm();
+            assertEquals(ComplexNumber.exp(x), new ComplexNumber(ComplexNumber.exp(re, im, out)[0], out[1]));
+            assertEquals(ComplexNumber.log(x), new ComplexNumber(ComplexNumber.log(re, im, out)[0], out[1]));
+            assertEquals(ComplexNumber.sqrt(x), new ComplexNumber(ComplexNumber.sqrt(re, im, out)[0], out[1]));
+            assertEquals(ComplexNumber.sin(x), new ComplexNumber(ComplexNumber.sin(re, im, out)[0], out[1]));
+            assertEquals(ComplexNumber.cos(x), new ComplexNumber(ComplexNumber.cos(re, im, out)[0], out[1]));
+            assertEquals(ComplexNumber.tan(x), new ComplexNumber(ComplexNumber.tan(re, im, out)[0], out[1]));
+            assertEquals(ComplexNumber.asin(x), new ComplexNumber(ComplexNumber.asin(re, im, out)[0], out[1]));
+            assertEquals(ComplexNumber.acos(x), new ComplexNumber(ComplexNumber.acos(re, im, out)[0], out[1]));
+            assertEquals(ComplexNumber.atan(x), new ComplexNumber(ComplexNumber.atan(re, im, out)[0], out[1]));
+        }
+    }
+
+    @Test
+    void pow() {
+        z.set(1, 1);
+        assertEquals(new ComplexNumber(16, 0), ComplexNumber.pow(z, 8));
+        assertEquals(new ComplexNumber(1, 1), z);
+        assertEquals(new ComplexNumber(1, 1), ComplexNumber.pow(z, 1));
+        assertEquals(new ComplexNumber(1, 0), ComplexNumber.pow(z, 0));
+        assertEquals(new ComplexNumber(1, 0), ComplexNumber.pow(new ComplexNumber(), 0));
+        assertEquals(new ComplexNumber(0, -0.5), ComplexNumber.pow(z, -2));
+        assertEquals(new ComplexNumber(-1, 0), ComplexNumber.pow(new ComplexNumber(0, 1), 1_000_000_002L));
+        assertEquals(new ComplexNumber(1, 0), ComplexNumber.pow(new ComplexNumber(-1, 0), Long.MIN_VALUE));
+        assertThrows(ArithmeticException.class, () -> ComplexNumber.pow(new ComplexNumber(), -1));
+        z.set(1.0001, 0.0002);
+        ComplexNumber expected = new ComplexNumber(1);
+        for(int i = 0; i < 100; i++) expected.mul(z);
+        ComplexNumber actual = ComplexNumber.pow(z, 100);
+        assertEquals(expected.getRe(), actual.getRe(), 1e-12);
+        assertEquals(expected.getIm(), actual.getIm(), 1e-12);
+    }
+
+    @Test
+    void powReal() {
+        z.set(3, 4);
+        ComplexNumber root = ComplexNumber.pow(z, 0.5);
+        assertEquals(2, root.getRe(), 1e-15);
+        assertEquals(1, root.getIm(), 1e-15);
+        ComplexNumber cube = ComplexNumber.pow(z, 3.0);
+        assertEquals(-117, cube.getRe(), 1e-12);
+        assertEquals(44, cube.getIm(), 1e-12);
+        assertEquals(new ComplexNumber(), ComplexNumber.pow(new ComplexNumber(), 2.5));
+        assertThrows(ArithmeticException.class, () -> ComplexNumber.pow(new ComplexNumber(), -0.5));
+    }
+
+    @Test
+    void powComplex() {
+        ComplexNumber i = new ComplexNumber(0, 1);
+        ComplexNumber ii = ComplexNumber.pow(i, i);
+        assertEquals(Math.exp(-Math.PI / 2), ii.getRe(), 1e-16);
+        assertEquals(0, ii.getIm(), 1e-16);
+        z.set(3, 4);
+        ComplexNumber square = ComplexNumber.pow(z, new ComplexNumber(2, 0));
+        assertEquals(-7, square.getRe(), 1e-13);
+        assertEquals(24, square.getIm(), 1e-13);
+        assertEquals(new ComplexNumber(1, 0), ComplexNumber.pow(new ComplexNumber(), new ComplexNumber()));
+        assertEquals(new ComplexNumber(), ComplexNumber.pow(new ComplexNumber(), new ComplexNumber(1, 5)));
+        assertThrows(ArithmeticException.class, () -> ComplexNumber.pow(new ComplexNumber(), new ComplexNumber(0, 1)));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,134 @@
+package de.andimoo5.math;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComplexPolynomialTest {
+
+    //p(z) = (1+i) + 2z + (0-3i)z^2:
+    private final ComplexPolynomial p = new ComplexPolynomial(new double[]{1, 2, 0}, new double[]{1, 0, -3});
+
+    @Test
+    void evaluate() {
+        //p(2+i) = (1+i) + (4+2i) + (-3i)(3+4i) = 17-6i
+        assertEquals(new ComplexNumber(17, -6), p.evaluate(new ComplexNumber(2, 1)));
+        assertArrayEquals(new double[]{17, -6}, p.evaluate(2, 1, new double[2]));
+        ComplexNumber z = new ComplexNumber(2, 1);
+        assertSame(z, p.evaluate(z, z));
+        assertEquals(new ComplexNumber(17, -6), z);
+    }
+
+    @Test
+    void derivative() {
+        //p'(z) = 2 - 6iz, p'(2+i) = 8-12i
+        assertEquals(new ComplexPolynomial(new double[]{2, 0}, new double[]{0, -6}), p.derivative());
+        assertArrayEquals(new double[]{17, -6, 8, -12}, p.evaluateWithDerivative(2, 1, new double[4]));
+        assertEquals(0, new ComplexPolynomial(new ComplexNumber(5, 5)).derivative().degree());
+    }
+
+    @Test
+    void batch() {
+        int n = 100_000;
+        ComplexArray points = new ComplexArray(n);
+        for(int i = 0; i < n; i++) points.set(i, Math.sin(i), Math.cos(i * 0.5));
+        ComplexArray values = p.evaluate(points, new ComplexArray(n));
+        ComplexArray slopes = p.evaluateDerivative(points, new ComplexArray(n));
+        double[] out = new double[4];
+        for(int i = 0; i < n; i++) {
+            p.evaluateWithDerivative(points.getRe(i), points.getIm(i), out);
+            assertEquals(out[0], values.getRe(i));
+            assertEquals(out[1], values.getIm(i));
+            assertEquals(out[2], slopes.getRe(i));
+            assertEquals(out[3], slopes.getIm(i));
+        }
+        assertThrows(IllegalArgumentException.class, () -> p.evaluate(points, new ComplexArray(3)));
+    }
+
+    @Test
+    void trimming() {
+        ComplexPolynomial q = new ComplexPolynomial(new double[]{1, 2, 0, 0}, new double[]{0, 0, 0, 0});
+        assertEquals(1, q.degree());
+        assertEquals(new ComplexNumber(), q.coefficient(5));
+        assertEquals("(1.0) + (2.0)z", q.toString());
+        assertEquals(new ComplexPolynomial(new ComplexNumber(1, 0), new ComplexNumber(2, 0)), q);
+    }
+
+    @Test
+    void fromRoots() {
+        //(z-1)(z+1) = z^2 - 1
+        ComplexPolynomial q = ComplexPolynomial.fromRoots(new ComplexArray(new ComplexNumber(1, 0), new ComplexNumber(-1, 0)));
+        assertEquals(new ComplexPolynomial(new double[]{-1, 0, 1}, new double[]{0, 0, 0}), q);
+    }
+
+    @Test
+    void roots() {
+        ComplexArray expected = new ComplexArray(new ComplexNumber(1, 2), new ComplexNumber(-3, 0.5),
+                new ComplexNumber(0, -1), new ComplexNumber(2, 0), new ComplexNumber(-0.5, -2));
+        ComplexArray roots = ComplexPolynomial.fromRoots(expected).roots();
+        assertEquals(5, roots.length());
+        for(int i = 0; i < expected.length(); i++) {
+            double best = Double.MAX_VALUE;
+            for(int j = 0; j < roots.length(); j++)
+                best = Math.min(best, Math.hypot(roots.getRe(j) - expected.getRe(i), roots.getIm(j) - expected.getIm(i)));
+            assertTrue(best < 1e-12, "root " + expected.get(i) + " missed by " + best);
+        }
+    }
+
+    @Test
+    void rootsOfUnity() {
+        //z^12 - 1
+        double[] re = new double[13], im = new double[13];
+        re[0] = -1;
+        re[12] = 1;
+        ComplexArray roots = new ComplexPolynomial(re, im).roots();
+        double[] args = ComplexArray.arg(roots);
+        for(int k = 0; k < 12; k++) {
+            assertEquals(1, Math.hypot(roots.getRe(k), roots.getIm(k)), 1e-14);
+            args[k] = Math.round((args[k] + 2 * Math.PI) * 6 / Math.PI) % 12;
+        }
+        Arrays.sort(args);
+        for(int k = 0; k < 12; k++) assertEquals(k, args[k]);
+    }
+
+    @Test
+    void rootsOfDifferentSize() {
+        //z^2 - 1e150 z + 1 has the roots 1e150 and 1e-150, z^4 + 1e-300 roots of modulus 1e-75:
+        ComplexArray roots = new ComplexPolynomial(new double[]{1, -1e150, 1}, new double[3]).roots();
+        double small = Math.min(roots.getRe(0), roots.getRe(1)), big = Math.max(roots.getRe(0), roots.getRe(1));
+        assertEquals(1e-150, small, 1e-164);
+        assertEquals(1e150, big, 1e136);
+        roots = new ComplexPolynomial(new double[]{1e-300, 0, 0, 0, 1}, new double[5]).roots();
+        for(int k = 0; k < 4; k++) {
+            assertEquals(1e-75, Math.hypot(roots.getRe(k), roots.getIm(k)), 1e-89);
+            assertEquals(Math.abs(roots.getRe(k)), Math.abs(roots.getIm(k)), 1e-89);
+        }
+        //Roots at 0 and a multiple root, z^2 (z - 1)^3:
+        roots = new ComplexPolynomial(new double[]{0, 0, -1, 3, -3, 1}, new double[6]).roots();
+        assertEquals(new ComplexNumber(), roots.get(0));
+        assertEquals(new ComplexNumber(), roots.get(1));
+        for(int k = 2; k < 5; k++) assertEquals(1, Math.hypot(roots.getRe(k), roots.getIm(k)), 1e-4);
+    }
+
+    @Test
+    void rootsThatCannotBeEvaluated() {
+        //p overflows at the root 1e200, that isn't reported as some other point:
+        assertThrows(ArithmeticException.class, () -> new ComplexPolynomial(new double[]{1, -1e200, 1}, new double[3]).roots());
+    }
+
+    @Test
+    void rootFinderReuse() {
+        ComplexPolynomial.RootFinder finder = new ComplexPolynomial.RootFinder(4);
+        ComplexArray dst = new ComplexArray(2);
+        finder.roots(new ComplexPolynomial(new double[]{4, 0, 1}, new double[]{0, 0, 0}), dst);
+        assertEquals(0, Math.min(Math.abs(dst.getIm(0) - 2), Math.abs(dst.getIm(0) + 2)), 1e-14);
+        assertEquals(0, dst.getIm(0) + dst.getIm(1), 1e-14);
+        finder.roots(new ComplexPolynomial(new double[]{-6, 1, 1}, new double[]{0, 0, 0}), dst);
+        assertEquals(-1, dst.getRe(0) * dst.getRe(1) / 6, 1e-14);
+        assertThrows(IllegalArgumentException.class, () -> finder.roots(p, new ComplexArray(3)));
+        assertThrows(ArithmeticException.class, () -> new ComplexPolynomial(new double[]{0}, new double[]{0}).roots());
+        assertEquals(0, new ComplexPolynomial(new ComplexNumber(3, 0)).roots().length());
+    }
+}
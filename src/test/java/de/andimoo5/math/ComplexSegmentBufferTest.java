@@ -0,0 +1,127 @@
+package de.andimoo5.math;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComplexSegmentBufferTest {
+
+    private static final int N = 100;
+
+    private static ComplexArray sample(double shift) {
+        ComplexArray a = new ComplexArray(N);
+        for(int i = 0; i < N; i++) a.set(i, Math.sin(i + shift) * 2, Math.cos(i * 0.5 + shift));
+        return a;
+    }
+
+    private static ComplexSegmentBuffer buffer(Arena arena, ComplexArray a) {
+        ComplexSegmentBuffer b = ComplexSegmentBuffer.allocate(arena, a.length());
+        b.copyFrom(a, 0);
+        return b;
+    }
+
+    private static void assertBufferEquals(ComplexArray expected, ComplexSegmentBuffer actual) {
+        assertEquals(expected.length(), actual.length());
+        assertEquals(expected, actual.copyTo(0, new ComplexArray(expected.length())));
+    }
+
+    @Test
+    void getAndSet() {
+        try(Arena arena = Arena.ofConfined()) {
+            ComplexSegmentBuffer b = ComplexSegmentBuffer.allocate(arena, 3);
+            assertEquals(3, b.length());
+            assertEquals(new ComplexNumber(), b.get(2));
+            b.set(1, new ComplexNumber(4, -3));
+            assertEquals(new ComplexNumber(4, -3), b.get(1));
+            b.set(2, 1, 2);
+            ComplexNumber z = new ComplexNumber();
+            assertSame(z, b.get(2, z));
+            assertEquals(new ComplexNumber(1, 2), z);
+            //Interleaved little-endian doubles:
+            assertEquals(4, b.segment().get(ComplexSegmentBuffer.LAYOUT, 16));
+            assertEquals(-3, b.segment().get(ComplexSegmentBuffer.LAYOUT, 24));
+            assertThrows(IndexOutOfBoundsException.class, () -> b.get(3));
+            assertThrows(IndexOutOfBoundsException.class, () -> b.getRe(-1));
+        }
+    }
+
+    @Test
+    void arithmetic() {
+        ComplexArray x = sample(0), y = sample(1);
+        try(Arena arena = Arena.ofConfined()) {
+            ComplexSegmentBuffer a = buffer(arena, x), b = buffer(arena, y), d = ComplexSegmentBuffer.allocate(arena, N);
+            assertBufferEquals(ComplexArray.sum(x, y), ComplexSegmentBuffer.sum(a, b, d));
+            assertBufferEquals(ComplexArray.diff(x, y), ComplexSegmentBuffer.diff(a, b, d));
+            assertBufferEquals(ComplexArray.prod(x, y), ComplexSegmentBuffer.prod(a, b, d));
+            assertBufferEquals(ComplexArray.division(x, y), ComplexSegmentBuffer.division(a, b, d));
+            assertBufferEquals(ComplexArray.conjugate(x), ComplexSegmentBuffer.conjugate(a, d));
+            assertArrayEquals(ComplexArray.mod(x), ComplexSegmentBuffer.mod(a, 0, new double[N]));
+            assertArrayEquals(ComplexArray.arg(x), ComplexSegmentBuffer.arg(a, 0, new double[N]));
+            a.mul(b);
+            x.mul(y);
+            assertBufferEquals(x, a);
+            assertThrows(IllegalArgumentException.class, () -> ComplexSegmentBuffer.sum(a, b, ComplexSegmentBuffer.allocate(arena, 3)));
+        }
+    }
+
+    @Test
+    void functions() {
+        ComplexArray x = sample(0.3);
+        try(Arena arena = Arena.ofConfined()) {
+            ComplexSegmentBuffer a = buffer(arena, x), d = ComplexSegmentBuffer.allocate(arena, N);
+            assertBufferEquals(ComplexArray.exp(x), ComplexSegmentBuffer.exp(a, d));
+            assertBufferEquals(ComplexArray.log(x), ComplexSegmentBuffer.log(a, d));
+            assertBufferEquals(ComplexArray.sqrt(x), ComplexSegmentBuffer.sqrt(a, d));
+            assertBufferEquals(ComplexArray.sin(x), ComplexSegmentBuffer.sin(a, d));
+            assertBufferEquals(ComplexArray.cos(x), ComplexSegmentBuffer.cos(a, d));
+            assertBufferEquals(ComplexArray.tan(x), ComplexSegmentBuffer.tan(a, d));
+            assertBufferEquals(ComplexArray.asin(x), ComplexSegmentBuffer.asin(a, d));
+            assertBufferEquals(ComplexArray.acos(x), ComplexSegmentBuffer.acos(a, d));
+            assertBufferEquals(ComplexArray.atan(x), ComplexSegmentBuffer.atan(a, d));
+            assertBufferEquals(ComplexArray.pow(x, 5), ComplexSegmentBuffer.pow(a, 5, d));
+            ComplexSegmentBuffer.exp(a, a);
+            assertBufferEquals(ComplexArray.exp(x), a);
+            a.set(0, 0, 0);
+            assertTrue(Double.isNaN(ComplexSegmentBuffer.acos(a, d).getRe(0)));
+        }
+    }
+
+    @Test
+    void mappedFile(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("samples.c64");
+        ComplexArray x = sample(0);
+        try(Arena arena = Arena.ofConfined()) {
+            ComplexSegmentBuffer b = ComplexSegmentBuffer.map(file, FileChannel.MapMode.READ_WRITE, N, arena);
+            b.copyFrom(x, 0);
+            ComplexSegmentBuffer.conjugate(b, b);
+            b.force();
+        }
+        assertEquals(16L * N, Files.size(file));
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(x.getRe(7), bytes.getDouble(16 * 7));
+        assertEquals(-x.getIm(7), bytes.getDouble(16 * 7 + 8));
+        try(Arena arena = Arena.ofConfined()) {
+            ComplexSegmentBuffer b = ComplexSegmentBuffer.map(file, FileChannel.MapMode.READ_ONLY, -1, arena);
+            assertBufferEquals(ComplexArray.conjugate(x), b);
+        }
+    }
+
+    @Test
+    void wrap() {
+        ComplexSegmentBuffer b = ComplexSegmentBuffer.wrap(MemorySegment.ofArray(new double[]{1, 2, 3, 4}));
+        assertEquals(2, b.length());
+        assertEquals(new ComplexNumber(3, 4), b.get(1));
+        assertThrows(IllegalArgumentException.class, () -> ComplexSegmentBuffer.wrap(MemorySegment.ofArray(new byte[20])));
+        assertEquals("ComplexSegmentBuffer[length=2]", b.toString());
+    }
+}
@@ -0,0 +1,102 @@
+package de.andimoo5.math;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComplexSparseMatrixTest {
+
+    private static ComplexArray vector(int length) {
+        ComplexArray x = new ComplexArray(length);
+        for(int i = 0; i < length; i++) x.set(i, Math.sin(i), Math.cos(3 * i));
+        return x;
+    }
+
+    @Test
+    void builder() {
+        ComplexSparseMatrix.Builder builder = new ComplexSparseMatrix.Builder(3, 4, 2);
+        builder.add(2, 1, 1, 1).add(0, 3, 2, 0).add(0, 0, 0, 5).add(2, 1, 0.5, -1).add(0, 3, 1, 1);
+        assertEquals(5, builder.size());
+        ComplexSparseMatrix a = builder.build(ComplexSparseMatrix.Format.CSR);
+        assertEquals(3, a.nonZeros());
+        assertArrayEquals(new int[] {0, 2, 2, 3}, a.pointers());
+        assertArrayEquals(new int[] {0, 3, 1}, a.indices());
+        //Entries at the same position are added up:
+        assertEquals(new ComplexNumber(3, 1), a.get(0, 3));
+        assertEquals(new ComplexNumber(1.5, 0), a.get(2, 1));
+        assertEquals(new ComplexNumber(), a.get(1, 1));
+        assertEquals("{(0, 0)=5.0i, (0, 3)=3.0+1.0i, (2, 1)=1.5}", a.toString());
+        ComplexSparseMatrix b = builder.build(ComplexSparseMatrix.Format.CSC);
+        assertArrayEquals(new int[] {0, 1, 2, 2, 3}, b.pointers());
+        assertEquals(a.toDense(), b.toDense());
+        assertEquals(b, a.convert(ComplexSparseMatrix.Format.CSC));
+        assertEquals(a, b.convert(ComplexSparseMatrix.Format.CSR));
+        assertSame(a, a.convert(ComplexSparseMatrix.Format.CSR));
+        builder.clear();
+        assertEquals(0, builder.build(ComplexSparseMatrix.Format.CSR).nonZeros());
+        assertThrows(IndexOutOfBoundsException.class, () -> builder.add(3, 0, 1, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> a.get(0, 4));
+    }
+
+    @Test
+    void randomOrder() {
+        ComplexSparseMatrix.Builder builder = TestData.sparse(200, 150, 0.05, 1);
+        ComplexSparseMatrix a = builder.build(ComplexSparseMatrix.Format.CSR);
+        ComplexMatrix dense = a.toDense();
+        assertEquals(a, ComplexSparseMatrix.fromDense(dense, ComplexSparseMatrix.Format.CSR));
+        assertEquals(builder.build(ComplexSparseMatrix.Format.CSC), ComplexSparseMatrix.fromDense(dense, ComplexSparseMatrix.Format.CSC));
+        //The validating constructor accepts the arrays of a built matrix:
+        assertEquals(a, new ComplexSparseMatrix(a.format(), a.rows(), a.columns(), a.pointers(), a.indices(), a.real(), a.imaginary()));
+    }
+
+    @Test
+    void validation() {
+        ComplexSparseMatrix.Format csr = ComplexSparseMatrix.Format.CSR;
+        assertThrows(IllegalArgumentException.class, () -> new ComplexSparseMatrix(csr, 2, 2, new int[] {0, 2, 1}, new int[] {0}, new double[1], new double[1]));
+        assertThrows(IllegalArgumentException.class, () -> new ComplexSparseMatrix(csr, 2, 2, new int[] {0, 2, 2}, new int[] {1, 0}, new double[2], new double[2]));
+        assertThrows(IllegalArgumentException.class, () -> new ComplexSparseMatrix(csr, 2, 2, new int[] {0, 1, 1}, new int[] {2}, new double[1], new double[1]));
+        assertThrows(IllegalArgumentException.class, () -> new ComplexSparseMatrix(csr, 2, 2, new int[] {0, 1}, new int[] {0}, new double[1], new double[1]));
+        assertThrows(NullPointerException.class, () -> new ComplexSparseMatrix(null, 2, 2, new int[3], new int[0], new double[0], new double[0]));
+    }
+
+    @Test
+    void prod() {
+        ComplexSparseMatrix.Builder builder = TestData.sparse(300, 200, 0.02, 2);
+        ComplexArray x = vector(200);
+        ComplexSparseMatrix a = builder.build(ComplexSparseMatrix.Format.CSR);
+        //The same arithmetic as ComplexNumber.sum of ComplexNumber.prod, in the order of the columns:
+        ComplexArray expected = new ComplexArray(300);
+        for(int i = 0; i < 300; i++) {
+            ComplexNumber s = new ComplexNumber();
+            for(int j = 0; j < 200; j++) {
+                ComplexNumber e = a.get(i, j);
+                if(e.getRe() != 0 || e.getIm() != 0) s = ComplexNumber.sum(s, ComplexNumber.prod(e, x.get(j)));
+            }
+            expected.set(i, s);
+        }
+        assertEquals(expected, ComplexSparseMatrix.prod(a, x));
+        assertEquals(expected, ComplexSparseMatrix.prod(a.convert(ComplexSparseMatrix.Format.CSC), x));
+        assertThrows(IllegalArgumentException.class, () -> ComplexSparseMatrix.prod(a, new ComplexArray(300)));
+        ComplexSparseMatrix square = TestData.sparse(5, 5, 0.5, 3).build(ComplexSparseMatrix.Format.CSC);
+        ComplexArray y = new ComplexArray(5);
+        assertThrows(IllegalArgumentException.class, () -> ComplexSparseMatrix.prod(square, y, y));
+    }
+
+    @Test
+    void parallel() {
+        //Large enough to be split across the threads:
+        int n = 200_000;
+        ComplexSparseMatrix.Builder builder = new ComplexSparseMatrix.Builder(n, n, 5 * n);
+        Random random = new Random(4);
+        for(int i = 0; i < n; i++) {
+            for(int k = 0; k < 5; k++) builder.add(i, random.nextInt(n), random.nextGaussian(), random.nextGaussian());
+        }
+        ComplexArray x = vector(n);
+        for(ComplexSparseMatrix.Format format : ComplexSparseMatrix.Format.values()) {
+            ComplexSparseMatrix a = builder.build(format);
+            assertEquals(ComplexSparseMatrix.prod(a, x), a.parallel().prod(x, new ComplexArray(n)), format.name());
+        }
+    }
+}
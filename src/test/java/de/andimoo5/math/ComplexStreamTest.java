@@ -0,0 +1,121 @@
+package de.andimoo5.math;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.DoubleStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComplexStreamTest {
+
+    private static double[] add(double re1, double im1, double re2, double im2, double[] out) {
+        out[0] = re1 + re2;
+        out[1] = im1 + im2;
+        return out;
+    }
+
+    @Test
+    void mapAndFilter() {
+        ComplexArray a = TestData.array(1000, 1);
+        assertEquals(ComplexArray.exp(a), a.stream().map(ComplexNumber::exp).toArray());
+        assertEquals(ComplexArray.sin(a), a.toInterleaved().stream().map(Accuracy.STRICT::sin).toArray());
+        ComplexArray upper = a.stream().filter((re, im) -> im > 0).toArray();
+        for(int i = 0, k = 0; i < a.length(); i++) {
+            if(a.getIm(i) > 0) assertEquals(a.get(i), upper.get(k++));
+        }
+        assertEquals(upper.length(), a.stream().filter((re, im) -> im > 0).count());
+        //Every element and its conjugate:
+        ComplexArray both = a.stream().mapMulti((re, im, sink) -> {
+            sink.accept(re, im);
+            sink.accept(re, -im);
+        }).toArray();
+        assertEquals(2 * a.length(), both.length());
+        assertEquals(ComplexNumber.conjugate(a.get(7)), both.get(15));
+        assertEquals(0, both.stream().mapToDouble((re, im) -> im).sum(), 1e-12);
+        assertEquals(0, new ComplexArray(0).stream().map(ComplexNumber::sqrt).count());
+        assertThrows(ArithmeticException.class, () -> new ComplexArray(new ComplexNumber(0, -1)).stream().map(ComplexNumber::atan).count());
+    }
+
+    @Test
+    void reduce() {
+        ComplexArray a = TestData.array(300_001, 2);
+        ComplexNumber sequential = a.stream().reduce(0, 0, ComplexStreamTest::add);
+        //The same parts, combined in the same order:
+        assertEquals(sequential, a.stream().parallel().reduce(0, 0, ComplexStreamTest::add));
+        assertEquals(a.sum().getRe(), sequential.getRe(), 1e-9);
+        assertEquals(a.stream().sum(), a.stream().parallel().sum());
+        assertEquals(new ComplexNumber(1, 0), new ComplexArray(0).stream().reduce(1, 0, ComplexStreamTest::add));
+        ComplexNumber product = new ComplexArray(new ComplexNumber(1, 1), new ComplexNumber(2, -1), new ComplexNumber(0, 3)).stream()
+                .reduce(1, 0, (re1, im1, re2, im2, out) -> {
+                    out[0] = re1 * re2 - im1 * im2;
+                    out[1] = re1 * im2 + im1 * re2;
+                    return out;
+                });
+        assertEquals(new ComplexNumber(-3, 9), product);
+        double[] collected = a.stream().parallel().collect(() -> new double[2], (s, re, im) -> {
+            s[0] = Math.max(s[0], re);
+            s[1]++;
+        }, (s, t) -> {
+            s[0] = Math.max(s[0], t[0]);
+            s[1] += t[1];
+        });
+        assertEquals(a.length(), collected[1]);
+        assertEquals(DoubleStream.of(a.real()).max().getAsDouble(), collected[0]);
+        assertEquals(a, a.stream().parallel().toArray());
+        LongAdder count = new LongAdder();
+        a.stream().parallel().forEach((re, im) -> count.increment());
+        assertEquals(a.length(), count.sum());
+    }
+
+    @Test
+    void adapters() {
+        List<ComplexNumber> values = List.of(new ComplexNumber(1, 2), new ComplexNumber(-3, 0.5), new ComplexNumber(0, -1));
+        assertEquals(values, ComplexStream.of(values.stream()).boxed().collect(Collectors.toList()));
+        assertEquals(new ComplexArray(values.toArray(new ComplexNumber[0])), ComplexStream.of(values.parallelStream()).toArray());
+        assertTrue(ComplexStream.of(values.parallelStream()).isParallel());
+        ComplexArray zipped = ComplexStream.of(DoubleStream.of(1, 2, 3), DoubleStream.of(4, 5)).toArray();
+        assertEquals(new ComplexArray(new ComplexNumber(1, 4), new ComplexNumber(2, 5)), zipped);
+        ComplexArray a = TestData.array(50_000, 3);
+        assertEquals(a.stream().sum().getRe(), a.stream().parallel().mapToDouble((re, im) -> re).boxed()
+                .collect(Collectors.reducing(0.0, Double::sum)), 1e-9);
+        assertEquals(a.length(), a.stream().parallel().boxed().filter(z -> z.getRe() != 2).count());
+        assertThrows(NullPointerException.class, () -> ComplexStream.of(Stream.of(new ComplexNumber(), null)).count());
+    }
+
+    @Test
+    void spliterator() {
+        ComplexArray a = TestData.array(100, 4);
+        ComplexSpliterator s = a.stream().spliterator();
+        assertEquals(100, s.estimateSize());
+        assertTrue((s.characteristics() & Spliterator.SUBSIZED) != 0);
+        ComplexSpliterator prefix = s.trySplit();
+        assertEquals(50, prefix.estimateSize());
+        assertEquals(50, s.estimateSize());
+        double[] first = new double[2];
+        assertTrue(s.tryAdvance((re, im) -> {
+            first[0] = re;
+            first[1] = im;
+        }));
+        assertEquals(a.get(50), new ComplexNumber(first[0], first[1]));
+        //A filtering pipeline doesn't know its size:
+        ComplexSpliterator filtered = a.stream().filter((re, im) -> re > 0).spliterator();
+        assertEquals(0, filtered.characteristics() & Spliterator.SIZED);
+        ComplexArray positive = ComplexStream.of(filtered, false).toArray();
+        assertEquals(a.stream().filter((re, im) -> re > 0).count(), positive.length());
+        for(int i = 0; i < positive.length(); i++) assertTrue(positive.getRe(i) > 0);
+        //A mapped one does, and it hands out the elements one by one:
+        ComplexSpliterator mapped = a.stream().map(ComplexNumber::exp).spliterator();
+        assertTrue((mapped.characteristics() & Spliterator.SIZED) != 0);
+        assertTrue(mapped.tryAdvance((re, im) -> {}));
+        assertEquals(99, mapped.estimateSize());
+        ComplexStream stream = a.stream();
+        stream.map(ComplexNumber::log);
+        assertThrows(IllegalStateException.class, stream::count);
+        assertThrows(NullPointerException.class, () -> a.stream().filter(null));
+    }
+}
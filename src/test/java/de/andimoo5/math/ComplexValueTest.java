@@ -0,0 +1,99 @@
+package de.andimoo5.math;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+class ComplexValueTest {
+
+    private static final ComplexNumber[] SAMPLES = {new ComplexNumber(1, 1), new ComplexNumber(-0.5, 2), new ComplexNumber(3, -4)};
+
+    @Test
+    void conversions() {
+        ComplexNumber z = new ComplexNumber(5, -3);
+        assertEquals(new ComplexValue(5, -3), ComplexValue.of(z));
+        assertEquals(new ComplexValue(5, -3), z.toValue());
+        assertEquals(z, z.toValue().toComplexNumber());
+        assertEquals("5.0-3.0i", z.toValue().toString());
+    }
+
+    @Test
+    void equalsAndHashCode() {
+        Set<ComplexValue> set = new HashSet<>();
+        set.add(new ComplexValue(1, 2));
+        assertTrue(set.contains(new ComplexValue(1, 2)));
+        assertEquals(new ComplexValue(Double.NaN, 0), new ComplexValue(Double.NaN, 0));
+    }
+
+    @Test
+    void compareTo() {
+        assertEquals(0, ComplexValue.ZERO.compareTo(new ComplexValue(0, 0)));
+        assertEquals(-1, new ComplexValue(5, 5).compareTo(new ComplexValue(8, 8)));
+        assertEquals(1, new ComplexValue(5, 5).compareTo(new ComplexValue(4, 4)));
+    }
+
+    @Test
+    void arithmetic() {
+        ComplexValue a = new ComplexValue(5, 2);
+        assertEquals(new ComplexValue(10, 4), a.add(a));
+        assertEquals(ComplexValue.ZERO, a.sub(a));
+        assertEquals(new ComplexValue(21, 20), a.mul(a));
+        assertEquals(new ComplexValue(1.75, -0.25), new ComplexValue(4, 3).div(new ComplexValue(2, 2)));
+        assertThrows(ArithmeticException.class, () -> a.div(ComplexValue.ZERO));
+        assertEquals(new ComplexValue(-1, 0), ComplexValue.I.mul(ComplexValue.I));
+    }
+
+    @Test
+    void complexOperations() {
+        ComplexValue a = new ComplexValue(3, 4);
+        assertEquals(new ComplexValue(3, -4), a.conjugate());
+        assertEquals(5.0, a.mod());
+        assertEquals(0.9272952180016122, a.arg());
+        assertEquals(ComplexValue.of(ComplexNumber.rcp(new ComplexNumber(3, 4))), a.rcp());
+        assertEquals(ComplexValue.ZERO, ComplexValue.ZERO.rcp());
+    }
+
+    @Test
+    void functions() {
+        for(ComplexNumber z : SAMPLES) {
+            ComplexValue v = z.toValue();
+            assertEquals(ComplexNumber.exp(z).toValue(), v.exp());
+            assertEquals(ComplexNumber.log(z).toValue(), v.log());
+            assertEquals(ComplexNumber.log(z, 2).toValue(), v.log(2));
+            assertEquals(ComplexNumber.log10(z).toValue(), v.log10());
+            assertEquals(ComplexNumber.sqrt(z).toValue(), v.sqrt());
+            assertEquals(ComplexNumber.sin(z).toValue(), v.sin());
+            assertEquals(ComplexNumber.cos(z).toValue(), v.cos());
+            assertEquals(ComplexNumber.tan(z).toValue(), v.tan());
+            assertEquals(ComplexNumber.asin(z).toValue(), v.asin());
+            assertEquals(ComplexNumber.acos(z).toValue(), v.acos());
+            assertEquals(ComplexNumber.atan(z).toValue(), v.atan());
+            assertEquals(ComplexNumber.pow(z, -7L).toValue(), v.pow(-7L));
+            assertEquals(ComplexNumber.pow(z, 2.5).toValue(), v.pow(2.5));
+            assertEquals(ComplexNumber.pow(z, new ComplexNumber(-0.5, 2)).toValue(), v.pow(new ComplexValue(-0.5, 2)));
+        }
+        //Outside of the safe range of the division:
+        ComplexNumber big = new ComplexNumber(1e300, -3e299), small = new ComplexNumber(1e-300, 2e-301);
+        assertEquals(ComplexNumber.pow(big, -1L).toValue(), big.toValue().pow(-1L));
+        assertEquals(ComplexNumber.log(small, 3).toValue(), small.toValue().log(3));
+        assertEquals(ComplexNumber.acos(small).toValue(), small.toValue().acos());
+        assertEquals(ComplexNumber.tan(new ComplexNumber(1, 25)).toValue(), new ComplexValue(1, 25).tan());
+        assertEquals(ComplexValue.ONE, ComplexValue.ZERO.pow(ComplexValue.ZERO));
+        assertEquals(ComplexValue.ZERO, ComplexValue.ZERO.pow(ComplexValue.ONE));
+        assertThrows(ArithmeticException.class, () -> ComplexValue.ZERO.pow(new ComplexValue(-1, 0)));
+        assertThrows(ArithmeticException.class, () -> ComplexValue.ONE.log(1));
+        assertEquals(new ComplexValue(1, 0).pow(5), ComplexValue.ONE);
+        assertEquals(new ComplexValue(16, 0), new ComplexValue(1, 1).pow(8));
+        assertEquals(ComplexNumber.pow(new ComplexNumber(3, 4), 0.5).toValue(), new ComplexValue(3, 4).pow(0.5));
+        assertEquals(ComplexNumber.pow(new ComplexNumber(3, 4), new ComplexNumber(1, 1)).toValue(), new ComplexValue(3, 4).pow(new ComplexValue(1, 1)));
+    }
+
+    @Test
+    void fluent() {
+        ComplexValue a = new ComplexValue(1, 1), b = new ComplexValue(0.5, -2), c = new ComplexValue(3, 0);
+        ComplexNumber expected = ComplexNumber.exp(ComplexNumber.sum(ComplexNumber.prod(a.toComplexNumber(), b.toComplexNumber()), c.toComplexNumber()));
+        assertEquals(expected.toValue(), a.mul(b).add(c).exp());
+    }
+}
@@ -0,0 +1,134 @@
+package de.andimoo5.math;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FFTTest {
+
+    private static final double EPSILON = 1e-9;
+
+    private static double[][] dft(double[] re, double[] im) {
+        int n = re.length;
+        double[][] out = new double[2][n];
+        for(int k = 0; k < n; k++) {
+            for(int j = 0; j < n; j++) {
+                double a = -2 * Math.PI * ((long)j * k % n) / n;
+                out[0][k] += re[j] * Math.cos(a) - im[j] * Math.sin(a);
+                out[1][k] += re[j] * Math.sin(a) + im[j] * Math.cos(a);
+            }
+        }
+        return out;
+    }
+
+    private static double[] random(Random random, int n) {
+        double[] a = new double[n];
+        for(int i = 0; i < n; i++) a[i] = random.nextDouble() * 2 - 1;
+        return a;
+    }
+
+    @Test
+    void forwardMatchesDft() {
+        Random random = new Random(7);
+        //Radix-2, mixed-radix and Bluestein sizes:
+        int[] sizes = {1, 2, 3, 4, 5, 6, 7, 8, 9, 12, 16, 17, 30, 31, 45, 64, 97, 120, 128, 210, 243, 1000, 1021};
+        for(int n : sizes) {
+            double[] re = random(random, n), im = random(random, n);
+            double[][] expected = dft(re, im);
+            FFT.of(n).forward(re, im);
+            for(int k = 0; k < n; k++) {
+                assertEquals(expected[0][k], re[k], EPSILON, "n=" + n + ", k=" + k);
+                assertEquals(expected[1][k], im[k], EPSILON, "n=" + n + ", k=" + k);
+            }
+        }
+    }
+
+    @Test
+    void inverse() {
+        Random random = new Random(11);
+        for(int n : new int[]{1, 8, 60, 101, 4096}) {
+            ComplexArray a = new ComplexArray(random(random, n), random(random, n));
+            ComplexArray b = new ComplexArray(a);
+            FFT plan = FFT.of(n);
+            assertSame(b, plan.inverse(plan.forward(b)));
+            for(int i = 0; i < n; i++) {
+                assertEquals(a.getRe(i), b.getRe(i), EPSILON);
+                assertEquals(a.getIm(i), b.getIm(i), EPSILON);
+            }
+        }
+    }
+
+    @Test
+    void impulse() {
+        double[] re = new double[12], im = new double[12];
+        re[0] = 1;
+        FFT.of(12).forward(re, im);
+        for(int k = 0; k < 12; k++) {
+            assertEquals(1, re[k], EPSILON);
+            assertEquals(0, im[k], EPSILON);
+        }
+    }
+
+    @Test
+    void real() {
+        Random random = new Random(3);
+        for(int n : new int[]{1, 2, 3, 4, 6, 10, 15, 16, 34, 100, 101, 1024}) {
+            double[] x = random(random, n);
+            double[][] expected = dft(x, new double[n]);
+            double[] re = new double[n / 2 + 1], im = new double[n / 2 + 1];
+            FFT plan = FFT.of(n);
+            plan.forwardReal(x, re, im);
+            for(int k = 0; k <= n / 2; k++) {
+                assertEquals(expected[0][k], re[k], EPSILON, "n=" + n + ", k=" + k);
+                assertEquals(expected[1][k], im[k], EPSILON, "n=" + n + ", k=" + k);
+            }
+            double[] y = new double[n];
+            plan.inverseReal(re, im, y);
+            assertArrayEquals(x, y, EPSILON);
+        }
+    }
+
+    @Test
+    void plans() {
+        assertSame(FFT.of(48), FFT.of(48));
+        assertEquals(48, FFT.of(48).size());
+        assertEquals("FFT[n=64, RADIX_2]", FFT.of(64).toString());
+        assertEquals("FFT[n=48, MIXED_RADIX]", FFT.of(48).toString());
+        assertEquals("FFT[n=34, BLUESTEIN]", FFT.of(34).toString());
+        assertThrows(IllegalArgumentException.class, () -> FFT.of(0));
+        assertThrows(IllegalArgumentException.class, () -> FFT.of(8).forward(new double[8], new double[7]));
+        assertThrows(NullPointerException.class, () -> FFT.of(8).forward(null, new double[8]));
+    }
+
+    @Test
+    void sharedTwiddles() {
+        //The plan reads every second root of a cached table of twice its size, and gives the same results:
+        RootsOfUnity roots = RootsOfUnity.of(2 * 1155);
+        Random random = new Random(13);
+        double[] re = random(random, 1155), im = random(random, 1155);
+        double[][] expected = dft(re, im);
+        FFT.of(1155).forward(re, im);
+        for(int k = 0; k < 1155; k++) {
+            assertEquals(expected[0][k], re[k], EPSILON);
+            assertEquals(expected[1][k], im[k], EPSILON);
+        }
+        assertSame(roots, RootsOfUnity.multipleOf(1155, 8));
+        assertSame(RootsOfUnity.of(77), RootsOfUnity.multipleOf(77, 8));
+    }
+
+    @Test
+    void planCache() {
+        //Mixed-radix plans of about a quarter to a half of the limit each:
+        FFT first = FFT.of(531441);
+        for(int n : new int[] {390625, 823543, 371293}) {
+            FFT.of(n);
+            assertTrue(FFT.cached() <= FFT.CACHE_LIMIT);
+        }
+        assertNotSame(first, FFT.of(531441));
+        assertSame(FFT.of(531441), FFT.of(531441));
+        //Plans beyond the limit aren't cached:
+        assertNotSame(FFT.of(1953125), FFT.of(1953125));
+    }
+}
@@ -0,0 +1,74 @@
+package de.andimoo5.math;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+class InterleavedComplexArrayTest {
+
+    private InterleavedComplexArray a, b;
+
+    @BeforeEach
+    void setUp() {
+        a = new InterleavedComplexArray(new ComplexNumber(5, 2), new ComplexNumber(4, 3), new ComplexNumber(3, 4));
+        b = new InterleavedComplexArray(new ComplexNumber(5, 2), new ComplexNumber(2, 2), new ComplexNumber(-1, 0));
+    }
+
+    @Test
+    void getAndSet() {
+        assertEquals(3, a.length());
+        assertArrayEquals(new double[] {5, 2, 4, 3, 3, 4}, a.data());
+        assertEquals(new ComplexNumber(4, 3), a.get(1));
+        a.set(2, 7, 8);
+        assertEquals(7, a.getRe(2));
+        assertEquals(8, a.getIm(2));
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> a.get(3));
+        assertThrows(IllegalArgumentException.class, () -> new InterleavedComplexArray(new double[3]));
+    }
+
+    @Test
+    void conversions() {
+        assertEquals(a, a.toSplit().toInterleaved());
+        assertEquals("[5.0+2.0i, 4.0+3.0i, 3.0+4.0i]", a.toString());
+    }
+
+    @Test
+    void sum() {
+        assertEquals(new InterleavedComplexArray(new ComplexNumber(10, 4), new ComplexNumber(6, 5), new ComplexNumber(2, 4)),
+                InterleavedComplexArray.sum(a, b));
+    }
+
+    @Test
+    void diff() {
+        a.sub(b);
+        assertEquals(new InterleavedComplexArray(new ComplexNumber(), new ComplexNumber(2, 1), new ComplexNumber(4, 4)), a);
+    }
+
+    @Test
+    void prod() {
+        InterleavedComplexArray p = InterleavedComplexArray.prod(a, b);
+        for(int i = 0; i < a.length(); i++) {
+            assertEquals(ComplexNumber.prod(a.get(i), b.get(i)), p.get(i));
+        }
+    }
+
+    @Test
+    void division() {
+        InterleavedComplexArray q = InterleavedComplexArray.division(a, b);
+        for(int i = 0; i < a.length(); i++) {
+            assertEquals(ComplexNumber.division(a.get(i), b.get(i)), q.get(i));
+        }
+    }
+
+    @Test
+    void conjugate() {
+        assertEquals(new InterleavedComplexArray(new ComplexNumber(5, -2), new ComplexNumber(4, -3), new ComplexNumber(3, -4)),
+                InterleavedComplexArray.conjugate(a));
+    }
+
+    @Test
+    void modulusAndArgument() {
+        assertArrayEquals(ComplexArray.mod(a.toSplit()), InterleavedComplexArray.mod(a));
+        assertArrayEquals(ComplexArray.arg(a.toSplit()), InterleavedComplexArray.arg(a));
+    }
+}
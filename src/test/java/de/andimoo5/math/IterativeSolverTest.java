@@ -0,0 +1,108 @@
+package de.andimoo5.math;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IterativeSolverTest {
+
+    //A non-Hermitian, diagonally dominant matrix with five entries per row, like a discretized convection-diffusion problem:
+    private static ComplexSparseMatrix matrix(int n, ComplexSparseMatrix.Format format) {
+        ComplexSparseMatrix.Builder builder = new ComplexSparseMatrix.Builder(n, n, 5 * n);
+        Random random = new Random(n);
+        for(int i = 0; i < n; i++) {
+            builder.add(i, i, 6, 1 + random.nextDouble());
+            if(i > 0) builder.add(i, i - 1, -1.5, 0.25);
+            if(i + 1 < n) builder.add(i, i + 1, -0.5, -0.25);
+            builder.add(i, random.nextInt(n), random.nextGaussian() * 0.5, random.nextGaussian() * 0.5);
+            builder.add(i, (int)((i * 7919L) % n), 0.3, -0.4);
+        }
+        return builder.build(format);
+    }
+
+    private static ComplexArray rightHandSide(int n) {
+        ComplexArray b = new ComplexArray(n);
+        for(int i = 0; i < n; i++) b.set(i, Math.cos(i * 0.01), 1 - Math.sin(i * 0.1));
+        return b;
+    }
+
+    private static double relativeResidual(ComplexSparseMatrix a, ComplexArray b, ComplexArray x) {
+        return ComplexArray.diff(b, ComplexSparseMatrix.prod(a, x)).norm() / b.norm();
+    }
+
+    @Test
+    void biCGSTAB() {
+        int n = 2000;
+        ComplexSparseMatrix a = matrix(n, ComplexSparseMatrix.Format.CSR);
+        ComplexArray b = rightHandSide(n), x = new ComplexArray(n);
+        IterativeSolver solver = new IterativeSolver.BiCGSTAB(n, 1e-10, 200);
+        int iterations = solver.solve(a, b, x);
+        assertTrue(iterations > 0 && iterations < 200);
+        assertTrue(solver.residual() <= 1e-10);
+        assertTrue(relativeResidual(a, b, x) < 1e-9);
+        //A solution as the first approximation needs no iterations:
+        assertEquals(0, new IterativeSolver.BiCGSTAB(n, 1e-8, 200).solve(a, b, x));
+    }
+
+    @Test
+    void gmres() {
+        int n = 2000;
+        ComplexSparseMatrix a = matrix(n, ComplexSparseMatrix.Format.CSC);
+        ComplexArray b = rightHandSide(n), x = new ComplexArray(n);
+        IterativeSolver solver = new IterativeSolver.GMRES(n, 5, 1e-10, 500);
+        int iterations = solver.solve(a, b, x);
+        assertTrue(iterations > 5, "needs restarts: " + iterations);
+        assertTrue(relativeResidual(a, b, x) < 1e-9);
+        //The same solver works again, with the same result:
+        ComplexArray y = new ComplexArray(n);
+        assertEquals(iterations, solver.solve(a, b, y));
+        assertEquals(x, y);
+    }
+
+    @Test
+    void exactInSmallSubspaces() {
+        //GMRES solves an n x n system in at most n iterations without restarts:
+        ComplexMatrix dense = new ComplexMatrix(new ComplexNumber[][] {{new ComplexNumber(2, 1), new ComplexNumber(1)},
+                {new ComplexNumber(0, -1), new ComplexNumber(3, 0)}});
+        ComplexSparseMatrix a = ComplexSparseMatrix.fromDense(dense, ComplexSparseMatrix.Format.CSR);
+        ComplexArray b = new ComplexArray(new ComplexNumber(1, 1), new ComplexNumber(2, -1)), x = new ComplexArray(2);
+        assertTrue(new IterativeSolver.GMRES(2, 5, 1e-14, 10).solve(a, b, x) <= 2);
+        ComplexArray expected = dense.solve(b);
+        for(int i = 0; i < 2; i++) assertEquals(0, ComplexNumber.mod(ComplexNumber.diff(expected.get(i), x.get(i))), 1e-14);
+        //A zero right-hand side has the solution 0:
+        x.set(0, 5, 5);
+        assertEquals(0, new IterativeSolver.BiCGSTAB(2, 1e-10, 10).solve(a, new ComplexArray(2), x));
+        assertEquals(new ComplexArray(2), x);
+    }
+
+    @Test
+    void parallelIsDeterministic() {
+        int n = 100_000;
+        ComplexSparseMatrix a = matrix(n, ComplexSparseMatrix.Format.CSR);
+        ComplexArray b = rightHandSide(n);
+        IterativeSolver[][] solvers = {
+                {new IterativeSolver.BiCGSTAB(n, 1e-9, 100), new IterativeSolver.BiCGSTAB(n, 1e-9, 100, true)},
+                {new IterativeSolver.GMRES(n, 10, 1e-9, 100), new IterativeSolver.GMRES(n, 10, 1e-9, 100, true)}};
+        for(IterativeSolver[] pair : solvers) {
+            ComplexArray x = new ComplexArray(n), y = new ComplexArray(n);
+            assertEquals(pair[0].solve(a, b, x), pair[1].solve(a, b, y));
+            assertEquals(x, y);
+        }
+    }
+
+    @Test
+    void failures() {
+        int n = 50;
+        ComplexSparseMatrix a = matrix(n, ComplexSparseMatrix.Format.CSR);
+        ComplexArray b = rightHandSide(n);
+        IterativeSolver solver = new IterativeSolver.GMRES(n, 5, 1e-15, 3);
+        assertThrows(ArithmeticException.class, () -> solver.solve(a, b, new ComplexArray(n)));
+        assertTrue(solver.residual() > 1e-15);
+        assertThrows(IllegalArgumentException.class, () -> solver.solve(a, b, b));
+        assertThrows(IllegalArgumentException.class, () -> solver.solve(a, b, new ComplexArray(n + 1)));
+        assertThrows(IllegalArgumentException.class, () -> new IterativeSolver.GMRES(n, 0, 1e-10, 10));
+        assertThrows(IllegalArgumentException.class, () -> new IterativeSolver.BiCGSTAB(n, Double.NaN, 10));
+    }
+}
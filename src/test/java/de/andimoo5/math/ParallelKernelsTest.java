@@ -0,0 +1,97 @@
+package de.andimoo5.math;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelKernelsTest {
+
+    @Test
+    void grain() {
+        //Expensive operations are split into smaller chunks than cheap ones:
+        assertTrue(ParallelKernels.grain(ParallelKernels.Cost.ASIN.nanos) < ParallelKernels.grain(ParallelKernels.Cost.ADD.nanos));
+        assertEquals(0, ParallelKernels.grain(ParallelKernels.Cost.SQRT.nanos) % 64);
+        assertEquals(64, ParallelKernels.grain(1e9));
+        assertEquals(Integer.MAX_VALUE, ParallelKernels.grain(0));
+    }
+
+    @Test
+    void forEach() {
+        int n = 1_000_003;
+        int[] visits = new int[n];
+        AtomicInteger calls = new AtomicInteger();
+        ParallelKernels.forEach(n, ParallelKernels.Cost.EXP.nanos, (from, to) -> {
+            calls.incrementAndGet();
+            for(int i = from; i < to; i++) visits[i]++;
+        });
+        for(int v : visits) assertEquals(1, v);
+        if(ForkJoinPool.getCommonPoolParallelism() > 1) assertTrue(calls.get() > 1);
+    }
+
+    @Test
+    void smallInputsStaySequential() {
+        Thread caller = Thread.currentThread();
+        AtomicInteger calls = new AtomicInteger();
+        ParallelKernels.forEach(1000, ParallelKernels.Cost.ADD.nanos, (from, to) -> {
+            assertSame(caller, Thread.currentThread());
+            assertEquals(0, from);
+            assertEquals(1000, to);
+            calls.incrementAndGet();
+        });
+        assertEquals(1, calls.get());
+        ParallelKernels.forEach(0, ParallelKernels.Cost.ADD.nanos, (from, to) -> assertEquals(from, to));
+    }
+
+    @Test
+    void split() {
+        int n = 100_001;
+        int[] visits = new int[n];
+        AtomicInteger calls = new AtomicInteger();
+        ParallelKernels.split(n, 10, (from, to) -> {
+            calls.incrementAndGet();
+            for(int i = from; i < to; i++) visits[i]++;
+        });
+        for(int v : visits) assertEquals(1, v);
+        //One chunk per thread:
+        assertEquals(Math.max(1, ForkJoinPool.getCommonPoolParallelism()), calls.get());
+        calls.set(0);
+        ParallelKernels.split(n, 0.001, (from, to) -> calls.incrementAndGet());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void reduce() {
+        int n = 5_000_001;
+        double[] a = new double[n];
+        for(int i = 0; i < n; i++) a[i] = Math.sin(i) * 1e-3 + 0.1;
+        double sequential = ParallelKernels.reduce(n, ParallelKernels.Cost.SUM.nanos, false, (from, to) -> ComplexKernels.total(a, from, to));
+        double parallel = ParallelKernels.reduce(n, ParallelKernels.Cost.SUM.nanos, true, (from, to) -> ComplexKernels.total(a, from, to));
+        assertEquals(sequential, parallel);
+        assertEquals(500000.1, sequential, 1e-3);
+        assertEquals(0, ParallelKernels.reduce(0, ParallelKernels.Cost.SUM.nanos, true, (from, to) -> 1));
+    }
+
+    @Test
+    void partials() {
+        int n = 1_000_003, grain = ParallelKernels.grain(ParallelKernels.Cost.SUM.nanos);
+        double[] sequential = ParallelKernels.partials(n, ParallelKernels.Cost.SUM.nanos, false, 2, (from, to, partial, offset) -> {
+            partial[offset] = from;
+            partial[offset + 1] = to;
+        });
+        double[] parallel = ParallelKernels.partials(n, ParallelKernels.Cost.SUM.nanos, true, 2, (from, to, partial, offset) -> {
+            partial[offset] = from;
+            partial[offset + 1] = to;
+        });
+        assertArrayEquals(sequential, parallel);
+        //The partial results of chunk c are at [2c, 2c + 2):
+        assertEquals(2 * ((n + grain - 1) / grain), sequential.length);
+        for(int c = 0; 2 * c < sequential.length; c++) {
+            assertEquals(c * grain, sequential[2 * c]);
+            assertEquals(Math.min(n, (c + 1) * grain), sequential[2 * c + 1]);
+        }
+        assertEquals(0, ParallelKernels.partials(0, 1, true, 3, (from, to, partial, offset) -> partial[offset] = 1).length);
+    }
+}
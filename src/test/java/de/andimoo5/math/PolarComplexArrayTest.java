@@ -0,0 +1,119 @@
+package de.andimoo5.math;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PolarComplexArrayTest {
+
+    //An odd length, so that the scalar tail of the kernels has to do some work as well:
+    private static final int N = 1027;
+
+    //Some values the vector kernels leave to their scalar versions:
+    private static ComplexArray special() {
+        ComplexArray a = TestData.array(N, 10, 7);
+        a.set(100, 0, 0);
+        a.set(200, -3, -0.0);
+        a.set(300, Double.POSITIVE_INFINITY, 1);
+        a.set(400, Double.NaN, 2);
+        a.set(500, 0, -5);
+        return a;
+    }
+
+    @Test
+    void basics() {
+        PolarComplexArray a = new PolarComplexArray(new PolarComplex(1, 2), new PolarComplex(3, -1));
+        assertEquals(2, a.length());
+        assertEquals(new PolarComplex(3, -1), a.get(1));
+        assertEquals(3, a.getMod(1));
+        assertEquals(-1, a.getArg(1));
+        assertEquals("[1.0@2.0, 3.0@-1.0]", a.toString());
+        assertEquals(a, new PolarComplexArray(a));
+        assertEquals(a.hashCode(), new PolarComplexArray(a).hashCode());
+        a.set(0, 5, 0.5);
+        assertEquals(5, a.mod()[0]);
+        assertEquals(0.5, a.arg()[0]);
+        assertArrayEquals(new PolarComplex[] {new PolarComplex(5, 0.5), new PolarComplex(3, -1)}, a.toArray());
+        assertThrows(IllegalArgumentException.class, () -> new PolarComplexArray(new double[2], new double[3]));
+        assertThrows(IllegalArgumentException.class, () -> PolarComplexArray.prod(a, new PolarComplexArray(3)));
+    }
+
+    @Test
+    void strict() {
+        ComplexArray c = special();
+        PolarComplexArray p = PolarComplexArray.of(c);
+        ComplexArray back = p.toComplexArray();
+        for(int i = 0; i < N; i++) {
+            PolarComplex z = PolarComplex.of(c.getRe(i), c.getIm(i));
+            assertEquals(z, p.get(i), "index " + i);
+            assertEquals(z.toComplexValue(), ComplexValue.of(back.get(i)), "index " + i);
+        }
+        assertEquals(Math.PI, p.getArg(200));
+        assertEquals(new ComplexNumber(-3, 0), back.get(200));
+        assertEquals(new ComplexNumber(0, -5), back.get(500));
+    }
+
+    @Test
+    void fast() {
+        ComplexArray c = special();
+        for(Accuracy accuracy : new Accuracy[] {Accuracy.FAST, Accuracy.APPROX}) {
+            boolean approx = accuracy == Accuracy.APPROX;
+            PolarComplexArray p = PolarComplexArray.of(c, accuracy);
+            ComplexArray back = p.toComplexArray(accuracy);
+            double[] out = new double[2];
+            for(int i = 0; i < N; i++) {
+                //The vector kernels give the same bits as their scalar versions:
+                double angle = approx ? ApproxMath.atan2(c.getIm(i), c.getRe(i)) : Math.atan2(c.getIm(i), c.getRe(i));
+                assertEquals(angle == -Math.PI ? Math.PI : angle, p.getArg(i), "index " + i);
+                ComplexKernels.cartesian(p.getMod(i), p.getArg(i), approx, out);
+                assertEquals(out[0], back.getRe(i), "index " + i);
+                assertEquals(out[1], back.getIm(i), "index " + i);
+                if(!Double.isFinite(c.getRe(i))) continue;
+                //And they are within the error of their tier:
+                double scale = accuracy.maxError * 10 * Math.max(1, ComplexNumber.mod(c.get(i)));
+                assertEquals(c.getRe(i), back.getRe(i), scale, "index " + i);
+                assertEquals(c.getIm(i), back.getIm(i), scale, "index " + i);
+            }
+        }
+    }
+
+    @Test
+    void largeAngles() {
+        double[] arg = new double[N];
+        for(int i = 0; i < N; i++) arg[i] = (i - N / 2) * 997.0;
+        double[] mod = new double[N];
+        Arrays.fill(mod, 2);
+        PolarComplexArray p = new PolarComplexArray(mod, arg);
+        ComplexArray strict = p.toComplexArray(), fast = p.toComplexArray(Accuracy.FAST);
+        for(int i = 0; i < N; i++) {
+            assertEquals(strict.getRe(i), fast.getRe(i), 1e-14, "index " + i);
+            assertEquals(strict.getIm(i), fast.getIm(i), 1e-14, "index " + i);
+        }
+    }
+
+    @Test
+    void arithmetic() {
+        PolarComplexArray a = PolarComplexArray.of(TestData.array(N, 10, 1)), b = PolarComplexArray.of(TestData.array(N, 10, 2));
+        PolarComplexArray prod = PolarComplexArray.prod(a, b), quotient = PolarComplexArray.division(a, b);
+        PolarComplexArray conjugate = PolarComplexArray.conjugate(a), sqrt = PolarComplexArray.sqrt(a);
+        PolarComplexArray pow = PolarComplexArray.pow(a, 2.5);
+        for(int i = 0; i < N; i++) {
+            assertEquals(a.get(i).mul(b.get(i)), prod.get(i), "index " + i);
+            assertEquals(a.get(i).div(b.get(i)), quotient.get(i), "index " + i);
+            assertEquals(a.get(i).conjugate(), conjugate.get(i), "index " + i);
+            assertEquals(a.get(i).sqrt(), sqrt.get(i), "index " + i);
+            assertEquals(a.get(i).pow(2.5), pow.get(i), "index " + i);
+        }
+        //In place:
+        PolarComplexArray c = new PolarComplexArray(a);
+        c.mul(b);
+        assertEquals(prod, c);
+        c.div(b);
+        for(int i = 0; i < N; i++) assertEquals(a.getArg(i), c.getArg(i), 1e-14);
+        //Dividing by 0:
+        PolarComplexArray z = PolarComplexArray.division(new PolarComplexArray(PolarComplex.ONE), new PolarComplexArray(PolarComplex.ZERO));
+        assertEquals(Double.POSITIVE_INFINITY, z.getMod(0));
+    }
+}
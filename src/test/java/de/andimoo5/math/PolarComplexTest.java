@@ -0,0 +1,121 @@
+package de.andimoo5.math;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PolarComplexTest {
+
+    private static final ComplexValue A = new ComplexValue(1.5, -2), B = new ComplexValue(-0.25, 3);
+    private static final double EPS = 1e-14;
+
+    private static void assertClose(ComplexValue expected, PolarComplex actual) {
+        double scale = Math.max(1, expected.mod());
+        assertEquals(expected.re(), actual.re(), EPS * scale, () -> expected + " vs " + actual.toComplexValue());
+        assertEquals(expected.im(), actual.im(), EPS * scale, () -> expected + " vs " + actual.toComplexValue());
+    }
+
+    @Test
+    void constructor() {
+        PolarComplex z = new PolarComplex(2, 3 * Math.PI);
+        assertEquals(2, z.mod());
+        assertEquals(Math.PI, z.arg(), 1e-15);
+        //The range is (-pi, pi]:
+        assertEquals(Math.PI, new PolarComplex(1, -Math.PI).arg());
+        assertEquals(Math.PI, new PolarComplex(1, Math.PI).arg());
+        assertEquals(-Math.PI / 2, new PolarComplex(1, 1.5 * Math.PI).arg());
+        assertEquals(1e-3, new PolarComplex(1, 1e-3 + 2 * Math.PI * 1e6).arg(), 1e-9);
+        assertTrue(Double.isNaN(new PolarComplex(1, Double.POSITIVE_INFINITY).arg()));
+        assertThrows(IllegalArgumentException.class, () -> new PolarComplex(-1, 0));
+        assertEquals("2.0@1.5", new PolarComplex(2, 1.5).toString());
+        assertEquals(new PolarComplex(2, 1.5), new PolarComplex(2, 1.5));
+        assertEquals(new PolarComplex(2, 1.5).hashCode(), new PolarComplex(2, 1.5).hashCode());
+        assertNotEquals(new PolarComplex(0, 0), new PolarComplex(0, 1));
+        assertEquals(-1, new PolarComplex(1, 3).compareTo(new PolarComplex(2, 0)));
+        assertEquals(0, new PolarComplex(2, 3).compareTo(new PolarComplex(2, 0)));
+    }
+
+    @Test
+    void conversions() {
+        PolarComplex a = PolarComplex.of(A);
+        assertEquals(2.5, a.mod());
+        assertEquals(Math.atan2(-2, 1.5), a.arg());
+        assertEquals(a, PolarComplex.of(A.toComplexNumber()));
+        assertClose(A, a);
+        //The Cartesian form is calculated once:
+        assertSame(a.toComplexValue(), a.toComplexValue());
+        assertEquals(a.toComplexValue(), ComplexValue.of(a.toComplexNumber()));
+        //Exact on the axes:
+        assertEquals(new ComplexValue(-3, 0), PolarComplex.of(-3, 0).toComplexValue());
+        assertEquals(new ComplexValue(0, 4), PolarComplex.of(0, 4).toComplexValue());
+        assertEquals(new ComplexValue(0, -4), PolarComplex.of(0, -4).toComplexValue());
+        assertEquals(new ComplexValue(5, -0.0), PolarComplex.of(5, -0.0).toComplexValue());
+        assertEquals(new ComplexValue(0, 1), PolarComplex.I.toComplexValue());
+        //An infinite modulus doesn't make the other part NaN:
+        assertEquals(new ComplexValue(Double.POSITIVE_INFINITY, 0), PolarComplex.of(Double.POSITIVE_INFINITY, 0).toComplexValue());
+        //No overflow in the modulus:
+        assertEquals(Math.sqrt(2) * 1e300, PolarComplex.of(1e300, 1e300).mod(), 1e285);
+        //The polar format is understood by the parser:
+        assertEquals(ComplexNumber.parse(a.toString()).getRe(), a.re(), EPS);
+        assertThrows(NullPointerException.class, () -> PolarComplex.of((ComplexValue)null));
+    }
+
+    @Test
+    void arithmetic() {
+        PolarComplex a = PolarComplex.of(A), b = PolarComplex.of(B);
+        assertClose(A.add(B), a.add(b));
+        assertClose(A.sub(B), a.sub(b));
+        assertClose(A.mul(B), a.mul(b));
+        assertClose(A.div(B), a.div(b));
+        assertEquals(a.mod() * b.mod(), a.mul(b).mod());
+        assertThrows(ArithmeticException.class, () -> a.div(PolarComplex.ZERO));
+        assertClose(A.conjugate(), a.conjugate());
+        assertEquals(Math.PI, PolarComplex.of(-1, 0).conjugate().arg());
+        assertClose(A.rcp(), a.rcp());
+        assertSame(PolarComplex.ZERO, PolarComplex.ZERO.rcp());
+        //Angles stay in range in long chains of products:
+        PolarComplex w = new PolarComplex(1, 1), p = PolarComplex.ONE;
+        for(int k = 0; k < 1000; k++) p = p.mul(w);
+        assertTrue(p.arg() > -Math.PI && p.arg() <= Math.PI);
+        assertEquals(Math.IEEEremainder(1000, 2 * Math.PI), p.arg(), 1e-12);
+    }
+
+    @Test
+    void powers() {
+        PolarComplex a = PolarComplex.of(A), b = PolarComplex.of(B);
+        assertClose(A.pow(3L), a.pow(3L));
+        assertClose(A.pow(-2L), a.pow(-2L));
+        assertClose(A.pow(0.5), a.pow(0.5));
+        assertClose(A.pow(B), a.pow(b));
+        assertClose(A.sqrt(), a.sqrt());
+        assertEquals(Math.sqrt(2.5), a.sqrt().mod());
+        assertEquals(a.arg() / 2, a.sqrt().arg());
+        //The principal square root of a negative real number:
+        assertEquals(new ComplexValue(0, 2), PolarComplex.of(-4, 0).sqrt().toComplexValue());
+        assertThrows(ArithmeticException.class, () -> PolarComplex.ZERO.pow(-1L));
+        assertEquals(PolarComplex.ONE, PolarComplex.ZERO.pow(PolarComplex.ZERO));
+        assertEquals(PolarComplex.ZERO, PolarComplex.ZERO.pow(PolarComplex.ONE));
+        assertThrows(ArithmeticException.class, () -> PolarComplex.ZERO.pow(PolarComplex.of(-1, 0)));
+        PolarComplex[] roots = a.roots(5);
+        assertEquals(5, roots.length);
+        assertEquals(a.pow(0.2).arg(), roots[0].arg(), EPS);
+        for(PolarComplex r : roots) assertClose(A, r.pow(5L));
+        assertThrows(IllegalArgumentException.class, () -> a.roots(0));
+    }
+
+    @Test
+    void functions() {
+        PolarComplex a = PolarComplex.of(A);
+        assertClose(A.exp(), a.exp());
+        assertClose(A.log(), a.log());
+        assertClose(A.log(2), a.log(2));
+        assertClose(A.log10(), a.log10());
+        assertClose(A.sin(), a.sin());
+        assertClose(A.cos(), a.cos());
+        assertClose(A.tan(), a.tan());
+        assertClose(A.asin(), a.asin());
+        assertClose(A.acos(), a.acos());
+        assertClose(A.atan(), a.atan());
+        assertThrows(ArithmeticException.class, () -> PolarComplex.of(0, -1).atan());
+    }
+}
@@ -0,0 +1,92 @@
+package de.andimoo5.math;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.DoubleBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RootsOfUnityTest {
+
+    @Test
+    void values() {
+        for(int n : new int[] {1, 2, 3, 4, 5, 6, 7, 8, 12, 16, 30, 97, 100, 1024, 1000}) {
+            RootsOfUnity roots = RootsOfUnity.of(n);
+            assertEquals(n, roots.size());
+            double[] out = new double[2];
+            for(int k = 0; k < n; k++) {
+                double a = 2 * Math.PI * k / n;
+                assertEquals(Math.cos(a), roots.re(k), 1e-15, "n=" + n + ", k=" + k);
+                assertEquals(Math.sin(a), roots.im(k), 1e-15, "n=" + n + ", k=" + k);
+                //The table holds the same values as the single roots:
+                RootsOfUnity.root(k, n, out);
+                assertEquals(out[0], roots.re(k));
+                assertEquals(out[1], roots.im(k));
+                //The symmetries hold exactly:
+                assertEquals(roots.re(k), roots.re(n - k));
+                assertEquals(roots.im(k), -roots.im(n - k) + 0.0);
+                if(n % 2 == 0) assertEquals(-roots.re(k) + 0.0, roots.re(k + n / 2));
+            }
+        }
+        RootsOfUnity roots = RootsOfUnity.of(12);
+        assertEquals(new ComplexNumber(1, 0), roots.get(0));
+        assertEquals(new ComplexNumber(0, 1), roots.get(3));
+        assertEquals(new ComplexNumber(-1, 0), roots.get(6));
+        assertEquals(new ComplexNumber(0, -1), roots.get(-3));
+        assertEquals(roots.get(5), roots.get(17));
+        assertEquals(Math.sqrt(0.5), RootsOfUnity.of(8).re(1));
+        assertEquals(Math.sqrt(0.5), RootsOfUnity.of(8).im(1));
+        assertEquals(0.5, roots.re(2), 1e-16);
+        assertEquals("RootsOfUnity[n=12]", roots.toString());
+        assertThrows(IllegalArgumentException.class, () -> RootsOfUnity.of(0));
+    }
+
+    @Test
+    void singleRoots() {
+        double[] out = new double[2];
+        //Huge exponents are reduced exactly, e^(2*pi*i*(10^15 + 1)/10^15) = e^(2*pi*i/10^15):
+        RootsOfUnity.root(1_000_000_000_000_001L, 1_000_000_000_000_000L, out);
+        assertEquals(1, out[0]);
+        assertEquals(2 * Math.PI / 1e15, out[1], 1e-30);
+        RootsOfUnity.root(-1, 4, out);
+        assertArrayEquals(new double[] {0, -1}, out);
+        assertThrows(IllegalArgumentException.class, () -> RootsOfUnity.root(1, 0, new double[2]));
+        assertThrows(NullPointerException.class, () -> RootsOfUnity.root(1, 2, null));
+    }
+
+    @Test
+    void views() {
+        RootsOfUnity roots = RootsOfUnity.of(16);
+        DoubleBuffer re = roots.real(), im = roots.imag();
+        assertEquals(16, re.remaining());
+        assertTrue(re.isReadOnly());
+        assertEquals(roots.re(3), re.get(3));
+        assertEquals(roots.im(5), im.get(5));
+        assertThrows(ReadOnlyBufferException.class, () -> re.put(0, 2));
+        assertThrows(ReadOnlyBufferException.class, () -> im.array());
+        assertEquals(1, roots.re(0));
+    }
+
+    @Test
+    void cache() throws InterruptedException {
+        assertSame(RootsOfUnity.of(48), RootsOfUnity.of(48));
+        //Threads asking for the same new size all get the same table:
+        ConcurrentHashMap<RootsOfUnity, Boolean> seen = new ConcurrentHashMap<>();
+        ComplexAdderTest.concurrently(4, () -> seen.put(RootsOfUnity.of(4099), true));
+        assertEquals(1, seen.size());
+        //The cache stays within its limit and drops the least recently used tables:
+        List<RootsOfUnity> big = new ArrayList<>();
+        for(int n = RootsOfUnity.CACHE_LIMIT / 3; big.size() < 5; n++) {
+            big.add(RootsOfUnity.of(n));
+            assertTrue(RootsOfUnity.cached() <= RootsOfUnity.CACHE_LIMIT);
+        }
+        assertNotSame(big.get(0), RootsOfUnity.of(big.get(0).size()));
+        assertSame(big.get(4), RootsOfUnity.of(big.get(4).size()));
+        //Tables beyond the limit aren't cached:
+        assertNotSame(RootsOfUnity.of(RootsOfUnity.CACHE_LIMIT + 1), RootsOfUnity.of(RootsOfUnity.CACHE_LIMIT + 1));
+    }
+}
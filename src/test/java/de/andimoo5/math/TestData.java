@@ -0,0 +1,59 @@
+package de.andimoo5.math;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+//Reproducible random operands of the tests, the same seed gives the same values:
+final class TestData {
+
+    private TestData() {}
+
+    //Real and imaginary parts from a standard normal distribution:
+    static ComplexArray array(int n, long seed) {
+        return array(n, 1, seed);
+    }
+
+    //The same, multiplied by scale:
+    static ComplexArray array(int n, double scale, long seed) {
+        Random random = new Random(seed);
+        ComplexArray a = new ComplexArray(n);
+        for(int i = 0; i < n; i++) a.set(i, random.nextGaussian() * scale, random.nextGaussian() * scale);
+        return a;
+    }
+
+    static ComplexFloatArray floatArray(int n, long seed) {
+        Random random = new Random(seed);
+        ComplexFloatArray a = new ComplexFloatArray(n);
+        for(int i = 0; i < n; i++) a.set(i, (float)random.nextGaussian(), (float)random.nextGaussian());
+        return a;
+    }
+
+    static ComplexMatrix matrix(int rows, int columns, long seed) {
+        Random random = new Random(seed);
+        ComplexMatrix a = new ComplexMatrix(rows, columns);
+        for(int i = 0; i < rows; i++) {
+            for(int j = 0; j < columns; j++) a.set(i, j, random.nextGaussian(), random.nextGaussian());
+        }
+        return a;
+    }
+
+    //A random matrix with about the given fill, entries added in random order:
+    static ComplexSparseMatrix.Builder sparse(int rows, int columns, double fill, long seed) {
+        Random random = new Random(seed);
+        ComplexSparseMatrix.Builder builder = new ComplexSparseMatrix.Builder(rows, columns);
+        for(int k = (int)(rows * (long)columns * fill); k > 0; k--) {
+            builder.add(random.nextInt(rows), random.nextInt(columns), random.nextGaussian(), random.nextGaussian());
+        }
+        return builder;
+    }
+
+    //Real parts of up to e^59 in size, next to which a naive sum loses the small ones:
+    static List<ComplexNumber> wideRange(int n, long seed) {
+        Random random = new Random(seed);
+        List<ComplexNumber> values = new ArrayList<>();
+        for(int i = 0; i < n; i++)
+            values.add(new ComplexNumber(random.nextGaussian() * Math.exp(random.nextInt(60)), random.nextGaussian() - 0.5));
+        return values;
+    }
+}
@@ -0,0 +1,110 @@
+package de.andimoo5.math;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+class VectorKernelsTest {
+
+    //An odd length, so that the scalar tail has to do some work as well:
+    private static final int N = 1027;
+
+    private ComplexArray a, b;
+
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(42);
+        a = new ComplexArray(N);
+        b = new ComplexArray(N);
+        for(int i = 0; i < N; i++) {
+            a.set(i, random.nextGaussian() * 100, random.nextGaussian() * 100);
+            b.set(i, random.nextGaussian() * 100, random.nextGaussian() * 100);
+        }
+    }
+
+    @Test
+    void vectorized() {
+        assertTrue(ComplexKernels.VECTORIZED);
+        assertTrue(VectorKernels.LANES > 1);
+    }
+
+    @Test
+    void tail() {
+        double[] re = new double[N], im = new double[N];
+        int stop = VectorKernels.sum(a.real(), a.imaginary(), b.real(), b.imaginary(), re, im, 3, N - 1);
+        assertEquals(0, (stop - 3) % VectorKernels.LANES);
+        assertTrue(stop < N - 1 && N - 1 - stop < VectorKernels.LANES);
+        assertEquals(0, re[2]);
+        assertEquals(0, re[stop]);
+        assertEquals(a.getRe(3) + b.getRe(3), re[3]);
+    }
+
+    @Test
+    void sum() {
+        ComplexArray c = ComplexArray.sum(a, b);
+        for(int i = 0; i < N; i++) assertEquals(ComplexNumber.sum(a.get(i), b.get(i)), c.get(i));
+    }
+
+    @Test
+    void diff() {
+        ComplexArray c = ComplexArray.diff(a, b);
+        for(int i = 0; i < N; i++) assertEquals(ComplexNumber.diff(a.get(i), b.get(i)), c.get(i));
+    }
+
+    @Test
+    void prod() {
+        ComplexArray c = ComplexArray.prod(a, b);
+        for(int i = 0; i < N; i++) assertEquals(ComplexNumber.prod(a.get(i), b.get(i)), c.get(i));
+    }
+
+    @Test
+    void division() {
+        ComplexArray c = ComplexArray.division(a, b);
+        for(int i = 0; i < N; i++) assertEquals(ComplexNumber.division(a.get(i), b.get(i)), c.get(i));
+    }
+
+    @Test
+    void conjugate() {
+        ComplexArray c = ComplexArray.conjugate(a);
+        for(int i = 0; i < N; i++) assertEquals(ComplexNumber.conjugate(a.get(i)), c.get(i));
+    }
+
+    @Test
+    void modulus() {
+        double[] m = ComplexArray.mod(a);
+        for(int i = 0; i < N; i++) assertEquals(ComplexNumber.mod(a.get(i)), m[i]);
+    }
+
+    @Test
+    void floatReductions() {
+        //The vector kernels keep the partial sums of the scalar loop, element i in partial sum (i - from) % PARTIALS:
+        ComplexFloatArray f = ComplexFloatArray.of(a), g = ComplexFloatArray.of(b);
+        int from = 3, to = N - 2;
+        double[] total = new double[ComplexKernels.PARTIALS], re = new double[ComplexKernels.PARTIALS], im = new double[ComplexKernels.PARTIALS];
+        for(int i = from; i < to; i++) {
+            int k = (i - from) % ComplexKernels.PARTIALS;
+            double x = f.getRe(i), y = f.getIm(i), u = g.getRe(i), v = g.getIm(i);
+            total[k] += x;
+            re[k] += x * u + y * v;
+            im[k] += x * v - y * u;
+        }
+        double[] partial = new double[2];
+        ComplexKernels.floatTotal(f.real(), from, to, partial, 1);
+        assertEquals(pairwise(total), partial[1]);
+        ComplexKernels.floatDot(f.real(), f.imaginary(), g.real(), g.imaginary(), from, to, partial, 0);
+        assertEquals(pairwise(re), partial[0]);
+        assertEquals(pairwise(im), partial[1]);
+        double[] squares = new double[ComplexKernels.PARTIALS];
+        for(int i = from; i < to; i++) squares[(i - from) % ComplexKernels.PARTIALS] += (double)f.getRe(i) * f.getRe(i) + (double)f.getIm(i) * f.getIm(i);
+        assertEquals(pairwise(squares), ComplexKernels.floatNormSquared(f.real(), f.imaginary(), from, to));
+    }
+
+    private static double pairwise(double[] s) {
+        for(int half = s.length / 2; half > 0; half /= 2) {
+            for(int k = 0; k < half; k++) s[k] += s[k + half];
+        }
+        return s[0];
+    }
+}